@@ -0,0 +1,42 @@
+/*
+ * IProcessingUnitPosition.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit;
+
+import java.io.Serializable;
+
+
+/**
+ * Defines the position of a processing unit in a seekable input, e.g. a file. In case of a suspend the position is
+ * persisted by the framework, a resume can directly seek to the position instead to read and skip the already 
+ * processed records.
+ *
+ * @author patrick
+ */
+public interface IProcessingUnitPosition extends Serializable {
+    
+    /**
+     * Get the byte offset of the next record to process
+     *
+     * @return the byte offset
+     */
+    long getOffset();
+
+    
+    /**
+     * Get the number of the next record to process
+     *
+     * @return the record number
+     */
+    long getRecordNumber();
+
+    
+    /**
+     * Get the checksum of the bytes before the offset. It is used to verify on resume that the input was not modified.
+     *
+     * @return the checksum or null in case there is no checksum
+     */
+    Long getChecksum();
+}
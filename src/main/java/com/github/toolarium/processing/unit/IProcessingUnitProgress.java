@@ -57,6 +57,72 @@ public interface IProcessingUnitProgress {
     long getNumberOfFailedUnits();
 
 
+    /**
+     * Get the resource statistic of the processing unit calls: the CPU time, the allocated bytes and the wall-clock time
+     * measured around every call.
+     * 
+     * @return the resource statistic
+     */
+    IProcessingUnitStatistic getResourceStatistic();
+
+
+    /**
+     * Get the CPU utilisation of the processing unit calls: the ratio of the CPU time to the wall-clock time of the
+     * calls, 1.0 means the calls are completely CPU-bound. 
+     *
+     * @return the CPU utilisation or -1 in case it is not measured
+     */
+    double getCpuUtilisation();
+
+
+    /**
+     * Get the average number of allocated bytes per processed unit.
+     *
+     * @return the allocated bytes per unit or -1 in case it is not measured
+     */
+    long getAllocatedBytesPerUnit();
+
+
+    /**
+     * Get the instantaneous rate: the processed units per second of the last second.
+     *
+     * @return the rate in units per second
+     */
+    double getRate();
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over the last 10 seconds.
+     *
+     * @return the throughput in units per second
+     */
+    double getThroughputLast10Seconds();
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over the last minute.
+     *
+     * @return the throughput in units per second
+     */
+    double getThroughputLastMinute();
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over the last 5 minutes.
+     *
+     * @return the throughput in units per second
+     */
+    double getThroughputLast5Minutes();
+
+
+    /**
+     * Get the estimated time remaining based on the unprocessed units and the throughput of the last minute.
+     *
+     * @return the estimated time remaining in milliseconds or -1 in case there is no throughput yet
+     */
+    long getEstimatedTimeRemaining();
+
+
     /**
      * Get the progress in percentage
      *
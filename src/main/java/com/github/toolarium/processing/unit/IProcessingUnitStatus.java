@@ -54,6 +54,18 @@ public interface IProcessingUnitStatus {
     Long getNumberOfUnprocessedUnits();
 
 
+    /**
+     * Optionally, the number of units which are processed in the last run but not yet acknowledged, e.g. the results which
+     * are buffered by a write-behind sink. They are not counted as processed units, but a run with pending units is not
+     * interpreted as empty run.
+     *
+     * @return the number of pending units or null.
+     */
+    default Long getNumberOfPendingUnits() {
+        return null;
+    }
+
+
     /**
      * The processing runtime status for this run. If it's null then it will be interpreted as 
      * successful in the last run.
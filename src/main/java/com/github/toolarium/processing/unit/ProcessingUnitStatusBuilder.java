@@ -195,6 +195,18 @@ public class ProcessingUnitStatusBuilder {
     }
 
     
+    /**
+     * Increase the number of pending units: they are processed but not yet acknowledged, e.g. by a write-behind sink.
+     * 
+     * @param numberOfPendingUnits the number of pending units to add
+     * @return this instance
+     */
+    public ProcessingUnitStatusBuilder increaseNumberOfPendingUnits(Long numberOfPendingUnits) {
+        processingUnitStatus.increaseNumberOfPendingUnits(numberOfPendingUnits);
+        return this;
+    }
+
+    
     /**
      * Set optionally the number of unprocessed units 
      *
@@ -0,0 +1,615 @@
+/*
+ * AbstractFileProcessingUnitImpl.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitPartitionSupport;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Abstract base implementation of the {@link IProcessingUnit} which reads the records of a file. The file is mapped into
+ * memory in windows of the size {@link #MAPPING_WINDOW_SIZE} and every record is passed as read-only {@link ByteBuffer}
+ * view on the mapped window to {@link #processRecord(ByteBuffer, long, ProcessingUnitStatusBuilder)}: there is no copy
+ * of the record content unless the implementation requests it, e.g. by {@link #decodeRecord(ByteBuffer)}.
+ *
+ * <p>The supported record formats are:
+ * <ul>
+ *  <li>line: the records are separated by a line feed, a trailing carriage return is not part of the record.</li>
+ *  <li>fixed: every record has the length {@link #RECORD_LENGTH} in bytes.</li>
+ *  <li>delimited: the records are separated by the single byte {@link #RECORD_DELIMITER}.</li>
+ * </ul>
+ *
+ * <p>In case the implementation is used as parallel processing unit, every instance gets its own byte range of the file.
+ * The byte ranges are aligned on the record boundaries, a record belongs always to the range where it starts.
+ * In case of a suspend the byte offset of the next record is kept as {@link #getProcessingUnitPosition()}, a resume 
+ * verifies the checksum of the position and continues directly at this offset.</p>
+ *
+ * <p>A record which fails by a {@link ProcessingException} without abort is counted as failed unit and the processing
+ * continues with the next record. The number of line or delimited records is estimated by the average record length
+ * of the beginning of the file, the records of the whole file are only counted by the parameter {@link #COUNT_RECORDS}.</p>
+ *
+ * @param <T> the own persistence type of the implementation
+ * @author patrick
+ */
+public abstract class AbstractFileProcessingUnitImpl<T extends IProcessingUnitPersistence> extends AbstractProcessingUnitPersistenceImpl<T> implements IProcessingUnitPartitionSupport {
+    /** INPUT_FILENAME: the input filename. */
+    public static final ParameterDefinition INPUT_FILENAME =
+            new ParameterDefinitionBuilder().name("inputFilename").isMandatory().description("The filename incl. path to read in a file.").build();
+
+    /** RECORD_FORMAT: the record format. */
+    public static final ParameterDefinition RECORD_FORMAT =
+            new ParameterDefinitionBuilder().name("recordFormat").defaultValue("line").description("Defines the record format: line, fixed or delimited.").build();
+
+    /** RECORD_LENGTH: the record length in case of fixed length records. */
+    public static final ParameterDefinition RECORD_LENGTH =
+            new ParameterDefinitionBuilder().name("recordLength").defaultValue(0).description("Defines the length in bytes of a record in case of the record format fixed.").build();
+
+    /** RECORD_DELIMITER: the record delimiter in case of delimited records. */
+    public static final ParameterDefinition RECORD_DELIMITER =
+            new ParameterDefinitionBuilder().name("recordDelimiter").defaultValue(";").description("Defines the single byte record delimiter in case of the record format delimited.").build();
+
+    /** RECORD_BLOCK_SIZE: the number of records which are processed by one call of the processing unit. */
+    public static final ParameterDefinition RECORD_BLOCK_SIZE =
+            new ParameterDefinitionBuilder().name("recordBlockSize").defaultValue(100).description("Defines the number of records which are processed by one call of the processing unit.").build();
+
+    /** MAPPING_WINDOW_SIZE: the size of the memory mapped window. */
+    public static final ParameterDefinition MAPPING_WINDOW_SIZE =
+            new ParameterDefinitionBuilder().name("mappingWindowSize").defaultValue(64L * 1024L * 1024L).description("Defines the size in bytes of the memory mapped window of the file.").build();
+
+    /** CHARSET: the charset of the file. */
+    public static final ParameterDefinition CHARSET =
+            new ParameterDefinitionBuilder().name("charset").defaultValue("UTF-8").description("Defines the charset of the file which is used to decode a record.").build();
+
+    /** COUNT_RECORDS: count the records of the whole file for the estimation of the number of units to process. */
+    public static final ParameterDefinition COUNT_RECORDS =
+            new ParameterDefinitionBuilder().name("countRecords").defaultValue(false).description("Defines if the line or delimited records of the whole file are counted to estimate the number of units to process, otherwise the number is estimated by the beginning of the file.").build();
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractFileProcessingUnitImpl.class);
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int ALIGN_BUFFER_SIZE = 8 * 1024;
+    private static final int ESTIMATION_SAMPLE_SIZE = 64 * 1024;
+    private String filename;
+    private RecordFormat recordFormat;
+    private int recordLength;
+    private byte recordDelimiter;
+    private int recordBlockSize;
+    private long mappingWindowSize;
+    private Charset charset;
+    private int partitionNumber;
+    private int numberOfPartitions;
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long partitionStart;
+    private long partitionEnd;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long nextRecordPosition;
+    private long recordNumber;
+
+
+    /**
+     * Constructor
+     */
+    protected AbstractFileProcessingUnitImpl() {
+        super();
+        this.filename = null;
+        this.recordFormat = RecordFormat.LINE;
+        this.recordLength = 0;
+        this.recordDelimiter = LINE_FEED;
+        this.recordBlockSize = 1;
+        this.mappingWindowSize = 0;
+        this.charset = null;
+        this.partitionNumber = 0;
+        this.numberOfPartitions = 1;
+        this.fileChannel = null;
+        this.fileSize = 0;
+        this.partitionStart = 0;
+        this.partitionEnd = 0;
+        this.window = null;
+        this.windowStart = 0;
+        this.position = 0;
+        this.nextRecordPosition = 0;
+        this.recordNumber = 0;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(INPUT_FILENAME);
+        getParameterRuntime().addParameterDefinition(RECORD_FORMAT);
+        getParameterRuntime().addParameterDefinition(RECORD_LENGTH);
+        getParameterRuntime().addParameterDefinition(RECORD_DELIMITER);
+        getParameterRuntime().addParameterDefinition(RECORD_BLOCK_SIZE);
+        getParameterRuntime().addParameterDefinition(MAPPING_WINDOW_SIZE);
+        getParameterRuntime().addParameterDefinition(CHARSET);
+        getParameterRuntime().addParameterDefinition(COUNT_RECORDS);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPartitionSupport#setPartition(int, int)
+     */
+    @Override
+    public void setPartition(int partitionNumber, int numberOfPartitions) {
+        this.numberOfPartitions = Math.max(1, numberOfPartitions);
+        this.partitionNumber = Math.min(Math.max(0, partitionNumber), this.numberOfPartitions - 1);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() throws ProcessingException {
+        openFile();
+
+        // the estimation covers the whole file, a parallel processing takes the estimation of the first instance
+        long numberOfRecords = 0;
+        if (recordFormat == RecordFormat.FIXED) {
+            numberOfRecords = (fileSize + recordLength - 1) / recordLength;
+        } else if (getParameterRuntime().getParameterValueList(COUNT_RECORDS).getValueAsBoolean()) {
+            numberOfRecords = countDelimitedRecords();
+        } else {
+            numberOfRecords = estimateDelimitedRecords();
+        }
+
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(numberOfRecords);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        openFile();
+
+        for (int i = 0; i < recordBlockSize; i++) {
+            final ByteBuffer record = readRecord();
+            if (record == null) {
+                break;
+            }
+
+            try {
+                processRecord(record, recordNumber, processingUnitStatusBuilder);
+            } catch (ProcessingException e) {
+                if (e.abortProcessing()) {
+                    throw e;
+                }
+
+                // the failed record is skipped, otherwise it is processed again by the next call
+                processingUnitStatusBuilder.increaseNumberOfFailedUnits().warn(e.getMessage());
+            }
+
+            position = nextRecordPosition;
+            recordNumber++;
+        }
+
+        return processingUnitStatusBuilder.hasNext(position < partitionEnd).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        super.releaseResource();
+        closeFile();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        if (fileChannel != null) {
+            updateProcessingUnitPosition(fileChannel, position, recordNumber);
+        }
+
+        return super.suspendProcessing();
+    }
+
+
+    /**
+     * Process a record. The record is a read-only view on the mapped file, it is only valid during this call.
+     * The implementation has to count the successful and failed units in the processing unit status builder.
+     *
+     * @param record the record content, the position is 0 and the limit is the length of the record
+     * @param recordNumber the number of the record inside the partition of this processing unit, starting with 0
+     * @param processingUnitStatusBuilder the processing unit status builder
+     * @throws ProcessingException In case of any failures occurs, without abort the record is counted as failed unit.
+     */
+    protected abstract void processRecord(ByteBuffer record, long recordNumber, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException;
+
+
+    /**
+     * Decode the record content into a string by the charset of the file.
+     *
+     * @param record the record
+     * @return the decoded record
+     */
+    protected String decodeRecord(ByteBuffer record) {
+        return charset.decode(record.duplicate()).toString();
+    }
+
+
+    /**
+     * Get the byte offset of the next record to process
+     *
+     * @return the byte offset of the next record
+     */
+    protected long getPosition() {
+        return position;
+    }
+
+
+    /**
+     * Get the file size
+     *
+     * @return the file size in bytes
+     */
+    protected long getFileSize() {
+        return fileSize;
+    }
+
+
+    /**
+     * Open the file and prepare the byte range of this instance if it is not already done.
+     *
+     * @throws ProcessingException In case the file can't be opened
+     */
+    protected void openFile() throws ProcessingException {
+        if (fileChannel != null) {
+            return;
+        }
+
+        readParameters();
+        try {
+            fileChannel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+            fileSize = fileChannel.size();
+        } catch (IOException | RuntimeException e) {
+            closeFile();
+            throw new ProcessingException("Could not open file [" + filename + "]: " + e.getMessage(), e, true);
+        }
+
+        partitionStart = alignToRecordStart(fileSize / numberOfPartitions * partitionNumber);
+        if (partitionNumber + 1 >= numberOfPartitions) {
+            partitionEnd = fileSize;
+        } else {
+            partitionEnd = alignToRecordStart(fileSize / numberOfPartitions * (partitionNumber + 1));
+        }
+
+        position = partitionStart;
+        if (getProcessingUnitPosition() != null) {
+            position = Math.min(Math.max(verifyProcessingUnitPosition(fileChannel), partitionStart), partitionEnd);
+            recordNumber = getProcessingUnitPosition().getRecordNumber();
+        }
+        nextRecordPosition = position;
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Opened file [" + filename + "] (size: " + fileSize + ", partition " + (partitionNumber + 1) + "/" + numberOfPartitions
+                      + ": " + partitionStart + "-" + partitionEnd + ", position: " + position + ").");
+        }
+    }
+
+
+    /**
+     * Close the file
+     */
+    protected void closeFile() {
+        window = null;
+        if (fileChannel == null) {
+            return;
+        }
+
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            LOG.warn("Could not close file [" + filename + "]: " + e.getMessage(), e);
+        }
+        fileChannel = null;
+    }
+
+
+    /**
+     * Read the parameters
+     *
+     * @throws ValidationException In case of an invalid parameter
+     */
+    private void readParameters() throws ValidationException {
+        filename = getParameterRuntime().getParameterValueList(INPUT_FILENAME).getValueAsString();
+        recordFormat = RecordFormat.parse(getParameterRuntime().getParameterValueList(RECORD_FORMAT).getValueAsString());
+        recordBlockSize = Math.max(1, getParameterRuntime().getParameterValueList(RECORD_BLOCK_SIZE).getValueAsInteger());
+        mappingWindowSize = Math.min(Math.max(ALIGN_BUFFER_SIZE, getParameterRuntime().getParameterValueList(MAPPING_WINDOW_SIZE).getValueAsLong()), Integer.MAX_VALUE);
+        charset = Charset.forName(getParameterRuntime().getParameterValueList(CHARSET).getValueAsString());
+
+        if (recordFormat == RecordFormat.FIXED) {
+            recordLength = getParameterRuntime().getParameterValueList(RECORD_LENGTH).getValueAsInteger();
+            if (recordLength <= 0) {
+                throw new ValidationException("Invalid record length " + recordLength + " for the record format fixed!");
+            }
+        } else if (recordFormat == RecordFormat.DELIMITED) {
+            final String delimiter = getParameterRuntime().getParameterValueList(RECORD_DELIMITER).getValueAsString();
+            if (delimiter == null || delimiter.getBytes(charset).length != 1) {
+                throw new ValidationException("Invalid record delimiter [" + delimiter + "], it must be a single byte!");
+            }
+            recordDelimiter = delimiter.getBytes(charset)[0];
+        } else {
+            recordDelimiter = LINE_FEED;
+        }
+    }
+
+
+    /**
+     * Read the next record of the partition
+     *
+     * @return the record or null in case the end of the partition is reached
+     * @throws ProcessingException In case the file can't be mapped
+     */
+    private ByteBuffer readRecord() throws ProcessingException {
+        if (position >= partitionEnd) {
+            return null;
+        }
+
+        if (recordFormat == RecordFormat.FIXED) {
+            nextRecordPosition = Math.min(position + recordLength, fileSize);
+            mapWindow(position, nextRecordPosition);
+            return createRecordView(position, nextRecordPosition);
+        }
+
+        long scanPosition = position;
+        long requiredEnd = Math.min(position + 1, fileSize);
+        while (true) {
+            mapWindow(position, requiredEnd);
+
+            final int limit = window.limit();
+            for (int i = (int) (scanPosition - windowStart); i < limit; i++) {
+                if (window.get(i) == recordDelimiter) {
+                    nextRecordPosition = windowStart + i + 1;
+                    return createRecordView(position, windowStart + i);
+                }
+            }
+
+            final long windowEnd = windowStart + limit;
+            if (windowEnd >= fileSize) {
+                nextRecordPosition = fileSize;
+                return createRecordView(position, fileSize);
+            }
+
+            // the record exceeds the window: map it again from the record start
+            scanPosition = windowEnd;
+            requiredEnd = Math.min(windowEnd + mappingWindowSize, fileSize);
+        }
+    }
+
+
+    /**
+     * Create the read-only view of a record
+     *
+     * @param start the start offset of the record
+     * @param end the end offset (exclusive) of the record
+     * @return the record view
+     */
+    private ByteBuffer createRecordView(long start, long end) {
+        int recordStart = (int) (start - windowStart);
+        int recordEnd = (int) (end - windowStart);
+        if (recordFormat == RecordFormat.LINE && recordEnd > recordStart && window.get(recordEnd - 1) == CARRIAGE_RETURN) {
+            recordEnd--;
+        }
+
+        final ByteBuffer record = window.duplicate();
+        record.limit(recordEnd);
+        record.position(recordStart);
+        return record.slice().asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Ensure the mapped window covers the given byte range, otherwise a new window is mapped at the start offset.
+     *
+     * @param start the start offset
+     * @param end the end offset (exclusive)
+     * @throws ProcessingException In case the file can't be mapped
+     */
+    private void mapWindow(long start, long end) throws ProcessingException {
+        if (window != null && start >= windowStart && end <= windowStart + window.limit()) {
+            return;
+        }
+
+        final long size = Math.min(Math.max(end - start, mappingWindowSize), fileSize - start);
+        if (size > Integer.MAX_VALUE) {
+            throw new ProcessingException("The record at offset " + start + " in file [" + filename + "] exceeds the max mapping size!", true);
+        }
+
+        try {
+            window = fileChannel.map(MapMode.READ_ONLY, start, size);
+            windowStart = start;
+        } catch (IOException | RuntimeException e) {
+            throw new ProcessingException("Could not map file [" + filename + "] at offset " + start + ": " + e.getMessage(), e, true);
+        }
+    }
+
+
+    /**
+     * Align an offset to the start of the next record. An offset which is already the start of a record is not moved.
+     *
+     * @param offset the offset
+     * @return the start offset of the record
+     * @throws ProcessingException In case the file can't be read
+     */
+    private long alignToRecordStart(long offset) throws ProcessingException {
+        if (offset <= 0) {
+            return 0;
+        }
+
+        if (offset >= fileSize) {
+            return fileSize;
+        }
+
+        if (recordFormat == RecordFormat.FIXED) {
+            return Math.min(((offset + recordLength - 1) / recordLength) * recordLength, fileSize);
+        }
+
+        // a record starts directly after a delimiter
+        final ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BUFFER_SIZE);
+        long readPosition = offset - 1;
+        try {
+            while (readPosition < fileSize) {
+                buffer.clear();
+                final int len = fileChannel.read(buffer, readPosition);
+                if (len <= 0) {
+                    break;
+                }
+
+                for (int i = 0; i < len; i++) {
+                    if (buffer.get(i) == recordDelimiter) {
+                        return readPosition + i + 1;
+                    }
+                }
+                readPosition += len;
+            }
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read file [" + filename + "] at offset " + readPosition + ": " + e.getMessage(), e, true);
+        }
+
+        return fileSize;
+    }
+
+
+    /**
+     * Estimate the delimited records of the whole file by the average record length of the beginning of the file. In case
+     * the beginning covers the whole file, the records are counted.
+     *
+     * @return the estimated number of records
+     * @throws ProcessingException In case the file can't be read
+     */
+    private long estimateDelimitedRecords() throws ProcessingException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(ESTIMATION_SAMPLE_SIZE, fileSize));
+        try {
+            while (buffer.hasRemaining() && fileChannel.read(buffer, buffer.position()) > 0) {
+                // read the sample completely
+            }
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read file [" + filename + "]: " + e.getMessage(), e, true);
+        }
+
+        final int sampleSize = buffer.position();
+        long numberOfRecords = 0;
+        int sampleRecordsEnd = 0;
+        for (int i = 0; i < sampleSize; i++) {
+            if (buffer.get(i) == recordDelimiter) {
+                numberOfRecords++;
+                sampleRecordsEnd = i + 1;
+            }
+        }
+
+        if (sampleSize >= fileSize) {
+            // the last record has no delimiter
+            if (sampleSize > sampleRecordsEnd) {
+                numberOfRecords++;
+            }
+            return numberOfRecords;
+        }
+
+        if (numberOfRecords == 0) {
+            // the records are longer than the sample
+            return Math.max(1, fileSize / Math.max(1, sampleSize));
+        }
+
+        return Math.max(1, Math.round((double) fileSize * numberOfRecords / sampleRecordsEnd));
+    }
+
+
+    /**
+     * Count the delimited records of the whole file
+     *
+     * @return the number of records
+     * @throws ProcessingException In case the file can't be mapped
+     */
+    private long countDelimitedRecords() throws ProcessingException {
+        long numberOfRecords = 0;
+        byte lastByte = recordDelimiter;
+        long offset = 0;
+        while (offset < fileSize) {
+            final long size = Math.min(mappingWindowSize, fileSize - offset);
+            final MappedByteBuffer buffer;
+            try {
+                buffer = fileChannel.map(MapMode.READ_ONLY, offset, size);
+            } catch (IOException | RuntimeException e) {
+                throw new ProcessingException("Could not map file [" + filename + "] at offset " + offset + ": " + e.getMessage(), e, true);
+            }
+
+            final int limit = buffer.limit();
+            for (int i = 0; i < limit; i++) {
+                if (buffer.get(i) == recordDelimiter) {
+                    numberOfRecords++;
+                }
+            }
+
+            lastByte = buffer.get(limit - 1);
+            offset += size;
+        }
+
+        // the last record has no delimiter
+        if (lastByte != recordDelimiter) {
+            numberOfRecords++;
+        }
+
+        return numberOfRecords;
+    }
+
+
+    /**
+     * Defines the record format
+     */
+    enum RecordFormat {
+        LINE, FIXED, DELIMITED;
+
+
+        /**
+         * Parse the record format
+         *
+         * @param recordFormat the record format
+         * @return the record format
+         * @throws ValidationException In case of an invalid record format
+         */
+        static RecordFormat parse(String recordFormat) throws ValidationException {
+            if (recordFormat == null || recordFormat.isBlank()) {
+                return LINE;
+            }
+
+            try {
+                return RecordFormat.valueOf(recordFormat.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid record format [" + recordFormat + "], supported formats: line, fixed or delimited!");
+            }
+        }
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * AbstractPrefetchingProcessingUnitImpl.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.io.Serializable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Abstract base implementation of the {@link IProcessingUnit} which overlaps the reading with the processing. A background
+ * thread fetches the next blocks by {@link #fetchNextBlock()} while the processing thread processes the already fetched
+ * blocks by {@link #processBlock(Object, ProcessingUnitStatusBuilder)}. The number of fetched blocks in advance is bounded
+ * by the parameter {@link #PREFETCH_SIZE}. Every call of the {@link #processUnit(ProcessingUnitStatusBuilder)} processes
+ * exact one block, therefore a throttling of the processing unit throttles also the fetching.
+ *
+ * <p>In case of a suspend the fetched but not processed blocks are discarded and the fetch position of the first not
+ * processed block is persisted together with the state of {@link #suspendProcessingState()}. After a resume the state is
+ * handed over to {@link #resumeProcessingState(IProcessingUnitPersistence)} and the blocks are fetched again from this
+ * position.</p>
+ *
+ * <p>A failure of the prefetch thread ends the prefetching: it is thrown by the current and every following call of the
+ * {@link #processUnit(ProcessingUnitStatusBuilder)} and aborts the processing.</p>
+ *
+ * @param <B> the block type
+ * @author patrick
+ */
+public abstract class AbstractPrefetchingProcessingUnitImpl<B> extends AbstractProcessingUnitImpl {
+    /** PREFETCH_SIZE: the number of blocks which are fetched in advance. */
+    public static final ParameterDefinition PREFETCH_SIZE =
+            new ParameterDefinitionBuilder().name("prefetchSize").defaultValue(2).description("Defines the number of blocks which are fetched in advance.").build();
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractPrefetchingProcessingUnitImpl.class);
+    private BlockingQueue<PrefetchedBlock<B>> prefetchQueue;
+    private Thread prefetchThread;
+    private Serializable processedFetchPosition;
+    private Throwable prefetchFailure;
+    private boolean isResumed;
+    private volatile boolean isInterrupted;
+
+
+    /**
+     * Constructor
+     */
+    protected AbstractPrefetchingProcessingUnitImpl() {
+        super();
+        this.prefetchQueue = null;
+        this.prefetchThread = null;
+        this.processedFetchPosition = null;
+        this.prefetchFailure = null;
+        this.isResumed = false;
+        this.isInterrupted = false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(PREFETCH_SIZE);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        if (prefetchFailure != null) {
+            // the prefetch thread has ended, there are no more blocks to wait for
+            throw toProcessingFailure(prefetchFailure);
+        }
+
+        if (!isPrefetchStarted()) {
+            startPrefetch();
+        }
+
+        final long start = System.currentTimeMillis();
+        final PrefetchedBlock<B> prefetchedBlock;
+        try {
+            prefetchedBlock = prefetchQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return processingUnitStatusBuilder.hasNext(!isInterrupted).build();
+        }
+        processingUnitStatusBuilder.statistic("prefetchWaitTime", System.currentTimeMillis() - start);
+
+        if (prefetchedBlock.getFailure() != null) {
+            prefetchFailure = prefetchedBlock.getFailure();
+            throw toProcessingFailure(prefetchFailure);
+        }
+
+        if (prefetchedBlock.isEnd()) {
+            processedFetchPosition = prefetchedBlock.getFetchPosition();
+            return processingUnitStatusBuilder.hasEnded().build();
+        }
+
+        try {
+            return processBlock(prefetchedBlock.getBlock(), processingUnitStatusBuilder);
+        } finally {
+            // also a failed block is processed: it is counted by the failure and must not be processed again after a resume
+            processedFetchPosition = prefetchedBlock.getFetchPosition();
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#onAborting()
+     */
+    @Override
+    public void onAborting() {
+        stopPrefetch();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        super.releaseResource();
+        stopPrefetch();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        stopPrefetch();
+        return new PrefetchingProcessingUnitPersistence(processedFetchPosition, suspendProcessingState());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#resumeProcessing(com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    public void resumeProcessing(IProcessingUnitProgress processingUnitProgress, IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        super.resumeProcessing(processingUnitProgress, processingPersistence);
+
+        if (processingPersistence instanceof PrefetchingProcessingUnitPersistence) {
+            processedFetchPosition = ((PrefetchingProcessingUnitPersistence) processingPersistence).getFetchPosition();
+            isResumed = true;
+            resumeProcessingState(((PrefetchingProcessingUnitPersistence) processingPersistence).getProcessingPersistence());
+        }
+    }
+
+
+    /**
+     * Suspend the state of the implementation. It is called on a suspend after the prefetch thread is stopped, the returned
+     * state is persisted together with the fetch position.
+     *
+     * @return the state to persist or null
+     * @throws ProcessingException In case the state can't be suspended
+     */
+    protected IProcessingUnitPersistence suspendProcessingState() throws ProcessingException {
+        return null;
+    }
+
+
+    /**
+     * Resume the state of the implementation. It is called on a resume before the first block is fetched.
+     *
+     * @param processingPersistence the state which was returned by {@link #suspendProcessingState()} or null
+     * @throws ProcessingException In case the state can't be resumed
+     */
+    protected void resumeProcessingState(IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        // NOP
+    }
+
+
+    /**
+     * Fetch the next block. This method is called by the prefetch thread.
+     *
+     * @return the next block or null in case there are no more blocks
+     * @throws ProcessingException In case the block can't be fetched
+     */
+    protected abstract B fetchNextBlock() throws ProcessingException;
+
+
+    /**
+     * Process a fetched block. This method is called by the processing thread in the order of the fetched blocks.
+     *
+     * @param block the block to process
+     * @param processingUnitStatusBuilder the processing unit status builder
+     * @return the process unit status
+     * @throws ProcessingException In case of any failures occurs.
+     */
+    protected abstract IProcessingUnitStatus processBlock(B block, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException;
+
+
+    /**
+     * Get the current fetch position. It is called by the prefetch thread after every fetched block and must
+     * describe the position of the next block to fetch.
+     *
+     * @return the fetch position
+     */
+    protected abstract Serializable getFetchPosition();
+
+
+    /**
+     * Set the fetch position. It is called after a resume before the first block is fetched.
+     *
+     * @param fetchPosition the fetch position of the first not processed block
+     * @throws ProcessingException In case the position can't be set
+     */
+    protected abstract void setFetchPosition(Serializable fetchPosition) throws ProcessingException;
+
+
+    /**
+     * Start the prefetch thread
+     */
+    protected void startPrefetch() {
+        if (isPrefetchStarted()) {
+            return;
+        }
+
+        if (isResumed) {
+            setFetchPosition(processedFetchPosition);
+            isResumed = false;
+        } else {
+            processedFetchPosition = getFetchPosition();
+        }
+
+        final int prefetchSize = Math.max(1, getParameterRuntime().getParameterValueList(PREFETCH_SIZE).getValueAsInteger());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Start prefetch thread (prefetch size: " + prefetchSize + ")...");
+        }
+
+        isInterrupted = false;
+        prefetchFailure = null;
+        prefetchQueue = new ArrayBlockingQueue<PrefetchedBlock<B>>(prefetchSize);
+        prefetchThread = new Thread(new Prefetcher(), getClass().getName() + ": Prefetch (Parent: " + Thread.currentThread().getName() + ")");
+        prefetchThread.setDaemon(true);
+        prefetchThread.start();
+    }
+
+
+    /**
+     * Stop the prefetch thread, all fetched but not processed blocks are discarded.
+     */
+    protected void stopPrefetch() {
+        if (!isPrefetchStarted()) {
+            return;
+        }
+
+        isInterrupted = true;
+        prefetchThread.interrupt();
+        try {
+            prefetchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Prefetch thread stopped, discard " + prefetchQueue.size() + " fetched blocks.");
+        }
+
+        prefetchQueue.clear();
+        prefetchThread = null;
+    }
+
+
+    /**
+     * Check if the prefetch thread is started
+     *
+     * @return true if it is started
+     */
+    protected boolean isPrefetchStarted() {
+        return prefetchThread != null;
+    }
+
+
+    /**
+     * Get the failure of the prefetch thread as failure of the processing: it ends the prefetching, therefore it aborts the processing
+     *
+     * @param failure the failure of the prefetch thread
+     * @return the failure to throw
+     */
+    private RuntimeException toProcessingFailure(Throwable failure) {
+        if (failure instanceof ProcessingException) {
+            if (((ProcessingException) failure).abortProcessing()) {
+                return (ProcessingException) failure;
+            }
+        } else if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+
+        return new ProcessingException("Could not fetch the next block: " + failure.getMessage(), failure, true);
+    }
+
+
+    /**
+     * Defines the prefetcher
+     */
+    class Prefetcher implements Runnable {
+
+        /**
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            try {
+                while (!isInterrupted && !Thread.currentThread().isInterrupted()) {
+                    final B block = fetchNextBlock();
+                    final Serializable fetchPosition = getFetchPosition();
+                    prefetchQueue.put(new PrefetchedBlock<B>(block, fetchPosition, null));
+                    if (block == null) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                // any failure is handed over, otherwise the processing thread waits for the next block forever
+                if (!isInterrupted) {
+                    try {
+                        prefetchQueue.put(new PrefetchedBlock<B>(null, null, e));
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Defines a prefetched block
+     *
+     * @param <B> the block type
+     */
+    static class PrefetchedBlock<B> {
+        private final B block;
+        private final Serializable fetchPosition;
+        private final Throwable failure;
+
+
+        /**
+         * Constructor for PrefetchedBlock
+         *
+         * @param block the block or null in case of the end
+         * @param fetchPosition the fetch position after the block
+         * @param failure the failure in case the fetch failed
+         */
+        PrefetchedBlock(B block, Serializable fetchPosition, Throwable failure) {
+            this.block = block;
+            this.fetchPosition = fetchPosition;
+            this.failure = failure;
+        }
+
+
+        /**
+         * Get the block
+         *
+         * @return the block
+         */
+        B getBlock() {
+            return block;
+        }
+
+
+        /**
+         * Check if it marks the end
+         *
+         * @return true if there are no more blocks
+         */
+        boolean isEnd() {
+            return block == null;
+        }
+
+
+        /**
+         * Get the fetch position after the block
+         *
+         * @return the fetch position
+         */
+        Serializable getFetchPosition() {
+            return fetchPosition;
+        }
+
+
+        /**
+         * Get the failure
+         *
+         * @return the failure or null
+         */
+        Throwable getFailure() {
+            return failure;
+        }
+    }
+
+
+    /**
+     * Defines the prefetching processing unit persistence
+     */
+    static class PrefetchingProcessingUnitPersistence implements IProcessingUnitPersistence {
+        private static final long serialVersionUID = -6281347320194880712L;
+        private Serializable fetchPosition;
+        private IProcessingUnitPersistence processingPersistence;
+
+
+        /**
+         * Constructor for PrefetchingProcessingUnitPersistence
+         *
+         * @param fetchPosition the fetch position of the first not processed block
+         * @param processingPersistence the state of the implementation or null
+         */
+        PrefetchingProcessingUnitPersistence(Serializable fetchPosition, IProcessingUnitPersistence processingPersistence) {
+            this.fetchPosition = fetchPosition;
+            this.processingPersistence = processingPersistence;
+        }
+
+
+        /**
+         * Get the fetch position of the first not processed block
+         *
+         * @return the fetch position
+         */
+        Serializable getFetchPosition() {
+            return fetchPosition;
+        }
+
+
+        /**
+         * Get the state of the implementation
+         *
+         * @return the state or null
+         */
+        IProcessingUnitPersistence getProcessingPersistence() {
+            return processingPersistence;
+        }
+    }
+}
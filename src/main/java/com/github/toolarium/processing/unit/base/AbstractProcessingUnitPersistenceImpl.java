@@ -7,17 +7,28 @@ package com.github.toolarium.processing.unit.base;
 
 import com.github.toolarium.processing.unit.IProcessingUnit;
 import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitPosition;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.CRC32;
 
 
 /**
- * Abstract base implementation of the {@link IProcessingUnit} which supports own persistence class
+ * Abstract base implementation of the {@link IProcessingUnit} which supports own persistence class. Additional a processing
+ * unit which reads a seekable input can keep its {@link IProcessingUnitPosition}: it is persisted by the framework and
+ * a resume can seek directly to the position by {@link #seekProcessingUnitPosition(SeekableByteChannel)}.
  *
  * @author patrick
  */
-public abstract class AbstractProcessingUnitPersistenceImpl<T extends IProcessingUnitPersistence> extends AbstractProcessingUnitImpl {
+public abstract class AbstractProcessingUnitPersistenceImpl<T extends IProcessingUnitPersistence> extends AbstractProcessingUnitImpl implements IProcessingUnitPositionSupport {
+    /** The number of bytes before the offset which are covered by the checksum of the position */
+    protected static final int POSITION_CHECKSUM_LENGTH = 64;
     private T persistence;
+    private IProcessingUnitPosition processingUnitPosition;
     
 
     /**
@@ -49,6 +60,90 @@ public abstract class AbstractProcessingUnitPersistenceImpl<T extends IProcessin
     }
     
     
+    /**
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitPositionSupport#getProcessingUnitPosition()
+     */
+    @Override
+    public IProcessingUnitPosition getProcessingUnitPosition() {
+        return processingUnitPosition;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitPositionSupport#setProcessingUnitPosition(com.github.toolarium.processing.unit.IProcessingUnitPosition)
+     */
+    @Override
+    public void setProcessingUnitPosition(IProcessingUnitPosition processingUnitPosition) {
+        this.processingUnitPosition = processingUnitPosition;
+    }
+
+
+    /**
+     * Update the position without a checksum
+     *
+     * @param offset the byte offset of the next record
+     * @param recordNumber the number of the next record
+     */
+    protected void updateProcessingUnitPosition(long offset, long recordNumber) {
+        setProcessingUnitPosition(new ProcessingUnitPosition(offset, recordNumber, null));
+    }
+
+
+    /**
+     * Update the position with a checksum of the bytes before the offset. It reads the input and should be called 
+     * only once before the suspend.
+     *
+     * @param channel the channel of the input, the position of the channel is not changed
+     * @param offset the byte offset of the next record
+     * @param recordNumber the number of the next record
+     * @throws ProcessingException In case the input can't be read
+     */
+    protected void updateProcessingUnitPosition(SeekableByteChannel channel, long offset, long recordNumber) throws ProcessingException {
+        setProcessingUnitPosition(new ProcessingUnitPosition(offset, recordNumber, computePositionChecksum(channel, offset)));
+    }
+
+
+    /**
+     * Verify the position against the input: in case the position has a checksum, it must match the bytes before the offset.
+     *
+     * @param channel the channel of the input, the position of the channel is not changed
+     * @return the byte offset of the position or 0 in case there is no position
+     * @throws ProcessingException In case the input can't be read or the input was modified
+     */
+    protected long verifyProcessingUnitPosition(SeekableByteChannel channel) throws ProcessingException {
+        if (processingUnitPosition == null) {
+            return 0;
+        }
+
+        if (processingUnitPosition.getChecksum() != null) {
+            final long checksum = computePositionChecksum(channel, processingUnitPosition.getOffset());
+            if (checksum != processingUnitPosition.getChecksum().longValue()) {
+                throw new ProcessingException("The input was modified, could not resume at " + processingUnitPosition + "!", true);
+            }
+        }
+
+        return processingUnitPosition.getOffset();
+    }
+
+
+    /**
+     * Seek the input to the position after it is verified by {@link #verifyProcessingUnitPosition(SeekableByteChannel)}.
+     *
+     * @param channel the channel of the input
+     * @return the byte offset of the position or 0 in case there is no position
+     * @throws ProcessingException In case the input can't be read or the input was modified
+     */
+    protected long seekProcessingUnitPosition(SeekableByteChannel channel) throws ProcessingException {
+        final long offset = verifyProcessingUnitPosition(channel);
+        try {
+            channel.position(offset);
+        } catch (IOException e) {
+            throw new ProcessingException("Could not seek to offset " + offset + ": " + e.getMessage(), e, true);
+        }
+        return offset;
+    }
+
+
     /**
      * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#suspendProcessing()
      */
@@ -69,4 +164,36 @@ public abstract class AbstractProcessingUnitPersistenceImpl<T extends IProcessin
         // set the processing persistence
         persistence = (T)processingPersistence;
     }
+
+
+    /**
+     * Compute the checksum of the bytes before the offset
+     *
+     * @param channel the channel of the input, the position of the channel is not changed
+     * @param offset the offset
+     * @return the checksum
+     * @throws ProcessingException In case the input can't be read
+     */
+    private long computePositionChecksum(SeekableByteChannel channel, long offset) throws ProcessingException {
+        final long start = Math.max(0, offset - POSITION_CHECKSUM_LENGTH);
+        final ByteBuffer buffer = ByteBuffer.allocate((int) (offset - start));
+        try {
+            final long channelPosition = channel.position();
+            try {
+                channel.position(start);
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // NOP
+                }
+            } finally {
+                channel.position(channelPosition);
+            }
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read the input at offset " + start + ": " + e.getMessage(), e, true);
+        }
+
+        buffer.flip();
+        final CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
 }
@@ -0,0 +1,348 @@
+/*
+ * AbstractSubscriberProcessingUnitImpl.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Abstract base implementation of a push based {@link IProcessingUnit}: it subscribes to the {@link Flow.Publisher} of 
+ * {@link #createPublisher()} and processes the received items by {@link #processItems(List, ProcessingUnitStatusBuilder)}.
+ * The framework calls the processing unit only in case items are received, otherwise the thread is parked without any
+ * polling (see {@link IProcessingUnitDataAvailableSupport}). The number of requested but not processed items is bounded 
+ * by the parameter {@link #SUBSCRIBER_BUFFER_SIZE}, a processed item is requested again (back-pressure).
+ *
+ * <p>The processing ends after the publisher has completed and all received items are processed. In case of a suspend 
+ * the subscription is cancelled and the received but not processed items are persisted, after a resume they are 
+ * processed before the items of the new subscription.</p>
+ *
+ * @param <T> the item type
+ * @author patrick
+ */
+public abstract class AbstractSubscriberProcessingUnitImpl<T extends Serializable> extends AbstractProcessingUnitImpl implements IProcessingUnitDataAvailableSupport {
+    /** SUBSCRIBER_BUFFER_SIZE: the max number of items which are requested from the publisher in advance. */
+    public static final ParameterDefinition SUBSCRIBER_BUFFER_SIZE =
+            new ParameterDefinitionBuilder().name("subscriberBufferSize").defaultValue(256).description("Defines the max number of items which are requested from the publisher in advance.").build();
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractSubscriberProcessingUnitImpl.class);
+    private final Queue<T> itemQueue;
+    private volatile Flow.Subscription subscription;
+    private volatile Runnable dataAvailableListener;
+    private volatile boolean isSubscribed;
+    private volatile boolean isCompleted;
+    private volatile Throwable publisherException;
+
+
+    /**
+     * Constructor
+     */
+    protected AbstractSubscriberProcessingUnitImpl() {
+        super();
+        this.itemQueue = new ConcurrentLinkedQueue<T>();
+        this.subscription = null;
+        this.dataAvailableListener = null;
+        this.isSubscribed = false;
+        this.isCompleted = false;
+        this.publisherException = null;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(SUBSCRIBER_BUFFER_SIZE);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport#isDataAvailable()
+     */
+    @Override
+    public boolean isDataAvailable() {
+        return !isSubscribed || !itemQueue.isEmpty() || isCompleted || publisherException != null;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport#setDataAvailableListener(java.lang.Runnable)
+     */
+    @Override
+    public void setDataAvailableListener(Runnable dataAvailableListener) {
+        this.dataAvailableListener = dataAvailableListener;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        if (!isSubscribed) {
+            subscribe();
+        }
+
+        final int bufferSize = getBufferSize();
+        final List<T> itemList = new ArrayList<T>();
+        while (itemList.size() < bufferSize) {
+            final T item = itemQueue.poll();
+            if (item == null) {
+                break;
+            }
+            itemList.add(item);
+        }
+
+        if (itemList.isEmpty()) {
+            if (publisherException != null) {
+                throw new ProcessingException("Publisher failed: " + publisherException.getMessage(), publisherException, true);
+            }
+
+            if (isCompleted && itemQueue.isEmpty()) {
+                return processingUnitStatusBuilder.hasEnded().build();
+            }
+
+            return processingUnitStatusBuilder.hasNext(true).build();
+        }
+
+        try {
+            return processItems(itemList, processingUnitStatusBuilder);
+        } finally {
+            final Flow.Subscription currentSubscription = subscription;
+            if (currentSubscription != null) {
+                currentSubscription.request(itemList.size());
+            }
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#onAborting()
+     */
+    @Override
+    public void onAborting() {
+        cancelSubscription();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        super.releaseResource();
+        cancelSubscription();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        cancelSubscription();
+
+        final ArrayList<T> pendingItemList = new ArrayList<T>();
+        T item = itemQueue.poll();
+        while (item != null) {
+            pendingItemList.add(item);
+            item = itemQueue.poll();
+        }
+        return new SubscriberProcessingUnitPersistence<T>(pendingItemList);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#resumeProcessing(com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void resumeProcessing(IProcessingUnitProgress processingUnitProgress, IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        super.resumeProcessing(processingUnitProgress, processingPersistence);
+
+        if (processingPersistence instanceof SubscriberProcessingUnitPersistence) {
+            final List<T> pendingItemList = ((SubscriberProcessingUnitPersistence<T>) processingPersistence).getPendingItemList();
+            if (pendingItemList != null) {
+                itemQueue.addAll(pendingItemList);
+            }
+        }
+    }
+
+
+    /**
+     * Create the publisher of the items, it is called on the first call of the processing unit and after a resume.
+     *
+     * @return the publisher
+     * @throws ProcessingException In case the publisher can't be created
+     */
+    protected abstract Flow.Publisher<T> createPublisher() throws ProcessingException;
+
+
+    /**
+     * Process the received items. This method is called by the processing thread in the order of the received items.
+     *
+     * @param itemList the items to process, at least one item
+     * @param processingUnitStatusBuilder the processing unit status builder
+     * @return the process unit status
+     * @throws ProcessingException In case of any failures occurs.
+     */
+    protected abstract IProcessingUnitStatus processItems(List<T> itemList, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException;
+
+
+    /**
+     * Subscribe to the publisher
+     *
+     * @throws ProcessingException In case the publisher can't be created
+     */
+    protected void subscribe() throws ProcessingException {
+        final Flow.Publisher<T> publisher = createPublisher();
+        if (publisher == null) {
+            throw new ProcessingException("Missing publisher!", true);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Subscribe to publisher (buffer size: " + getBufferSize() + ")...");
+        }
+
+        isCompleted = false;
+        publisherException = null;
+        isSubscribed = true;
+        publisher.subscribe(new ItemSubscriber());
+    }
+
+
+    /**
+     * Cancel the subscription, the received items are kept
+     */
+    protected void cancelSubscription() {
+        final Flow.Subscription currentSubscription = subscription;
+        subscription = null;
+        isSubscribed = false;
+        if (currentSubscription != null) {
+            currentSubscription.cancel();
+        }
+    }
+
+
+    /**
+     * Get the buffer size
+     *
+     * @return the buffer size
+     */
+    private int getBufferSize() {
+        return Math.max(1, getParameterRuntime().getParameterValueList(SUBSCRIBER_BUFFER_SIZE).getValueAsInteger());
+    }
+
+
+    /**
+     * Notify the data available listener
+     */
+    private void notifyDataAvailable() {
+        final Runnable listener = dataAvailableListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+
+    /**
+     * Defines the subscriber which buffers the received items
+     */
+    class ItemSubscriber implements Flow.Subscriber<T> {
+
+        /**
+         * @see java.util.concurrent.Flow.Subscriber#onSubscribe(java.util.concurrent.Flow.Subscription)
+         */
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            if (!isSubscribed || subscription != null) {
+                newSubscription.cancel();
+                return;
+            }
+
+            subscription = newSubscription;
+            newSubscription.request(getBufferSize());
+        }
+
+
+        /**
+         * @see java.util.concurrent.Flow.Subscriber#onNext(java.lang.Object)
+         */
+        @Override
+        public void onNext(T item) {
+            if (item != null) {
+                itemQueue.offer(item);
+                notifyDataAvailable();
+            }
+        }
+
+
+        /**
+         * @see java.util.concurrent.Flow.Subscriber#onError(java.lang.Throwable)
+         */
+        @Override
+        public void onError(Throwable throwable) {
+            publisherException = throwable;
+            notifyDataAvailable();
+        }
+
+
+        /**
+         * @see java.util.concurrent.Flow.Subscriber#onComplete()
+         */
+        @Override
+        public void onComplete() {
+            isCompleted = true;
+            notifyDataAvailable();
+        }
+    }
+
+
+    /**
+     * Defines the subscriber processing unit persistence
+     *
+     * @param <T> the item type
+     */
+    static class SubscriberProcessingUnitPersistence<T extends Serializable> implements IProcessingUnitPersistence {
+        private static final long serialVersionUID = 3954702786173218563L;
+        private ArrayList<T> pendingItemList;
+
+
+        /**
+         * Constructor for SubscriberProcessingUnitPersistence
+         *
+         * @param pendingItemList the received but not processed items
+         */
+        SubscriberProcessingUnitPersistence(ArrayList<T> pendingItemList) {
+            this.pendingItemList = pendingItemList;
+        }
+
+
+        /**
+         * Get the received but not processed items
+         *
+         * @return the received but not processed items
+         */
+        List<T> getPendingItemList() {
+            return pendingItemList;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * IProcessingUnitDataAvailableSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+
+
+/**
+ * Defines the data available support of a push based {@link IProcessingUnit}, e.g. a streaming input like a directory 
+ * which is filled or an in-process queue. The framework calls the processing unit only in case there is data available,
+ * otherwise the thread is parked until the processing unit notifies the data available listener.
+ * 
+ * @author patrick
+ */
+public interface IProcessingUnitDataAvailableSupport {
+
+    /**
+     * Check if there is data available: it has to be true in case there is data to process or the end of the data is 
+     * reached, that the processing unit can end.
+     *
+     * @return true if the processing unit should be called
+     */
+    boolean isDataAvailable();
+
+    
+    /**
+     * Set the data available listener, it is set by the framework. The processing unit has to call it as soon as new 
+     * data is available or the end of the data is reached.
+     *
+     * @param dataAvailableListener the data available listener
+     */
+    void setDataAvailableListener(Runnable dataAvailableListener);
+}
@@ -0,0 +1,34 @@
+/*
+ * IProcessingUnitPositionSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
+
+
+/**
+ * Defines the processing unit position support. In case a {@link IProcessingUnit} implements this interface, the 
+ * framework persists the position after the suspend and sets it before the resume of the processing unit.
+ * 
+ * @author patrick
+ */
+public interface IProcessingUnitPositionSupport {
+    
+    /**
+     * Get the position of the processing unit
+     *
+     * @return the position or null
+     */
+    IProcessingUnitPosition getProcessingUnitPosition();
+
+    
+    /**
+     * Set the position of the processing unit
+     *
+     * @param processingUnitPosition the position or null
+     */
+    void setProcessingUnitPosition(IProcessingUnitPosition processingUnitPosition);
+}
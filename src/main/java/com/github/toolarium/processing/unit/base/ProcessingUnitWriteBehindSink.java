@@ -0,0 +1,345 @@
+/*
+ * ProcessingUnitWriteBehindSink.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSink;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements a write-behind sink which can be used inside a processing unit. The results are buffered and written in
+ * batches by a background thread as soon as the flush size or the flush interval is reached or a write is requested by
+ * {@link #acknowledge(ProcessingUnitStatusBuilder)}. A processing unit counts the units by 
+ * {@link #acknowledge(ProcessingUnitStatusBuilder)} which adds only the units which are written by the sink. Therefore the 
+ * progress counts only units with acknowledged writes. The acknowledge doesn't wait for a write: the buffered results are
+ * reported as pending units and counted by a later call as soon as the background thread has written them. Only
+ * {@link #flush()}, {@link #suspend()} and {@link #close()} wait until all buffered results are written.
+ *
+ * <p>Typical usage in a processing unit:
+ * <ul>
+ *  <li>processUnit: {@link #write(Object)} the results and call {@link #acknowledge(ProcessingUnitStatusBuilder)}; before
+ *      the processing has ended call {@link #flush()} and then {@link #acknowledge(ProcessingUnitStatusBuilder)}.</li>
+ *  <li>suspendProcessing: call {@link #suspend()} and persist the returned number of not reported units together
+ *      with the read position.</li>
+ *  <li>resumeProcessing: call {@link #resume(long)} with the persisted number of not reported units.</li>
+ *  <li>releaseResource: call {@link #close()}.</li>
+ * </ul>
+ *
+ * @param <R> the type of the result
+ * @author patrick
+ */
+public class ProcessingUnitWriteBehindSink<R> {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessingUnitWriteBehindSink.class);
+    private final IProcessingUnitSink<R> sink;
+    private final int flushSize;
+    private final long flushInterval;
+    private final int maxBufferSize;
+    private final Object lock;
+    private List<R> buffer;
+    private int numberOfUnitsInWrite;
+    private long numberOfAcknowledgedUnits;
+    private boolean flushRequested;
+    private volatile boolean isStopped;
+    private ProcessingException writeException;
+    private Thread writerThread;
+
+
+    /**
+     * Constructor for ProcessingUnitWriteBehindSink
+     *
+     * @param sink the sink which writes the batches
+     * @param flushSize the number of buffered results which trigger a flush
+     * @param flushInterval the max time in milliseconds a result is buffered
+     */
+    public ProcessingUnitWriteBehindSink(IProcessingUnitSink<R> sink, int flushSize, long flushInterval) {
+        this.sink = sink;
+        this.flushSize = Math.max(1, flushSize);
+        this.flushInterval = Math.max(1, flushInterval);
+        this.maxBufferSize = 2 * this.flushSize;
+        this.lock = new Object();
+        this.buffer = new ArrayList<R>(this.flushSize);
+        this.numberOfUnitsInWrite = 0;
+        this.numberOfAcknowledgedUnits = 0;
+        this.flushRequested = false;
+        this.isStopped = false;
+        this.writeException = null;
+        this.writerThread = null;
+    }
+
+
+    /**
+     * Write a result. The result is buffered, in case the buffer is full the call blocks until the pending batch is written.
+     *
+     * @param result the result
+     * @throws ProcessingException In case a previous batch could not be written
+     */
+    public void write(R result) throws ProcessingException {
+        synchronized (lock) {
+            checkWriteException();
+            startWriterThread();
+
+            while (buffer.size() >= maxBufferSize && writeException == null) {
+                await();
+            }
+            checkWriteException();
+
+            buffer.add(result);
+            if (buffer.size() >= flushSize) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+
+    /**
+     * Add the number of written units since the last call as successful units to the processing unit status builder.
+     * The call doesn't wait for a write: the buffered results which are not yet written are added as pending units, 
+     * they are added as successful units by a later call. Before it returns, the write of the buffered results is 
+     * triggered so that the next batch is written while the processing unit prepares the following results. 
+     *
+     * @param processingUnitStatusBuilder the processing unit status builder
+     * @return the number of added successful units
+     * @throws ProcessingException In case a batch could not be written
+     */
+    public long acknowledge(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final long numberOfUnits;
+        final long numberOfPendingUnits;
+        synchronized (lock) {
+            checkWriteException();
+            numberOfUnits = numberOfAcknowledgedUnits;
+            numberOfAcknowledgedUnits = 0;
+            numberOfPendingUnits = buffer.size() + numberOfUnitsInWrite;
+
+            if (numberOfUnitsInWrite == 0 && !buffer.isEmpty()) {
+                flushRequested = true;
+                lock.notifyAll();
+            }
+        }
+
+        if (numberOfUnits > 0) {
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits(numberOfUnits);
+        }
+
+        if (numberOfPendingUnits > 0) {
+            processingUnitStatusBuilder.increaseNumberOfPendingUnits(numberOfPendingUnits);
+        }
+
+        return numberOfUnits;
+    }
+
+
+    /**
+     * Flush all buffered results: the call blocks until all results are written by the sink.
+     *
+     * @throws ProcessingException In case a batch could not be written
+     */
+    public void flush() throws ProcessingException {
+        synchronized (lock) {
+            if (writerThread != null) {
+                flushRequested = true;
+                lock.notifyAll();
+                while ((!buffer.isEmpty() || numberOfUnitsInWrite > 0) && writeException == null) {
+                    await();
+                }
+            }
+            checkWriteException();
+        }
+
+        sink.flush();
+    }
+
+
+    /**
+     * Suspend: flush all buffered results and stop the background thread.
+     *
+     * @return the number of written units which are not yet acknowledged, they have to be persisted by the processing unit
+     * @throws ProcessingException In case a batch could not be written
+     */
+    public long suspend() throws ProcessingException {
+        flush();
+        stopWriterThread();
+
+        synchronized (lock) {
+            final long numberOfUnits = numberOfAcknowledgedUnits;
+            numberOfAcknowledgedUnits = 0;
+            return numberOfUnits;
+        }
+    }
+
+
+    /**
+     * Resume: restore the number of written units which are not yet acknowledged.
+     *
+     * @param numberOfNotAcknowledgedUnits the number of written units which are not yet acknowledged
+     */
+    public void resume(long numberOfNotAcknowledgedUnits) {
+        synchronized (lock) {
+            numberOfAcknowledgedUnits += Math.max(0, numberOfNotAcknowledgedUnits);
+        }
+    }
+
+
+    /**
+     * Close the write-behind sink: all buffered results are written and the sink is closed.
+     *
+     * @throws ProcessingException In case a batch could not be written or the sink can't be closed
+     */
+    public void close() throws ProcessingException {
+        try {
+            flush();
+        } finally {
+            stopWriterThread();
+            sink.close();
+        }
+    }
+
+
+    /**
+     * Get the number of buffered results which are not yet written
+     *
+     * @return the number of buffered results
+     */
+    public int getNumberOfBufferedUnits() {
+        synchronized (lock) {
+            return buffer.size() + numberOfUnitsInWrite;
+        }
+    }
+
+
+    /**
+     * Start the writer thread if it is not started
+     */
+    private void startWriterThread() {
+        if (writerThread != null) {
+            return;
+        }
+
+        isStopped = false;
+        writerThread = new Thread(new Writer(), getClass().getName() + ": Write-behind (Parent: " + Thread.currentThread().getName() + ")");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+
+    /**
+     * Stop the writer thread
+     */
+    private void stopWriterThread() {
+        final Thread thread;
+        synchronized (lock) {
+            thread = writerThread;
+            writerThread = null;
+            isStopped = true;
+            lock.notifyAll();
+        }
+
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Check if a write exception occurred
+     *
+     * @throws ProcessingException the write exception
+     */
+    private void checkWriteException() throws ProcessingException {
+        if (writeException != null) {
+            throw writeException;
+        }
+    }
+
+
+    /**
+     * Wait on the lock, it must be called inside the synchronized block
+     */
+    private void await() {
+        try {
+            lock.wait(flushInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException("Interrupted while waiting on the write-behind sink!", e, true);
+        }
+    }
+
+
+    /**
+     * Defines the writer which writes the batches
+     */
+    class Writer implements Runnable {
+
+        /**
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            long lastFlush = System.currentTimeMillis();
+            while (true) {
+                final List<R> batch;
+                synchronized (lock) {
+                    while (!isStopped && !flushRequested && buffer.size() < flushSize && (buffer.isEmpty() || System.currentTimeMillis() - lastFlush < flushInterval)) {
+                        try {
+                            lock.wait(flushInterval);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+
+                    flushRequested = false;
+                    if (buffer.isEmpty()) {
+                        lastFlush = System.currentTimeMillis();
+                        lock.notifyAll();
+                        if (isStopped) {
+                            return;
+                        }
+                        continue;
+                    }
+
+                    batch = buffer;
+                    buffer = new ArrayList<R>(flushSize);
+                    numberOfUnitsInWrite = batch.size();
+                    lock.notifyAll();
+                }
+
+                ProcessingException exception = null;
+                try {
+                    sink.write(batch);
+                } catch (ProcessingException e) {
+                    exception = e;
+                } catch (RuntimeException e) {
+                    exception = new ProcessingException("Could not write batch: " + e.getMessage(), e, true);
+                }
+
+                synchronized (lock) {
+                    numberOfUnitsInWrite = 0;
+                    lastFlush = System.currentTimeMillis();
+                    if (exception == null) {
+                        numberOfAcknowledgedUnits += batch.size();
+                    } else {
+                        LOG.warn("Could not write batch of " + batch.size() + " units: " + exception.getMessage(), exception);
+                        writeException = exception;
+                    }
+                    lock.notifyAll();
+
+                    if (writeException != null) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * IProcessingUnitKeyAffinitySupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import java.io.Serializable;
+
+
+/**
+ * Defines the processing unit key affinity support. In case a parallel processing unit implements this interface, the 
+ * single reader thread doesn't publish the work items to a shared ring buffer but routes them by the hash of their key 
+ * to the {@link IProcessingUnitWorkItemQueue} of one instance. All work items with the same key are processed by the 
+ * same instance in the order of the source, therefore no object lock manager is needed. 
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public interface IProcessingUnitKeyAffinitySupport<T extends Serializable> extends IProcessingUnitWorkItemSupport<T> {
+
+    /**
+     * Get the key of a work item, e.g. the customer or account id. 
+     *
+     * @param workItem the work item
+     * @return the key
+     */
+    Object getKey(T workItem);
+}
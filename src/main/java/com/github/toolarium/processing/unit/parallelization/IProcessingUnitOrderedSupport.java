@@ -0,0 +1,37 @@
+/*
+ * IProcessingUnitOrderedSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSink;
+import java.io.Serializable;
+
+
+/**
+ * Defines the processing unit ordered support. In case a parallel processing unit implements this interface, the 
+ * work items get a sequence number from the ring buffer of the reader thread. The instances process them out of order
+ * and release their results to a bounded reorder buffer which writes them to the sink in the order of the source.
+ *
+ * @param <T> the type of the work items
+ * @param <R> the type of the results
+ * @author patrick
+ */
+public interface IProcessingUnitOrderedSupport<T extends Serializable, R> extends IProcessingUnitWorkItemSupport<T> {
+
+    /**
+     * Create the sink of the results, it is only called on the first instance.
+     *
+     * @return the sink
+     */
+    IProcessingUnitSink<R> createResultSink();
+
+    
+    /**
+     * Sets the result queue of the processing unit instance, it is set before the first call of the processing unit.
+     *
+     * @param resultQueue the result queue
+     */
+    void setResultQueue(IProcessingUnitResultQueue<R> resultQueue);
+}
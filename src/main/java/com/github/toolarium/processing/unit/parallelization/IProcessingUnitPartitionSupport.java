@@ -0,0 +1,24 @@
+/*
+ * IProcessingUnitPartitionSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+
+/**
+ * Defines the processing unit partition support. In case a parallel processing unit implements this interface, 
+ * every instance gets its own partition of the input before it is initialized.
+ * 
+ * @author patrick
+ */
+public interface IProcessingUnitPartitionSupport {
+    
+    /**
+     * Sets the partition of the processing unit instance
+     *
+     * @param partitionNumber the partition number of this instance, starting with 0
+     * @param numberOfPartitions the total number of partitions
+     */
+    void setPartition(int partitionNumber, int numberOfPartitions);
+}
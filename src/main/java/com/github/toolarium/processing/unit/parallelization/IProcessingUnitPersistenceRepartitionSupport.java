@@ -0,0 +1,38 @@
+/*
+ * IProcessingUnitPersistenceRepartitionSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import java.util.List;
+
+
+/**
+ * Defines the repartition support of a processing unit persistence. In case the persistence of a parallel processing
+ * unit implements this interface, a suspended processing can be resumed with a different number of threads: the
+ * persisted states are merged or split to the new number of instances. The progress and the statistic are kept by the
+ * parallel processing unit and are not part of the repartition.
+ *
+ * @author patrick
+ */
+public interface IProcessingUnitPersistenceRepartitionSupport extends IProcessingUnitPersistence {
+
+    /**
+     * Merge the persisted state of another instance into a new persisted state.
+     *
+     * @param processingUnitPersistence the persisted state of another instance
+     * @return the merged persisted state
+     */
+    IProcessingUnitPersistenceRepartitionSupport merge(IProcessingUnitPersistenceRepartitionSupport processingUnitPersistence);
+
+
+    /**
+     * Split the persisted state into the given number of persisted states.
+     *
+     * @param numberOfParts the number of parts, at least 2
+     * @return the list of persisted states with the size of the number of parts
+     */
+    List<IProcessingUnitPersistenceRepartitionSupport> split(int numberOfParts);
+}
@@ -0,0 +1,31 @@
+/*
+ * IProcessingUnitResultQueue.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.util.List;
+
+
+/**
+ * Defines the result queue of a processing unit instance in ordered mode. The results of the work items of the last
+ * poll are released to a bounded reorder buffer which writes them in the order of the source to the sink.
+ *
+ * @param <R> the type of the results
+ * @author patrick
+ */
+public interface IProcessingUnitResultQueue<R> {
+
+    /**
+     * Release the results of the work items of the last poll. It has to be called after every poll which returned work
+     * items, also in case of a failure: a not released result blocks all following results. In case the reorder buffer
+     * is full it waits until the gap is closed (back-pressure).
+     *
+     * @param resultList the results in the same order and size as the work items of the last poll, a result can be 
+     * null in case there is nothing to write
+     * @throws ProcessingException In case the size doesn't match or the results can't be written
+     */
+    void release(List<R> resultList) throws ProcessingException;
+}
@@ -0,0 +1,39 @@
+/*
+ * IProcessingUnitSplitSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import java.io.Serializable;
+
+
+/**
+ * Defines the split support of a partitioned processing unit. In case a parallel processing unit with partitions implements
+ * this interface, the remaining work of a slow instance (straggler) is split as soon as another instance has ended: the
+ * ended instance takes over the split work and runs again.
+ *
+ * <p>The processing of the units has to be idempotent: {@link #splitRemainingWork()} is called by another thread while
+ * the instance processes its partition. The persistence of an instance has to contain the taken over work, otherwise it
+ * gets lost on a suspend.</p>
+ *
+ * @author patrick
+ */
+public interface IProcessingUnitSplitSupport extends IProcessingUnitPartitionSupport {
+
+    /**
+     * Split the remaining work of this instance: the instance keeps the first part and continues with it.
+     * It is called concurrently to the processing of the instance.
+     *
+     * @return the second part of the remaining work or null in case it can't be split
+     */
+    Serializable splitRemainingWork();
+
+
+    /**
+     * Take over the split work of another instance. It is only called for an ended instance before it runs again.
+     *
+     * @param splitWork the split work
+     */
+    void takeOverSplitWork(Serializable splitWork);
+}
@@ -0,0 +1,37 @@
+/*
+ * IProcessingUnitWorkItemQueue.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import java.util.List;
+
+
+/**
+ * Defines the work item queue of a processing unit instance in the reader / worker topology. The queue is filled by the
+ * reader thread of the parallel processing unit: it is either the shared ring buffer or in key affinity mode a bounded
+ * queue per instance.
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public interface IProcessingUnitWorkItemQueue<T> {
+
+    /**
+     * Take the next work items from the queue. It waits a short time in case the queue is empty.
+     *
+     * @param maxNumberOfWorkItems the max number of work items to take
+     * @return the work items in the order of the source, an empty list in case no work item is available yet or null 
+     * in case the source is completely read and the queue is empty
+     */
+    List<T> poll(int maxNumberOfWorkItems);
+
+    
+    /**
+     * Get the number of queued work items
+     *
+     * @return the number of queued work items
+     */
+    int size();
+}
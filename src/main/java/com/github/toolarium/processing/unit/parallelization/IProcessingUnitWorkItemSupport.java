@@ -0,0 +1,41 @@
+/*
+ * IProcessingUnitWorkItemSupport.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import java.io.Serializable;
+
+
+/**
+ * Defines the processing unit work item support (reader / worker topology). In case a parallel processing unit 
+ * implements this interface, a single reader thread reads the work items from the source of the first instance and 
+ * publishes them to a pre-allocated ring buffer. All instances are workers: they take the next work items in batches 
+ * from the shared {@link IProcessingUnitWorkItemQueue} and don't read the source themselves. The number of threads 
+ * can't be changed at runtime. 
+ * 
+ * <p>On suspend the offset of the source and the read but not yet processed work items are persisted, therefore the 
+ * work items have to be serializable.</p>
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public interface IProcessingUnitWorkItemSupport<T extends Serializable> {
+
+    /**
+     * Create the source of the work items, it is only called on the first instance.
+     *
+     * @return the source
+     */
+    IProcessingUnitSource<T> createWorkItemSource();
+
+    
+    /**
+     * Sets the work item queue of the processing unit instance, it is set before the first call of the processing unit.
+     *
+     * @param workItemQueue the work item queue
+     */
+    void setWorkItemQueue(IProcessingUnitWorkItemQueue<T> workItemQueue);
+}
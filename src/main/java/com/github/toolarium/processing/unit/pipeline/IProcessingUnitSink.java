@@ -0,0 +1,48 @@
+/*
+ * IProcessingUnitSink.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.pipeline;
+
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.util.List;
+
+
+/**
+ * Defines the sink of a pipeline processing unit. The results are written in batches. The sink is only called by 
+ * the processing thread and in the order of the source.
+ *
+ * @param <R> the type of the result
+ * @author patrick
+ */
+public interface IProcessingUnitSink<R> {
+
+    /**
+     * Write a batch of results. After this method returns the results are counted as processed.
+     *
+     * @param resultList the results to write
+     * @throws ProcessingException In case the results can't be written
+     */
+    void write(List<R> resultList) throws ProcessingException;
+
+    
+    /**
+     * Flush the sink: it will be called before a suspend and at the end of the processing.
+     *
+     * @throws ProcessingException In case the sink can't be flushed
+     */
+    default void flush() throws ProcessingException {
+        // NOP
+    }
+
+    
+    /**
+     * Close the sink.
+     *
+     * @throws ProcessingException In case the sink can't be closed properly
+     */
+    default void close() throws ProcessingException {
+        // NOP
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * IProcessingUnitSource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.pipeline;
+
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * Defines the source of a pipeline processing unit. The data is pulled in blocks. The source keeps track of its
+ * position by an offset which is persisted in case of a suspend and is used to reposition the source on resume.
+ *
+ * @param <T> the type of the read elements
+ * @author patrick
+ */
+public interface IProcessingUnitSource<T> {
+
+    /**
+     * Open the source.
+     *
+     * @param offset the offset to start from or null to start from the beginning
+     * @throws ProcessingException In case the source can't be opened
+     */
+    void open(Serializable offset) throws ProcessingException;
+
+    
+    /**
+     * Estimate the number of elements of this source.
+     *
+     * @return the estimated number of elements
+     * @throws ProcessingException In case the estimation failed
+     */
+    long estimateNumberOfUnits() throws ProcessingException;
+
+    
+    /**
+     * Read the next block of elements.
+     *
+     * @param blockSize the max number of elements to read
+     * @return the read elements; an empty list or null in case the source has no more elements
+     * @throws ProcessingException In case of a read error
+     */
+    List<T> read(int blockSize) throws ProcessingException;
+
+    
+    /**
+     * Get the current offset of the source, it points to the position after the last read block.
+     *
+     * @return the offset
+     */
+    Serializable getOffset();
+
+    
+    /**
+     * Close the source.
+     *
+     * @throws ProcessingException In case the source can't be closed properly
+     */
+    void close() throws ProcessingException;
+}
@@ -0,0 +1,49 @@
+/*
+ * IProcessingUnitStage.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.pipeline;
+
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+
+
+/**
+ * Defines a stage of a pipeline processing unit. A stage is a pure transformation without side effects and can be
+ * called from multiple threads in parallel.
+ *
+ * @param <T> the type of the input
+ * @param <R> the type of the result
+ * @author patrick
+ */
+public interface IProcessingUnitStage<T, R> {
+
+    /**
+     * Process an element. In case the result is null the element is filtered out and not passed to the sink.
+     *
+     * @param input the input element
+     * @return the result or null
+     * @throws ProcessingException In case the element can't be processed. If the exception is not marked as abort 
+     *         processing the element will be counted as failed and the processing continues.
+     */
+    R process(T input) throws ProcessingException;
+
+    
+    /**
+     * Compose this stage with a following stage.
+     *
+     * @param <V> the result type of the following stage
+     * @param stage the following stage
+     * @return the composed stage
+     */
+    default <V> IProcessingUnitStage<T, V> andThen(IProcessingUnitStage<R, V> stage) {
+        return input -> {
+            R result = process(input);
+            if (result == null) {
+                return null;
+            }
+            
+            return stage.process(result);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * ProcessingUnitPosition.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime;
+
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
+import java.util.Objects;
+
+
+/**
+ * Implements the {@link IProcessingUnitPosition}.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitPosition implements IProcessingUnitPosition {
+    private static final long serialVersionUID = -2318405926624771307L;
+    private long offset;
+    private long recordNumber;
+    private Long checksum;
+
+
+    /**
+     * Constructor for ProcessingUnitPosition
+     *
+     * @param offset the byte offset of the next record
+     * @param recordNumber the number of the next record
+     * @param checksum the checksum of the bytes before the offset or null
+     */
+    public ProcessingUnitPosition(long offset, long recordNumber, Long checksum) {
+        this.offset = offset;
+        this.recordNumber = recordNumber;
+        this.checksum = checksum;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitPosition#getOffset()
+     */
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitPosition#getRecordNumber()
+     */
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitPosition#getChecksum()
+     */
+    @Override
+    public Long getChecksum() {
+        return checksum;
+    }
+
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(checksum, offset, recordNumber);
+    }
+
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (obj == null) {
+            return false;
+        }
+        
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        
+        ProcessingUnitPosition other = (ProcessingUnitPosition) obj;
+        return offset == other.offset && recordNumber == other.recordNumber && Objects.equals(checksum, other.checksum);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProcessingUnitPosition [offset=" + offset + ", recordNumber=" + recordNumber + ", checksum=" + checksum + "]";
+    }
+}
@@ -6,11 +6,14 @@
 package com.github.toolarium.processing.unit.runtime;
 
 
+import com.github.toolarium.common.statistic.StatisticCounter;
 import com.github.toolarium.common.util.RoundUtil;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.IProcessingUnitStatistic;
 import com.github.toolarium.processing.unit.IProcessingUnitStatus;
 import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -27,6 +30,8 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
     private volatile long numberOfFailedUnits;
     private volatile ProcessingRuntimeStatus processingRuntimeStatus;
     private volatile ProcessingUnitStatistic processingUnitStatistic;
+    private volatile ProcessingUnitStatistic resourceStatistic;
+    private volatile ProcessingUnitThroughput throughput;
 
     
     /**
@@ -38,6 +43,8 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
         numberOfFailedUnits = 0;
         processingRuntimeStatus = ProcessingRuntimeStatus.SUCCESSFUL;
         processingUnitStatistic = new ProcessingUnitStatistic();
+        resourceStatistic = new ProcessingUnitStatistic();
+        throughput = new ProcessingUnitThroughput();
     }
 
         
@@ -58,6 +65,14 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
             if (processingProgress.getProcessingUnitStatistic() != null) {
                 this.processingUnitStatistic = new ProcessingUnitStatistic(processingProgress.getProcessingUnitStatistic());
             }
+            
+            if (processingProgress.getResourceStatistic() != null) {
+                this.resourceStatistic = new ProcessingUnitStatistic(processingProgress.getResourceStatistic());
+            }
+            
+            if (processingProgress instanceof ProcessingUnitProgress) {
+                this.throughput = new ProcessingUnitThroughput(((ProcessingUnitProgress) processingProgress).throughput);
+            }
         }
     }
 
@@ -82,12 +97,13 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
         final Long failedUnits = processingUnitStatus.getNumberOfFailedUnits();
         if (failedUnits != null && failedUnits.longValue() > 0) {
             numberOfFailedUnits += failedUnits.longValue();
-            processedUnits = failedUnits.longValue();
+            processedUnits += failedUnits.longValue();
         }
 
         if (processedUnits > 0) {
             numberOfProcessedUnits += processedUnits;
         }
+        throughput.add(processedUnits);
 
         if (numberOfProcessedUnits > numberOfUnitsToProcess) {
             numberOfUnitsToProcess = numberOfProcessedUnits;    
@@ -353,6 +369,129 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
     }
 
     
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getResourceStatistic()
+     */
+    @Override
+    public IProcessingUnitStatistic getResourceStatistic() {
+        return resourceStatistic;
+    }
+
+    
+    /**
+     * Add the last resource measurement of a processing unit call to the resource statistic
+     *
+     * @param resourceMeasurement the resource measurement
+     */
+    public void addResourceMeasurement(final ProcessingUnitResourceMeasurement resourceMeasurement) {
+        if (resourceMeasurement != null) {
+            resourceMeasurement.addStatistic(resourceStatistic);
+        }
+    }
+
+    
+    /**
+     * Add a resource statistic
+     *
+     * @param resourceStatistic the resource statistic to add
+     */
+    public void addResourceStatistic(final IProcessingUnitStatistic resourceStatistic) {
+        if (resourceStatistic != null && !resourceStatistic.isEmpty()) {
+            for (String key : resourceStatistic.keySet()) {
+                this.resourceStatistic.add(key, resourceStatistic.get(key));
+            }
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getCpuUtilisation()
+     */
+    @Override
+    public double getCpuUtilisation() {
+        final StatisticCounter cpuTime = resourceStatistic.get(ProcessingUnitResourceMeasurement.CPU_TIME);
+        final StatisticCounter wallTime = resourceStatistic.get(ProcessingUnitResourceMeasurement.WALL_TIME);
+        if (cpuTime == null || wallTime == null || wallTime.getSum() <= 0) {
+            return -1;
+        }
+        
+        return cpuTime.getSum() / wallTime.getSum();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getAllocatedBytesPerUnit()
+     */
+    @Override
+    public long getAllocatedBytesPerUnit() {
+        final StatisticCounter allocatedBytes = resourceStatistic.get(ProcessingUnitResourceMeasurement.ALLOCATED_BYTES);
+        if (allocatedBytes == null || numberOfProcessedUnits <= 0) {
+            return -1;
+        }
+        
+        return Math.round(allocatedBytes.getSum() / numberOfProcessedUnits);
+    }
+
+    
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getRate()
+     */
+    @Override
+    public double getRate() {
+        return throughput.getRate();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getThroughputLast10Seconds()
+     */
+    @Override
+    public double getThroughputLast10Seconds() {
+        return throughput.getThroughputLast10Seconds();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getThroughputLastMinute()
+     */
+    @Override
+    public double getThroughputLastMinute() {
+        return throughput.getThroughputLastMinute();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getThroughputLast5Minutes()
+     */
+    @Override
+    public double getThroughputLast5Minutes() {
+        return throughput.getThroughputLast5Minutes();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getEstimatedTimeRemaining()
+     */
+    @Override
+    public long getEstimatedTimeRemaining() {
+        return throughput.getEstimatedTimeRemaining(getNumberOfUnprocessedUnits());
+    }
+
+    
+    /**
+     * Set the throughput measurement, e.g. with a different tick interval
+     *
+     * @param throughput the throughput
+     * @return this instance
+     */
+    public ProcessingUnitProgress setThroughput(ProcessingUnitThroughput throughput) {
+        if (throughput != null) {
+            this.throughput = throughput;
+        }
+        return this;
+    }
+
+    
     /**
      * @see com.github.toolarium.processing.unit.IProcessingUnitProgress#getProgress()
      */
@@ -408,6 +547,21 @@ public class ProcessingUnitProgress implements IProcessingUnitUpdateProgress, Se
     public String toString() {
         return "ProcessingUnitProgress [numberOfUnitsToProcess=" + numberOfUnitsToProcess + ", numberOfProcessedUnits="
                 + numberOfProcessedUnits + ", numberOfFailedUnits=" + numberOfFailedUnits + ", processingRuntimeStatus="
-                + processingRuntimeStatus + ", processingUnitStatistic=" + processingUnitStatistic + "]";
+                + processingRuntimeStatus + ", processingUnitStatistic=" + processingUnitStatistic + ", resourceStatistic=" + resourceStatistic + ", throughput=" + throughput + "]";
+    }
+
+
+    /**
+     * Initialize the throughput in case it was not persisted
+     *
+     * @param in the input stream
+     * @throws IOException In case of an I/O error
+     * @throws ClassNotFoundException In case of a missing class
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (throughput == null) {
+            throughput = new ProcessingUnitThroughput();
+        }
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * ProcessingUnitResourceMeasurement.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/**
+ * Measures the CPU time, the allocated bytes and the wall-clock time of the current thread around a processing unit call
+ * by the {@link ThreadMXBean}. The CPU time or the allocated bytes are -1 in case the JVM doesn't support or has disabled
+ * the measurement. An instance is used only by one thread.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitResourceMeasurement {
+    /** CPU_TIME: the statistic key of the CPU time in nanoseconds. */
+    public static final String CPU_TIME = "cpuTime";
+
+    /** ALLOCATED_BYTES: the statistic key of the allocated bytes. */
+    public static final String ALLOCATED_BYTES = "allocatedBytes";
+
+    /** WALL_TIME: the statistic key of the wall-clock time in nanoseconds. */
+    public static final String WALL_TIME = "wallTime";
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private long startCpuTime;
+    private long startAllocatedBytes;
+    private long startWallTime;
+    private long cpuTime;
+    private long allocatedBytes;
+    private long wallTime;
+
+
+    /**
+     * Constructor for ProcessingUnitResourceMeasurement
+     */
+    public ProcessingUnitResourceMeasurement() {
+        this.startCpuTime = -1;
+        this.startAllocatedBytes = -1;
+        this.startWallTime = 0;
+        this.cpuTime = -1;
+        this.allocatedBytes = -1;
+        this.wallTime = 0;
+    }
+
+
+    /**
+     * Start the measurement, it has to be called by the measured thread
+     */
+    public void start() {
+        startCpuTime = getCurrentThreadCpuTime();
+        startAllocatedBytes = getCurrentThreadAllocatedBytes();
+        startWallTime = System.nanoTime();
+    }
+
+
+    /**
+     * Stop the measurement, it has to be called by the measured thread
+     */
+    public void stop() {
+        wallTime = System.nanoTime() - startWallTime;
+
+        cpuTime = -1;
+        if (startCpuTime >= 0) {
+            final long currentCpuTime = getCurrentThreadCpuTime();
+            if (currentCpuTime >= 0) {
+                cpuTime = Math.max(0, currentCpuTime - startCpuTime);
+            }
+        }
+
+        allocatedBytes = -1;
+        if (startAllocatedBytes >= 0) {
+            final long currentAllocatedBytes = getCurrentThreadAllocatedBytes();
+            if (currentAllocatedBytes >= 0) {
+                allocatedBytes = Math.max(0, currentAllocatedBytes - startAllocatedBytes);
+            }
+        }
+    }
+
+
+    /**
+     * Get the CPU time of the last measurement
+     *
+     * @return the CPU time in nanoseconds or -1 in case it is not supported
+     */
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+
+    /**
+     * Get the allocated bytes of the last measurement
+     *
+     * @return the allocated bytes or -1 in case it is not supported
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+
+    /**
+     * Get the wall-clock time of the last measurement
+     *
+     * @return the wall-clock time in nanoseconds
+     */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+
+    /**
+     * Add the last measurement to a processing unit statistic
+     *
+     * @param processingUnitStatistic the processing unit statistic
+     */
+    public void addStatistic(ProcessingUnitStatistic processingUnitStatistic) {
+        if (cpuTime >= 0) {
+            processingUnitStatistic.add(CPU_TIME, cpuTime);
+        }
+
+        if (allocatedBytes >= 0) {
+            processingUnitStatistic.add(ALLOCATED_BYTES, allocatedBytes);
+        }
+
+        processingUnitStatistic.add(WALL_TIME, wallTime);
+    }
+
+
+    /**
+     * Get the CPU time of the current thread
+     *
+     * @return the CPU time in nanoseconds or -1 in case it is not supported
+     */
+    private static long getCurrentThreadCpuTime() {
+        try {
+            if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+                return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+            }
+        } catch (UnsupportedOperationException e) {
+            // NOP
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Get the allocated bytes of the current thread
+     *
+     * @return the allocated bytes or -1 in case it is not supported
+     */
+    private static long getCurrentThreadAllocatedBytes() {
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+        try {
+            if (threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        } catch (UnsupportedOperationException e) {
+            // NOP
+        }
+
+        return -1;
+    }
+}
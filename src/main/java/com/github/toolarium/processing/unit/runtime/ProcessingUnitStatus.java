@@ -26,6 +26,7 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
     private Long numberOfSuccessfulUnits;
     private Long numberOfFailedUnits;
     private Long numberOfUnprocessedUnits;
+    private Long numberOfPendingUnits;
     private ProcessingRuntimeStatus processingRuntimeStatus;
     private List<String> statusMessageList;
     private ProcessingUnitStatistic processingUnitStatistic;
@@ -39,6 +40,7 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
         numberOfSuccessfulUnits = null;
         numberOfFailedUnits = null;
         numberOfUnprocessedUnits = null;
+        numberOfPendingUnits = null;
         processingRuntimeStatus = ProcessingRuntimeStatus.SUCCESSFUL;
         statusMessageList = null;
         processingUnitStatistic = null;
@@ -229,6 +231,35 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
     }
 
 
+    /**
+     * @see com.github.toolarium.processing.unit.IProcessingUnitStatus#getNumberOfPendingUnits()
+     */
+    @Override
+    public Long getNumberOfPendingUnits() {
+        return numberOfPendingUnits;
+    }
+
+
+    /**
+     * Increase the number of pending units
+     * 
+     * @param numberOfPendingUnits the number of pending units to add
+     * @return this instance
+     */
+    public ProcessingUnitStatus increaseNumberOfPendingUnits(Long numberOfPendingUnits) {
+        if (numberOfPendingUnits == null) {
+            return this;
+        } 
+        
+        if (this.numberOfPendingUnits == null) {
+            this.numberOfPendingUnits = numberOfPendingUnits;
+        } else {
+            this.numberOfPendingUnits += numberOfPendingUnits;
+        }
+        return this;
+    }
+
+
     /**
      * @see com.github.toolarium.processing.unit.IProcessingUnitStatus#getProcessingRuntimeStatus()
      */
@@ -376,7 +407,7 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
      */
     @Override
     public int hashCode() {
-        return Objects.hash(hasNext, numberOfFailedUnits, numberOfSuccessfulUnits, numberOfUnprocessedUnits,
+        return Objects.hash(hasNext, numberOfFailedUnits, numberOfSuccessfulUnits, numberOfUnprocessedUnits, numberOfPendingUnits,
                 processingRuntimeStatus, processingUnitStatistic, statusMessageList);
     }
 
@@ -402,6 +433,7 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
         return hasNext == other.hasNext && Objects.equals(numberOfFailedUnits, other.numberOfFailedUnits)
                 && Objects.equals(numberOfSuccessfulUnits, other.numberOfSuccessfulUnits)
                 && Objects.equals(numberOfUnprocessedUnits, other.numberOfUnprocessedUnits)
+                && Objects.equals(numberOfPendingUnits, other.numberOfPendingUnits)
                 && processingRuntimeStatus == other.processingRuntimeStatus
                 && Objects.equals(processingUnitStatistic, other.processingUnitStatistic)
                 && Objects.equals(statusMessageList, other.statusMessageList);
@@ -415,7 +447,7 @@ public class ProcessingUnitStatus implements IProcessingUnitStatus, Serializable
     public String toString() {
         return "ProcessingUnitStatus [hasNext=" + hasNext + ", numberOfSuccessfulUnits=" + numberOfSuccessfulUnits
                 + ", numberOfFailedUnits=" + numberOfFailedUnits + ", numberOfUnprocessedUnits="
-                + numberOfUnprocessedUnits + ", processingRuntimeStatus=" + processingRuntimeStatus + ", statusMessageList="
+                + numberOfUnprocessedUnits + (numberOfPendingUnits != null ? ", numberOfPendingUnits=" + numberOfPendingUnits : "") + ", processingRuntimeStatus=" + processingRuntimeStatus + ", statusMessageList="
                 + statusMessageList + ", processingUnitStatistic=" + processingUnitStatistic + "]";
     }
 }
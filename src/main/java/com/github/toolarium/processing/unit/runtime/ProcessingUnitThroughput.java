@@ -0,0 +1,243 @@
+/*
+ * ProcessingUnitThroughput.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Measures the throughput of a processing in units per second: the instantaneous rate of the last tick and an exponentially
+ * weighted moving average (EWMA) over 10 seconds, 1 minute and 5 minutes. The processed units are only added to a counter,
+ * the averages are updated once per tick by the thread which wins the tick. All updates are lock-free and O(1), also after
+ * a long idle time. The averages are kept on a suspend: the ticks continue after a resume without a decay of the suspend time.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitThroughput implements Serializable {
+    /** DEFAULT_TICK_INTERVAL: the default tick interval in milliseconds. */
+    public static final long DEFAULT_TICK_INTERVAL = 1000L;
+
+    private static final long serialVersionUID = -2417013377813165734L;
+    private static final long TEN_SECONDS = 10000L;
+    private static final long ONE_MINUTE = 60000L;
+    private static final long FIVE_MINUTES = 300000L;
+    private final long tickInterval;
+    private final double alpha10Seconds;
+    private final double alpha1Minute;
+    private final double alpha5Minutes;
+    private final AtomicLong uncounted;
+    private transient AtomicLong lastTick;
+    private volatile boolean isInitialized;
+    private volatile double rate;
+    private volatile double throughput10Seconds;
+    private volatile double throughput1Minute;
+    private volatile double throughput5Minutes;
+
+
+    /**
+     * Constructor for ProcessingUnitThroughput
+     */
+    public ProcessingUnitThroughput() {
+        this(DEFAULT_TICK_INTERVAL);
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitThroughput
+     *
+     * @param tickInterval the tick interval in milliseconds
+     */
+    public ProcessingUnitThroughput(long tickInterval) {
+        this.tickInterval = Math.max(1L, tickInterval);
+        this.alpha10Seconds = alpha(this.tickInterval, TEN_SECONDS);
+        this.alpha1Minute = alpha(this.tickInterval, ONE_MINUTE);
+        this.alpha5Minutes = alpha(this.tickInterval, FIVE_MINUTES);
+        this.uncounted = new AtomicLong(0);
+        this.lastTick = new AtomicLong(System.currentTimeMillis());
+        this.isInitialized = false;
+        this.rate = 0;
+        this.throughput10Seconds = 0;
+        this.throughput1Minute = 0;
+        this.throughput5Minutes = 0;
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitThroughput
+     *
+     * @param processingUnitThroughput the throughput to copy
+     */
+    public ProcessingUnitThroughput(ProcessingUnitThroughput processingUnitThroughput) {
+        this(processingUnitThroughput.tickInterval);
+        this.uncounted.set(processingUnitThroughput.uncounted.get());
+        this.isInitialized = processingUnitThroughput.isInitialized;
+        this.rate = processingUnitThroughput.rate;
+        this.throughput10Seconds = processingUnitThroughput.throughput10Seconds;
+        this.throughput1Minute = processingUnitThroughput.throughput1Minute;
+        this.throughput5Minutes = processingUnitThroughput.throughput5Minutes;
+    }
+
+
+    /**
+     * Add processed units
+     *
+     * @param processedUnits the number of processed units
+     */
+    public void add(long processedUnits) {
+        tickIfNecessary();
+        if (processedUnits > 0) {
+            uncounted.addAndGet(processedUnits);
+        }
+    }
+
+
+    /**
+     * Get the instantaneous rate: the processed units per second of the last tick
+     *
+     * @return the rate in units per second
+     */
+    public double getRate() {
+        tickIfNecessary();
+        return rate;
+    }
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over 10 seconds
+     *
+     * @return the throughput in units per second
+     */
+    public double getThroughputLast10Seconds() {
+        tickIfNecessary();
+        return throughput10Seconds;
+    }
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over 1 minute
+     *
+     * @return the throughput in units per second
+     */
+    public double getThroughputLastMinute() {
+        tickIfNecessary();
+        return throughput1Minute;
+    }
+
+
+    /**
+     * Get the throughput as exponentially weighted moving average over 5 minutes
+     *
+     * @return the throughput in units per second
+     */
+    public double getThroughputLast5Minutes() {
+        tickIfNecessary();
+        return throughput5Minutes;
+    }
+
+
+    /**
+     * Estimate the remaining time based on the throughput of the last minute
+     *
+     * @param numberOfUnprocessedUnits the number of unprocessed units
+     * @return the estimated time remaining in milliseconds or -1 in case there is no throughput yet
+     */
+    public long getEstimatedTimeRemaining(long numberOfUnprocessedUnits) {
+        if (numberOfUnprocessedUnits <= 0) {
+            return 0;
+        }
+
+        final double throughput = getThroughputLastMinute();
+        if (throughput <= 0) {
+            return -1;
+        }
+
+        return Math.round(numberOfUnprocessedUnits / throughput * 1000.0);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProcessingUnitThroughput [rate=" + rate + ", throughput10Seconds=" + throughput10Seconds + ", throughput1Minute=" + throughput1Minute
+                + ", throughput5Minutes=" + throughput5Minutes + "]";
+    }
+
+
+    /**
+     * Tick in case the tick interval has elapsed: only the thread which wins the tick updates the averages
+     */
+    private void tickIfNecessary() {
+        final long oldTick = lastTick.get();
+        final long age = System.currentTimeMillis() - oldTick;
+        if (age < tickInterval) {
+            return;
+        }
+
+        final long newTick = oldTick + age - (age % tickInterval);
+        if (lastTick.compareAndSet(oldTick, newTick)) {
+            tick(age / tickInterval);
+        }
+    }
+
+
+    /**
+     * Update the rate and the averages: the counted units belong to the first tick, the further ticks had no units
+     *
+     * @param numberOfTicks the number of elapsed ticks
+     */
+    private void tick(long numberOfTicks) {
+        final double instantRate = uncounted.getAndSet(0) * 1000.0 / tickInterval;
+        if (!isInitialized) {
+            throughput10Seconds = instantRate;
+            throughput1Minute = instantRate;
+            throughput5Minutes = instantRate;
+            isInitialized = true;
+        } else {
+            throughput10Seconds += alpha10Seconds * (instantRate - throughput10Seconds);
+            throughput1Minute += alpha1Minute * (instantRate - throughput1Minute);
+            throughput5Minutes += alpha5Minutes * (instantRate - throughput5Minutes);
+        }
+
+        if (numberOfTicks > 1) {
+            throughput10Seconds *= Math.pow(1 - alpha10Seconds, numberOfTicks - 1);
+            throughput1Minute *= Math.pow(1 - alpha1Minute, numberOfTicks - 1);
+            throughput5Minutes *= Math.pow(1 - alpha5Minutes, numberOfTicks - 1);
+            rate = 0;
+        } else {
+            rate = instantRate;
+        }
+    }
+
+
+    /**
+     * Calculate the smoothing factor of a window
+     *
+     * @param tickInterval the tick interval in milliseconds
+     * @param window the window in milliseconds
+     * @return the smoothing factor
+     */
+    private static double alpha(long tickInterval, long window) {
+        return 1 - Math.exp(-((double) tickInterval) / window);
+    }
+
+
+    /**
+     * Restore the tick after deserialization: the suspend time doesn't decay the averages
+     *
+     * @param in the input stream
+     * @throws IOException In case of an I/O error
+     * @throws ClassNotFoundException In case of a missing class
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        lastTick = new AtomicLong(System.currentTimeMillis());
+    }
+}
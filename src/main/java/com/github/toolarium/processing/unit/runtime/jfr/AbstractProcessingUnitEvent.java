@@ -0,0 +1,53 @@
+/*
+ * AbstractProcessingUnitEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Defines the base of the JDK Flight Recorder events of a processing unit. The fields are only set in case the event
+ * is committed: as long as the flight recorder doesn't record the event an instance costs nothing. The fields are
+ * protected, the flight recorder ignores private fields of a super class.
+ *
+ * @author patrick
+ */
+@Category({"toolarium", "Processing Unit"})
+@StackTrace(false)
+public abstract class AbstractProcessingUnitEvent extends Event {
+    @Label("Id")
+    protected String id;
+
+    @Label("Name")
+    protected String name;
+
+    @Label("Processing Unit Class")
+    protected Class<?> processingUnitClass;
+
+
+    /**
+     * Check if the event should be committed and set the processing unit in this case
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @return true if the event should be committed
+     */
+    protected boolean shouldCommit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass) {
+        if (!shouldCommit()) {
+            return false;
+        }
+
+        this.id = id;
+        this.name = name;
+        this.processingUnitClass = processingUnitClass;
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * EmptyRunSleepEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+
+/**
+ * The JDK Flight Recorder event of the sleep of a processing unit after an empty run.
+ *
+ * @author patrick
+ */
+@Name(EmptyRunSleepEvent.NAME)
+@Label("Empty Run Sleep")
+@Description("The sleep of a processing unit after a run without progress")
+public class EmptyRunSleepEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.EmptyRunSleep";
+
+    @Label("Sleep Time")
+    @Timespan(Timespan.MILLISECONDS)
+    private long sleepTime;
+
+    @Label("Empty Runs")
+    private long numberOfEmptyRuns;
+
+    @Label("Woken Up")
+    private boolean wokenUp;
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param sleepTime the planned sleep time in milliseconds
+     * @param numberOfEmptyRuns the number of empty runs
+     * @param wokenUp true if the sleep was ended by a wake-up
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long sleepTime, long numberOfEmptyRuns, boolean wokenUp) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            this.sleepTime = sleepTime;
+            this.numberOfEmptyRuns = numberOfEmptyRuns;
+            this.wokenUp = wokenUp;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * ObjectLockEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/**
+ * The JDK Flight Recorder event of a lock call of the object lock manager of a parallel processing unit: the duration
+ * contains the wait for a concurrent table migration.
+ *
+ * @author patrick
+ */
+@Name(ObjectLockEvent.NAME)
+@Label("Object Lock")
+@Description("The lock of objects by the object lock manager of a parallel processing unit")
+@Category({"toolarium", "Processing Unit"})
+@StackTrace(false)
+@Threshold("1 ms")
+public class ObjectLockEvent extends Event {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.ObjectLock";
+
+    @Label("Objects")
+    private int numberOfObjects;
+
+    @Label("Locked")
+    private int numberOfLocked;
+
+    @Label("Already Locked")
+    private int numberOfAlreadyLocked;
+
+    @Label("Blocked")
+    private int numberOfBlocked;
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param numberOfObjects the number of objects to lock
+     * @param numberOfLocked the number of locked objects
+     * @param numberOfAlreadyLocked the number of already locked objects
+     * @param numberOfBlocked the number of blocked objects
+     */
+    public void commit(int numberOfObjects, int numberOfLocked, int numberOfAlreadyLocked, int numberOfBlocked) {
+        if (shouldCommit()) {
+            this.numberOfObjects = numberOfObjects;
+            this.numberOfLocked = numberOfLocked;
+            this.numberOfAlreadyLocked = numberOfAlreadyLocked;
+            this.numberOfBlocked = numberOfBlocked;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * ProcessUnitEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The JDK Flight Recorder event of a processing unit call.
+ *
+ * @author patrick
+ */
+@Name(ProcessUnitEvent.NAME)
+@Label("Process Unit")
+@Description("A call of the process unit method of a processing unit")
+public class ProcessUnitEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.ProcessUnit";
+
+    @Label("Processed Units")
+    private long numberOfProcessedUnits;
+
+    @Label("Has Next")
+    private boolean hasNext;
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param numberOfProcessedUnits the number of processed units of the call
+     * @param hasNext true if the processing continues
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long numberOfProcessedUnits, boolean hasNext) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            this.numberOfProcessedUnits = numberOfProcessedUnits;
+            this.hasNext = hasNext;
+            commit();
+        }
+    }
+}
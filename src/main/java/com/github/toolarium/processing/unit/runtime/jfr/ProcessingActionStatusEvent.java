@@ -0,0 +1,50 @@
+/*
+ * ProcessingActionStatusEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The JDK Flight Recorder event of a processing action status transition of a processing unit.
+ *
+ * @author patrick
+ */
+@Name(ProcessingActionStatusEvent.NAME)
+@Label("Processing Action Status")
+@Description("The processing action status transition of a processing unit")
+public class ProcessingActionStatusEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.ProcessingActionStatus";
+
+    @Label("Previous Status")
+    private String previousProcessingActionStatus;
+
+    @Label("Status")
+    private String processingActionStatus;
+
+
+    /**
+     * Commit the event in case it is recorded
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param previousProcessingActionStatus the previous processing action status
+     * @param processingActionStatus the processing action status
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, ProcessingActionStatus previousProcessingActionStatus, ProcessingActionStatus processingActionStatus) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            this.previousProcessingActionStatus = (previousProcessingActionStatus != null) ? previousProcessingActionStatus.name() : null;
+            this.processingActionStatus = (processingActionStatus != null) ? processingActionStatus.name() : null;
+            commit();
+        }
+    }
+}
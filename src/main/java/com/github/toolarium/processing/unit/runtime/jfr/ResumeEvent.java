@@ -0,0 +1,46 @@
+/*
+ * ResumeEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The JDK Flight Recorder event of the resume of a processing unit: the duration contains the deserialization.
+ *
+ * @author patrick
+ */
+@Name(ResumeEvent.NAME)
+@Label("Resume")
+@Description("The deserialization and resume of a processing unit")
+public class ResumeEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.Resume";
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param size the size of the serialized processing unit
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long size) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            this.size = size;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * SuspendEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The JDK Flight Recorder event of the suspend of a processing unit: the duration contains the serialization.
+ *
+ * @author patrick
+ */
+@Name(SuspendEvent.NAME)
+@Label("Suspend")
+@Description("The suspend and serialization of a processing unit")
+public class SuspendEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.Suspend";
+
+    @Label("Size")
+    @DataAmount
+    private long size;
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param size the size of the serialized processing unit
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long size) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            this.size = size;
+            commit();
+        }
+    }
+}
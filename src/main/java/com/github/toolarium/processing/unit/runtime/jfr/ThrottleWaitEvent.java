@@ -0,0 +1,41 @@
+/*
+ * ThrottleWaitEvent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+
+/**
+ * The JDK Flight Recorder event of a throttling wait of a processing unit.
+ *
+ * @author patrick
+ */
+@Name(ThrottleWaitEvent.NAME)
+@Label("Throttle Wait")
+@Description("The wait of a processing unit because of the max number of processing unit calls per second")
+@Threshold("1 ms")
+public class ThrottleWaitEvent extends AbstractProcessingUnitEvent {
+    /** NAME: the event name. */
+    public static final String NAME = "com.github.toolarium.processing.unit.ThrottleWait";
+
+
+    /**
+     * Commit the event in case it is recorded, the event has to be ended before
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     */
+    public void commit(String id, String name, Class<? extends IProcessingUnit> processingUnitClass) {
+        if (shouldCommit(id, name, processingUnitClass)) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,688 @@
+/*
+ * AsyncProcessingUnitRunnableListener.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitProgress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Dispatches the notifications to a {@link IProcessingUnitRunnableListener} asynchronously by an own daemon thread that a
+ * slow listener doesn't stall the processing. The progress of a processing is coalesced: as long as a progress of a
+ * processing is not yet delivered and no state transition of the processing was notified after it, it is replaced by the
+ * newer one, only the latest progress is delivered. A progress notified after a state transition is delivered after it.
+ * The state transitions are always delivered in order, in case the queue is full the processing waits until there is space.
+ * A progress is dropped in case the queue is full.
+ *
+ * <p>The notified progress, context, messages and time measurement are snapshots of the moment of the notification. A
+ * progress which replaces a pending one takes the snapshot not on the processing thread: it is taken as soon as the 
+ * progress is delivered or a state transition of the processing is notified.</p>
+ *
+ * @author patrick
+ */
+public class AsyncProcessingUnitRunnableListener implements IProcessingUnitRunnableListener, AutoCloseable {
+    /** The default capacity of the queue */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncProcessingUnitRunnableListener.class);
+    private static final long POLL_TIMEOUT = 100L;
+    private final IProcessingUnitRunnableListener processingUnitRunnableListener;
+    private final BlockingQueue<Notification> notificationQueue;
+    private final Map<String, PendingProgressNotification> pendingProgressNotificationMap;
+    private final Object lock;
+    private final ReadWriteLock terminateLock;
+    private final AtomicLong numberOfDeliveredNotifications;
+    private final AtomicLong numberOfCoalescedProgressNotifications;
+    private final AtomicLong numberOfDroppedProgressNotifications;
+    private final Thread dispatcherThread;
+    private volatile boolean closed;
+    private volatile boolean terminated;
+
+
+    /**
+     * Constructor for AsyncProcessingUnitRunnableListener
+     *
+     * @param processingUnitRunnableListener the processing unit runnable listener to notify
+     */
+    public AsyncProcessingUnitRunnableListener(IProcessingUnitRunnableListener processingUnitRunnableListener) {
+        this(processingUnitRunnableListener, DEFAULT_QUEUE_CAPACITY);
+    }
+
+
+    /**
+     * Constructor for AsyncProcessingUnitRunnableListener
+     *
+     * @param processingUnitRunnableListener the processing unit runnable listener to notify
+     * @param queueCapacity the capacity of the queue
+     */
+    public AsyncProcessingUnitRunnableListener(IProcessingUnitRunnableListener processingUnitRunnableListener, int queueCapacity) {
+        if (processingUnitRunnableListener == null) {
+            throw new IllegalArgumentException("Invalid processing unit runnable listener!");
+        }
+
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid queue capacity " + queueCapacity + "!");
+        }
+
+        this.processingUnitRunnableListener = processingUnitRunnableListener;
+        this.notificationQueue = new ArrayBlockingQueue<Notification>(queueCapacity);
+        this.pendingProgressNotificationMap = new HashMap<String, PendingProgressNotification>();
+        this.lock = new Object();
+        this.terminateLock = new ReentrantReadWriteLock();
+        this.numberOfDeliveredNotifications = new AtomicLong();
+        this.numberOfCoalescedProgressNotifications = new AtomicLong();
+        this.numberOfDroppedProgressNotifications = new AtomicLong();
+        this.closed = false;
+        this.terminated = false;
+        this.dispatcherThread = Executors.defaultThreadFactory().newThread(this::dispatch);
+        this.dispatcherThread.setName("processing-unit-listener-dispatcher " + processingUnitRunnableListener.getClass().getSimpleName());
+        this.dispatcherThread.setDaemon(true);
+        this.dispatcherThread.start();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener#notifyProcessingUnitProgress(java.lang.String, java.lang.String, java.lang.String,
+     *      java.util.List, com.github.toolarium.processing.unit.IProcessingUnitContext, com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.dto.ProcessingActionStatus,
+     *      com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus, java.util.List, com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement, com.github.toolarium.common.bandwidth.IBandwidthThrottling, int)
+     */
+    @Override
+    public void notifyProcessingUnitProgress(String id, // CHECKSTYLE IGNORE THIS LINE
+                                             String name,
+                                             String processingUnitClass,
+                                             List<Parameter> parameters,
+                                             IProcessingUnitContext processingUnitContext,
+                                             IProcessingUnitProgress processingProgress,
+                                             ProcessingActionStatus processingActionStatus,
+                                             ProcessingRuntimeStatus processingRuntimeStatus,
+                                             List<String> messages,
+                                             IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                                             IBandwidthThrottling processingUnitThrottling,
+                                             int lastProgressInPercentage) {
+        if (terminated) {
+            numberOfDroppedProgressNotifications.incrementAndGet();
+            return;
+        }
+
+        List<String> messageList = null;
+        if (messages != null) {
+            messageList = new ArrayList<String>(messages);
+        }
+
+        terminateLock.readLock().lock();
+        try {
+            synchronized (lock) {
+                PendingProgressNotification pendingProgressNotification = pendingProgressNotificationMap.get(id);
+                if (pendingProgressNotification != null) {
+                    // the snapshot of the replaced progress is taken as late as possible
+                    pendingProgressNotification.progressNotification.update(parameters, processingUnitContext, processingProgress, processingActionStatus, processingRuntimeStatus,
+                                                                            messageList, timeMeasurement, processingUnitThrottling);
+                    numberOfCoalescedProgressNotifications.incrementAndGet();
+                    return;
+                }
+            }
+
+            ProgressNotification progressNotification = new ProgressNotification(id, name, processingUnitClass, lastProgressInPercentage);
+            progressNotification.update(parameters, processingUnitContext, processingProgress, processingActionStatus, processingRuntimeStatus,
+                                        messageList, timeMeasurement, processingUnitThrottling);
+            progressNotification.snapshot();
+            
+            synchronized (lock) {
+                PendingProgressNotification pendingProgressNotification = pendingProgressNotificationMap.get(id);
+                if (pendingProgressNotification != null) {
+                    // keep the last progress in percentage of the first not delivered notification
+                    progressNotification.lastProgressInPercentage = pendingProgressNotification.progressNotification.lastProgressInPercentage;
+                    pendingProgressNotification.progressNotification = progressNotification;
+                    numberOfCoalescedProgressNotifications.incrementAndGet();
+                } else {
+                    pendingProgressNotification = new PendingProgressNotification(id, progressNotification);
+                    if (!terminated && notificationQueue.offer(pendingProgressNotification)) {
+                        pendingProgressNotificationMap.put(id, pendingProgressNotification);
+                    } else {
+                        numberOfDroppedProgressNotifications.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            terminateLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener#notifyProcessingUnitState(java.lang.String, java.lang.String, java.lang.String,
+     *      com.github.toolarium.processing.unit.dto.ProcessingActionStatus, com.github.toolarium.processing.unit.dto.ProcessingActionStatus, com.github.toolarium.processing.unit.IProcessingUnitProgress,
+     *      com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement, com.github.toolarium.processing.unit.IProcessingUnitContext)
+     */
+    @Override
+    public void notifyProcessingUnitState(String id,
+                                          String name,
+                                          String processingUnitClass,
+                                          ProcessingActionStatus previousProcessingActionStatus,
+                                          ProcessingActionStatus processingActionStatus,
+                                          IProcessingUnitProgress processingUnitProgress,
+                                          IProcessingUnitRuntimeTimeMeasurement runtimeTimeMeasurment,
+                                          IProcessingUnitContext processingUnitContext) {
+        StateNotification stateNotification = new StateNotification(id, name, processingUnitClass, previousProcessingActionStatus, processingActionStatus,
+                                                                    snapshot(processingUnitProgress), snapshot(runtimeTimeMeasurment), snapshot(processingUnitContext));
+        terminateLock.readLock().lock();
+        try {
+            synchronized (lock) {
+                // a pending progress is delivered before the state transition, a newer progress is not coalesced with it anymore
+                PendingProgressNotification pendingProgressNotification = pendingProgressNotificationMap.remove(id);
+                if (pendingProgressNotification != null) {
+                    pendingProgressNotification.progressNotification.snapshot();
+                }
+            }
+            
+
+            if (terminated) {
+                // the dispatcher thread is terminated and all queued notifications are delivered
+                deliver(stateNotification);
+            } else {
+                notificationQueue.put(stateNotification);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Could not queue the processing unit state " + processingActionStatus + " of " + id + ", interrupted.");
+        } finally {
+            terminateLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Get the number of delivered notifications
+     *
+     * @return the number of delivered notifications
+     */
+    public long getNumberOfDeliveredNotifications() {
+        return numberOfDeliveredNotifications.get();
+    }
+
+
+    /**
+     * Get the number of progress notifications which were replaced by a newer progress before they were delivered
+     *
+     * @return the number of coalesced progress notifications
+     */
+    public long getNumberOfCoalescedProgressNotifications() {
+        return numberOfCoalescedProgressNotifications.get();
+    }
+
+
+    /**
+     * Get the number of progress notifications which were dropped because the queue was full or the listener was closed
+     *
+     * @return the number of dropped progress notifications
+     */
+    public long getNumberOfDroppedProgressNotifications() {
+        return numberOfDroppedProgressNotifications.get();
+    }
+
+
+    /**
+     * Get the number of queued notifications which are not yet delivered
+     *
+     * @return the number of queued notifications
+     */
+    public int getNumberOfQueuedNotifications() {
+        return notificationQueue.size();
+    }
+
+
+    /**
+     * Wait until all queued notifications are delivered
+     *
+     * @param timeout the timeout in milliseconds
+     * @return true if all queued notifications are delivered
+     */
+    public boolean awaitDelivery(long timeout) {
+        final long end = System.currentTimeMillis() + timeout;
+        while (hasPendingNotifications()) {
+            if (System.currentTimeMillis() >= end || !dispatcherThread.isAlive()) {
+                return false;
+            }
+
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Close the listener: the dispatcher thread terminates as soon as all queued notifications are delivered. Afterwards the
+     * progress notifications are dropped and the state notifications are delivered directly.
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Close " + toString());
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "AsyncProcessingUnitRunnableListener [listener=" + processingUnitRunnableListener.getClass().getName()
+                + ", delivered=" + getNumberOfDeliveredNotifications()
+                + ", coalesced=" + getNumberOfCoalescedProgressNotifications()
+                + ", dropped=" + getNumberOfDroppedProgressNotifications()
+                + ", queued=" + getNumberOfQueuedNotifications() + "]";
+    }
+
+
+    /**
+     * Dispatch the queued notifications until the listener is closed and all queued notifications are delivered
+     */
+    private void dispatch() {
+        while (!terminated) {
+            try {
+                Notification notification = notificationQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (notification instanceof PendingProgressNotification) {
+                    final PendingProgressNotification pendingProgressNotification = (PendingProgressNotification) notification;
+                    synchronized (lock) {
+                        pendingProgressNotificationMap.remove(pendingProgressNotification.id, pendingProgressNotification);
+                        notification = pendingProgressNotification.progressNotification.snapshot();
+                    }
+                }
+
+                if (notification != null) {
+                    deliver(notification);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Interrupted " + toString());
+            }
+
+            if ((closed || Thread.currentThread().isInterrupted()) && notificationQueue.isEmpty() && terminateLock.writeLock().tryLock()) {
+                try {
+                    // no notification can be queued as long as the write lock is hold
+                    terminated = notificationQueue.isEmpty();
+                } finally {
+                    terminateLock.writeLock().unlock();
+                }
+            }
+        }
+        
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Terminated " + toString());
+        }
+    }
+
+
+    /**
+     * Deliver a notification to the listener
+     *
+     * @param notification the notification
+     */
+    private void deliver(Notification notification) {
+        try {
+            notification.deliver(processingUnitRunnableListener);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not notify the processing unit runnable listener: " + e.getMessage(), e);
+        } finally {
+            numberOfDeliveredNotifications.incrementAndGet();
+        }
+    }
+
+
+    /**
+     * Check if there are notifications which are not yet delivered
+     *
+     * @return true if there are notifications which are not yet delivered
+     */
+    private boolean hasPendingNotifications() {
+        synchronized (lock) {
+            return !notificationQueue.isEmpty() || !pendingProgressNotificationMap.isEmpty();
+        }
+    }
+
+
+    /**
+     * Snapshot of a processing unit context
+     *
+     * @param processingUnitContext the processing unit context
+     * @return the snapshot
+     */
+    private static IProcessingUnitContext snapshot(IProcessingUnitContext processingUnitContext) {
+        if (processingUnitContext == null) {
+            return null;
+        }
+
+        return new ProcessingUnitContext(processingUnitContext);
+    }
+
+
+    /**
+     * Snapshot of a processing unit progress
+     *
+     * @param processingUnitProgress the processing unit progress
+     * @return the snapshot
+     */
+    private static IProcessingUnitProgress snapshot(IProcessingUnitProgress processingUnitProgress) {
+        if (processingUnitProgress == null) {
+            return null;
+        }
+
+        return new ProcessingUnitProgress(processingUnitProgress);
+    }
+
+
+    /**
+     * Snapshot of a runtime time measurement
+     *
+     * @param timeMeasurement the runtime time measurement
+     * @return the snapshot
+     */
+    private static IProcessingUnitRuntimeTimeMeasurement snapshot(IProcessingUnitRuntimeTimeMeasurement timeMeasurement) {
+        if (timeMeasurement == null) {
+            return null;
+        }
+
+        return new TimeMeasurementSnapshot(timeMeasurement);
+    }
+
+
+    /**
+     * Defines a queued notification
+     */
+    private interface Notification {
+        /**
+         * Deliver the notification
+         *
+         * @param processingUnitRunnableListener the processing unit runnable listener
+         */
+        void deliver(IProcessingUnitRunnableListener processingUnitRunnableListener);
+    }
+
+
+    /**
+     * The queue placeholder of the pending progress notification of a processing
+     */
+    private static class PendingProgressNotification implements Notification {
+        private final String id;
+        private ProgressNotification progressNotification;
+
+
+        /**
+         * Constructor for PendingProgressNotification
+         *
+         * @param id the id of the processing
+         * @param progressNotification the progress notification
+         */
+        PendingProgressNotification(String id, ProgressNotification progressNotification) {
+            this.id = id;
+            this.progressNotification = progressNotification;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.runnable.AsyncProcessingUnitRunnableListener.Notification#deliver(com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener)
+         */
+        @Override
+        public void deliver(IProcessingUnitRunnableListener processingUnitRunnableListener) {
+            // the pending progress notification is delivered
+        }
+    }
+
+
+    /**
+     * The progress notification
+     */
+    private static class ProgressNotification implements Notification {
+        private final String id;
+        private final String name;
+        private final String processingUnitClass;
+        private List<Parameter> parameters;
+        private IProcessingUnitContext processingUnitContext;
+        private IProcessingUnitProgress processingProgress;
+        private ProcessingActionStatus processingActionStatus;
+        private ProcessingRuntimeStatus processingRuntimeStatus;
+        private List<String> messages;
+        private IProcessingUnitRuntimeTimeMeasurement timeMeasurement;
+        private IBandwidthThrottling processingUnitThrottling;
+        private int lastProgressInPercentage;
+        private boolean isSnapshot;
+
+
+        /**
+         * Constructor for ProgressNotification
+         *
+         * @param id the id
+         * @param name the name
+         * @param processingUnitClass the processing unit class
+         * @param lastProgressInPercentage the last progress in percentage
+         */
+        ProgressNotification(String id, String name, String processingUnitClass, int lastProgressInPercentage) {
+            this.id = id;
+            this.name = name;
+            this.processingUnitClass = processingUnitClass;
+            this.lastProgressInPercentage = lastProgressInPercentage;
+            this.isSnapshot = false;
+        }
+
+
+        /**
+         * Update the progress, the context, the progress and the time measurement are referenced until the snapshot is taken
+         *
+         * @param parameters the parameters
+         * @param processingUnitContext the processing unit context
+         * @param processingProgress the processing unit progress
+         * @param processingActionStatus the action status
+         * @param processingRuntimeStatus the runtime status
+         * @param messages the messages
+         * @param timeMeasurement the time measurement
+         * @param processingUnitThrottling the processing unit throttling
+         */
+        void update(List<Parameter> parameters, // CHECKSTYLE IGNORE THIS LINE
+                    IProcessingUnitContext processingUnitContext,
+                    IProcessingUnitProgress processingProgress,
+                    ProcessingActionStatus processingActionStatus,
+                    ProcessingRuntimeStatus processingRuntimeStatus,
+                    List<String> messages,
+                    IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                    IBandwidthThrottling processingUnitThrottling) {
+            this.parameters = parameters;
+            this.processingUnitContext = processingUnitContext;
+            this.processingProgress = processingProgress;
+            this.processingActionStatus = processingActionStatus;
+            this.processingRuntimeStatus = processingRuntimeStatus;
+            this.messages = messages;
+            this.timeMeasurement = timeMeasurement;
+            this.processingUnitThrottling = processingUnitThrottling;
+            this.isSnapshot = false;
+        }
+
+
+        /**
+         * Take the snapshot of the context, the progress and the time measurement in case it is not yet taken
+         *
+         * @return this instance
+         */
+        ProgressNotification snapshot() {
+            if (!isSnapshot) {
+                processingUnitContext = AsyncProcessingUnitRunnableListener.snapshot(processingUnitContext);
+                processingProgress = AsyncProcessingUnitRunnableListener.snapshot(processingProgress);
+                timeMeasurement = AsyncProcessingUnitRunnableListener.snapshot(timeMeasurement);
+                isSnapshot = true;
+            }
+
+            return this;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.runnable.AsyncProcessingUnitRunnableListener.Notification#deliver(com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener)
+         */
+        @Override
+        public void deliver(IProcessingUnitRunnableListener processingUnitRunnableListener) {
+            processingUnitRunnableListener.notifyProcessingUnitProgress(id, name, processingUnitClass, parameters, processingUnitContext, processingProgress, processingActionStatus,
+                                                                        processingRuntimeStatus, messages, timeMeasurement, processingUnitThrottling, lastProgressInPercentage);
+        }
+    }
+
+
+    /**
+     * The state notification
+     */
+    private static class StateNotification implements Notification {
+        private final String id;
+        private final String name;
+        private final String processingUnitClass;
+        private final ProcessingActionStatus previousProcessingActionStatus;
+        private final ProcessingActionStatus processingActionStatus;
+        private final IProcessingUnitProgress processingUnitProgress;
+        private final IProcessingUnitRuntimeTimeMeasurement runtimeTimeMeasurment;
+        private final IProcessingUnitContext processingUnitContext;
+
+
+        /**
+         * Constructor for StateNotification
+         *
+         * @param id the id
+         * @param name the name
+         * @param processingUnitClass the processing unit class
+         * @param previousProcessingActionStatus the previous processing action status
+         * @param processingActionStatus the processing action status
+         * @param processingUnitProgress the processing unit progress
+         * @param runtimeTimeMeasurment the time measurement
+         * @param processingUnitContext the processing unit context
+         */
+        StateNotification(String id,  // CHECKSTYLE IGNORE THIS LINE
+                          String name,
+                          String processingUnitClass,
+                          ProcessingActionStatus previousProcessingActionStatus,
+                          ProcessingActionStatus processingActionStatus,
+                          IProcessingUnitProgress processingUnitProgress,
+                          IProcessingUnitRuntimeTimeMeasurement runtimeTimeMeasurment,
+                          IProcessingUnitContext processingUnitContext) {
+            this.id = id;
+            this.name = name;
+            this.processingUnitClass = processingUnitClass;
+            this.previousProcessingActionStatus = previousProcessingActionStatus;
+            this.processingActionStatus = processingActionStatus;
+            this.processingUnitProgress = processingUnitProgress;
+            this.runtimeTimeMeasurment = runtimeTimeMeasurment;
+            this.processingUnitContext = processingUnitContext;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.runnable.AsyncProcessingUnitRunnableListener.Notification#deliver(com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener)
+         */
+        @Override
+        public void deliver(IProcessingUnitRunnableListener processingUnitRunnableListener) {
+            processingUnitRunnableListener.notifyProcessingUnitState(id, name, processingUnitClass, previousProcessingActionStatus, processingActionStatus,
+                                                                     processingUnitProgress, runtimeTimeMeasurment, processingUnitContext);
+        }
+    }
+
+
+    /**
+     * The snapshot of a runtime time measurement
+     */
+    private static class TimeMeasurementSnapshot implements IProcessingUnitRuntimeTimeMeasurement {
+        private final Instant startTimestamp;
+        private final Instant stopTimestamp;
+        private final long duration;
+        private final String durationAsString;
+
+
+        /**
+         * Constructor for TimeMeasurementSnapshot
+         *
+         * @param timeMeasurement the runtime time measurement
+         */
+        TimeMeasurementSnapshot(IProcessingUnitRuntimeTimeMeasurement timeMeasurement) {
+            this.startTimestamp = timeMeasurement.getStartTimestamp();
+            this.stopTimestamp = timeMeasurement.getStopTimestamp();
+            this.duration = timeMeasurement.getDuration();
+            this.durationAsString = timeMeasurement.getDurationAsString();
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement#getStartTimestamp()
+         */
+        @Override
+        public Instant getStartTimestamp() {
+            return startTimestamp;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement#getStopTimestamp()
+         */
+        @Override
+        public Instant getStopTimestamp() {
+            return stopTimestamp;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement#getDuration()
+         */
+        @Override
+        public long getDuration() {
+            return duration;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement#getDurationAsString()
+         */
+        @Override
+        public String getDurationAsString() {
+            return durationAsString;
+        }
+
+
+        /**
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return durationAsString;
+        }
+    }
+}
@@ -5,17 +5,18 @@
  */
 package com.github.toolarium.processing.unit.runtime.runnable;
 
-import com.github.toolarium.common.util.ThreadUtil;
 import com.github.toolarium.processing.unit.IProcessingUnit;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.runtime.jfr.EmptyRunSleepEvent;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 /**
- * Implements the {@link IEmptyProcessingUnitHandler}.
+ * Implements the {@link IEmptyProcessingUnitHandler}. The sleep time after an empty run grows exponentially with jitter
+ * up to the max sleep time, in case it is greater than the sleep time. A sleep ends immediately by a {@link #wakeUp()}.
  * 
  * @author patrick
  */
@@ -24,8 +25,11 @@ public class EmptyProcessingUnitHandler implements IEmptyProcessingUnitHandler {
     private static final Logger LOG = LoggerFactory.getLogger(EmptyProcessingUnitHandler.class);
     private Long maxNumberOfEmptyProcessingUnits;
     private Long emptyProceessingUnitSleepTime;
+    private Long emptyProceessingUnitMaxSleepTime;
     private long numberOfEmptyProcessingUnitRuns;
+    private long numberOfBackoffs;
     private long duration;
+    private transient ProcessingUnitWakeUpSignal wakeUpSignal;
     
     
     /**
@@ -34,8 +38,11 @@ public class EmptyProcessingUnitHandler implements IEmptyProcessingUnitHandler {
     public EmptyProcessingUnitHandler() {
         maxNumberOfEmptyProcessingUnits = 10L;
         emptyProceessingUnitSleepTime = 500L;
+        emptyProceessingUnitMaxSleepTime = null;
         numberOfEmptyProcessingUnitRuns = 0L;
+        numberOfBackoffs = 0L;
         duration = 0L;
+        wakeUpSignal = null;
     }
     
     
@@ -82,12 +89,42 @@ public class EmptyProcessingUnitHandler implements IEmptyProcessingUnitHandler {
     }
 
 
+    /**
+     * Get the max sleep time of an empty processing unit run: the sleep time grows exponentially up to this time.
+     * 
+     * @return the max sleep time in milliseconds or null for a fixed sleep time
+     */
+    public Long getMaxSleepTimeAfterEmptyProcessingUnit() {
+        return emptyProceessingUnitMaxSleepTime;
+    }
+
+    
+    /**
+     * Defines the max sleep time of an empty processing unit run: the sleep time grows exponentially up to this time.
+     *
+     * @param emptyProceessingUnitMaxSleepTime the max sleep time in milliseconds or null for a fixed sleep time
+     */
+    public void setMaxSleepTimeAfterEmptyProcessingUnit(Long emptyProceessingUnitMaxSleepTime) {
+        this.emptyProceessingUnitMaxSleepTime = emptyProceessingUnitMaxSleepTime;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IEmptyProcessingUnitHandler#wakeUp()
+     */
+    @Override
+    public void wakeUp() {
+        getWakeUpSignal().wakeUp();
+    }
+
+
     /**
      * @see com.github.toolarium.processing.unit.runtime.runnable.IEmptyProcessingUnitHandler#reset(java.lang.String, java.lang.String, java.lang.Class, long, com.github.toolarium.processing.unit.IProcessingUnitProgress)
      */
     @Override
     public void reset(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long threadId, IProcessingUnitProgress processingUnitProgress) {
         numberOfEmptyProcessingUnitRuns = 0L;
+        numberOfBackoffs = 0L;
         duration = 0L;
     }
 
@@ -109,7 +146,21 @@ public class EmptyProcessingUnitHandler implements IEmptyProcessingUnitHandler {
             
             if (getSleepTimeAfterEmptyProcessingUnit() != null && getSleepTimeAfterEmptyProcessingUnit() > 0) {
                 long start = System.currentTimeMillis();
-                ThreadUtil.getInstance().sleep(getSleepTimeAfterEmptyProcessingUnit());
+                final long sleepTime = getSleepTime(++numberOfBackoffs);
+                final EmptyRunSleepEvent emptyRunSleepEvent = new EmptyRunSleepEvent();
+                emptyRunSleepEvent.begin();
+                boolean wokenUp = false;
+                try {
+                    if (getWakeUpSignal().await(sleepTime)) {
+                        // new data: the next empty run starts again with the initial sleep time
+                        numberOfBackoffs = 0L;
+                        wokenUp = true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                emptyRunSleepEvent.end();
+                emptyRunSleepEvent.commit(id, name, processingUnitClass, sleepTime, numberOfEmptyProcessingUnitRuns, wokenUp);
                 duration += System.currentTimeMillis() - start;
             }
         } else {
@@ -128,4 +179,32 @@ public class EmptyProcessingUnitHandler implements IEmptyProcessingUnitHandler {
     public long getDuration() {
         return duration;
     }
+
+
+    /**
+     * Get the sleep time of an empty processing unit run
+     *
+     * @param attempt the number of empty runs without a wake-up
+     * @return the sleep time in milliseconds
+     */
+    protected long getSleepTime(long attempt) {
+        if (getMaxSleepTimeAfterEmptyProcessingUnit() == null || getMaxSleepTimeAfterEmptyProcessingUnit() <= getSleepTimeAfterEmptyProcessingUnit()) {
+            return getSleepTimeAfterEmptyProcessingUnit();
+        }
+        
+        return new ExponentialBackoff(getSleepTimeAfterEmptyProcessingUnit(), getMaxSleepTimeAfterEmptyProcessingUnit()).getDelay(attempt);
+    }
+
+
+    /**
+     * Get the wake-up signal, it is not serialized
+     *
+     * @return the wake-up signal
+     */
+    private synchronized ProcessingUnitWakeUpSignal getWakeUpSignal() {
+        if (wakeUpSignal == null) {
+            wakeUpSignal = new ProcessingUnitWakeUpSignal();
+        }
+        return wakeUpSignal;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * ExponentialBackoff.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Implements an exponential backoff with jitter and cap: the delay starts with the initial delay and is multiplied 
+ * with every attempt up to the max delay. The jitter reduces the delay randomly, so that threads which have no 
+ * progress at the same time don't wake up together.
+ *
+ * @author patrick
+ */
+public class ExponentialBackoff implements Serializable {
+    /** The default multiplier */
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+
+    /** The default jitter */
+    public static final double DEFAULT_JITTER = 0.2;
+
+    private static final long serialVersionUID = -4519730216838106723L;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final double jitter;
+
+
+    /**
+     * Constructor for ExponentialBackoff
+     *
+     * @param initialDelay the initial delay in milliseconds
+     * @param maxDelay the max delay in milliseconds, in case it is smaller than the initial delay the delay is fixed
+     */
+    public ExponentialBackoff(long initialDelay, long maxDelay) {
+        this(initialDelay, maxDelay, DEFAULT_MULTIPLIER, DEFAULT_JITTER);
+    }
+
+
+    /**
+     * Constructor for ExponentialBackoff
+     *
+     * @param initialDelay the initial delay in milliseconds
+     * @param maxDelay the max delay in milliseconds, in case it is smaller than the initial delay the delay is fixed
+     * @param multiplier the multiplier of the delay per attempt
+     * @param jitter the max part of the delay which is randomly subtracted, between 0 and 1
+     */
+    public ExponentialBackoff(long initialDelay, long maxDelay, double multiplier, double jitter) {
+        this.initialDelay = Math.max(0, initialDelay);
+        this.maxDelay = Math.max(this.initialDelay, maxDelay);
+        this.multiplier = Math.max(1.0, multiplier);
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+
+    /**
+     * Get the initial delay
+     *
+     * @return the initial delay in milliseconds
+     */
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+
+    /**
+     * Get the max delay
+     *
+     * @return the max delay in milliseconds
+     */
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+
+    /**
+     * Check if the delay is fixed
+     *
+     * @return true if the delay doesn't grow
+     */
+    public boolean isFixed() {
+        return maxDelay <= initialDelay || multiplier <= 1.0;
+    }
+
+
+    /**
+     * Get the delay of an attempt
+     *
+     * @param attempt the attempt, starting with 1
+     * @return the delay in milliseconds
+     */
+    public long getDelay(long attempt) {
+        if (isFixed()) {
+            return initialDelay;
+        }
+
+        double delay = initialDelay;
+        for (long i = 1; i < attempt && delay < maxDelay; i++) {
+            delay *= multiplier;
+        }
+
+        final long result = (long) Math.min(delay, maxDelay);
+        if (jitter <= 0 || result <= 0) {
+            return result;
+        }
+
+        return result - (long) (ThreadLocalRandom.current().nextDouble() * jitter * result);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ExponentialBackoff [initialDelay=" + initialDelay + ", maxDelay=" + maxDelay + ", multiplier=" + multiplier + ", jitter=" + jitter + "]";
+    }
+}
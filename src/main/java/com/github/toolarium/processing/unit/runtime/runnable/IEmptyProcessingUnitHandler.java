@@ -43,6 +43,14 @@ public interface IEmptyProcessingUnitHandler extends Serializable {
     boolean handleEmptyProcessing(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, long threadId, IProcessingUnitProgress processingUnitProgress);
     
     
+    /**
+     * Wake up the handler in case it sleeps after an empty processing unit run, e.g. a data producer signals new data.
+     */
+    default void wakeUp() {
+        // NOP
+    }
+    
+    
     /**
      * Get the duration of this handler. This is to calculate exact duration of a processing. 
      *
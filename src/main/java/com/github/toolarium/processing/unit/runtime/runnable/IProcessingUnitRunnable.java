@@ -85,6 +85,12 @@ public interface IProcessingUnitRunnable {
     IProcessingUnitRuntimeTimeMeasurement getTimeMeasurement();
 
 
+    /**
+     * Wake up the processing in case it pauses because there was no progress, e.g. a data producer signals new data.
+     */
+    void wakeUp();
+
+    
     /**
      * Release resources will be called to release all internal referenced resources after a processing success, warn or error.
      *
@@ -0,0 +1,170 @@
+/*
+ * ProcessingUnitDeadline.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+
+/**
+ * Defines the deadline of a processing: the time the processing has to be ended. The processing aims to end before the
+ * deadline by a safety margin, it is the percentage of the remaining time. The required throughput is the throughput to
+ * process the unprocessed units in the remaining time without the safety margin.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitDeadline implements Serializable {
+    /** The default safety margin in percentage of the remaining time */
+    public static final int DEFAULT_SAFETY_MARGIN = 10;
+
+    private static final long serialVersionUID = 3380961735162446357L;
+    private final long deadline;
+    private final int safetyMargin;
+
+
+    /**
+     * Constructor for ProcessingUnitDeadline
+     *
+     * @param deadline the deadline
+     */
+    public ProcessingUnitDeadline(Instant deadline) {
+        this(deadline, DEFAULT_SAFETY_MARGIN);
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitDeadline
+     *
+     * @param deadline the deadline
+     * @param safetyMargin the safety margin in percentage of the remaining time between 0 and 99
+     */
+    public ProcessingUnitDeadline(Instant deadline, int safetyMargin) {
+        if (deadline == null) {
+            throw new ValidationException("Invalid empty deadline!");
+        }
+
+        if (safetyMargin < 0 || safetyMargin >= 100) {
+            throw new ValidationException("Invalid deadline safety margin " + safetyMargin + ", it must be between 0 and 99!");
+        }
+
+        this.deadline = deadline.toEpochMilli();
+        this.safetyMargin = safetyMargin;
+    }
+
+
+    /**
+     * Parse a deadline: an ISO-8601 instant (e.g. 2024-01-31T05:00:00Z), a local date time (e.g. 2024-01-31T06:00) or a local
+     * time (e.g. 06:00) which is the next occurrence of the time in the system time zone.
+     *
+     * @param deadline the deadline
+     * @param safetyMargin the safety margin in percentage of the remaining time between 0 and 99
+     * @return the deadline
+     * @throws ValidationException In case the deadline can't be parsed
+     */
+    public static ProcessingUnitDeadline parse(String deadline, int safetyMargin) {
+        if (deadline == null || deadline.trim().isEmpty()) {
+            throw new ValidationException("Invalid empty deadline!");
+        }
+
+        final String value = deadline.trim();
+        try {
+            return new ProcessingUnitDeadline(Instant.parse(value), safetyMargin);
+        } catch (DateTimeParseException e) {
+            // NOP
+        }
+
+        final ZoneId zoneId = ZoneId.systemDefault();
+        try {
+            return new ProcessingUnitDeadline(LocalDateTime.parse(value).atZone(zoneId).toInstant(), safetyMargin);
+        } catch (DateTimeParseException e) {
+            // NOP
+        }
+
+        try {
+            final ZonedDateTime now = ZonedDateTime.now(zoneId);
+            ZonedDateTime zonedDeadline = ZonedDateTime.of(LocalDate.now(zoneId), LocalTime.parse(value), zoneId);
+            if (!zonedDeadline.isAfter(now)) {
+                zonedDeadline = zonedDeadline.plusDays(1);
+            }
+            return new ProcessingUnitDeadline(zonedDeadline.toInstant(), safetyMargin);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid deadline [" + value + "], expected an instant, a local date time or a local time!");
+        }
+    }
+
+
+    /**
+     * Get the deadline
+     *
+     * @return the deadline
+     */
+    public Instant getDeadline() {
+        return Instant.ofEpochMilli(deadline);
+    }
+
+
+    /**
+     * Get the safety margin
+     *
+     * @return the safety margin in percentage of the remaining time
+     */
+    public int getSafetyMargin() {
+        return safetyMargin;
+    }
+
+
+    /**
+     * Get the remaining time to the deadline without the safety margin
+     *
+     * @param now the current time in milliseconds
+     * @return the remaining time in milliseconds, 0 in case the deadline is reached
+     */
+    public long getRemainingTime(long now) {
+        final long remainingTime = deadline - now;
+        if (remainingTime <= 0) {
+            return 0;
+        }
+
+        return remainingTime * (100 - safetyMargin) / 100;
+    }
+
+
+    /**
+     * Get the required throughput to process the unprocessed units until the deadline
+     *
+     * @param numberOfUnprocessedUnits the number of unprocessed units
+     * @param now the current time in milliseconds
+     * @return the required throughput in units per second, {@link Double#POSITIVE_INFINITY} in case the deadline is reached
+     */
+    public double getRequiredThroughput(long numberOfUnprocessedUnits, long now) {
+        if (numberOfUnprocessedUnits <= 0) {
+            return 0;
+        }
+
+        final long remainingTime = getRemainingTime(now);
+        if (remainingTime <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        return numberOfUnprocessedUnits * 1000.0 / remainingTime;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getDeadline() + " (safety margin " + safetyMargin + "%)";
+    }
+}
@@ -9,6 +9,7 @@ import com.github.toolarium.common.formatter.TimeDifferenceFormatter;
 import com.github.toolarium.processing.unit.IProcessingUnit;
 import com.github.toolarium.processing.unit.IProcessingUnitContext;
 import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.dto.Parameter;
 import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
@@ -48,6 +49,8 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
     private long duration;
     private Long maxNumberOfProcessingUnitCallsPerSecond;
     private IEmptyProcessingUnitHandler emptyProcessingUnitHandler;
+    private IProcessingUnitPosition processingUnitPosition;
+    private ProcessingUnitThrottlingSchedule throttlingSchedule;
     
     
     /**
@@ -80,6 +83,82 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
                                               long duration,
                                               Long maxNumberOfProcessingUnitCallsPerSecond,
                                               IEmptyProcessingUnitHandler emptyProcessingUnitHandler) {
+        this(id, name, processingUnitClass, parameterList, processingPersistence, processingUnitProgress, processingUnitContext, processingRuntimeStatus,
+             processStatusMessageList, startTimestamp, duration, maxNumberOfProcessingUnitCallsPerSecond, emptyProcessingUnitHandler, null);
+    }
+
+    
+    /**
+     * Constructor
+     *
+     * @param id the unique id of the processing 
+     * @param name the name of the processing
+     * @param processingUnitClass the processing unit class
+     * @param parameterList the parameter list
+     * @param processingPersistence the processing persistence
+     * @param processingUnitProgress the processing unit progress
+     * @param processingUnitContext the processing context.
+     * @param processingRuntimeStatus the process runtime status
+     * @param processStatusMessageList the process status message list
+     * @param startTimestamp the start time stamp
+     * @param duration the actual duration in milliseconds
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per seconds
+     * @param emptyProcessingUnitHandler the empty processing unit handler
+     * @param processingUnitPosition the processing unit position or null
+     */
+    public ProcessingUnitPersistenceContainer(String id, // CHECKSTYLE IGNORE THIS LINE
+                                              String name,
+                                              Class<? extends IProcessingUnit> processingUnitClass,
+                                              List<Parameter> parameterList,
+                                              IProcessingUnitPersistence processingPersistence,
+                                              IProcessingUnitProgress processingUnitProgress,
+                                              IProcessingUnitContext processingUnitContext,
+                                              ProcessingRuntimeStatus processingRuntimeStatus,
+                                              List<String> processStatusMessageList,
+                                              Instant startTimestamp,
+                                              long duration,
+                                              Long maxNumberOfProcessingUnitCallsPerSecond,
+                                              IEmptyProcessingUnitHandler emptyProcessingUnitHandler,
+                                              IProcessingUnitPosition processingUnitPosition) {
+        this(id, name, processingUnitClass, parameterList, processingPersistence, processingUnitProgress, processingUnitContext, processingRuntimeStatus,
+             processStatusMessageList, startTimestamp, duration, maxNumberOfProcessingUnitCallsPerSecond, emptyProcessingUnitHandler, processingUnitPosition, null);
+    }
+
+    
+    /**
+     * Constructor
+     *
+     * @param id the unique id of the processing 
+     * @param name the name of the processing
+     * @param processingUnitClass the processing unit class
+     * @param parameterList the parameter list
+     * @param processingPersistence the processing persistence
+     * @param processingUnitProgress the processing unit progress
+     * @param processingUnitContext the processing context.
+     * @param processingRuntimeStatus the process runtime status
+     * @param processStatusMessageList the process status message list
+     * @param startTimestamp the start time stamp
+     * @param duration the actual duration in milliseconds
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per seconds
+     * @param emptyProcessingUnitHandler the empty processing unit handler
+     * @param processingUnitPosition the processing unit position or null
+     * @param throttlingSchedule the throttling schedule or null
+     */
+    public ProcessingUnitPersistenceContainer(String id, // CHECKSTYLE IGNORE THIS LINE
+                                              String name,
+                                              Class<? extends IProcessingUnit> processingUnitClass,
+                                              List<Parameter> parameterList,
+                                              IProcessingUnitPersistence processingPersistence,
+                                              IProcessingUnitProgress processingUnitProgress,
+                                              IProcessingUnitContext processingUnitContext,
+                                              ProcessingRuntimeStatus processingRuntimeStatus,
+                                              List<String> processStatusMessageList,
+                                              Instant startTimestamp,
+                                              long duration,
+                                              Long maxNumberOfProcessingUnitCallsPerSecond,
+                                              IEmptyProcessingUnitHandler emptyProcessingUnitHandler,
+                                              IProcessingUnitPosition processingUnitPosition,
+                                              ProcessingUnitThrottlingSchedule throttlingSchedule) {
         this.id = id;
         this.name = name;
         this.processingUnitClass = processingUnitClass;
@@ -93,6 +172,8 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
         this.duration = duration;
         this.maxNumberOfProcessingUnitCallsPerSecond = maxNumberOfProcessingUnitCallsPerSecond;
         this.emptyProcessingUnitHandler = emptyProcessingUnitHandler;
+        this.processingUnitPosition = processingUnitPosition;
+        this.throttlingSchedule = throttlingSchedule;
     }
 
     
@@ -226,6 +307,26 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
     }
 
     
+    /**
+     * Get the processing unit position
+     *
+     * @return the processing unit position or null
+     */
+    public IProcessingUnitPosition getProcessingUnitPosition() {
+        return processingUnitPosition;
+    }
+
+    
+    /**
+     * Get the throttling schedule
+     *
+     * @return the throttling schedule or null
+     */
+    public ProcessingUnitThrottlingSchedule getThrottlingSchedule() {
+        return throttlingSchedule;
+    }
+
+    
     /**
      * Convert the object into a byte array
      *
@@ -273,7 +374,7 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
     public int hashCode() {
         return Objects.hash(duration, emptyProcessingUnitHandler, id, maxNumberOfProcessingUnitCallsPerSecond, name,
                 parameterList, processStatusMessageList, processingPersistence, processingRuntimeStatus,
-                processingUnitClass, processingUnitContext, processingUnitProgress, startTimestamp);
+                processingUnitClass, processingUnitContext, processingUnitProgress, processingUnitPosition, startTimestamp, throttlingSchedule);
     }
 
 
@@ -307,7 +408,9 @@ public class ProcessingUnitPersistenceContainer implements Serializable {
                 && Objects.equals(processingUnitClass, other.processingUnitClass)
                 && Objects.equals(processingUnitContext, other.processingUnitContext)
                 && Objects.equals(processingUnitProgress, other.processingUnitProgress)
-                && Objects.equals(startTimestamp, other.startTimestamp);
+                && Objects.equals(processingUnitPosition, other.processingUnitPosition)
+                && Objects.equals(startTimestamp, other.startTimestamp)
+                && Objects.equals(throttlingSchedule, other.throttlingSchedule);
     }
 
     
@@ -9,18 +9,27 @@ import com.github.toolarium.common.stacktrace.StackTrace;
 import com.github.toolarium.processing.unit.IProcessingUnit;
 import com.github.toolarium.processing.unit.IProcessingUnitContext;
 import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport;
+import com.github.toolarium.processing.unit.base.IProcessingUnitPositionSupport;
 import com.github.toolarium.processing.unit.dto.Parameter;
 import com.github.toolarium.processing.unit.dto.ParameterDefinition;
 import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
 import com.github.toolarium.processing.unit.exception.ProcessingException;
 import com.github.toolarium.processing.unit.exception.ValidationException;
 import com.github.toolarium.processing.unit.runtime.ProcessingUnitProgress;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitResourceMeasurement;
+import com.github.toolarium.processing.unit.runtime.jfr.ProcessUnitEvent;
+import com.github.toolarium.processing.unit.runtime.jfr.ResumeEvent;
+import com.github.toolarium.processing.unit.runtime.jfr.SuspendEvent;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnit;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +41,7 @@ import org.slf4j.LoggerFactory;
  */
 public final class ProcessingUnitProxy implements IProcessingUnitProxy {
     private static final Logger LOG = LoggerFactory.getLogger(ProcessingUnitProxy.class);
+    private static final EventType PROCESS_UNIT_EVENT_TYPE = EventType.getEventType(ProcessUnitEvent.class);
     private String id;
     private String name;
     private Class<? extends IProcessingUnit> processingUnitClass;
@@ -45,6 +55,9 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
     private long duration;
     private Long maxNumberOfProcessingUnitCallsPerSecond;
     private IEmptyProcessingUnitHandler emptyProcessingUnitHandler;
+    private ProcessingUnitWakeUpSignal dataAvailableSignal;
+    private ProcessingUnitResourceMeasurement resourceMeasurement;
+    private ProcessingUnitThrottlingSchedule throttlingSchedule;
     
 
     /**
@@ -89,8 +102,19 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
         this.lastStartTimestamp = startTimestamp;
         this.duration = duration;
         this.emptyProcessingUnitHandler = emptyProcessingUnitHandler;
+        this.dataAvailableSignal = new ProcessingUnitWakeUpSignal();
+        
+        // a parallel processing unit measures its runner threads
+        this.resourceMeasurement = null;
+        if (!ProcessingUnitUtil.getInstance().isParallelProcessingUnit(processingUnit)) {
+            this.resourceMeasurement = new ProcessingUnitResourceMeasurement();
+        }
 
         setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+        
+        if (processingUnit instanceof IProcessingUnitDataAvailableSupport) {
+            ((IProcessingUnitDataAvailableSupport) processingUnit).setDataAvailableListener(dataAvailableSignal::wakeUp);
+        }
 
         if (this.duration < 0) {
             this.duration = 0;
@@ -187,10 +211,27 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
      * @throws ProcessingException Throws this exception in case of initialization failures.
      */
     public static ProcessingUnitProxy resume(byte[] persisted) throws ValidationException, ProcessingException {
+        return resume(persisted, null);
+    }
+
+    
+    /**
+     * Resume a {@link IProcessingUnit} with changed parameters, e.g. a different number of threads of a parallel processing unit.
+     * The given parameters replace the persisted parameters with the same key.
+     *
+     * @param persisted the persisted processing unit to resume
+     * @param parameterList the parameters which replace the persisted parameters or null
+     * @return the {@link IProcessingUnitProxy}
+     * @throws ValidationException This will be throw in case the consistency check failures.
+     * @throws ProcessingException Throws this exception in case of initialization failures.
+     */
+    public static ProcessingUnitProxy resume(byte[] persisted, List<Parameter> parameterList) throws ValidationException, ProcessingException {
         Class<? extends IProcessingUnit> processingUnitClass = null;
         IProcessingUnit processingUnit = null;
         String id = null;
         String name = null;
+        final ResumeEvent resumeEvent = new ResumeEvent();
+        resumeEvent.begin();
         
         try {
             if (LOG.isDebugEnabled()) {
@@ -205,6 +246,7 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
             
             final String processing = ProcessingUnitUtil.getInstance().toString(id, name, resumeProcessingPersistence.getProcessingUnitClass());
             processingUnitClass = resumeProcessingPersistence.getProcessingUnitClass();
+            final List<Parameter> resumeParameterList = mergeParameterList(resumeProcessingPersistence.getParameterList(), parameterList);
 
             // create the process unit instance
             if (LOG.isDebugEnabled()) {
@@ -222,25 +264,31 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
             if (LOG.isDebugEnabled()) {
                 LOG.debug(processing + " Validate parameter list of processing unit instance");
             }
-            processingUnit.validateParameterList(resumeProcessingPersistence.getParameterList());
+            processingUnit.validateParameterList(resumeParameterList);
             
             // resume processing
             if (LOG.isDebugEnabled()) {
-                LOG.debug(processing + " Resume the processing unit instance with parameter list [" + resumeProcessingPersistence.getParameterList() + "]");
+                LOG.debug(processing + " Resume the processing unit instance with parameter list [" + resumeParameterList + "]");
             }
             
             final IProcessingUnitProgress processingUnitProgress = resumeProcessingPersistence.getProcessingUnitProgress();
-            processingUnit.initialize(resumeProcessingPersistence.getParameterList(), resumeProcessingPersistence.getProcessingUnitContext());
+            processingUnit.initialize(resumeParameterList, resumeProcessingPersistence.getProcessingUnitContext());
+            if (processingUnit instanceof IProcessingUnitPositionSupport) {
+                ((IProcessingUnitPositionSupport) processingUnit).setProcessingUnitPosition(resumeProcessingPersistence.getProcessingUnitPosition());
+            }
             processingUnit.resumeProcessing(processingUnitProgress, resumeProcessingPersistence.getProcessingPersistence());
             if (LOG.isDebugEnabled()) {
                 LOG.debug(processing + " Successful resumed processing unit instance");
             }
             
-            return new ProcessingUnitProxy(id, 
+            resumeEvent.end();
+            resumeEvent.commit(id, name, processingUnitClass, (persisted != null) ? persisted.length : 0);
+            
+            final ProcessingUnitProxy processingUnitProxy = new ProcessingUnitProxy(id, 
                                            name,
                                            resumeProcessingPersistence.getProcessingUnitClass(), 
                                            processingUnit, 
-                                           resumeProcessingPersistence.getParameterList(), 
+                                           resumeParameterList, 
                                            processingUnitProgress, 
                                            resumeProcessingPersistence.getProcessingUnitContext(),
                                            resumeProcessingPersistence.getProcessingRuntimeStatus(),
@@ -249,6 +297,8 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
                                            resumeProcessingPersistence.getDuration(),
                                            resumeProcessingPersistence.getMaxNumberOfProcessingUnitCallsPerSecond(),
                                            resumeProcessingPersistence.getEmptyProcessingUnitHandler());
+            processingUnitProxy.setThrottlingSchedule(resumeProcessingPersistence.getThrottlingSchedule());
+            return processingUnitProxy;
         } catch (RuntimeException e) {
             ProcessingUnitUtil.getInstance().releaseResource(id, name, processingUnit);
             throw e;
@@ -303,22 +353,72 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
     }
 
     
+    /**
+     * Wake up the processing in case it pauses because there was no progress
+     */
+    public void wakeUp() {
+        dataAvailableSignal.wakeUp();
+        
+        if (emptyProcessingUnitHandler != null) {
+            emptyProcessingUnitHandler.wakeUp();
+        }
+        
+        if (ProcessingUnitUtil.getInstance().isParallelProcessingUnit(processingUnit)) {
+            ((ParallelProcessingUnit) processingUnit).wakeUp();
+        }
+    }
+
+    
+    /**
+     * Wait until the processing unit has data available, see {@link IProcessingUnitDataAvailableSupport}. A processing unit 
+     * which doesn't implement it has always data available. The wait ends immediately by a {@link #wakeUp()}.
+     *
+     * @param timeout the max time to wait in milliseconds
+     * @return true if data is available, false in case the timeout is reached or it was woken up without data
+     */
+    public boolean awaitDataAvailable(long timeout) {
+        if (!(processingUnit instanceof IProcessingUnitDataAvailableSupport)) {
+            return true;
+        }
+        
+        final IProcessingUnitDataAvailableSupport dataAvailableSupport = (IProcessingUnitDataAvailableSupport) processingUnit;
+        if (dataAvailableSupport.isDataAvailable()) {
+            return true;
+        }
+
+        try {
+            dataAvailableSignal.await(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        return dataAvailableSupport.isDataAvailable();
+    }
+
+    
     /**
      * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitProxy#processUnit()
      */
     @Override
     public boolean processUnit() {
+        // the event is only created in case it is recorded
+        ProcessUnitEvent processUnitEvent = null;
+        if (PROCESS_UNIT_EVENT_TYPE.isEnabled()) {
+            processUnitEvent = new ProcessUnitEvent();
+            processUnitEvent.begin();
+        }
         boolean continueProcessing = false;
+        long processedUnits = 0;
         try {
-            IProcessingUnitStatus processingUnitStatus = getProcessingUnit().processUnit();
+            IProcessingUnitStatus processingUnitStatus = processUnitWithResourceMeasurement();
             continueProcessing = processingUnitStatus.hasNext();
-            long processedUnits = processingUnitProgress.addProcessingUnitStatus(processingUnitStatus);
+            processedUnits = processingUnitProgress.addProcessingUnitStatus(processingUnitStatus);
             if (processingUnitStatus != null && processingUnitStatus.getStatusMessageList() != null && !processingUnitStatus.getStatusMessageList().isEmpty()) {
                 processStatusMessageList.addAll(processingUnitStatus.getStatusMessageList());
             }
 
-            // in case there was an empty run...
-            if (continueProcessing && processedUnits <= 0) {
+            // in case there was an empty run, pending units are acknowledged by a later run...
+            if (continueProcessing && processedUnits <= 0 && !hasPendingUnits(processingUnitStatus)) {
                 if (emptyProcessingUnitHandler != null) {
                     continueProcessing = emptyProcessingUnitHandler.handleEmptyProcessing(id, name, processingUnitClass, Thread.currentThread().getId(), processingUnitProgress);
                 } else {
@@ -377,6 +477,11 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
                 LOG.debug("RuntimeException occured: " + e.getMessage(), e);
             }
             throw e;
+        } finally {
+            if (processUnitEvent != null) {
+                processUnitEvent.end();
+                processUnitEvent.commit(id, name, processingUnitClass, processedUnits, continueProcessing);
+            }
         }
         
         return continueProcessing;
@@ -406,12 +511,18 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
      */
     @Override
     public byte[] suspendProcessing() throws ProcessingException {
+        final SuspendEvent suspendEvent = new SuspendEvent();
+        suspendEvent.begin();
         try {
             // create persistence container
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Suspend processing unit instance [" + processingUnitClass + "]...");
             }
             IProcessingUnitPersistence processingPersistence = getProcessingUnit().suspendProcessing();
+            IProcessingUnitPosition processingUnitPosition = null;
+            if (getProcessingUnit() instanceof IProcessingUnitPositionSupport) {
+                processingUnitPosition = ((IProcessingUnitPositionSupport) getProcessingUnit()).getProcessingUnitPosition();
+            }
             
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Create processing persistence container of processing unit instance [" + processingUnitClass + "]...");
@@ -430,10 +541,15 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
                                                            startTimestamp,
                                                            getDuration(),
                                                            getMaxNumberOfProcessingUnitCallsPerSecond(),
-                                                           emptyProcessingUnitHandler);
+                                                           emptyProcessingUnitHandler,
+                                                           processingUnitPosition,
+                                                           throttlingSchedule);
     
             // persist...
-            return ProcessingUnitPersistenceContainer.toByteArray(suspendProcessingPersistence);
+            final byte[] persisted = ProcessingUnitPersistenceContainer.toByteArray(suspendProcessingPersistence);
+            suspendEvent.end();
+            suspendEvent.commit(id, name, processingUnitClass, (persisted != null) ? persisted.length : 0);
+            return persisted;
         } catch (RuntimeException e) {
             throw e;
         } finally {
@@ -484,6 +600,17 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
     public List<String> getStatusMessageList() {
         return processStatusMessageList;
     }
+
+    
+    /**
+     * Add a warning: the message is added to the status message list and the runtime status is at least a warning
+     *
+     * @param message the message
+     */
+    public void addWarning(String message) {
+        processStatusMessageList.add(message);
+        processingUnitProgress.updateProcessingRuntimeStatus(ProcessingRuntimeStatus.WARN);
+    }
     
     
     /**
@@ -529,6 +656,26 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
     }
     
     
+    /**
+     * Get the throttling schedule
+     *
+     * @return the throttling schedule or null
+     */
+    public ProcessingUnitThrottlingSchedule getThrottlingSchedule() {
+        return throttlingSchedule;
+    }
+
+    
+    /**
+     * Set the throttling schedule, it is persisted on a suspend
+     *
+     * @param throttlingSchedule the throttling schedule or null
+     */
+    public void setThrottlingSchedule(ProcessingUnitThrottlingSchedule throttlingSchedule) {
+        this.throttlingSchedule = throttlingSchedule;
+    }
+    
+    
     /**
      * Get the processing unit class.
      *
@@ -603,4 +750,75 @@ public final class ProcessingUnitProxy implements IProcessingUnitProxy {
         
         return message;
     }
+
+    
+    /**
+     * Call the processing unit and measure the CPU time and the allocated bytes of the call. A parallel processing unit
+     * measures its threads, their resource statistic is taken over after the call.
+     *
+     * @return the processing unit status
+     * @throws ProcessingException In case of any failures occurs.
+     */
+    private IProcessingUnitStatus processUnitWithResourceMeasurement() throws ProcessingException {
+        if (resourceMeasurement == null) {
+            try {
+                return getProcessingUnit().processUnit();
+            } finally {
+                processingUnitProgress.addResourceStatistic(((ParallelProcessingUnit) processingUnit).drainResourceStatistic());
+            }
+        }
+        
+        resourceMeasurement.start();
+        try {
+            return getProcessingUnit().processUnit();
+        } finally {
+            resourceMeasurement.stop();
+            processingUnitProgress.addResourceMeasurement(resourceMeasurement);
+        }
+    }
+
+
+    /**
+     * Check if a status has pending units which are acknowledged by a later run
+     *
+     * @param processingUnitStatus the processing unit status
+     * @return true if it has pending units
+     */
+    private boolean hasPendingUnits(IProcessingUnitStatus processingUnitStatus) {
+        return processingUnitStatus != null && processingUnitStatus.getNumberOfPendingUnits() != null && processingUnitStatus.getNumberOfPendingUnits() > 0;
+    }
+
+
+    /**
+     * Merge the parameter list: the given parameters replace the persisted parameters with the same key
+     *
+     * @param persistedParameterList the persisted parameter list
+     * @param parameterList the parameter list or null
+     * @return the merged parameter list
+     */
+    private static List<Parameter> mergeParameterList(List<Parameter> persistedParameterList, List<Parameter> parameterList) {
+        if (parameterList == null || parameterList.isEmpty()) {
+            return persistedParameterList;
+        }
+
+        final List<Parameter> result = new ArrayList<Parameter>();
+        if (persistedParameterList != null) {
+            for (Parameter persistedParameter : persistedParameterList) {
+                boolean isReplaced = false;
+                for (Parameter parameter : parameterList) {
+                    if (parameter.getKey() != null && parameter.getKey().equals(persistedParameter.getKey())) {
+                        isReplaced = true;
+                        break;
+                    }
+                }
+                
+                if (!isReplaced) {
+                    result.add(persistedParameter);
+                }
+            }
+        }
+        
+        result.addAll(parameterList);
+        return result;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * ProcessingUnitThrottlingProfile.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * Defines a throttling profile: the max number of processing unit calls per second in a time window of the day. The window
+ * includes the start and excludes the end time, a window with an end before the start time ends on the next day. The window
+ * can be restricted to some days of the week, e.g. the working days.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitThrottlingProfile implements Serializable {
+    private static final long serialVersionUID = -5402389153267385420L;
+    private final EnumSet<DayOfWeek> daysOfWeek;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final Long maxNumberOfProcessingUnitCallsPerSecond;
+
+
+    /**
+     * Constructor for ProcessingUnitThrottlingProfile
+     *
+     * @param startTime the start time of the window
+     * @param endTime the end time of the window
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second or null for unlimited
+     */
+    public ProcessingUnitThrottlingProfile(LocalTime startTime, LocalTime endTime, Long maxNumberOfProcessingUnitCallsPerSecond) {
+        this(null, startTime, endTime, maxNumberOfProcessingUnitCallsPerSecond);
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitThrottlingProfile
+     *
+     * @param daysOfWeek the days of the week or null for all days
+     * @param startTime the start time of the window
+     * @param endTime the end time of the window
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second or null for unlimited
+     * @throws ValidationException In case of an empty time window
+     */
+    public ProcessingUnitThrottlingProfile(Set<DayOfWeek> daysOfWeek, LocalTime startTime, LocalTime endTime, Long maxNumberOfProcessingUnitCallsPerSecond) {
+        if (daysOfWeek == null || daysOfWeek.isEmpty()) {
+            this.daysOfWeek = EnumSet.allOf(DayOfWeek.class);
+        } else {
+            this.daysOfWeek = EnumSet.copyOf(daysOfWeek);
+        }
+
+        if (startTime == null || endTime == null) {
+            throw new ValidationException("Invalid empty time window of the throttling profile!");
+        }
+
+        this.startTime = startTime;
+        this.endTime = endTime;
+        if (maxNumberOfProcessingUnitCallsPerSecond == null || maxNumberOfProcessingUnitCallsPerSecond.longValue() <= 0) {
+            this.maxNumberOfProcessingUnitCallsPerSecond = null;
+        } else {
+            this.maxNumberOfProcessingUnitCallsPerSecond = maxNumberOfProcessingUnitCallsPerSecond;
+        }
+    }
+
+
+    /**
+     * Check if the profile is active at a given time
+     *
+     * @param time the time
+     * @return true if the time is in the window of this profile
+     */
+    public boolean isActive(ZonedDateTime time) {
+        final LocalTime localTime = time.toLocalTime();
+        if (startTime.isBefore(endTime)) {
+            return daysOfWeek.contains(time.getDayOfWeek()) && !localTime.isBefore(startTime) && localTime.isBefore(endTime);
+        }
+
+        // the window ends on the next day: the part after midnight belongs to the day before
+        if (!localTime.isBefore(startTime)) {
+            return daysOfWeek.contains(time.getDayOfWeek());
+        }
+        return localTime.isBefore(endTime) && daysOfWeek.contains(time.getDayOfWeek().minus(1));
+    }
+
+
+    /**
+     * Get the days of the week
+     *
+     * @return the days of the week
+     */
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return EnumSet.copyOf(daysOfWeek);
+    }
+
+
+    /**
+     * Get the start time of the window
+     *
+     * @return the start time
+     */
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+
+    /**
+     * Get the end time of the window
+     *
+     * @return the end time
+     */
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+
+    /**
+     * Get the max number of processing unit calls per second
+     *
+     * @return the max number of processing unit calls per second or null for unlimited
+     */
+    public Long getMaxNumberOfProcessingUnitCallsPerSecond() {
+        return maxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(daysOfWeek, startTime, endTime, maxNumberOfProcessingUnitCallsPerSecond);
+    }
+
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ProcessingUnitThrottlingProfile other = (ProcessingUnitThrottlingProfile) obj;
+        return Objects.equals(daysOfWeek, other.daysOfWeek)
+                && Objects.equals(startTime, other.startTime)
+                && Objects.equals(endTime, other.endTime)
+                && Objects.equals(maxNumberOfProcessingUnitCallsPerSecond, other.maxNumberOfProcessingUnitCallsPerSecond);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        if (daysOfWeek.size() < DayOfWeek.values().length) {
+            for (DayOfWeek dayOfWeek : daysOfWeek) {
+                if (result.length() > 0) {
+                    result.append(',');
+                }
+                result.append(dayOfWeek.name(), 0, 3);
+            }
+            result.append(' ');
+        }
+
+        result.append(startTime).append('-').append(endTime).append('=');
+        if (maxNumberOfProcessingUnitCallsPerSecond == null) {
+            result.append(ProcessingUnitThrottlingSchedule.UNLIMITED);
+        } else {
+            result.append(maxNumberOfProcessingUnitCallsPerSecond);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * ProcessingUnitThrottlingSchedule.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * Defines a throttling schedule: a list of {@link ProcessingUnitThrottlingProfile} and a default max number of processing
+ * unit calls per second in case no profile is active. The first active profile wins. The schedule can be parsed from a
+ * definition like <code>MON-FRI 08:00-18:00=200; 22:00-06:00=1000; *=unlimited</code>.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitThrottlingSchedule implements Serializable {
+    /** The unlimited max number of processing unit calls per second: no throttling */
+    public static final String UNLIMITED = "unlimited";
+
+    /** The default entry of a schedule definition */
+    public static final String DEFAULT = "*";
+
+    private static final long serialVersionUID = 4126598706617323489L;
+    private final List<ProcessingUnitThrottlingProfile> profileList;
+    private final Long defaultMaxNumberOfProcessingUnitCallsPerSecond;
+    private final ZoneId zoneId;
+
+
+    /**
+     * Constructor for ProcessingUnitThrottlingSchedule
+     *
+     * @param profileList the profile list
+     * @param defaultMaxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second in case no profile
+     *        is active or null for unlimited
+     */
+    public ProcessingUnitThrottlingSchedule(List<ProcessingUnitThrottlingProfile> profileList, Long defaultMaxNumberOfProcessingUnitCallsPerSecond) {
+        this(profileList, defaultMaxNumberOfProcessingUnitCallsPerSecond, ZoneId.systemDefault());
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitThrottlingSchedule
+     *
+     * @param profileList the profile list
+     * @param defaultMaxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second in case no profile
+     *        is active or null for unlimited
+     * @param zoneId the time zone of the profiles
+     */
+    public ProcessingUnitThrottlingSchedule(List<ProcessingUnitThrottlingProfile> profileList, Long defaultMaxNumberOfProcessingUnitCallsPerSecond, ZoneId zoneId) {
+        if (profileList == null) {
+            this.profileList = Collections.emptyList();
+        } else {
+            this.profileList = Collections.unmodifiableList(new ArrayList<ProcessingUnitThrottlingProfile>(profileList));
+        }
+
+        if (defaultMaxNumberOfProcessingUnitCallsPerSecond == null || defaultMaxNumberOfProcessingUnitCallsPerSecond.longValue() <= 0) {
+            this.defaultMaxNumberOfProcessingUnitCallsPerSecond = null;
+        } else {
+            this.defaultMaxNumberOfProcessingUnitCallsPerSecond = defaultMaxNumberOfProcessingUnitCallsPerSecond;
+        }
+
+        if (zoneId == null) {
+            this.zoneId = ZoneId.systemDefault();
+        } else {
+            this.zoneId = zoneId;
+        }
+    }
+
+
+    /**
+     * Parse a schedule definition in the system time zone: the entries are separated by a semicolon. An entry has the format
+     * <code>[days] HH:mm-HH:mm=rate</code>, the days are a comma separated list of days or day ranges (e.g. <code>MON-FRI</code>
+     * or <code>SAT,SUN</code>). The entry <code>*=rate</code> defines the default rate. The rate is a number or
+     * <code>unlimited</code>.
+     *
+     * @param schedule the schedule definition
+     * @return the schedule
+     * @throws ValidationException In case the schedule can't be parsed
+     */
+    public static ProcessingUnitThrottlingSchedule parse(String schedule) {
+        if (schedule == null || schedule.trim().isEmpty()) {
+            throw new ValidationException("Invalid empty throttling schedule!");
+        }
+
+        final List<ProcessingUnitThrottlingProfile> profileList = new ArrayList<ProcessingUnitThrottlingProfile>();
+        Long defaultMaxNumberOfProcessingUnitCallsPerSecond = null;
+        for (String entry : schedule.split(";")) {
+            final String value = entry.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+
+            final int idx = value.lastIndexOf('=');
+            if (idx <= 0) {
+                throw new ValidationException("Invalid throttling schedule entry [" + value + "], expected [days] HH:mm-HH:mm=rate!");
+            }
+
+            final String window = value.substring(0, idx).trim();
+            final Long maxNumberOfProcessingUnitCallsPerSecond = parseRate(value, value.substring(idx + 1).trim());
+            if (DEFAULT.equals(window)) {
+                defaultMaxNumberOfProcessingUnitCallsPerSecond = maxNumberOfProcessingUnitCallsPerSecond;
+                continue;
+            }
+
+            Set<DayOfWeek> daysOfWeek = null;
+            String timeWindow = window;
+            final int spaceIdx = window.lastIndexOf(' ');
+            if (spaceIdx > 0) {
+                daysOfWeek = parseDaysOfWeek(value, window.substring(0, spaceIdx).trim());
+                timeWindow = window.substring(spaceIdx + 1).trim();
+            }
+
+            final int separatorIdx = timeWindow.indexOf('-');
+            if (separatorIdx <= 0) {
+                throw new ValidationException("Invalid time window in throttling schedule entry [" + value + "], expected HH:mm-HH:mm!");
+            }
+
+            try {
+                profileList.add(new ProcessingUnitThrottlingProfile(daysOfWeek,
+                                                                    LocalTime.parse(timeWindow.substring(0, separatorIdx).trim()),
+                                                                    LocalTime.parse(timeWindow.substring(separatorIdx + 1).trim()),
+                                                                    maxNumberOfProcessingUnitCallsPerSecond));
+            } catch (DateTimeParseException e) {
+                throw new ValidationException("Invalid time window in throttling schedule entry [" + value + "]: " + e.getMessage());
+            }
+        }
+
+        return new ProcessingUnitThrottlingSchedule(profileList, defaultMaxNumberOfProcessingUnitCallsPerSecond);
+    }
+
+
+    /**
+     * Get the max number of processing unit calls per second at a given time
+     *
+     * @param time the time
+     * @return the max number of processing unit calls per second or null for unlimited
+     */
+    public Long getMaxNumberOfProcessingUnitCallsPerSecond(Instant time) {
+        final ZonedDateTime zonedTime = time.atZone(zoneId);
+        for (ProcessingUnitThrottlingProfile profile : profileList) {
+            if (profile.isActive(zonedTime)) {
+                return profile.getMaxNumberOfProcessingUnitCallsPerSecond();
+            }
+        }
+
+        return defaultMaxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * Get the profile list
+     *
+     * @return the profile list
+     */
+    public List<ProcessingUnitThrottlingProfile> getProfileList() {
+        return profileList;
+    }
+
+
+    /**
+     * Get the max number of processing unit calls per second in case no profile is active
+     *
+     * @return the max number of processing unit calls per second or null for unlimited
+     */
+    public Long getDefaultMaxNumberOfProcessingUnitCallsPerSecond() {
+        return defaultMaxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * Get the time zone of the profiles
+     *
+     * @return the time zone
+     */
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(profileList, defaultMaxNumberOfProcessingUnitCallsPerSecond, zoneId);
+    }
+
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj == null) {
+            return false;
+        }
+
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+
+        ProcessingUnitThrottlingSchedule other = (ProcessingUnitThrottlingSchedule) obj;
+        return Objects.equals(profileList, other.profileList)
+                && Objects.equals(defaultMaxNumberOfProcessingUnitCallsPerSecond, other.defaultMaxNumberOfProcessingUnitCallsPerSecond)
+                && Objects.equals(zoneId, other.zoneId);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder();
+        for (ProcessingUnitThrottlingProfile profile : profileList) {
+            result.append(profile).append("; ");
+        }
+
+        result.append(DEFAULT).append('=');
+        if (defaultMaxNumberOfProcessingUnitCallsPerSecond == null) {
+            result.append(UNLIMITED);
+        } else {
+            result.append(defaultMaxNumberOfProcessingUnitCallsPerSecond);
+        }
+        return result.toString();
+    }
+
+
+    /**
+     * Parse the rate of a schedule entry
+     *
+     * @param entry the entry
+     * @param rate the rate
+     * @return the max number of processing unit calls per second or null for unlimited
+     * @throws ValidationException In case the rate can't be parsed
+     */
+    private static Long parseRate(String entry, String rate) {
+        if (UNLIMITED.equalsIgnoreCase(rate)) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(rate);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid rate in throttling schedule entry [" + entry + "], expected a number or " + UNLIMITED + "!");
+        }
+    }
+
+
+    /**
+     * Parse the days of the week of a schedule entry
+     *
+     * @param entry the entry
+     * @param days the comma separated days or day ranges
+     * @return the days of the week
+     * @throws ValidationException In case the days can't be parsed
+     */
+    private static Set<DayOfWeek> parseDaysOfWeek(String entry, String days) {
+        final EnumSet<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : days.split(",")) {
+            final String value = day.trim();
+            final int idx = value.indexOf('-');
+            if (idx < 0) {
+                result.add(parseDayOfWeek(entry, value));
+            } else {
+                // a day range, it can wrap the end of the week (e.g. FRI-MON)
+                DayOfWeek dayOfWeek = parseDayOfWeek(entry, value.substring(0, idx).trim());
+                final DayOfWeek endDayOfWeek = parseDayOfWeek(entry, value.substring(idx + 1).trim());
+                result.add(dayOfWeek);
+                while (dayOfWeek != endDayOfWeek) {
+                    dayOfWeek = dayOfWeek.plus(1);
+                    result.add(dayOfWeek);
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Parse a day of the week: the name or its first three letters
+     *
+     * @param entry the entry
+     * @param day the day
+     * @return the day of the week
+     * @throws ValidationException In case the day can't be parsed
+     */
+    private static DayOfWeek parseDayOfWeek(String entry, String day) {
+        final String value = day.toUpperCase(Locale.ENGLISH);
+        if (value.length() >= 3) {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                if (dayOfWeek.name().startsWith(value)) {
+                    return dayOfWeek;
+                }
+            }
+        }
+
+        throw new ValidationException("Invalid day [" + day + "] in throttling schedule entry [" + entry + "]!");
+    }
+}
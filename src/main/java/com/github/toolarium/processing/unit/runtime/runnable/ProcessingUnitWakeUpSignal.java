@@ -0,0 +1,57 @@
+/*
+ * ProcessingUnitWakeUpSignal.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+
+/**
+ * Implements the wake-up signal of an idle processing: a data producer signals new data and a waiting thread ends its 
+ * pause immediately. A signal which arrives before the wait is not lost, the next wait returns immediately.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitWakeUpSignal {
+    private boolean isSignaled;
+
+
+    /**
+     * Constructor for ProcessingUnitWakeUpSignal
+     */
+    public ProcessingUnitWakeUpSignal() {
+        this.isSignaled = false;
+    }
+
+
+    /**
+     * Wake up the waiting threads
+     */
+    public synchronized void wakeUp() {
+        isSignaled = true;
+        notifyAll();
+    }
+
+
+    /**
+     * Wait until the timeout is reached or a wake-up is signaled
+     *
+     * @param timeout the timeout in milliseconds
+     * @return true if it was woken up, false in case the timeout is reached
+     * @throws InterruptedException In case the thread is interrupted
+     */
+    public synchronized boolean await(long timeout) throws InterruptedException {
+        if (!isSignaled && timeout > 0) {
+            final long end = System.currentTimeMillis() + timeout;
+            long remaining = timeout;
+            while (!isSignaled && remaining > 0) {
+                wait(remaining);
+                remaining = end - System.currentTimeMillis();
+            }
+        }
+
+        final boolean result = isSignaled;
+        isSignaled = false;
+        return result;
+    }
+}
@@ -16,13 +16,16 @@ import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
 import com.github.toolarium.processing.unit.exception.ProcessingException;
 import com.github.toolarium.processing.unit.exception.ValidationException;
 import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
+import com.github.toolarium.processing.unit.runtime.jfr.ProcessingActionStatusEvent;
 import com.github.toolarium.processing.unit.runtime.runnable.IEmptyProcessingUnitHandler;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnable;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener;
 import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitProxy;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitThrottlingSchedule;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +37,7 @@ import org.slf4j.LoggerFactory;
  */
 public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitRunnable {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractProcessingUnitRunnable.class);
+    private static final EventType PROCESSING_ACTION_STATUS_EVENT_TYPE = EventType.getEventType(ProcessingActionStatusEvent.class);
     private final String id;
     private final String name;
     private final Class<? extends IProcessingUnit> processingUnitClass;
@@ -47,6 +51,7 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
     private TimeDifferenceFormatter timeDifferenceFormatter; 
     private IEmptyProcessingUnitHandler emptyProcessingUnitHandler;
     private Long maxNumberOfProcessingUnitCallsPerSecond;
+    private ProcessingUnitThrottlingSchedule throttlingSchedule;
     private volatile int lastProgressInPercentage;
 
     
@@ -82,6 +87,7 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
         this.timeDifferenceFormatter = new TimeDifferenceFormatter();
         this.emptyProcessingUnitHandler = null;
         this.maxNumberOfProcessingUnitCallsPerSecond = null;
+        this.throttlingSchedule = null;
         this.lastProgressInPercentage = 0;
     }
 
@@ -95,9 +101,23 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
      * @throws ProcessingException Throws this exception in case of initialization failures.
      */
     public AbstractProcessingUnitRunnable(final byte[] suspendedState, IProcessingUnitRunnableListener processingUnitRunnableListener) {
+        this(suspendedState, null, processingUnitRunnableListener);
+    }
+
+    
+    /**
+     * Constructor
+     *
+     * @param suspendedState the suspended state
+     * @param parameterList the parameters which replace the persisted parameters or null
+     * @param processingUnitRunnableListener the processing unit runnable listener
+     * @throws ValidationException This will be throw in case the consistency check failures.
+     * @throws ProcessingException Throws this exception in case of initialization failures.
+     */
+    public AbstractProcessingUnitRunnable(final byte[] suspendedState, List<Parameter> parameterList, IProcessingUnitRunnableListener processingUnitRunnableListener) {
 
         // initialize the processingUnitProxy
-        setProcessingUnitProxy(ProcessingUnitProxy.resume(suspendedState));
+        setProcessingUnitProxy(ProcessingUnitProxy.resume(suspendedState, parameterList));
         
         this.id = processingUnitProxy.getId();
         this.name = processingUnitProxy.getName();
@@ -108,6 +128,7 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
         this.duration = null;
         this.timeDifferenceFormatter = new TimeDifferenceFormatter();
         this.emptyProcessingUnitHandler = processingUnitProxy.getEmptyProcessingUnitHandler();
+        this.throttlingSchedule = processingUnitProxy.getThrottlingSchedule();
         this.lastProgressInPercentage = 0;
         
         if (processingUnitProxy.getProcessingUnitProgress() != null) {
@@ -187,6 +208,10 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
             }
         }
         
+        if (PROCESSING_ACTION_STATUS_EVENT_TYPE.isEnabled()) {
+            new ProcessingActionStatusEvent().commit(getId(), getName(), getProcessingUnitClass(), previousProcessingActionStatus, processingActionStatus);
+        }
+        
         notifyProcessingUnitState(previousProcessingActionStatus, processingActionStatus);
     }
 
@@ -320,6 +345,19 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
     }
 
     
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnable#wakeUp()
+     */
+    @Override
+    public void wakeUp() {
+        if (processingUnitProxy != null) {
+            processingUnitProxy.wakeUp();
+        } else if (emptyProcessingUnitHandler != null) {
+            emptyProcessingUnitHandler.wakeUp();
+        }
+    }
+
+    
     /**
      * Set the empty processing unit handler
      *
@@ -357,6 +395,30 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
         return maxNumberOfProcessingUnitCallsPerSecond;
     }
 
+
+    /**
+     * Defines the throttling schedule: the max calls per second of the processing unit depend on the time of the day
+     *
+     * @param throttlingSchedule the throttling schedule or null
+     */
+    public void setThrottlingSchedule(ProcessingUnitThrottlingSchedule throttlingSchedule) {
+        this.throttlingSchedule = throttlingSchedule;
+        
+        if (processingUnitProxy != null) {
+            processingUnitProxy.setThrottlingSchedule(throttlingSchedule);
+        }
+    }
+
+    
+    /**
+     * Get the throttling schedule
+     *
+     * @return the throttling schedule or null
+     */
+    public ProcessingUnitThrottlingSchedule getThrottlingSchedule() {
+        return throttlingSchedule;
+    }
+
     
     /**
      * Get the processing unit context
@@ -380,6 +442,7 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
             processingUnitProxy.setEmptyProcessingUnitHandler(emptyProcessingUnitHandler);
         }
         
+        processingUnitProxy.setThrottlingSchedule(throttlingSchedule);
         return processingUnitProxy;
     }
     
@@ -424,6 +487,16 @@ public abstract class AbstractProcessingUnitRunnable implements IProcessingUnitR
         this.processingUnitRunnableListener = processingUnitRunnableListener;
     }
 
+
+    /**
+     * Get the processing unit runnable listener
+     *
+     * @return the processing unit runnable listener or null
+     */
+    protected IProcessingUnitRunnableListener getProcessingUnitRunnableListener() {
+        return processingUnitRunnableListener;
+    }
+
     
     /**
      * Notify processing unit action status
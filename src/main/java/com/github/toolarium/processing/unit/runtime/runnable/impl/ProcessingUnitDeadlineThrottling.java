@@ -0,0 +1,176 @@
+/*
+ * ProcessingUnitDeadlineThrottling.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.impl;
+
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
+
+
+/**
+ * Computes the max number of processing unit calls per second to end a processing just in time before its deadline. It
+ * measures the processed units per call and the duration of the calls: the max number of calls per second is the required
+ * throughput divided by the units per call. The deadline is infeasible in case the required calls per second exceed the
+ * calls per second the processing unit can do without throttling, in this case the throttling is disabled.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitDeadlineThrottling {
+    /** The default interval in milliseconds between two adjustments */
+    public static final long DEFAULT_ADJUST_INTERVAL = 1000L;
+
+    /** The min relative change of the max number of calls per second to adjust the throttling */
+    public static final double MIN_CHANGE = 0.1;
+
+    private final ProcessingUnitDeadline deadline;
+    private final long adjustInterval;
+    private long numberOfCalls;
+    private long numberOfProcessedUnits;
+    private long callTime;
+    private long lastAdjustTimestamp;
+    private Long maxNumberOfProcessingUnitCallsPerSecond;
+    private double requiredThroughput;
+    private boolean isFeasible;
+    private boolean hasBecomeInfeasible;
+
+
+    /**
+     * Constructor for ProcessingUnitDeadlineThrottling
+     *
+     * @param deadline the deadline
+     */
+    public ProcessingUnitDeadlineThrottling(ProcessingUnitDeadline deadline) {
+        this(deadline, DEFAULT_ADJUST_INTERVAL);
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitDeadlineThrottling
+     *
+     * @param deadline the deadline
+     * @param adjustInterval the interval in milliseconds between two adjustments
+     */
+    public ProcessingUnitDeadlineThrottling(ProcessingUnitDeadline deadline, long adjustInterval) {
+        this.deadline = deadline;
+        this.adjustInterval = adjustInterval;
+        this.numberOfCalls = 0;
+        this.numberOfProcessedUnits = 0;
+        this.callTime = 0;
+        this.lastAdjustTimestamp = 0;
+        this.maxNumberOfProcessingUnitCallsPerSecond = null;
+        this.requiredThroughput = 0;
+        this.isFeasible = true;
+        this.hasBecomeInfeasible = false;
+    }
+
+
+    /**
+     * Add the measurement of a processing unit call
+     *
+     * @param processedUnits the processed units of the call
+     * @param callTime the duration of the call in nanoseconds
+     */
+    public void addCall(long processedUnits, long callTime) {
+        numberOfCalls++;
+        if (processedUnits > 0) {
+            numberOfProcessedUnits += processedUnits;
+        }
+
+        if (callTime > 0) {
+            this.callTime += callTime;
+        }
+    }
+
+
+    /**
+     * Adjust the max number of calls per second in case the adjust interval has elapsed
+     *
+     * @param numberOfUnprocessedUnits the number of unprocessed units
+     * @param now the current time in milliseconds
+     * @return true in case the max number of calls per second has changed
+     */
+    public boolean adjust(long numberOfUnprocessedUnits, long now) {
+        hasBecomeInfeasible = false;
+        if (numberOfCalls == 0 || numberOfProcessedUnits == 0 || now - lastAdjustTimestamp < adjustInterval) {
+            return false;
+        }
+        lastAdjustTimestamp = now;
+
+        requiredThroughput = deadline.getRequiredThroughput(numberOfUnprocessedUnits, now);
+        final double unitsPerCall = (double) numberOfProcessedUnits / numberOfCalls;
+        final double requiredCallsPerSecond = requiredThroughput / unitsPerCall;
+        final double possibleCallsPerSecond = (callTime > 0) ? numberOfCalls * 1_000_000_000.0 / callTime : Double.POSITIVE_INFINITY;
+
+        final boolean wasFeasible = isFeasible;
+        isFeasible = requiredCallsPerSecond <= possibleCallsPerSecond;
+        hasBecomeInfeasible = wasFeasible && !isFeasible;
+
+        Long newMaxNumberOfProcessingUnitCallsPerSecond = null;
+        if (isFeasible && requiredCallsPerSecond < possibleCallsPerSecond) {
+            newMaxNumberOfProcessingUnitCallsPerSecond = Math.max(1L, (long) Math.ceil(requiredCallsPerSecond));
+        }
+
+        if (newMaxNumberOfProcessingUnitCallsPerSecond == null || maxNumberOfProcessingUnitCallsPerSecond == null) {
+            if (newMaxNumberOfProcessingUnitCallsPerSecond == maxNumberOfProcessingUnitCallsPerSecond) {
+                return false;
+            }
+        } else if (Math.abs(newMaxNumberOfProcessingUnitCallsPerSecond - maxNumberOfProcessingUnitCallsPerSecond)
+                   <= MIN_CHANGE * maxNumberOfProcessingUnitCallsPerSecond) {
+            return false;
+        }
+
+        maxNumberOfProcessingUnitCallsPerSecond = newMaxNumberOfProcessingUnitCallsPerSecond;
+        return true;
+    }
+
+
+    /**
+     * Get the max number of calls per second of the last adjustment
+     *
+     * @return the max number of calls per second or null in case the processing runs without throttling
+     */
+    public Long getMaxNumberOfProcessingUnitCallsPerSecond() {
+        return maxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * Get the required throughput of the last adjustment
+     *
+     * @return the required throughput in units per second
+     */
+    public double getRequiredThroughput() {
+        return requiredThroughput;
+    }
+
+
+    /**
+     * Check if the deadline is feasible
+     *
+     * @return true if the deadline is feasible
+     */
+    public boolean isFeasible() {
+        return isFeasible;
+    }
+
+
+    /**
+     * Check if the deadline has become infeasible by the last adjustment
+     *
+     * @return true if the deadline has become infeasible
+     */
+    public boolean hasBecomeInfeasible() {
+        return hasBecomeInfeasible;
+    }
+
+
+    /**
+     * Get the deadline
+     *
+     * @return the deadline
+     */
+    public ProcessingUnitDeadline getDeadline() {
+        return deadline;
+    }
+}
@@ -12,13 +12,19 @@ import com.github.toolarium.processing.unit.dto.Parameter;
 import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
 import com.github.toolarium.processing.unit.exception.ProcessingException;
 import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.runtime.runnable.AsyncProcessingUnitRunnableListener;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitProxy;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnable;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
 import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitProxy;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitThrottlingSchedule;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnit;
+import com.github.toolarium.processing.unit.util.ProcessingUnitStatusRenderer;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
 import java.util.List;
+import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,14 +32,33 @@ import org.slf4j.LoggerFactory;
 /**
  * Implements a {@link IProcessingUnitRunnable}. 
  * 
+ * <p>In case a deadline is set, the max number of processing unit calls per second is adjusted to end the processing just
+ * in time (see {@link ProcessingUnitDeadlineThrottling}), a {@link ParallelProcessingUnit} scales its number of threads
+ * instead. The status gets a warning as soon as the deadline becomes infeasible. The deadline is not persisted on a
+ * suspend, it has to be set again after a resume.</p>
+ * 
+ * <p>In case a throttling schedule is set, the max number of processing unit calls per second follows the active profile
+ * of the schedule (see {@link ProcessingUnitScheduledThrottling}). The schedule is persisted on a suspend.</p>
+ * 
+ * <p>In case both a schedule and a max number of processing unit calls per second (set explicitly or by the deadline)
+ * are active, the lower one is used. Without schedule the persisted max number of processing unit calls per second is 
+ * set again on a resume, with schedule only the schedule.</p>
+ * 
  * @author patrick
  */
 public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(ProcessingUnitRunnable.class);
+    private static final long DATA_AVAILABLE_CHECK_TIME = 1000L;
     private volatile boolean suspend = false;
     private transient byte[] suspendedState = null;
     private IProcessingUnitThrottling processingUnitThrottling;
     private volatile boolean isInterrupted;
+    private ProcessingUnitDeadline deadline;
+    private ProcessingUnitDeadlineThrottling deadlineThrottling;
+    private ProcessingUnitScheduledThrottling scheduledThrottling;
+    private Long requestedMaxNumberOfProcessingUnitCallsPerSecond;
+    private volatile ProcessingUnitStatusRenderer processingUnitStatusRenderer;
+    private boolean closeProcessingUnitRunnableListener;
 
     
     /**
@@ -57,12 +82,41 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
         super(id, name, processingUnitClass, parameterList, processingUnitContext);
         this.processingUnitThrottling = null;
         this.isInterrupted = false;
+        this.deadline = null;
+        this.deadlineThrottling = null;
+        this.scheduledThrottling = null;
+        this.requestedMaxNumberOfProcessingUnitCallsPerSecond = null;
         
         setProcessingUnitRunnableListener(processingUnitRunnableListener);
         setProcessingActionStatus(ProcessingActionStatus.STARTING);
     }
 
     
+    /**
+     * Constructor
+     *
+     * @param id the unique id of this processing 
+     * @param name the name of this processing unit runnable
+     * @param processingUnitClass the processing unit class
+     * @param parameterList the parameter list
+     * @param processingUnitContext the processing context.
+     * @param processingUnitRunnableListener the processing unit runnable listener
+     * @param asyncListener true to notify the processing unit runnable listener asynchronously, see {@link AsyncProcessingUnitRunnableListener}
+     * @throws ValidationException This will be throw in case the consistency check failures.
+     * @throws ProcessingException Throws this exception in case of initialization failures.
+     */
+    public ProcessingUnitRunnable(String id, // CHECKSTYLE IGNORE THIS LINE
+                                  String name, 
+                                  Class<? extends IProcessingUnit> processingUnitClass, 
+                                  List<Parameter> parameterList, 
+                                  IProcessingUnitContext processingUnitContext,
+                                  IProcessingUnitRunnableListener processingUnitRunnableListener,
+                                  boolean asyncListener) {
+        this(id, name, processingUnitClass, parameterList, processingUnitContext, prepareProcessingUnitRunnableListener(processingUnitRunnableListener, asyncListener));
+        this.closeProcessingUnitRunnableListener = asyncListener && processingUnitRunnableListener != null;
+    }
+
+    
     /**
      * Constructor
      *
@@ -72,53 +126,106 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
      * @throws ProcessingException Throws this exception in case of initialization failures.
      */
     public ProcessingUnitRunnable(byte[] suspendedState, IProcessingUnitRunnableListener processingUnitRunnableListener) {
-        super(suspendedState, processingUnitRunnableListener);
+        this(suspendedState, null, processingUnitRunnableListener);
+    }
 
-        setMaxNumberOfProcessingUnitCallsPerSecond(getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond());
+    
+    /**
+     * Constructor for ProcessingUnitRunnable to resume with changed parameters, e.g. a different number of threads
+     *
+     * @param suspendedState the suspended state
+     * @param parameterList the parameters which replace the persisted parameters or null
+     * @param processingUnitRunnableListener the processing unit runnable listener
+     * @throws ValidationException This will be throw in case the consistency check failures.
+     * @throws ProcessingException Throws this exception in case of initialization failures.
+     */
+    public ProcessingUnitRunnable(byte[] suspendedState, List<Parameter> parameterList, IProcessingUnitRunnableListener processingUnitRunnableListener) {
+        super(suspendedState, parameterList, processingUnitRunnableListener);
+
+        // with schedule the persisted max number of calls per second is the one of the schedule
+        if (getThrottlingSchedule() == null) {
+            setMaxNumberOfProcessingUnitCallsPerSecond(getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond());
+        } else {
+            setThrottlingSchedule(getThrottlingSchedule());
+        }
+    }
+
+    
+    /**
+     * Constructor for ProcessingUnitRunnable to resume with changed parameters, e.g. a different number of threads
+     *
+     * @param suspendedState the suspended state
+     * @param parameterList the parameters which replace the persisted parameters or null
+     * @param processingUnitRunnableListener the processing unit runnable listener
+     * @param asyncListener true to notify the processing unit runnable listener asynchronously, see {@link AsyncProcessingUnitRunnableListener}
+     * @throws ValidationException This will be throw in case the consistency check failures.
+     * @throws ProcessingException Throws this exception in case of initialization failures.
+     */
+    public ProcessingUnitRunnable(byte[] suspendedState, List<Parameter> parameterList, IProcessingUnitRunnableListener processingUnitRunnableListener, boolean asyncListener) {
+        this(suspendedState, parameterList, prepareProcessingUnitRunnableListener(processingUnitRunnableListener, asyncListener));
+        this.closeProcessingUnitRunnableListener = asyncListener && processingUnitRunnableListener != null;
     }
 
     
     /**
-     * Defines the max calls per second to throttle the processing unit
+     * Defines the max calls per second to throttle the processing unit. In case a throttling schedule is set, the lower 
+     * one of both is used.
      *
      * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing units per second
      */
     public void setMaxNumberOfProcessingUnitCallsPerSecond(Long maxNumberOfProcessingUnitCallsPerSecond) {
-        super.setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
-        
         if (maxNumberOfProcessingUnitCallsPerSecond == null || maxNumberOfProcessingUnitCallsPerSecond.longValue() <= 0) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug(ProcessingUnitUtil.getInstance().toString(getId(), getName(), getProcessingUnitClass()) + " Disable throttling (max number of processing unit calls per second).");
-            }
-            processingUnitThrottling = null;
+            requestedMaxNumberOfProcessingUnitCallsPerSecond = null;
         } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug(ProcessingUnitUtil.getInstance().toString(getId(), getName(), getProcessingUnitClass()) + " Enable throttling (max number of processing unit calls per second): " + maxNumberOfProcessingUnitCallsPerSecond);
-            }
-            processingUnitThrottling = new ProcessingUnitThrottling(getId(), getName(), getProcessingUnitClass(), maxNumberOfProcessingUnitCallsPerSecond);
+            requestedMaxNumberOfProcessingUnitCallsPerSecond = maxNumberOfProcessingUnitCallsPerSecond;
         }
         
-        if (getProcessingUnitProxy() != null) {
-            if ((maxNumberOfProcessingUnitCallsPerSecond == null && getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond() == null)
-                    || (maxNumberOfProcessingUnitCallsPerSecond != null && maxNumberOfProcessingUnitCallsPerSecond.equals(getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond()))) {
-                // they are equal, no change
-            } else {
-                // in case the set value are different set max number of calls per second
-                boolean processingHasOwnThrottlingImplementation = getProcessingUnitProxy().setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
-                if (processingHasOwnThrottlingImplementation) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug(ProcessingUnitUtil.getInstance().toString(getId(), getName(), getProcessingUnitClass())
-                                  + " Processing unit has own throttling implementation, propagted value of max number of processing unit calls per second: "
-                                  + maxNumberOfProcessingUnitCallsPerSecond);
-                    }
+        applyMaxNumberOfProcessingUnitCallsPerSecond(getEffectiveMaxNumberOfProcessingUnitCallsPerSecond());
+    }
 
-                    processingUnitThrottling = null; 
-                }
+    
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.impl.AbstractProcessingUnitRunnable#setThrottlingSchedule(com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitThrottlingSchedule)
+     */
+    @Override
+    public void setThrottlingSchedule(ProcessingUnitThrottlingSchedule throttlingSchedule) {
+        super.setThrottlingSchedule(throttlingSchedule);
+        
+        if (throttlingSchedule == null) {
+            if (scheduledThrottling != null) {
+                scheduledThrottling = null;
+                applyMaxNumberOfProcessingUnitCallsPerSecond(getEffectiveMaxNumberOfProcessingUnitCallsPerSecond());
+            }
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(getProcessingUnitStatusRenderer().getProcessingInfo() + " Enable throttling schedule: " + throttlingSchedule);
             }
+            scheduledThrottling = new ProcessingUnitScheduledThrottling(getId(), getName(), getProcessingUnitClass(), throttlingSchedule);
+            applyMaxNumberOfProcessingUnitCallsPerSecond(getEffectiveMaxNumberOfProcessingUnitCallsPerSecond());
         }
     }
 
     
+    /**
+     * Defines the deadline to end the processing: it replaces the max calls per second
+     *
+     * @param deadline the deadline or null
+     */
+    public void setDeadline(ProcessingUnitDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    
+    /**
+     * Get the deadline
+     *
+     * @return the deadline or null
+     */
+    public ProcessingUnitDeadline getDeadline() {
+        return deadline;
+    }
+
+    
     /**
      * Suspend processing
      */
@@ -128,6 +235,7 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
         }
         
         suspend = true;
+        wakeUp();
     }
 
 
@@ -163,6 +271,8 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
                 processingInfo = processingUnitProxy.toString();
                 LOG.info(processingInfo + " Started processing unit");
             }
+            
+            initializeDeadline();
 
             boolean continueProcessing = !isThreadInterrupted();
             boolean exceptionOccured = false;
@@ -171,9 +281,18 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
                     setProcessingActionStatus(ProcessingActionStatus.RUNNING);
                 }
                 
+                if (!getProcessingUnitProxy().awaitDataAvailable(DATA_AVAILABLE_CHECK_TIME)) {
+                    // no data available: the thread is parked until the processing unit notifies new data or a suspend
+                    continueProcessing = !isThreadInterrupted();
+                    continue;
+                }
+                
                 try { 
+                    final long numberOfProcessedUnits = getProcessingUnitProgress().getNumberOfProcessedUnits();
+                    final long start = System.nanoTime();
                     continueProcessing = getProcessingUnitProxy().processUnit();
                     continueProcessing = continueProcessing && !isThreadInterrupted();
+                    afterProcessUnitCall(getProcessingUnitProgress().getNumberOfProcessedUnits() - numberOfProcessedUnits, System.nanoTime() - start);
                 } catch (RuntimeException e) {
                     continueProcessing = false;
                     exceptionOccured = true;
@@ -244,6 +363,11 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
                     LOG.warn(getProcessingUnitProxy().toString() + " Could not release resource of processing unit: " + e.getMessage());
                 }
             }
+            
+            if (closeProcessingUnitRunnableListener && getProcessingUnitRunnableListener() instanceof AsyncProcessingUnitRunnableListener) {
+                // the queued notifications are still delivered
+                ((AsyncProcessingUnitRunnableListener) getProcessingUnitRunnableListener()).close();
+            }
         }
     }
 
@@ -253,17 +377,31 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
      */
     @Override
     public String toString() {
-        return ProcessingUnitUtil.getInstance().toString(getId(), 
-                                                         getName(), 
-                                                         getProcessingUnitProxy().getProcessingUnitClass().getName(),
-                                                         getParameterList(),
-                                                         getProcessingUnitContext(),
-                                                         getProcessingUnitProgress(), 
-                                                         getProcessingActionStatus(), 
-                                                         getProcessingRuntimeStatus(), 
-                                                         getStatusMessageList(), 
-                                                         getTimeMeasurement(), 
-                                                         getProcessingUnitThrottling());
+        return getProcessingUnitStatusRenderer().toString(getParameterList(),
+                                                          getProcessingUnitContext(),
+                                                          getProcessingUnitProgress(), 
+                                                          getProcessingActionStatus(), 
+                                                          getProcessingRuntimeStatus(), 
+                                                          getStatusMessageList(), 
+                                                          getTimeMeasurement(), 
+                                                          getProcessingUnitThrottling());
+    }
+
+    
+    /**
+     * Get the status of the processing as JSON object
+     *
+     * @return the status as JSON object
+     */
+    public String toJson() {
+        return getProcessingUnitStatusRenderer().toJson(getParameterList(),
+                                                        getProcessingUnitContext(),
+                                                        getProcessingUnitProgress(), 
+                                                        getProcessingActionStatus(), 
+                                                        getProcessingRuntimeStatus(), 
+                                                        getStatusMessageList(), 
+                                                        getTimeMeasurement(), 
+                                                        getProcessingUnitThrottling());
     }
 
     
@@ -276,21 +414,109 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
         ProcessingUnitProxy processingUnitProxy = super.createProcessingUnitProxy();
         
         // set the throttling
-        setMaxNumberOfProcessingUnitCallsPerSecond(getMaxNumberOfProcessingUnitCallsPerSecond());
+        applyMaxNumberOfProcessingUnitCallsPerSecond(getEffectiveMaxNumberOfProcessingUnitCallsPerSecond());
         return processingUnitProxy;
     }
 
     
+    /**
+     * Initialize the deadline: a parallel processing unit scales its number of threads, otherwise the calls are throttled
+     */
+    protected void initializeDeadline() {
+        deadlineThrottling = null;
+        if (deadline == null) {
+            return;
+        }
+        
+        if (getProcessingUnitProxy().getProcessingUnit() instanceof ParallelProcessingUnit) {
+            ((ParallelProcessingUnit) getProcessingUnitProxy().getProcessingUnit()).setDeadline(deadline);
+        } else {
+            deadlineThrottling = new ProcessingUnitDeadlineThrottling(deadline);
+        }
+    }
+
+    
+    /**
+     * Called after each call of the processing unit with its measurement
+     *
+     * @param processedUnits the processed units of the call
+     * @param callTime the duration of the call in nanoseconds
+     */
+    protected void afterProcessUnitCall(long processedUnits, long callTime) {
+        adjustToDeadline(processedUnits, callTime);
+    }
+
+    
+    /**
+     * Adjust the max number of processing unit calls per second to the deadline
+     *
+     * @param processedUnits the processed units of the last call
+     * @param callTime the duration of the last call in nanoseconds
+     */
+    protected void adjustToDeadline(long processedUnits, long callTime) {
+        if (deadlineThrottling == null) {
+            return;
+        }
+
+        deadlineThrottling.addCall(processedUnits, callTime);
+        if (deadlineThrottling.adjust(getProcessingUnitProgress().getNumberOfUnprocessedUnits(), System.currentTimeMillis())) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(getProcessingUnitStatusRenderer().getProcessingInfo() + " Adjust to the deadline " + deadline 
+                          + ", required throughput: " + deadlineThrottling.getRequiredThroughput() + " units/s.");
+            }
+            setMaxNumberOfProcessingUnitCallsPerSecond(deadlineThrottling.getMaxNumberOfProcessingUnitCallsPerSecond());
+        }
+        
+        if (deadlineThrottling.hasBecomeInfeasible()) {
+            final String message = "The deadline " + deadline + " is infeasible (required throughput: " + Math.round(deadlineThrottling.getRequiredThroughput()) + " units/s)!";
+            LOG.warn(getProcessingUnitStatusRenderer().getProcessingInfo() + " " + message);
+            getProcessingUnitProxy().addWarning(message);
+        }
+    }
+
+    
     /**
      * Throttling the processing if its defined and needed
      */
     protected void throttlingProcessing() {
+        if (scheduledThrottling != null) {
+            final Long maxNumberOfProcessingUnitCallsPerSecond = getEffectiveMaxNumberOfProcessingUnitCallsPerSecond();
+            if (!Objects.equals(maxNumberOfProcessingUnitCallsPerSecond, getMaxNumberOfProcessingUnitCallsPerSecond())) {
+                LOG.info(getProcessingUnitStatusRenderer().getProcessingInfo() 
+                         + " Switch throttling (max number of processing unit calls per second) by schedule: " + maxNumberOfProcessingUnitCallsPerSecond);
+                applyMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+            }
+        }
+        
         if (processingUnitThrottling != null) {
             processingUnitThrottling.throttlingProcessing();
         }
     }
 
     
+    /**
+     * Get the processing unit status renderer, it prepares the static parts of the status once
+     *
+     * @return the processing unit status renderer
+     */
+    protected ProcessingUnitStatusRenderer getProcessingUnitStatusRenderer() {
+        ProcessingUnitStatusRenderer result = processingUnitStatusRenderer;
+        if (result == null) {
+            String processingUnitClassName = null;
+            if (getProcessingUnitClass() != null) {
+                processingUnitClassName = getProcessingUnitClass().getName();
+            } else if (getProcessingUnitProxy() != null && getProcessingUnitProxy().getProcessingUnitClass() != null) {
+                processingUnitClassName = getProcessingUnitProxy().getProcessingUnitClass().getName();
+            }
+            
+            result = new ProcessingUnitStatusRenderer(getId(), getName(), processingUnitClassName);
+            processingUnitStatusRenderer = result;
+        }
+        
+        return result;
+    }
+
+    
     /**
      * Get the processing unit throttling
      *
@@ -321,4 +547,85 @@ public class ProcessingUnitRunnable extends AbstractProcessingUnitRunnable imple
     protected boolean isThreadInterrupted() {
         return Thread.currentThread().isInterrupted() || isInterrupted;
     }
+
+
+    /**
+     * Prepare the processing unit runnable listener
+     *
+     * @param processingUnitRunnableListener the processing unit runnable listener
+     * @param asyncListener true to notify the processing unit runnable listener asynchronously
+     * @return the processing unit runnable listener to use
+     */
+    private static IProcessingUnitRunnableListener prepareProcessingUnitRunnableListener(IProcessingUnitRunnableListener processingUnitRunnableListener, boolean asyncListener) {
+        if (!asyncListener || processingUnitRunnableListener == null) {
+            return processingUnitRunnableListener;
+        }
+        
+        return new AsyncProcessingUnitRunnableListener(processingUnitRunnableListener);
+    }
+
+
+    /**
+     * Apply the max calls per second to throttle the processing unit: the bandwidth of the schedule is used in case the 
+     * max calls per second are the ones of the active profile of the schedule
+     *
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing units per second
+     */
+    private void applyMaxNumberOfProcessingUnitCallsPerSecond(Long maxNumberOfProcessingUnitCallsPerSecond) {
+        super.setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+        
+        if (maxNumberOfProcessingUnitCallsPerSecond == null || maxNumberOfProcessingUnitCallsPerSecond.longValue() <= 0) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(getProcessingUnitStatusRenderer().getProcessingInfo() + " Disable throttling (max number of processing unit calls per second).");
+            }
+            processingUnitThrottling = null;
+        } else {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug(getProcessingUnitStatusRenderer().getProcessingInfo() + " Enable throttling (max number of processing unit calls per second): " + maxNumberOfProcessingUnitCallsPerSecond);
+            }
+            if (scheduledThrottling != null && maxNumberOfProcessingUnitCallsPerSecond.equals(scheduledThrottling.getMaxNumberOfProcessingUnitCallsPerSecond())) {
+                processingUnitThrottling = scheduledThrottling;
+            } else {
+                processingUnitThrottling = new ProcessingUnitThrottling(getId(), getName(), getProcessingUnitClass(), maxNumberOfProcessingUnitCallsPerSecond);
+            }
+        }
+        
+        if (getProcessingUnitProxy() != null) {
+            if ((maxNumberOfProcessingUnitCallsPerSecond == null && getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond() == null)
+                    || (maxNumberOfProcessingUnitCallsPerSecond != null && maxNumberOfProcessingUnitCallsPerSecond.equals(getProcessingUnitProxy().getMaxNumberOfProcessingUnitCallsPerSecond()))) {
+                // they are equal, no change
+            } else {
+                // in case the set value are different set max number of calls per second
+                boolean processingHasOwnThrottlingImplementation = getProcessingUnitProxy().setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+                if (processingHasOwnThrottlingImplementation) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug(getProcessingUnitStatusRenderer().getProcessingInfo()
+                                  + " Processing unit has own throttling implementation, propagted value of max number of processing unit calls per second: "
+                                  + maxNumberOfProcessingUnitCallsPerSecond);
+                    }
+
+                    processingUnitThrottling = null; 
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Get the max calls per second to apply: the lower one of the requested max calls per second and the max calls per 
+     * second of the active profile of the schedule
+     *
+     * @return the max number of processing units per second or null for unlimited
+     */
+    private Long getEffectiveMaxNumberOfProcessingUnitCallsPerSecond() {
+        Long result = requestedMaxNumberOfProcessingUnitCallsPerSecond;
+        if (scheduledThrottling != null) {
+            final Long scheduledMaxNumberOfProcessingUnitCallsPerSecond = scheduledThrottling.getMaxNumberOfProcessingUnitCallsPerSecond();
+            if (result == null || (scheduledMaxNumberOfProcessingUnitCallsPerSecond != null && scheduledMaxNumberOfProcessingUnitCallsPerSecond.longValue() < result.longValue())) {
+                result = scheduledMaxNumberOfProcessingUnitCallsPerSecond;
+            }
+        }
+        
+        return result;
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * ProcessingUnitScheduledThrottling.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.impl;
+
+import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
+import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitThrottlingSchedule;
+import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements a scheduled {@link IProcessingUnitThrottling}: the max number of processing unit calls per second follows a
+ * {@link ProcessingUnitThrottlingSchedule}. The schedule is checked once per check interval, on a change the throttling
+ * switches to the bandwidth of the new rate. The bandwidth of each rate is created once and reused on a later switch back.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitScheduledThrottling implements IProcessingUnitThrottling {
+    /** The default interval in milliseconds between two checks of the schedule */
+    public static final long DEFAULT_CHECK_INTERVAL = 1000L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessingUnitScheduledThrottling.class);
+    private final String id;
+    private final String name;
+    private final Class<? extends IProcessingUnit> processingUnitClass;
+    private final String processInfo;
+    private final ProcessingUnitThrottlingSchedule throttlingSchedule;
+    private final long checkInterval;
+    private final Map<Long, ProcessingUnitThrottling> processingUnitThrottlingMap;
+    private volatile Long maxNumberOfProcessingUnitCallsPerSecond;
+    private volatile ProcessingUnitThrottling processingUnitThrottling;
+    private long lastCheckTimestamp;
+
+
+    /**
+     * Constructor for ProcessingUnitScheduledThrottling
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing class
+     * @param throttlingSchedule the throttling schedule
+     */
+    public ProcessingUnitScheduledThrottling(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, ProcessingUnitThrottlingSchedule throttlingSchedule) {
+        this(id, name, processingUnitClass, throttlingSchedule, DEFAULT_CHECK_INTERVAL);
+    }
+
+
+    /**
+     * Constructor for ProcessingUnitScheduledThrottling
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing class
+     * @param throttlingSchedule the throttling schedule
+     * @param checkInterval the interval in milliseconds between two checks of the schedule
+     */
+    public ProcessingUnitScheduledThrottling(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, ProcessingUnitThrottlingSchedule throttlingSchedule, long checkInterval) {
+        this.id = id;
+        this.name = name;
+        this.processingUnitClass = processingUnitClass;
+        this.processInfo = ProcessingUnitUtil.getInstance().toString(id, name, processingUnitClass);
+        this.throttlingSchedule = throttlingSchedule;
+        this.checkInterval = checkInterval;
+        this.processingUnitThrottlingMap = new HashMap<Long, ProcessingUnitThrottling>();
+        this.maxNumberOfProcessingUnitCallsPerSecond = null;
+        this.processingUnitThrottling = null;
+        update(System.currentTimeMillis(), true);
+    }
+
+
+    /**
+     * Get the max number of processing unit calls per second of the active profile
+     *
+     * @return the max number of processing unit calls per second or null for unlimited
+     */
+    public synchronized Long getMaxNumberOfProcessingUnitCallsPerSecond() {
+        update(System.currentTimeMillis(), false);
+        return maxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * Get the throttling schedule
+     *
+     * @return the throttling schedule
+     */
+    public ProcessingUnitThrottlingSchedule getThrottlingSchedule() {
+        return throttlingSchedule;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling#getBandwidth()
+     */
+    @Override
+    public synchronized IBandwidthThrottling getBandwidth() {
+        if (processingUnitThrottling == null) {
+            return null;
+        }
+
+        return processingUnitThrottling.getBandwidth();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling#throttlingProcessing()
+     */
+    @Override
+    public void throttlingProcessing() {
+        final ProcessingUnitThrottling throttling;
+        synchronized (this) {
+            update(System.currentTimeMillis(), false);
+            throttling = processingUnitThrottling;
+        }
+
+        if (throttling != null) {
+            throttling.throttlingProcessing();
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProcessingUnitScheduledThrottling [processInfo=" + processInfo + ", throttlingSchedule=" + throttlingSchedule
+                + ", maxNumberOfProcessingUnitCallsPerSecond=" + maxNumberOfProcessingUnitCallsPerSecond + "]";
+    }
+
+
+    /**
+     * Switch to the max number of processing unit calls per second of the schedule in case the check interval has elapsed
+     *
+     * @param now the current time in milliseconds
+     * @param force true to check the schedule independent of the check interval
+     */
+    private void update(long now, boolean force) {
+        if (!force && now - lastCheckTimestamp < checkInterval) {
+            return;
+        }
+        lastCheckTimestamp = now;
+
+        final Long newMaxNumberOfProcessingUnitCallsPerSecond = throttlingSchedule.getMaxNumberOfProcessingUnitCallsPerSecond(Instant.ofEpochMilli(now));
+        if (!force && Objects.equals(newMaxNumberOfProcessingUnitCallsPerSecond, maxNumberOfProcessingUnitCallsPerSecond)) {
+            return;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(processInfo + " Switch throttling (max number of processing unit calls per second) from " + maxNumberOfProcessingUnitCallsPerSecond
+                      + " to " + newMaxNumberOfProcessingUnitCallsPerSecond + ".");
+        }
+
+        maxNumberOfProcessingUnitCallsPerSecond = newMaxNumberOfProcessingUnitCallsPerSecond;
+        if (newMaxNumberOfProcessingUnitCallsPerSecond == null) {
+            processingUnitThrottling = null;
+        } else {
+            processingUnitThrottling = processingUnitThrottlingMap.computeIfAbsent(newMaxNumberOfProcessingUnitCallsPerSecond,
+                    max -> new ProcessingUnitThrottling(id, name, processingUnitClass, max));
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.github.toolarium.common.bandwidth.BandwidthThrottling;
 import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
 import com.github.toolarium.common.formatter.TimeDifferenceFormatter;
 import com.github.toolarium.processing.unit.IProcessingUnit;
+import com.github.toolarium.processing.unit.runtime.jfr.ThrottleWaitEvent;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
 import org.slf4j.Logger;
@@ -22,6 +23,9 @@ import org.slf4j.LoggerFactory;
  */
 public class ProcessingUnitThrottling implements IProcessingUnitThrottling {
     private static final Logger LOG = LoggerFactory.getLogger(ProcessingUnitThrottling.class);
+    private final String id;
+    private final String name;
+    private final Class<? extends IProcessingUnit> processingUnitClass;
     private final String processInfo;
     private volatile IBandwidthThrottling bandwidthThrottling;
     private volatile boolean processingUnitThrottlingInitLogged;
@@ -37,6 +41,9 @@ public class ProcessingUnitThrottling implements IProcessingUnitThrottling {
      * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing units per second
      */
     public ProcessingUnitThrottling(String id, String name, Class<? extends IProcessingUnit> processingUnitClass, Long maxNumberOfProcessingUnitCallsPerSecond) {
+        this.id = id;
+        this.name = name;
+        this.processingUnitClass = processingUnitClass;
         processInfo = ProcessingUnitUtil.getInstance().toString(id, name, processingUnitClass);
         processingUnitThrottlingInitLogged = false;
         bandwidthThrottling = new BandwidthThrottling(maxNumberOfProcessingUnitCallsPerSecond, 10 /* update interval*/);
@@ -75,7 +82,11 @@ public class ProcessingUnitThrottling implements IProcessingUnitThrottling {
             }
     
             long start = System.currentTimeMillis();
+            final ThrottleWaitEvent throttleWaitEvent = new ThrottleWaitEvent();
+            throttleWaitEvent.begin();
             bandwidthThrottling.bandwidthCheck();
+            throttleWaitEvent.end();
+            throttleWaitEvent.commit(id, name, processingUnitClass);
     
             long time = System.currentTimeMillis() - start;
             if (time > bandwidthThrottling.getUpdateInterval()) {
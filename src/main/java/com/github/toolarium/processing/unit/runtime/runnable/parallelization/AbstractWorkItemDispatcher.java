@@ -0,0 +1,281 @@
+/*
+ * AbstractWorkItemDispatcher.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements the base of the reader thread of the reader / worker topology: a single thread reads the work items from
+ * the source in blocks and publishes them to the work item queues of the processing unit instances. In case there is no
+ * space the reader waits, slow workers slow down the source.
+ *
+ * <p>On stop the not yet processed work items of the queues and the not yet published work items are kept together
+ * with the offset of the source, they are published first after a restart.</p>
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public abstract class AbstractWorkItemDispatcher<T extends Serializable> implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractWorkItemDispatcher.class);
+    private final IProcessingUnitWorkItemSupport<T> workItemSupport;
+    private final int readBlockSize;
+    private final Deque<T> publishBuffer;
+    private IProcessingUnitSource<T> source;
+    private Thread dispatcherThread;
+    private Serializable offset;
+    private volatile boolean isStopped;
+
+
+    /**
+     * Constructor for AbstractWorkItemDispatcher
+     *
+     * @param workItemSupport the work item support which defines the source of the work items
+     * @param readBlockSize the block size to read from the source
+     */
+    protected AbstractWorkItemDispatcher(IProcessingUnitWorkItemSupport<T> workItemSupport, int readBlockSize) {
+        this.workItemSupport = workItemSupport;
+        this.readBlockSize = Math.max(1, readBlockSize);
+        this.publishBuffer = new ArrayDeque<T>();
+        this.source = null;
+        this.dispatcherThread = null;
+        this.offset = null;
+        this.isStopped = false;
+    }
+
+
+    /**
+     * Get the work item queue of a processing unit instance
+     *
+     * @param index the index of the processing unit instance
+     * @return the work item queue
+     */
+    public abstract IProcessingUnitWorkItemQueue<T> getWorkItemQueue(int index);
+
+
+    /**
+     * Get the number of published but not yet taken work items
+     *
+     * @return the number of queued work items
+     */
+    public abstract long getQueueDepth();
+
+
+    /**
+     * Add the statistic of the dispatcher
+     *
+     * @param processingUnitStatusBuilder the processing status builder
+     */
+    public abstract void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder);
+
+
+    /**
+     * Open the source and start the dispatcher thread
+     *
+     * @param threadFactory the thread factory
+     * @param offset the offset of the source or null to start from the beginning
+     * @param pendingWorkItemList the work items of a previous run which were not yet processed or null
+     * @throws ProcessingException In case the source can't be opened
+     */
+    public void start(ThreadFactory threadFactory, Serializable offset, List<T> pendingWorkItemList) throws ProcessingException {
+        if (dispatcherThread != null) {
+            return;
+        }
+
+        source = workItemSupport.createWorkItemSource();
+        if (source == null) {
+            throw new ProcessingException("Missing work item source!", true);
+        }
+
+        source.open(offset);
+        this.offset = offset;
+        if (pendingWorkItemList != null) {
+            publishBuffer.addAll(pendingWorkItemList);
+        }
+
+        dispatcherThread = threadFactory.newThread(this);
+        dispatcherThread.start();
+    }
+
+
+    /**
+     * Stop the dispatcher thread and close the source. The dispatcher stops after the current work item, the pending
+     * work items and the offset of the source can be get afterwards.
+     *
+     * @param timeout the timeout in milliseconds to wait for the dispatcher thread
+     */
+    public void stop(long timeout) {
+        isStopped = true;
+
+        final Thread thread = dispatcherThread;
+        if (thread != null && thread.isAlive()) {
+            try {
+                thread.join(Math.max(1, timeout));
+                if (thread.isAlive()) {
+                    LOG.warn("Dispatcher thread didn't stop within " + timeout + "ms, interrupt it...");
+                    thread.interrupt();
+                    thread.join(Math.max(1, timeout));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (source != null) {
+            try {
+                offset = source.getOffset();
+                source.close();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not close work item source: " + e.getMessage(), e);
+            }
+            source = null;
+        }
+    }
+
+
+    /**
+     * Flush the written results, it is called after all processing unit instances are stopped before a suspend and at 
+     * the end of the processing.
+     *
+     * @throws ProcessingException In case the results can't be flushed
+     */
+    public void flush() throws ProcessingException {
+        // NOP
+    }
+
+
+    /**
+     * Release the resources, it is called after the stop of the dispatcher and all processing unit instances.
+     *
+     * @throws ProcessingException In case the resources can't be released properly
+     */
+    public void releaseResource() throws ProcessingException {
+        // NOP
+    }
+
+
+    /**
+     * Get the offset of the source after the last read block, it is available after the stop
+     *
+     * @return the offset
+     */
+    public Serializable getOffset() {
+        return offset;
+    }
+
+
+    /**
+     * Get the not yet processed work items: first the published but not yet taken work items and then the not yet
+     * published work items. It should only be called after the stop of the dispatcher and the processing unit instances.
+     *
+     * @return the not yet processed work items
+     */
+    public List<T> getPendingWorkItemList() {
+        final List<T> result = new ArrayList<T>();
+        drainTo(result);
+        result.addAll(publishBuffer);
+        return result;
+    }
+
+
+    /**
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            if (!publishWorkItems()) {
+                return;
+            }
+
+            while (!isStopped) {
+                final List<T> workItemList = source.read(readBlockSize);
+                if (workItemList == null || workItemList.isEmpty()) {
+                    break;
+                }
+
+                publishBuffer.addAll(workItemList);
+                if (!publishWorkItems()) {
+                    return;
+                }
+            }
+
+            if (!isStopped) {
+                LOG.debug("Dispatched all work items of the source.");
+            }
+        } finally {
+            if (!isStopped) {
+                // the source is completely read or has failed: the processing unit instances end after the queues are empty
+                close();
+            }
+        }
+    }
+
+
+    /**
+     * Check if the dispatcher is stopped
+     *
+     * @return true if it is stopped
+     */
+    protected boolean isStopped() {
+        return isStopped;
+    }
+
+
+    /**
+     * Publish a work item, it waits as long as there is no space
+     *
+     * @param workItem the work item
+     * @return true if it is published, false in case the dispatcher is stopped
+     */
+    protected abstract boolean publish(T workItem);
+
+
+    /**
+     * Drain all published but not yet taken work items
+     *
+     * @param workItemList the list to add the work items
+     */
+    protected abstract void drainTo(List<T> workItemList);
+
+
+    /**
+     * Close the work item queues: no more work items will be published
+     */
+    protected abstract void close();
+
+
+    /**
+     * Publish the work items of the publish buffer
+     *
+     * @return true if all work items are published, false in case the dispatcher is stopped
+     */
+    private boolean publishWorkItems() {
+        T workItem = publishBuffer.peek();
+        while (workItem != null) {
+            if (!publish(workItem)) {
+                return false;
+            }
+
+            publishBuffer.poll();
+            workItem = publishBuffer.peek();
+        }
+
+        return true;
+    }
+}
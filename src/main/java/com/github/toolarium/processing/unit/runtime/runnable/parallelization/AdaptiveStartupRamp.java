@@ -0,0 +1,135 @@
+/*
+ * AdaptiveStartupRamp.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements the adaptive startup ramp of the {@link ParallelProcessingUnit}: it starts with a first wave of threads
+ * and doubles the number of threads per interval as long as the throughput increases and the already locked ratio
+ * stays below the max ratio. The ramp ends with the configured number of threads or with the number of threads of
+ * the last wave which brought a gain.
+ *
+ * @author patrick
+ */
+public class AdaptiveStartupRamp {
+    /** The default min throughput gain of a wave */
+    public static final double DEFAULT_MIN_THROUGHPUT_GAIN = 0.05;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveStartupRamp.class);
+    private final int firstWaveSize;
+    private final double maxAlreadyLockedRatio;
+    private final double minThroughputGain;
+    private double lastThroughput;
+    private int numberOfWaves;
+    private boolean isFinished;
+
+
+    /**
+     * Constructor for AdaptiveStartupRamp
+     *
+     * @param firstWaveSize the number of threads of the first wave
+     * @param maxAlreadyLockedRatio the max already locked ratio to add further threads
+     */
+    public AdaptiveStartupRamp(int firstWaveSize, double maxAlreadyLockedRatio) {
+        this(firstWaveSize, maxAlreadyLockedRatio, DEFAULT_MIN_THROUGHPUT_GAIN);
+    }
+
+
+    /**
+     * Constructor for AdaptiveStartupRamp
+     *
+     * @param firstWaveSize the number of threads of the first wave
+     * @param maxAlreadyLockedRatio the max already locked ratio to add further threads
+     * @param minThroughputGain the min relative throughput gain a wave has to bring
+     */
+    public AdaptiveStartupRamp(int firstWaveSize, double maxAlreadyLockedRatio, double minThroughputGain) {
+        this.firstWaveSize = Math.max(1, firstWaveSize);
+        this.maxAlreadyLockedRatio = maxAlreadyLockedRatio;
+        this.minThroughputGain = minThroughputGain;
+        this.lastThroughput = 0;
+        this.numberOfWaves = 0;
+        this.isFinished = false;
+    }
+
+
+    /**
+     * Start the ramp
+     *
+     * @param numberOfThreads the configured number of threads
+     * @return the number of threads of the first wave
+     */
+    public synchronized int start(int numberOfThreads) {
+        final int result = Math.max(1, Math.min(firstWaveSize, numberOfThreads));
+        lastThroughput = 0;
+        numberOfWaves = 1;
+        isFinished = result >= numberOfThreads;
+        return result;
+    }
+
+
+    /**
+     * Compute the number of threads of the next wave after an interval
+     *
+     * @param numberOfThreads the current number of threads
+     * @param maxNumberOfThreads the configured number of threads
+     * @param throughput the number of processed units per second of the last interval
+     * @param alreadyLockedRatio the ratio of the already locked objects of the last interval
+     * @return the number of threads
+     */
+    public synchronized int computeNumberOfThreads(int numberOfThreads, int maxNumberOfThreads, double throughput, double alreadyLockedRatio) {
+        if (isFinished) {
+            return numberOfThreads;
+        }
+
+        if (throughput <= 0) {
+            // no processed unit yet, wait for the next interval
+            return numberOfThreads;
+        }
+
+        int result = numberOfThreads;
+        if (alreadyLockedRatio > maxAlreadyLockedRatio) {
+            // the threads block each other
+            isFinished = true;
+        } else if (lastThroughput > 0 && throughput < lastThroughput * (1.0 + minThroughputGain)) {
+            // the last wave brought no gain
+            isFinished = true;
+        } else {
+            result = Math.min(maxNumberOfThreads, Math.max(numberOfThreads + 1, numberOfThreads * 2));
+            numberOfWaves++;
+            isFinished = result >= maxNumberOfThreads;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Startup ramp wave #" + numberOfWaves + " with " + result + " threads (throughput: " + throughput + "/s, already locked ratio: " + alreadyLockedRatio + ", finished: " + isFinished + ").");
+        }
+
+        lastThroughput = throughput;
+        return result;
+    }
+
+
+    /**
+     * Get the number of started waves
+     *
+     * @return the number of waves
+     */
+    public synchronized int getNumberOfWaves() {
+        return numberOfWaves;
+    }
+
+
+    /**
+     * Check if the ramp is finished
+     *
+     * @return true if it is finished
+     */
+    public synchronized boolean isFinished() {
+        return isFinished;
+    }
+}
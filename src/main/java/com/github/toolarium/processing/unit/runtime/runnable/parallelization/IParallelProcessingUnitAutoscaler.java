@@ -0,0 +1,29 @@
+/*
+ * IParallelProcessingUnitAutoscaler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+
+/**
+ * Defines the autoscaler of the {@link ParallelProcessingUnit}. It is called periodically by the parallel processing unit 
+ * with the measurement of the last interval and decides the number of threads for the next interval.
+ * 
+ * @author patrick
+ */
+public interface IParallelProcessingUnitAutoscaler {
+    
+    /**
+     * Compute the number of threads
+     *
+     * @param numberOfThreads the number of threads in the last interval
+     * @param minNumberOfThreads the min number of threads
+     * @param maxNumberOfThreads the max number of threads
+     * @param throughput the processed units per second in the last interval
+     * @param alreadyLockedRatio the ratio between 0 and 1 of the objects which could not be locked because they were 
+     *        already locked by an other thread in the last interval
+     * @return the number of threads for the next interval
+     */
+    int computeNumberOfThreads(int numberOfThreads, int minNumberOfThreads, int maxNumberOfThreads, double throughput, double alreadyLockedRatio);
+}
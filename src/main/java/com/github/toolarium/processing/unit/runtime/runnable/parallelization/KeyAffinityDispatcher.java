@@ -0,0 +1,274 @@
+/*
+ * KeyAffinityDispatcher.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitKeyAffinitySupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Implements the dispatcher of the key affinity mode: the reader thread routes the work items by the hash of their key
+ * to a bounded work item queue per processing unit instance. In case a queue is full the dispatcher waits, a slow
+ * instance slows down the source but never changes the order of a key.
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public class KeyAffinityDispatcher<T extends Serializable> extends AbstractWorkItemDispatcher<T> {
+    private static final long OFFER_TIMEOUT = 100L;
+    private final IProcessingUnitKeyAffinitySupport<T> keyAffinitySupport;
+    private final List<WorkItemQueue<T>> workItemQueueList;
+    private final AtomicLongArray numberOfDispatchedWorkItems;
+
+
+    /**
+     * Constructor for KeyAffinityDispatcher
+     *
+     * @param keyAffinitySupport the key affinity support which defines the source and the key of the work items
+     * @param numberOfWorkItemQueues the number of work item queues
+     * @param workItemQueueSize the max size of a work item queue
+     * @param readBlockSize the block size to read from the source
+     */
+    public KeyAffinityDispatcher(IProcessingUnitKeyAffinitySupport<T> keyAffinitySupport, int numberOfWorkItemQueues, int workItemQueueSize, int readBlockSize) {
+        super(keyAffinitySupport, readBlockSize);
+        this.keyAffinitySupport = keyAffinitySupport;
+        this.workItemQueueList = new ArrayList<WorkItemQueue<T>>(numberOfWorkItemQueues);
+        for (int i = 0; i < Math.max(1, numberOfWorkItemQueues); i++) {
+            workItemQueueList.add(new WorkItemQueue<T>(Math.max(1, workItemQueueSize)));
+        }
+        this.numberOfDispatchedWorkItems = new AtomicLongArray(workItemQueueList.size());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#getWorkItemQueue(int)
+     */
+    @Override
+    public IProcessingUnitWorkItemQueue<T> getWorkItemQueue(int index) {
+        return workItemQueueList.get(index);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#getQueueDepth()
+     */
+    @Override
+    public long getQueueDepth() {
+        long queueDepth = 0;
+        for (WorkItemQueue<T> workItemQueue : workItemQueueList) {
+            queueDepth += workItemQueue.size();
+        }
+        return queueDepth;
+    }
+
+
+    /**
+     * Get the number of queued work items of the fullest work item queue
+     *
+     * @return the max number of queued work items
+     */
+    public long getMaxQueueDepth() {
+        long maxQueueDepth = 0;
+        for (WorkItemQueue<T> workItemQueue : workItemQueueList) {
+            maxQueueDepth = Math.max(maxQueueDepth, workItemQueue.size());
+        }
+        return maxQueueDepth;
+    }
+
+
+    /**
+     * Get the skew of the key distribution: the number of dispatched work items of the most used queue divided by the
+     * average number of dispatched work items. A value of 1 means a perfect distribution, the number of queues means
+     * all work items belong to the same queue.
+     *
+     * @return the skew or 0 in case nothing is dispatched yet
+     */
+    public double getSkew() {
+        long max = 0;
+        long sum = 0;
+        for (int i = 0; i < numberOfDispatchedWorkItems.length(); i++) {
+            final long value = numberOfDispatchedWorkItems.get(i);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        if (sum == 0) {
+            return 0;
+        }
+
+        return max * (double) numberOfDispatchedWorkItems.length() / sum;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#addStatistic(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        processingUnitStatusBuilder.statistic("keyAffinityQueueDepth", getQueueDepth());
+        processingUnitStatusBuilder.statistic("keyAffinityMaxQueueDepth", getMaxQueueDepth());
+        processingUnitStatusBuilder.statistic("keyAffinitySkew", getSkew());
+    }
+
+
+    /**
+     * Get the index of the work item queue of a key
+     *
+     * @param key the key
+     * @return the index of the work item queue
+     */
+    protected int getWorkItemQueueIndex(Object key) {
+        if (key == null) {
+            return 0;
+        }
+
+        final int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), workItemQueueList.size());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#publish(java.io.Serializable)
+     */
+    @Override
+    protected boolean publish(T workItem) {
+        final int index = getWorkItemQueueIndex(keyAffinitySupport.getKey(workItem));
+        final WorkItemQueue<T> workItemQueue = workItemQueueList.get(index);
+        try {
+            while (!isStopped()) {
+                if (workItemQueue.offer(workItem, OFFER_TIMEOUT)) {
+                    numberOfDispatchedWorkItems.incrementAndGet(index);
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#drainTo(java.util.List)
+     */
+    @Override
+    protected void drainTo(List<T> workItemList) {
+        for (WorkItemQueue<T> workItemQueue : workItemQueueList) {
+            workItemQueue.drainTo(workItemList);
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#close()
+     */
+    @Override
+    protected void close() {
+        for (WorkItemQueue<T> workItemQueue : workItemQueueList) {
+            workItemQueue.close();
+        }
+    }
+
+
+    /**
+     * Defines the bounded work item queue of a processing unit instance
+     *
+     * @param <T> the type of the work items
+     */
+    static class WorkItemQueue<T> implements IProcessingUnitWorkItemQueue<T> {
+        private static final long POLL_TIMEOUT = 100L;
+        private final BlockingQueue<T> queue;
+        private volatile boolean isClosed;
+
+
+        /**
+         * Constructor for WorkItemQueue
+         *
+         * @param size the max size
+         */
+        WorkItemQueue(int size) {
+            this.queue = new ArrayBlockingQueue<T>(size);
+            this.isClosed = false;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#poll(int)
+         */
+        @Override
+        public List<T> poll(int maxNumberOfWorkItems) {
+            final T workItem;
+            try {
+                workItem = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Collections.emptyList();
+            }
+
+            if (workItem == null) {
+                if (isClosed && queue.isEmpty()) {
+                    return null;
+                }
+                return Collections.emptyList();
+            }
+
+            final List<T> result = new ArrayList<T>();
+            result.add(workItem);
+            queue.drainTo(result, Math.max(0, maxNumberOfWorkItems - 1));
+            return result;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#size()
+         */
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+
+        /**
+         * Offer a work item
+         *
+         * @param workItem the work item
+         * @param timeout the timeout in milliseconds
+         * @return true if it is added
+         * @throws InterruptedException in case of an interrupt
+         */
+        boolean offer(T workItem, long timeout) throws InterruptedException {
+            return queue.offer(workItem, timeout, TimeUnit.MILLISECONDS);
+        }
+
+
+        /**
+         * Drain all work items
+         *
+         * @param workItemList the list to add the work items
+         */
+        void drainTo(List<T> workItemList) {
+            queue.drainTo(workItemList);
+        }
+
+
+        /**
+         * Close the queue: no more work items will be added
+         */
+        void close() {
+            isClosed = true;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * OrderedRingBufferDispatcher.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitOrderedSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitResultQueue;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSink;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Implements the dispatcher of the ordered mode: the sequence of a work item in the ring buffer is its sequence
+ * number. The workers process the work items out of order and release their results to a bounded reorder buffer, it
+ * writes the results to the sink as soon as there is no gap to the last written sequence.
+ *
+ * <p>In case the gap grows over the size of the reorder buffer, a releasing worker waits (back-pressure). The results
+ * of the next expected sequence are always accepted, therefore the worker which closes the gap never waits.</p>
+ *
+ * @param <T> the type of the work items
+ * @param <R> the type of the results
+ * @author patrick
+ */
+public class OrderedRingBufferDispatcher<T extends Serializable, R> extends RingBufferDispatcher<T> {
+    private static final long RELEASE_WAIT_TIME = 10L;
+    private final IProcessingUnitOrderedSupport<T, R> orderedSupport;
+    private final int reorderBufferSize;
+    private final List<OrderedWorker> orderedWorkerList;
+    private final Map<Long, List<R>> reorderBuffer;
+    private final Object reorderBufferLock;
+    private final AtomicLong numberOfReleaseWaits;
+    private IProcessingUnitSink<R> sink;
+    private long nextSequence;
+    private volatile int numberOfBufferedResults;
+
+
+    /**
+     * Constructor for OrderedRingBufferDispatcher
+     *
+     * @param orderedSupport the ordered support which defines the source and the sink
+     * @param numberOfWorkers the number of workers
+     * @param ringBufferSize the size of the ring buffer, it is rounded up to the next power of two
+     * @param readBlockSize the block size to read from the source
+     * @param waitStrategy the wait strategy
+     * @param reorderBufferSize the max number of sequences the released results can be ahead of the next result to write
+     */
+    public OrderedRingBufferDispatcher(IProcessingUnitOrderedSupport<T, R> orderedSupport,
+                                       int numberOfWorkers,
+                                       int ringBufferSize,
+                                       int readBlockSize,
+                                       RingBufferWaitStrategy waitStrategy,
+                                       int reorderBufferSize) {
+        super(orderedSupport, numberOfWorkers, ringBufferSize, readBlockSize, waitStrategy);
+        this.orderedSupport = orderedSupport;
+        this.reorderBufferSize = Math.max(1, reorderBufferSize);
+        this.orderedWorkerList = new ArrayList<OrderedWorker>(numberOfWorkers);
+        for (int i = 0; i < Math.max(1, numberOfWorkers); i++) {
+            orderedWorkerList.add(new OrderedWorker(i));
+        }
+        this.reorderBuffer = new HashMap<Long, List<R>>();
+        this.reorderBufferLock = new Object();
+        this.numberOfReleaseWaits = new AtomicLong(0);
+        this.sink = null;
+        this.nextSequence = 0;
+        this.numberOfBufferedResults = 0;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.RingBufferDispatcher#getWorkItemQueue(int)
+     */
+    @Override
+    public IProcessingUnitWorkItemQueue<T> getWorkItemQueue(int index) {
+        return orderedWorkerList.get(index);
+    }
+
+
+    /**
+     * Get the result queue of a processing unit instance
+     *
+     * @param index the index of the processing unit instance
+     * @return the result queue
+     */
+    public IProcessingUnitResultQueue<R> getResultQueue(int index) {
+        return orderedWorkerList.get(index);
+    }
+
+
+    /**
+     * Get the number of results in the reorder buffer which wait for a gap to be closed
+     *
+     * @return the number of buffered results
+     */
+    public int getNumberOfBufferedResults() {
+        return numberOfBufferedResults;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#start(java.util.concurrent.ThreadFactory, java.io.Serializable, java.util.List)
+     */
+    @Override
+    public void start(ThreadFactory threadFactory, Serializable offset, List<T> pendingWorkItemList) throws ProcessingException {
+        if (sink == null) {
+            sink = orderedSupport.createResultSink();
+            if (sink == null) {
+                throw new ProcessingException("Missing result sink!", true);
+            }
+        }
+
+        super.start(threadFactory, offset, pendingWorkItemList);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.RingBufferDispatcher#addStatistic(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        super.addStatistic(processingUnitStatusBuilder);
+        processingUnitStatusBuilder.statistic("reorderBufferOccupancy", (long) getNumberOfBufferedResults());
+        processingUnitStatusBuilder.statistic("reorderBufferWaits", numberOfReleaseWaits.getAndSet(0));
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#flush()
+     */
+    @Override
+    public void flush() throws ProcessingException {
+        synchronized (reorderBufferLock) {
+            if (sink != null) {
+                sink.flush();
+            }
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        synchronized (reorderBufferLock) {
+            if (sink != null) {
+                try {
+                    sink.flush();
+                } finally {
+                    sink.close();
+                    sink = null;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Release the results of a claim: they are buffered and all results without a gap are written to the sink
+     *
+     * @param sequence the first sequence of the claim
+     * @param resultList the results
+     * @throws ProcessingException In case the results can't be written
+     */
+    protected void release(long sequence, List<R> resultList) throws ProcessingException {
+        synchronized (reorderBufferLock) {
+            boolean isWaiting = false;
+            while (sequence != nextSequence && (sequence + resultList.size() - nextSequence) > reorderBufferSize) {
+                if (!isWaiting) {
+                    numberOfReleaseWaits.incrementAndGet();
+                    isWaiting = true;
+                }
+
+                try {
+                    reorderBufferLock.wait(RELEASE_WAIT_TIME);
+                } catch (InterruptedException e) {
+                    // the results must not get lost: accept them over the size of the reorder buffer
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            reorderBuffer.put(sequence, resultList);
+            numberOfBufferedResults += resultList.size();
+
+            try {
+                List<R> nextResultList = reorderBuffer.remove(nextSequence);
+                while (nextResultList != null) {
+                    final List<R> writeList = new ArrayList<R>(nextResultList.size());
+                    for (R result : nextResultList) {
+                        if (result != null) {
+                            writeList.add(result);
+                        }
+                    }
+
+                    if (!writeList.isEmpty()) {
+                        sink.write(writeList);
+                    }
+
+                    nextSequence += nextResultList.size();
+                    numberOfBufferedResults -= nextResultList.size();
+                    nextResultList = reorderBuffer.remove(nextSequence);
+                }
+            } finally {
+                reorderBufferLock.notifyAll();
+            }
+        }
+    }
+
+
+    /**
+     * Defines a worker of the ordered mode: it remembers the sequence of its last claim until the results are released
+     */
+    class OrderedWorker implements IProcessingUnitWorkItemQueue<T>, IProcessingUnitResultQueue<R> {
+        private final int index;
+        private long claimedSequence;
+        private int numberOfClaimedWorkItems;
+
+
+        /**
+         * Constructor for OrderedWorker
+         *
+         * @param index the index of the worker
+         */
+        OrderedWorker(int index) {
+            this.index = index;
+            this.claimedSequence = -1;
+            this.numberOfClaimedWorkItems = 0;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#poll(int)
+         */
+        @Override
+        public List<T> poll(int maxNumberOfWorkItems) {
+            if (numberOfClaimedWorkItems > 0) {
+                throw new ProcessingException("The results of the last " + numberOfClaimedWorkItems + " work items are not released!", true);
+            }
+
+            final List<T> result = OrderedRingBufferDispatcher.super.getWorkItemQueue(index).poll(maxNumberOfWorkItems);
+            if (result != null && !result.isEmpty()) {
+                claimedSequence = getLastClaimedSequence(index);
+                numberOfClaimedWorkItems = result.size();
+            }
+            return result;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#size()
+         */
+        @Override
+        public int size() {
+            return (int) getQueueDepth();
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitResultQueue#release(java.util.List)
+         */
+        @Override
+        public void release(List<R> resultList) throws ProcessingException {
+            final int size = (resultList == null) ? 0 : resultList.size();
+            if (size != numberOfClaimedWorkItems) {
+                throw new ProcessingException("Invalid number of results " + size + ", expected " + numberOfClaimedWorkItems + "!", true);
+            }
+
+            if (size == 0) {
+                return;
+            }
+
+            numberOfClaimedWorkItems = 0;
+            OrderedRingBufferDispatcher.this.release(claimedSequence, new ArrayList<R>(resultList));
+        }
+    }
+}
@@ -13,28 +13,47 @@ import com.github.toolarium.common.util.ThreadUtil;
 import com.github.toolarium.processing.unit.IProcessingUnit;
 import com.github.toolarium.processing.unit.IProcessingUnitContext;
 import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
 import com.github.toolarium.processing.unit.IProcessingUnitProgress;
 import com.github.toolarium.processing.unit.IProcessingUnitStatus;
 import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
 import com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl;
+import com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport;
+import com.github.toolarium.processing.unit.base.IProcessingUnitPositionSupport;
 import com.github.toolarium.processing.unit.base.IProcessingUnitThrottlingSupport;
 import com.github.toolarium.processing.unit.dto.Parameter;
 import com.github.toolarium.processing.unit.dto.ParameterDefinition;
 import com.github.toolarium.processing.unit.exception.ProcessingException;
 import com.github.toolarium.processing.unit.exception.ValidationException;
 import com.github.toolarium.processing.unit.parallelization.IParallelProcessingUnit;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitKeyAffinitySupport;
 import com.github.toolarium.processing.unit.parallelization.IProcessingUnitObjectLockManagerSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitOrderedSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitPartitionSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitSplitSupport;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitResourceMeasurement;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitStatistic;
 import com.github.toolarium.processing.unit.runtime.runnable.EmptyProcessingUnitHandler;
+import com.github.toolarium.processing.unit.runtime.runnable.ExponentialBackoff;
 import com.github.toolarium.processing.unit.runtime.runnable.IEmptyProcessingUnitHandler;
 import com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitThrottling;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
 import com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitThrottling;
 import com.github.toolarium.processing.unit.util.ProcessingUnitStatusUtil;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
+import java.io.Serializable;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -47,14 +66,55 @@ import org.slf4j.LoggerFactory;
 /**
  * Implements a parallel processing unit which let run a processing unit with multiple threads. A processing unit has just to implement 
  * the interface {@link IParallelProcessingUnit} which acts as marker interface. In case the processing unit needs 
- * an {@link IObjectLockManager} it can additional implement the interface {@link IProcessingUnitObjectLockManagerSupport}.
+ * an {@link IObjectLockManager} it can additional implement the interface {@link IProcessingUnitObjectLockManagerSupport}. In case
+ * the input of the processing unit can be partitioned, it can implement the interface {@link IProcessingUnitPartitionSupport}.
+ * 
+ * <p>In case the processing unit implements {@link IProcessingUnitWorkItemSupport}, a single reader thread reads the work 
+ * items and publishes them to a ring buffer, all instances only process (reader / worker topology). In case it implements 
+ * {@link IProcessingUnitKeyAffinitySupport}, the work items are routed by their key to a bounded queue per instance: all 
+ * work items of a key are processed by the same thread in the order of the source without any object lock. In case it
+ * implements {@link IProcessingUnitOrderedSupport}, the results are written to a sink in the order of the source.</p>
+ * 
+ * <p>In case the processing unit implements {@link IProcessingUnitDataAvailableSupport}, a thread calls its instance only
+ * in case there is data available, otherwise it is parked until the instance notifies new data.</p>
+ * 
+ * <p>The number of threads of a processing unit without partitions can be changed at runtime by {@link #setNumberOfThreads(int)}
+ * or by an {@link IParallelProcessingUnitAutoscaler} in case the parameter {@link #AUTOSCALE} is set and the parameter 
+ * {@link #MAX_NUMBER_OF_THREADS} is greater than the number of threads. A retired thread ends after its current call, its processing unit instance is kept and reused in case
+ * the number of threads grows again.</p>
+ * 
+ * <p>In case the parameter {@link #DEADLINE} is set, a {@link ParallelProcessingUnitDeadlineAutoscaler} uses as few threads 
+ * as needed to end just in time. The status gets a warning as soon as the deadline becomes infeasible.</p>
+ * 
+ * <p>The threads are started by the {@link #STARTUP_RAMP}: by default an {@link AdaptiveStartupRamp} starts a first wave 
+ * and adds threads as long as the throughput increases and the already locked ratio stays low. A processing unit with 
+ * partitions or a reader thread starts all threads at once.</p>
+ * 
+ * <p>In case the processing unit with partitions implements {@link IProcessingUnitSplitSupport}, the throughput of every 
+ * thread is tracked: as soon as a thread has ended, the remaining work of the slowest running thread (straggler) is split 
+ * and the ended thread continues with the second part. The split is repeated until there is nothing more to split, the 
+ * number of splits and the thread throughput are part of the object lock statistic.</p>
+ * 
+ * <p>Every thread measures the CPU time and the allocated bytes of the calls of its instance, they are taken over by 
+ * {@link #drainResourceStatistic()} (see {@link ProcessingUnitResourceMeasurement}).</p>
+ * 
+ * <p>A suspended processing can be resumed with a different number of threads in case the persistence of the processing 
+ * unit implements {@link IProcessingUnitPersistenceRepartitionSupport}.</p>
  * 
  * @author patrick
  */
 public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImpl<ParallelProcessingUnitPersistenceContainer> 
-    implements ParallelProcessingUnitParameters, IParallelProcessingUnit, IProcessingUnitThrottlingSupport, UncaughtExceptionHandler {
+    implements ParallelProcessingUnitParameters, IParallelProcessingUnit, IProcessingUnitThrottlingSupport, IProcessingUnitDataAvailableSupport, UncaughtExceptionHandler {
     
     private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnit.class);
+    private static final long DATA_AVAILABLE_CHECK_TIME = 1000L;
+    private static final List<ParameterDefinition> PARALLEL_PARAMETER_DEFINITIONS = 
+            Arrays.asList(NUMBER_OF_THREAD_PARAMETER, LOCK_SIZE, UNLOCK_TIMEOUT, STARTUP_PHASED_SLEEP_TIME, STARTUP_RAMP, STARTUP_RAMP_FIRST_WAVE, 
+                          STARTUP_RAMP_INTERVAL, STARTUP_RAMP_MAX_ALREADY_LOCKED_PERCENTAGE, AGGREGATE_STATUS_PAUSE_TIME, NO_PROGRESS_PAUSE_TIME, 
+                          NO_PROGRESS_MAX_PAUSE_TIME, MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT, SUSPEND_TIMEOUT, MIN_NUMBER_OF_THREADS, MAX_NUMBER_OF_THREADS, 
+                          AUTOSCALE, AUTOSCALE_INTERVAL, DEADLINE, DEADLINE_SAFETY_MARGIN, SPLIT_STRAGGLERS, OBJECT_LOCK_MANAGER, LOCK_STRIPES, 
+                          KEY_AFFINITY_QUEUE_SIZE, WORK_ITEM_READ_BLOCK_SIZE, RING_BUFFER_SIZE, WAIT_STRATEGY, REORDER_BUFFER_SIZE);
+    private static final Set<String> PARALLEL_PARAMETER_NAMES = toParameterNames(PARALLEL_PARAMETER_DEFINITIONS);
     private String id;
     private String name;
     private String processInfo;
@@ -66,10 +126,23 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     private DecimalFormat decimalFormatter;
     private int lastPercentage;
     private BlockingQueue<Throwable> runnerThreadExceptionQueue;
-    private List<RunnerThreadProcessStatusQueue> runnerThreadStatusQueueList;
+    private volatile List<RunnerThreadProcessStatusQueue> runnerThreadStatusQueueList;
+    private volatile List<ProcessingUnitRunnerThread> runnerThreadList;
+    private final Object runnerThreadLock;
+    private int numberOfRunningThreads;
+    private volatile int requestedNumberOfThreads;
+    private final ParallelProcessingUnitAutoscaling autoscaling;
+    private final ParallelProcessingUnitDeadlineCheck deadlineCheck;
+    private final ParallelProcessingUnitStragglerSplit stragglerSplit;
+    private StartupRampMode startupRampMode;
     private EmptyProcessingUnitHandler emptyProcessingUnitHandler;
+    private ExponentialBackoff noProgressBackoff;
     private IProcessingUnitStatus suspendProcessingUnitStatus;
     private volatile IProcessingUnitThrottling processingUnitThrottling;
+    private AbstractWorkItemDispatcher<Serializable> workItemDispatcher;
+    private Serializable workItemSourceOffset;
+    private List<Serializable> pendingWorkItemList;
+    private volatile Runnable dataAvailableListener;
    
 
     /**
@@ -94,9 +167,22 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
         this.lastPercentage = 0;
         this.runnerThreadExceptionQueue = new LinkedBlockingQueue<Throwable>();
         this.runnerThreadStatusQueueList = null;
+        this.runnerThreadList = null;
+        this.runnerThreadLock = new Object();
+        this.numberOfRunningThreads = 0;
+        this.requestedNumberOfThreads = 0;
+        this.autoscaling = new ParallelProcessingUnitAutoscaling(processInfo);
+        this.deadlineCheck = new ParallelProcessingUnitDeadlineCheck(processInfo, decimalFormatter);
+        this.stragglerSplit = new ParallelProcessingUnitStragglerSplit(processInfo, decimalFormatter);
+        this.startupRampMode = StartupRampMode.ADAPTIVE;
         this.emptyProcessingUnitHandler = new EmptyProcessingUnitHandler();
+        this.noProgressBackoff = null;
         this.suspendProcessingUnitStatus = null;
         this.processingUnitThrottling = null;
+        this.workItemDispatcher = null;
+        this.workItemSourceOffset = null;
+        this.pendingWorkItemList = null;
+        this.dataAvailableListener = null;
     }
 
     
@@ -111,20 +197,15 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
         if (processingUnit != null && processingUnit.getParameterDefinition() != null) {
             for (ParameterDefinition parameterDefinition : processingUnit.getParameterDefinition()) {
                 getParameterRuntime().addParameterDefinition(parameterDefinition);
-                ThreadUtil.getInstance().sleep(1000L);
             }
         }
         ProcessingUnitUtil.getInstance().releaseResource(id, defName, processingUnit);
         processingUnit = null;
         
         // add parallel processing parameters
-        getParameterRuntime().addParameterDefinition(NUMBER_OF_THREAD_PARAMETER);
-        getParameterRuntime().addParameterDefinition(LOCK_SIZE);
-        getParameterRuntime().addParameterDefinition(UNLOCK_TIMEOUT);
-        getParameterRuntime().addParameterDefinition(STARTUP_PHASED_SLEEP_TIME);
-        getParameterRuntime().addParameterDefinition(AGGREGATE_STATUS_PAUSE_TIME);
-        getParameterRuntime().addParameterDefinition(NO_PROGRESS_PAUSE_TIME);
-        getParameterRuntime().addParameterDefinition(MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT);
+        for (ParameterDefinition parameterDefinition : PARALLEL_PARAMETER_DEFINITIONS) {
+            getParameterRuntime().addParameterDefinition(parameterDefinition);
+        }
         
         return super.getParameterDefinition();
     }
@@ -140,21 +221,24 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
         // prepare processing unit parameter list
         this.processingUnitParameterList = new ArrayList<Parameter>();
         for (Parameter p : parameterList) {
-            if (NUMBER_OF_THREAD_PARAMETER.getKey().equals(p.getKey())
-                || LOCK_SIZE.getKey().equals(p.getKey())
-                || UNLOCK_TIMEOUT.getKey().equals(p.getKey())
-                || STARTUP_PHASED_SLEEP_TIME.getKey().equals(p.getKey())
-                || AGGREGATE_STATUS_PAUSE_TIME.getKey().equals(p.getKey())
-                || NO_PROGRESS_PAUSE_TIME.getKey().equals(p.getKey())
-                || MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey().equals(p.getKey())) {
-                // NOP
-            } else {
+            if (!PARALLEL_PARAMETER_NAMES.contains(p.getKey())) {
                 processingUnitParameterList.add(p);
             }
         }
 
+        // check the object lock manager, the wait strategy and the startup ramp
+        isStripedObjectLockManager();
+        getRingBufferWaitStrategy();
+        startupRampMode = getStartupRampMode();
+        if (IProcessingUnitOrderedSupport.class.isAssignableFrom(processingUnitClass) && IProcessingUnitKeyAffinitySupport.class.isAssignableFrom(processingUnitClass)) {
+            throw new ValidationException("The ordered mode can't be combined with the key affinity mode!");
+        }
+        
         this.emptyProcessingUnitHandler.setSleepTimeAfterEmptyProcessingUnit(getParameterRuntime().getParameterValueList(NO_PROGRESS_PAUSE_TIME).getValueAsLong());
         this.emptyProcessingUnitHandler.setMaxNumberOfEmptyProcessingUnits(getParameterRuntime().getParameterValueList(MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT).getValueAsLong());
+        this.emptyProcessingUnitHandler.setMaxSleepTimeAfterEmptyProcessingUnit(getParameterRuntime().getParameterValueList(NO_PROGRESS_MAX_PAUSE_TIME).getValueAsLong());
+        this.noProgressBackoff = new ExponentialBackoff(getParameterRuntime().getParameterValueList(NO_PROGRESS_PAUSE_TIME).getValueAsLong(), 
+                                                        getParameterRuntime().getParameterValueList(NO_PROGRESS_MAX_PAUSE_TIME).getValueAsLong());
         
         // create instances
         this.processingUnitList = createProcessingUnitInstances(processingUnitClass, getParameterRuntime().getParameterValueList(NUMBER_OF_THREAD_PARAMETER).getValueAsInteger());
@@ -165,6 +249,20 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
                 processingUnit.initialize(processingUnitParameterList, processingUnitContext);
             }
         }
+        
+        this.requestedNumberOfThreads = processingUnitList.size();
+        if (autoscaling.getAutoscaler() == null && getParameterRuntime().existParameter(DEADLINE)) {
+            setDeadline(ProcessingUnitDeadline.parse(getParameterRuntime().getParameterValueList(DEADLINE).getValueAsString(), 
+                                                     getParameterRuntime().getParameterValueList(DEADLINE_SAFETY_MARGIN).getValueAsInteger()));
+        }
+        
+        if (autoscaling.getAutoscaler() == null && getParameterRuntime().getParameterValueList(AUTOSCALE).getValueAsBoolean()) {
+            if (isPartitioned() || getParameterRuntime().getParameterValueList(MAX_NUMBER_OF_THREADS).getValueAsInteger() <= processingUnitList.size()) {
+                throw new ValidationException("The autoscaler needs a processing unit without partitions and a max number of threads greater than the number of threads!");
+            }
+            
+            autoscaling.setAutoscaler(new ParallelProcessingUnitAutoscaler());
+        }
     }
 
     
@@ -197,6 +295,18 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
         
         // get status from runner threads and aggregate it
         aggregateProcessingUnitStatus(processingUnitStatusBuilder);
+        if (workItemDispatcher != null) {
+            workItemDispatcher.addStatistic(processingUnitStatusBuilder);
+        }
+        
+        autoscaling.addStatistic(processingUnitStatusBuilder, requestedNumberOfThreads);
+        
+        // adapt the number of threads and split the work of stragglers
+        autoscale();
+        checkDeadline(processingUnitStatusBuilder);
+        scaleNumberOfThreads();
+        splitStragglers();
+        stragglerSplit.addStatistic(processingUnitStatusBuilder);
         
         final int percentage = getProcessingUnitProgress().getProgress();
         if (percentage > 0 && percentage <= 100 && (percentage % 10 == 0)) {
@@ -215,6 +325,14 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
      */
     @Override
     public void onEnding() {
+        if (workItemDispatcher != null) {
+            try {
+                workItemDispatcher.flush();
+            } catch (RuntimeException e) {
+                LOG.warn(processInfo + " Could not flush the results: " + e.getMessage(), e);
+            }
+        }
+
         if (processingUnitList != null) {
             for (IProcessingUnit processingUnit : processingUnitList) {
                 try {
@@ -234,7 +352,12 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
      */
     @Override
     public void onAborting() {
-        waitForThreadPoolTerminated();
+        try {
+            waitForThreadPoolTerminated();
+        } catch (ProcessingException e) {
+            // the processing units are aborted anyway, there is no state to persist
+            LOG.warn(processInfo + " " + e.getMessage());
+        }
 
         if (processingUnitList != null) {
             for (IProcessingUnit processingUnit : processingUnitList) {
@@ -257,6 +380,15 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     public void releaseResource() throws ProcessingException {
         super.releaseResource();
 
+        if (workItemDispatcher != null) {
+            workItemDispatcher.stop(getParameterRuntime().getParameterValueList(SUSPEND_TIMEOUT).getValueAsLong());
+            try {
+                workItemDispatcher.releaseResource();
+            } finally {
+                workItemDispatcher = null;
+            }
+        }
+        
         if (processingUnitList != null) {
             for (int i = 0; i < processingUnitList.size(); i++) {
                 try {
@@ -294,10 +426,22 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     @Override
     public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
         waitForThreadPoolTerminated();
+        getProcessingPersistence().setNumberOfThreads(getNumberOfThreads());
+        if (workItemDispatcher != null) {
+            // the reader position without the read but not yet processed work items
+            getProcessingPersistence().setWorkItemSourceOffset(workItemDispatcher.getOffset());
+            getProcessingPersistence().setPendingWorkItemList(workItemDispatcher.getPendingWorkItemList());
+            workItemDispatcher.flush();
+        }
 
         LOG.info(processInfo + " Start suspend processing units...");
         for (IProcessingUnit processingUnit : processingUnitList) {
             getProcessingPersistence().addProcessingUnitPersistence(processingUnit.suspendProcessing());
+            if (processingUnit instanceof IProcessingUnitPositionSupport) {
+                getProcessingPersistence().addProcessingUnitPosition(((IProcessingUnitPositionSupport) processingUnit).getProcessingUnitPosition());
+            } else {
+                getProcessingPersistence().addProcessingUnitPosition(null);
+            }
         }
 
         // get status from runner threads and aggregate it
@@ -318,11 +462,30 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
 
         LOG.info(processInfo + " Resume all procesing units...");
         
-        if (getProcessingPersistence().getProcessingUnitPersistenceList().size() != processingUnitList.size()) {
-            throw new ProcessingException("Can not resume processing unit because of different size: " 
-                                            + processingUnitList.size() 
-                                            + ", persisted state size: " 
-                                            + getProcessingPersistence().getProcessingUnitPersistenceList().size(), true);
+        List<IProcessingUnitPersistence> processingUnitPersistenceList = getProcessingPersistence().getProcessingUnitPersistenceList();
+        List<IProcessingUnitPosition> processingUnitPositionList = getProcessingPersistence().getProcessingUnitPositionList();
+        boolean isRepartitioned = false;
+        if (processingUnitPersistenceList.size() != processingUnitList.size()) {
+            if (isRepartitionSupported(processingUnitPersistenceList)) {
+                LOG.info(processInfo + " Repartition " + processingUnitPersistenceList.size() + " persisted states to " + processingUnitList.size() + " processing units...");
+                processingUnitPersistenceList = repartitionProcessingUnitPersistence(processingUnitPersistenceList, processingUnitList.size());
+                
+                // the positions belong to the persisted states before the repartition
+                processingUnitPositionList = null;
+                isRepartitioned = true;
+            } else if (isPartitioned()) {
+                throw new ProcessingException("Can not resume processing unit because of different size: " 
+                                                + processingUnitList.size() 
+                                                + ", persisted state size: " 
+                                                + processingUnitPersistenceList.size(), true);
+            } else {
+                // the number of threads was changed at runtime
+                adjustNumberOfProcessingUnitInstances(processingUnitPersistenceList.size());
+            }
+        }
+        
+        if (!isRepartitioned && getProcessingPersistence().getNumberOfThreads() != null) {
+            requestedNumberOfThreads = Math.min(Math.max(1, getProcessingPersistence().getNumberOfThreads()), processingUnitList.size());
         }
 
         // restore the lock manager: 
@@ -331,11 +494,20 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
 
         // set the suspend processing status
         suspendProcessingUnitStatus = getProcessingPersistence().getSuspendProcessingUnitStatus();
+        
+        // the pending work items are published again with the current number of instances
+        workItemSourceOffset = getProcessingPersistence().getWorkItemSourceOffset();
+        pendingWorkItemList = getProcessingPersistence().getPendingWorkItemList();
 
         int i = 0;
-        for (IProcessingUnitPersistence processingUnitPersistence : getProcessingPersistence().getProcessingUnitPersistenceList()) {
+        for (IProcessingUnitPersistence processingUnitPersistence : processingUnitPersistenceList) {
             LOG.info(processInfo + " Resume processing unit parallelization thread #" + (i + 1) + "...");
-            processingUnitList.get(i++).resumeProcessing(processingUnitProgress, processingUnitPersistence);
+            final IProcessingUnit processingUnit = processingUnitList.get(i);
+            if (processingUnit instanceof IProcessingUnitPositionSupport && processingUnitPositionList != null && i < processingUnitPositionList.size()) {
+                ((IProcessingUnitPositionSupport) processingUnit).setProcessingUnitPosition(processingUnitPositionList.get(i));
+            }
+            processingUnit.resumeProcessing(processingUnitProgress, processingUnitPersistence);
+            i++;
         }
         
         // remove persistence instance
@@ -353,6 +525,140 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     }
 
     
+    /**
+     * Get the number of threads: before the start it is the configured number of threads otherwise the number of 
+     * active threads or the requested number of threads in case the change is not yet applied.
+     *
+     * @return the number of threads
+     */
+    public int getNumberOfThreads() {
+        return requestedNumberOfThreads;
+    }
+
+    
+    /**
+     * Change the number of threads at runtime, the change is applied by the next status aggregation. A processing unit
+     * with partitions or a reader thread can't change its number of threads.
+     *
+     * @param numberOfThreads the number of threads
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (isPartitioned()) {
+            LOG.warn(processInfo + " Can not change the number of threads of a processing unit with partitions or a reader thread!");
+            return;
+        }
+        
+        requestedNumberOfThreads = Math.max(1, numberOfThreads);
+    }
+
+    
+    /**
+     * Wake up all threads which pause because there was no progress, e.g. a data producer signals new data. The 
+     * pause time starts again with the initial pause time.
+     */
+    public void wakeUp() {
+        emptyProcessingUnitHandler.wakeUp();
+        
+        final List<ProcessingUnitRunnerThread> currentRunnerThreadList = runnerThreadList;
+        if (currentRunnerThreadList != null) {
+            for (ProcessingUnitRunnerThread runnerThread : currentRunnerThreadList) {
+                runnerThread.wakeUp();
+            }
+        }
+    }
+
+    
+    /**
+     * Get the resource statistic of the calls of all threads since the last drain: the CPU time, the allocated bytes and 
+     * the wall-clock time of the calls of their processing unit instances
+     *
+     * @return the resource statistic
+     */
+    public ProcessingUnitStatistic drainResourceStatistic() {
+        final ProcessingUnitStatistic result = new ProcessingUnitStatistic();
+        final List<ProcessingUnitRunnerThread> currentRunnerThreadList = runnerThreadList;
+        if (currentRunnerThreadList != null) {
+            for (ProcessingUnitRunnerThread runnerThread : currentRunnerThreadList) {
+                final ProcessingUnitStatistic resourceStatistic = runnerThread.drainResourceStatistic();
+                for (String key : resourceStatistic.keySet()) {
+                    result.add(key, resourceStatistic.get(key));
+                }
+            }
+        }
+        return result;
+    }
+
+    
+    /**
+     * Check if there is data available: in case the processing unit implements {@link IProcessingUnitDataAvailableSupport}
+     * it is false as long as all threads are parked without data and there is no status to aggregate. A thread notifies 
+     * the data available listener as soon as it is parked or has ended.
+     * 
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport#isDataAvailable()
+     */
+    @Override
+    public boolean isDataAvailable() {
+        final List<RunnerThreadProcessStatusQueue> currentRunnerThreadStatusQueueList = runnerThreadStatusQueueList;
+        final List<ProcessingUnitRunnerThread> currentRunnerThreadList = runnerThreadList;
+        if (!isThreadPoolStarted() || processingUnitList == null || processingUnitList.isEmpty() || currentRunnerThreadStatusQueueList == null || currentRunnerThreadList == null
+                || !(processingUnitList.get(0) instanceof IProcessingUnitDataAvailableSupport) || !runnerThreadExceptionQueue.isEmpty()) {
+            return true;
+        }
+        
+        for (RunnerThreadProcessStatusQueue runnerThreadProcessStatusQueue : currentRunnerThreadStatusQueueList) {
+            if (runnerThreadProcessStatusQueue.hasProcessingUnitStatus()) {
+                return true;
+            }
+        }
+
+        for (ProcessingUnitRunnerThread runnerThread : currentRunnerThreadList) {
+            if (runnerThread.isRunning() && !runnerThread.isWaitingForData()) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.processing.unit.base.IProcessingUnitDataAvailableSupport#setDataAvailableListener(java.lang.Runnable)
+     */
+    @Override
+    public void setDataAvailableListener(Runnable dataAvailableListener) {
+        this.dataAvailableListener = dataAvailableListener;
+    }
+
+    
+    /**
+     * Set the autoscaler which changes the number of threads at runtime
+     *
+     * @param autoscaler the autoscaler or null to disable it
+     */
+    public void setAutoscaler(IParallelProcessingUnitAutoscaler autoscaler) {
+        autoscaling.setAutoscaler(autoscaler);
+    }
+
+    
+    /**
+     * Set the deadline: a {@link ParallelProcessingUnitDeadlineAutoscaler} scales the number of threads between the min and 
+     * max number of threads to end the processing just in time. The max number of threads is by default the number of threads.
+     * It has no effect on a processing unit with partitions.
+     *
+     * @param deadline the deadline or null to disable it
+     */
+    public void setDeadline(ProcessingUnitDeadline deadline) {
+        if (deadline == null) {
+            if (autoscaling.getAutoscaler() instanceof ParallelProcessingUnitDeadlineAutoscaler) {
+                autoscaling.setAutoscaler(null);
+            }
+            return;
+        }
+        
+        autoscaling.setAutoscaler(deadlineCheck.createAutoscaler(deadline, getProcessingUnitProgress()));
+    }
+
+    
     /**
      * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#setObjectLockManager(com.github.toolarium.common.object.IObjectLockManager)
      */
@@ -428,19 +734,21 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
      * @return the processing status builder
      */
     protected ProcessingUnitStatusBuilder aggregateProcessingUnitStatus(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        // a thread pool which is terminated before the drain has queued all status
+        final boolean isThreadPoolTerminated = isThreadPoolTerminated();
         if (runnerThreadStatusQueueList != null) {
             for (RunnerThreadProcessStatusQueue statusQueue : runnerThreadStatusQueueList) {
+                // drain the queued status completely without waiting, otherwise the status of terminated threads gets lost (e.g. on suspend)
                 IProcessingUnitStatus processingUnitStatus = statusQueue.getProcessingUnitStatus();
-                while (processingUnitStatus != null && !isThreadPoolTerminated()) {
+                while (processingUnitStatus != null) {
                     ProcessingUnitStatusUtil.getInstance().aggregateProcessingUnitStatus(processingUnitStatusBuilder, processingUnitStatus);
                     processingUnitStatus = statusQueue.getProcessingUnitStatus();
                 }
-                ProcessingUnitStatusUtil.getInstance().aggregateProcessingUnitStatus(processingUnitStatusBuilder, processingUnitStatus);
             }
         }
         
         processingUnitStatusBuilder.hasNextIfHasUnprocessedUnits();
-        processingUnitStatusBuilder.hasNext(processingUnitStatusBuilder.hasNext() && !isThreadPoolTerminated());
+        processingUnitStatusBuilder.hasNext(processingUnitStatusBuilder.hasNext() && !isThreadPoolTerminated);
         return processingUnitStatusBuilder;
     }
 
@@ -476,38 +784,174 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
 
         // init thread pool
         String threadName = ProcessingUnitRunnerThread.class.getName() + ": Parallel Processing Unit Runner (Parent: " + Thread.currentThread().getName() + ")";
-        executorService = Executors.newFixedThreadPool(processingUnitList.size(), new ProcessingUnintRunnerThreadFactory(Executors.defaultThreadFactory(), threadName, this));
-        runnerThreadStatusQueueList = new ArrayList<RunnerThreadProcessStatusQueue>();
+        executorService = Executors.newCachedThreadPool(new ProcessingUnintRunnerThreadFactory(Executors.defaultThreadFactory(), threadName, this));
+        // the lists are read by producer threads (wakeUp, isDataAvailable) while the number of threads changes
+        runnerThreadStatusQueueList = new CopyOnWriteArrayList<RunnerThreadProcessStatusQueue>();
+        runnerThreadList = new CopyOnWriteArrayList<ProcessingUnitRunnerThread>();
 
         if (this.getObjectLockManager() == null) {
-            setObjectLockManager(new ObjectLockManager());
+            setObjectLockManager(createObjectLockManager());
+        }
+        
+        if (isWorkItemSupported()) {
+            startWorkItemDispatcher(threadName);
         }
         
-        int number = 0;
-        long noProgressPauseTime = getParameterRuntime().getParameterValueList(NO_PROGRESS_PAUSE_TIME).getValueAsLong();
+        // a processing unit with partitions needs all threads, there is no adaptive ramp
+        AdaptiveStartupRamp startupRamp = null;
+        if (startupRampMode == StartupRampMode.ADAPTIVE && !isPartitioned()) {
+            startupRamp = new AdaptiveStartupRamp(getParameterRuntime().getParameterValueList(STARTUP_RAMP_FIRST_WAVE).getValueAsInteger(), 
+                                                  getParameterRuntime().getParameterValueList(STARTUP_RAMP_MAX_ALREADY_LOCKED_PERCENTAGE).getValueAsInteger() / 100.0);
+        }
+        final int numberOfThreads = autoscaling.start(startupRamp, requestedNumberOfThreads, System.currentTimeMillis());
+        
         for (IProcessingUnit processingUnit : processingUnitList) {
-            BlockingQueue<IProcessingUnitStatus> processStatusQueue = new LinkedBlockingQueue<IProcessingUnitStatus>();
-            executorService.execute(new ProcessingUnitRunnerThread(processingUnit, ++number, processStatusQueue, noProgressPauseTime));
-            runnerThreadStatusQueueList.add(new RunnerThreadProcessStatusQueue(number, processStatusQueue));
+            final ProcessingUnitRunnerThread runnerThread = createRunnerThread(processingUnit);
+            if (runnerThreadList.size() <= numberOfThreads) {
+                startRunnerThread(runnerThread);
+                if (startupRampMode == StartupRampMode.FIXED) {
+                    ThreadUtil.getInstance().sleep(getParameterRuntime().getParameterValueList(STARTUP_PHASED_SLEEP_TIME).getValueAsLong());
+                }
+            } else {
+                runnerThread.retire();
+            }
+        }
+
+        synchronized (runnerThreadLock) {
+            if (numberOfRunningThreads == 0) {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    
+    /**
+     * Measure the throughput and the lock contention of the last interval and let the startup ramp or after the ramp 
+     * the autoscaler decide the number of threads.
+     */
+    protected void autoscale() {
+        if (runnerThreadList == null || isInterrupted || isPartitioned()) {
+            return;
+        }
+        
+        int maxNumberOfThreads = getParameterRuntime().getParameterValueList(MAX_NUMBER_OF_THREADS).getValueAsInteger();
+        if (maxNumberOfThreads <= 0 && autoscaling.getAutoscaler() instanceof ParallelProcessingUnitDeadlineAutoscaler) {
+            maxNumberOfThreads = getParameterRuntime().getParameterValueList(NUMBER_OF_THREAD_PARAMETER).getValueAsInteger();
+        }
+        final int minNumberOfThreads = Math.max(1, getParameterRuntime().getParameterValueList(MIN_NUMBER_OF_THREADS).getValueAsInteger());
+        maxNumberOfThreads = Math.max(minNumberOfThreads, maxNumberOfThreads);
+        
+        final long interval = getParameterRuntime().getParameterValueList(autoscaling.isStartupRamp() ? STARTUP_RAMP_INTERVAL : AUTOSCALE_INTERVAL).getValueAsLong();
+        requestedNumberOfThreads = autoscaling.autoscale(requestedNumberOfThreads, getNumberOfActiveThreads(), minNumberOfThreads, maxNumberOfThreads, interval, 
+                                                         getProcessingUnitProgress().getNumberOfProcessedUnits(), getObjectLockManager(), System.currentTimeMillis());
+    }
+
+    
+    /**
+     * Add a warning to the status as soon as the deadline of the {@link ParallelProcessingUnitDeadlineAutoscaler} becomes 
+     * infeasible.
+     *
+     * @param processingUnitStatusBuilder the processing unit status builder
+     */
+    protected void checkDeadline(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        deadlineCheck.check(autoscaling.getAutoscaler(), processingUnitStatusBuilder);
+    }
+
+    
+    /**
+     * Apply the requested number of threads: retired threads are reused before new processing unit instances are created.
+     */
+    protected void scaleNumberOfThreads() {
+        if (runnerThreadList == null || isInterrupted || isPartitioned()) {
+            return;
+        }
+
+        final int numberOfThreads = Math.max(1, Math.min(requestedNumberOfThreads, autoscaling.getStartupRampNumberOfThreads(requestedNumberOfThreads)));
+        int numberOfActiveThreads = getNumberOfActiveThreads();
+        if (numberOfActiveThreads == numberOfThreads) {
+            return;
+        }
+        
+        if (numberOfActiveThreads > numberOfThreads) {
+            for (int i = runnerThreadList.size() - 1; i >= 0 && numberOfActiveThreads > numberOfThreads; i--) {
+                if (runnerThreadList.get(i).isActive()) {
+                    runnerThreadList.get(i).retire();
+                    numberOfActiveThreads--;
+                }
+            }
+        } else {
+            for (ProcessingUnitRunnerThread runnerThread : runnerThreadList) {
+                if (runnerThread.hasEnded()) {
+                    // the processing is ending, there is no need for additional threads
+                    return;
+                }
+            }
 
-            ThreadUtil.getInstance().sleep(getParameterRuntime().getParameterValueList(STARTUP_PHASED_SLEEP_TIME).getValueAsLong());
+            for (int i = 0; i < runnerThreadList.size() && numberOfActiveThreads < numberOfThreads; i++) {
+                if (runnerThreadList.get(i).isRetired() && !runnerThreadList.get(i).isRunning() && startRunnerThread(runnerThreadList.get(i))) {
+                    numberOfActiveThreads++;
+                }
+            }
+            
+            while (numberOfActiveThreads < numberOfThreads) {
+                final IProcessingUnit processingUnit = createAdditionalProcessingUnitInstance();
+                if (!startRunnerThread(createRunnerThread(processingUnit))) {
+                    break;
+                }
+                numberOfActiveThreads++;
+            }
+        }
+        
+        LOG.info(processInfo + " Changed number of threads to " + numberOfActiveThreads + ".");
+    }
+
+    
+    /**
+     * Split the remaining work of the slowest running thread to every ended thread: the ended thread takes over the split
+     * work and runs again. It is only done for a processing unit which supports splits.
+     */
+    protected void splitStragglers() {
+        if (runnerThreadList == null || isInterrupted || !IProcessingUnitSplitSupport.class.isAssignableFrom(processingUnitClass)
+            || !getParameterRuntime().getParameterValueList(SPLIT_STRAGGLERS).getValueAsBoolean()) {
+            return;
         }
 
-        // execute previously submitted tasks but accept no new ones
-        executorService.shutdown();
+        stragglerSplit.split(runnerThreadList, runnerThreadLock, this::startRunnerThread);
     }
 
     
     /**
-     * Wait for thread pool terminated.
+     * Wait for thread pool terminated: the runner threads are woken up from their pauses and stop after the current 
+     * call of the processing unit. Threads which don't stop within the suspend timeout are interrupted, in case they
+     * still run after a second timeout the state of the processing units is not consistent and the processing is aborted.
+     * 
+     * @throws ProcessingException In case not all threads are stopped
      */
-    protected void waitForThreadPoolTerminated() {
+    protected void waitForThreadPoolTerminated() throws ProcessingException {
         LOG.info(processInfo + " Interrupt all procesing unit threads...");
         isInterrupted = true;
+        if (workItemDispatcher != null) {
+            // stop the reader thread first, the queued work items are kept
+            workItemDispatcher.stop(getParameterRuntime().getParameterValueList(SUSPEND_TIMEOUT).getValueAsLong());
+        }
+        
+        if (runnerThreadList != null) {
+            for (ProcessingUnitRunnerThread runnerThread : runnerThreadList) {
+                runnerThread.wakeUp();
+            }
+        }
+
+        final ExecutorService threadPool = executorService;
+        if (threadPool != null && !threadPool.isTerminated()) {
+            final long suspendTimeout = getParameterRuntime().getParameterValueList(SUSPEND_TIMEOUT).getValueAsLong();
+            if (!awaitTermination(threadPool, suspendTimeout)) {
+                LOG.warn(processInfo + " Not all threads stopped within " + suspendTimeout + "ms, interrupt them...");
+                threadPool.shutdownNow();
 
-        while (!isThreadPoolTerminated()) {
-            LOG.debug(processInfo + " Wait on threads...");
-            ThreadUtil.getInstance().sleep(500L);
+                if (!awaitTermination(threadPool, suspendTimeout)) {
+                    throw new ProcessingException("Not all threads stopped within " + suspendTimeout + "ms after the interrupt!", true);
+                }
+            }
         }
         LOG.info(processInfo + " All threads stopped.");
     }
@@ -528,7 +972,9 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
                      + "   lock size average                    : " + prepareAverage(getObjectLockManager().getLockStatistic()) + "\n"
                      + "   already locked hit size average      : " + prepareAverage(getObjectLockManager().getIgnoreLockStatistic()) + "\n"
                      + "   blocked to unlocked hit size average : " + prepareAverage(getObjectLockManager().getUnlockStatistic()) + "\n"
-                     + "   count of object lock size reached    : " + getObjectLockManager().getNumberOfLockSizeReached());
+                     + "   count of object lock size reached    : " + getObjectLockManager().getNumberOfLockSizeReached() + "\n"
+                     + "   thread throughput min / max (units/s): " + prepareThroughput() + "\n"
+                     + "   count of straggler splits            : " + stragglerSplit.getNumberOfSplits());
         }
     }
 
@@ -543,6 +989,366 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     }
 
     
+    /**
+     * Create the object lock manager which is defined by the parameter {@link #OBJECT_LOCK_MANAGER}
+     *
+     * @return the object lock manager
+     */
+    private IObjectLockManager createObjectLockManager() {
+        if (isStripedObjectLockManager()) {
+            final int lockStripes = getParameterRuntime().getParameterValueList(LOCK_STRIPES).getValueAsInteger();
+            if (lockStripes > 0) {
+                return new StripedObjectLockManager(lockStripes);
+            }
+            return new StripedObjectLockManager();
+        }
+
+        return new ObjectLockManager();
+    }
+
+    
+    /**
+     * Check if the striped object lock manager is defined by the parameter {@link #OBJECT_LOCK_MANAGER}
+     *
+     * @return true if the striped object lock manager is defined, false for the default object lock manager
+     * @throws ValidationException In case of an unknown object lock manager
+     */
+    private boolean isStripedObjectLockManager() throws ValidationException {
+        final String objectLockManagerName = getParameterRuntime().getParameterValueList(OBJECT_LOCK_MANAGER).getValueAsString();
+        if (objectLockManagerName == null || objectLockManagerName.isBlank() || "default".equalsIgnoreCase(objectLockManagerName.trim())) {
+            return false;
+        }
+        
+        if ("striped".equalsIgnoreCase(objectLockManagerName.trim())) {
+            return true;
+        }
+
+        throw new ValidationException("Invalid object lock manager [" + objectLockManagerName + "], supported are default and striped!");
+    }
+
+    
+    /**
+     * Check if the ring buffer wait strategy is defined by the parameter {@link #WAIT_STRATEGY}
+     *
+     * @return the wait strategy
+     * @throws ValidationException In case of an unknown wait strategy
+     */
+    private RingBufferWaitStrategy getRingBufferWaitStrategy() throws ValidationException {
+        final String waitStrategyName = getParameterRuntime().getParameterValueList(WAIT_STRATEGY).getValueAsString();
+        final RingBufferWaitStrategy waitStrategy = RingBufferWaitStrategy.parse(waitStrategyName);
+        if (waitStrategy == null) {
+            throw new ValidationException("Invalid wait strategy [" + waitStrategyName + "], supported are busySpin, yield and park!");
+        }
+        
+        return waitStrategy;
+    }
+
+    
+    /**
+     * Get the startup ramp mode defined by the parameter {@link #STARTUP_RAMP}
+     *
+     * @return the startup ramp mode
+     * @throws ValidationException In case of an unknown startup ramp mode
+     */
+    private StartupRampMode getStartupRampMode() throws ValidationException {
+        final String startupRampName = getParameterRuntime().getParameterValueList(STARTUP_RAMP).getValueAsString();
+        final StartupRampMode result = StartupRampMode.parse(startupRampName);
+        if (result == null) {
+            throw new ValidationException("Invalid startup ramp [" + startupRampName + "], supported are none, fixed and adaptive!");
+        }
+        
+        return result;
+    }
+
+    
+    /**
+     * Check if the processing unit supports partitions or has a reader thread, in this case the number of threads can't 
+     * be changed at runtime
+     *
+     * @return true if it supports partitions or has a reader thread
+     */
+    private boolean isPartitioned() {
+        return IProcessingUnitPartitionSupport.class.isAssignableFrom(processingUnitClass) || isWorkItemSupported();
+    }
+
+    
+    /**
+     * Check if the processing unit supports work items, in this case a reader thread reads the work items
+     *
+     * @return true if it supports work items
+     */
+    private boolean isWorkItemSupported() {
+        return IProcessingUnitWorkItemSupport.class.isAssignableFrom(processingUnitClass);
+    }
+
+    
+    /**
+     * Start the reader thread and set the work item queues of all processing unit instances: in key affinity mode a
+     * queue per instance, otherwise a shared ring buffer. In ordered mode the result queues are set as well.
+     *
+     * @param threadName the thread name
+     * @throws ProcessingException In case the source can't be opened
+     */
+    @SuppressWarnings("unchecked")
+    private void startWorkItemDispatcher(String threadName) throws ProcessingException {
+        final int readBlockSize = getParameterRuntime().getParameterValueList(WORK_ITEM_READ_BLOCK_SIZE).getValueAsInteger();
+        if (IProcessingUnitOrderedSupport.class.isAssignableFrom(processingUnitClass)) {
+            final OrderedRingBufferDispatcher<Serializable, Object> orderedDispatcher = 
+                    new OrderedRingBufferDispatcher<Serializable, Object>((IProcessingUnitOrderedSupport<Serializable, Object>) getProcessingUnit(), 
+                                                                         processingUnitList.size(), 
+                                                                         getParameterRuntime().getParameterValueList(RING_BUFFER_SIZE).getValueAsInteger(), 
+                                                                         readBlockSize,
+                                                                         getRingBufferWaitStrategy(),
+                                                                         getParameterRuntime().getParameterValueList(REORDER_BUFFER_SIZE).getValueAsInteger());
+            for (int i = 0; i < processingUnitList.size(); i++) {
+                ((IProcessingUnitOrderedSupport<Serializable, Object>) processingUnitList.get(i)).setResultQueue(orderedDispatcher.getResultQueue(i));
+            }
+            workItemDispatcher = orderedDispatcher;
+            LOG.info(processInfo + " Start ordered ring buffer reader thread with " + processingUnitList.size() + " workers...");
+        } else if (IProcessingUnitKeyAffinitySupport.class.isAssignableFrom(processingUnitClass)) {
+            workItemDispatcher = new KeyAffinityDispatcher<Serializable>((IProcessingUnitKeyAffinitySupport<Serializable>) getProcessingUnit(), 
+                                                                         processingUnitList.size(), 
+                                                                         getParameterRuntime().getParameterValueList(KEY_AFFINITY_QUEUE_SIZE).getValueAsInteger(), 
+                                                                         readBlockSize);
+            LOG.info(processInfo + " Start key affinity reader thread with " + processingUnitList.size() + " work item queues...");
+        } else {
+            workItemDispatcher = new RingBufferDispatcher<Serializable>((IProcessingUnitWorkItemSupport<Serializable>) getProcessingUnit(), 
+                                                                        processingUnitList.size(), 
+                                                                        getParameterRuntime().getParameterValueList(RING_BUFFER_SIZE).getValueAsInteger(), 
+                                                                        readBlockSize,
+                                                                        getRingBufferWaitStrategy());
+            LOG.info(processInfo + " Start ring buffer reader thread with " + processingUnitList.size() + " workers...");
+        }
+
+        for (int i = 0; i < processingUnitList.size(); i++) {
+            ((IProcessingUnitWorkItemSupport<Serializable>) processingUnitList.get(i)).setWorkItemQueue(workItemDispatcher.getWorkItemQueue(i));
+        }
+
+        workItemDispatcher.start(new ProcessingUnintRunnerThreadFactory(Executors.defaultThreadFactory(), threadName + " reader", this), 
+                                 workItemSourceOffset, 
+                                 pendingWorkItemList);
+        workItemSourceOffset = null;
+        pendingWorkItemList = null;
+    }
+
+    
+    /**
+     * Get the number of active threads
+     *
+     * @return the number of active threads
+     */
+    private int getNumberOfActiveThreads() {
+        int numberOfActiveThreads = 0;
+        if (runnerThreadList != null) {
+            for (ProcessingUnitRunnerThread runnerThread : runnerThreadList) {
+                if (runnerThread.isActive()) {
+                    numberOfActiveThreads++;
+                }
+            }
+        }
+        return numberOfActiveThreads;
+    }
+
+    
+    /**
+     * Create a runner thread with its status queue
+     *
+     * @param processingUnit the processing unit
+     * @return the runner thread
+     */
+    private ProcessingUnitRunnerThread createRunnerThread(IProcessingUnit processingUnit) {
+        final int number = runnerThreadList.size() + 1;
+        final BlockingQueue<IProcessingUnitStatus> processStatusQueue = new LinkedBlockingQueue<IProcessingUnitStatus>();
+        final ProcessingUnitRunnerThread runnerThread = 
+                new ProcessingUnitRunnerThread(processingUnit, number, processStatusQueue, noProgressBackoff);
+        runnerThreadStatusQueueList.add(new RunnerThreadProcessStatusQueue(number, processStatusQueue));
+        runnerThreadList.add(runnerThread);
+        
+        if (processingUnit instanceof IProcessingUnitDataAvailableSupport) {
+            ((IProcessingUnitDataAvailableSupport) processingUnit).setDataAvailableListener(runnerThread::wakeUp);
+        }
+        return runnerThread;
+    }
+
+    
+    /**
+     * Start a runner thread
+     *
+     * @param runnerThread the runner thread
+     * @return true if it is started, false in case the thread pool is already shutdown
+     */
+    private boolean startRunnerThread(ProcessingUnitRunnerThread runnerThread) {
+        synchronized (runnerThreadLock) {
+            if (executorService == null || executorService.isShutdown()) {
+                return false;
+            }
+            
+            numberOfRunningThreads++;
+            runnerThread.start();
+            executorService.execute(runnerThread);
+            return true;
+        }
+    }
+
+    
+    /**
+     * Notify the end of a runner thread: the thread pool is shutdown after the last runner thread
+     *
+     * @param runnerThread the runner thread
+     */
+    private void runnerThreadEnded(ProcessingUnitRunnerThread runnerThread) {
+        synchronized (runnerThreadLock) {
+            runnerThread.stop();
+            numberOfRunningThreads--;
+            if (numberOfRunningThreads <= 0 && executorService != null) {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    
+    /**
+     * Adjust the number of processing unit instances
+     *
+     * @param numberOfInstances the number of instances
+     * @throws ValidationException If the instance of the processing unit cannot be initialized correctly 
+     */
+    private void adjustNumberOfProcessingUnitInstances(int numberOfInstances) throws ValidationException {
+        while (processingUnitList.size() < numberOfInstances) {
+            createAdditionalProcessingUnitInstance();
+        }
+        
+        while (processingUnitList.size() > numberOfInstances) {
+            final int index = processingUnitList.size() - 1;
+            ProcessingUnitUtil.getInstance().releaseResource(id, createInstanceName("" + (index + 1)), processingUnitList.remove(index));
+        }
+    }
+
+    
+    /**
+     * Create and initialize an additional processing unit instance
+     *
+     * @return the processing unit instance
+     * @throws ValidationException If the instance of the processing unit cannot be initialized correctly 
+     */
+    private IProcessingUnit createAdditionalProcessingUnitInstance() throws ValidationException {
+        final IProcessingUnit processingUnit;
+        try {
+            processingUnit = ProcessingUnitUtil.getInstance().createSingleProcessingUnitInstance(id, createInstanceName("" + (processingUnitList.size() + 1)), processingUnitClass);
+        } catch (Exception t) {
+            throw new ValidationException("Could not initialize " + processingUnitClass.getName() + ": " + t.getMessage(), t);
+        }
+
+        processingUnit.initialize(processingUnitParameterList, getProcessingUnitContext());
+        if (getObjectLockManager() != null && IProcessingUnitObjectLockManagerSupport.class.isAssignableFrom(processingUnit.getClass())) {
+            ((IProcessingUnitObjectLockManagerSupport) processingUnit).setObjectLockManager(getObjectLockManager());
+        }
+        
+        processingUnitList.add(processingUnit);
+        return processingUnit;
+    }
+
+    
+    /**
+     * Notify the data available listener
+     */
+    private void notifyDataAvailable() {
+        final Runnable listener = dataAvailableListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    
+    /**
+     * Check if the persisted states support a repartition
+     *
+     * @param processingUnitPersistenceList the persisted states
+     * @return true if all persisted states support a repartition or no instance has a persisted state
+     */
+    private boolean isRepartitionSupported(List<IProcessingUnitPersistence> processingUnitPersistenceList) {
+        for (IProcessingUnitPersistence processingUnitPersistence : processingUnitPersistenceList) {
+            if (processingUnitPersistence != null && !(processingUnitPersistence instanceof IProcessingUnitPersistenceRepartitionSupport)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    
+    /**
+     * Repartition the persisted states to the given number of instances: in case there are more persisted states than
+     * instances, the persisted states are merged round-robin, otherwise every persisted state is split in nearly 
+     * equal number of parts.
+     *
+     * @param processingUnitPersistenceList the persisted states
+     * @param numberOfInstances the number of instances
+     * @return the repartitioned persisted states
+     * @throws ProcessingException In case a persisted state could not be split
+     */
+    private List<IProcessingUnitPersistence> repartitionProcessingUnitPersistence(List<IProcessingUnitPersistence> processingUnitPersistenceList, int numberOfInstances) {
+        final List<IProcessingUnitPersistenceRepartitionSupport> persistenceList = new ArrayList<IProcessingUnitPersistenceRepartitionSupport>();
+        for (IProcessingUnitPersistence processingUnitPersistence : processingUnitPersistenceList) {
+            if (processingUnitPersistence != null) {
+                persistenceList.add((IProcessingUnitPersistenceRepartitionSupport) processingUnitPersistence);
+            }
+        }
+
+        final List<IProcessingUnitPersistence> result = new ArrayList<IProcessingUnitPersistence>(numberOfInstances);
+        if (persistenceList.isEmpty()) {
+            for (int i = 0; i < numberOfInstances; i++) {
+                result.add(null);
+            }
+        } else if (persistenceList.size() >= numberOfInstances) {
+            final IProcessingUnitPersistenceRepartitionSupport[] mergedPersistence = new IProcessingUnitPersistenceRepartitionSupport[numberOfInstances];
+            for (int i = 0; i < persistenceList.size(); i++) {
+                final int index = i % numberOfInstances;
+                if (mergedPersistence[index] == null) {
+                    mergedPersistence[index] = persistenceList.get(i);
+                } else {
+                    mergedPersistence[index] = mergedPersistence[index].merge(persistenceList.get(i));
+                }
+            }
+            
+            for (IProcessingUnitPersistenceRepartitionSupport processingUnitPersistence : mergedPersistence) {
+                result.add(processingUnitPersistence);
+            }
+        } else {
+            for (int i = 0; i < persistenceList.size(); i++) {
+                final int numberOfParts = numberOfInstances / persistenceList.size() + ((i < numberOfInstances % persistenceList.size()) ? 1 : 0);
+                if (numberOfParts <= 1) {
+                    result.add(persistenceList.get(i));
+                } else {
+                    final List<IProcessingUnitPersistenceRepartitionSupport> splitPersistenceList = persistenceList.get(i).split(numberOfParts);
+                    if (splitPersistenceList == null || splitPersistenceList.size() != numberOfParts) {
+                        throw new ProcessingException("Invalid split of persisted state #" + (i + 1) + ": expected " + numberOfParts + " parts!", true);
+                    }
+                    result.addAll(splitPersistenceList);
+                }
+            }
+        }
+        
+        return result;
+    }
+
+    
+    /**
+     * Await the termination of the thread pool
+     *
+     * @param threadPool the thread pool
+     * @param timeout the timeout in milliseconds
+     * @return true if the thread pool is terminated
+     */
+    private boolean awaitTermination(ExecutorService threadPool, long timeout) {
+        try {
+            return threadPool.awaitTermination(Math.max(0, timeout), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return threadPool.isTerminated();
+        }
+    }
+
+
     /**
      * Check if the thread pool is started
      *
@@ -578,6 +1384,28 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     }    
 
     
+    /**
+     * Prepare the min and max throughput of the runner threads as string
+     *
+     * @return the string representation
+     */
+    private String prepareThroughput() {
+        final List<ProcessingUnitRunnerThread> currentRunnerThreadList = runnerThreadList;
+        if (currentRunnerThreadList == null || currentRunnerThreadList.isEmpty()) {
+            return "(n/a)";
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (ProcessingUnitRunnerThread runnerThread : currentRunnerThreadList) {
+            min = Math.min(min, runnerThread.getThroughput());
+            max = Math.max(max, runnerThread.getThroughput());
+        }
+        
+        return decimalFormatter.format(min) + " / " + decimalFormatter.format(max);
+    }    
+
+    
     /**
      * Create the processing unit implementation
      *
@@ -602,6 +1430,12 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
             }
         }
         
+        for (int i = 0; i < processingUnitList.size(); i++) {
+            if (IProcessingUnitPartitionSupport.class.isAssignableFrom(processingUnitList.get(i).getClass())) {
+                ((IProcessingUnitPartitionSupport) processingUnitList.get(i)).setPartition(i, processingUnitList.size());
+            }
+        }
+        
         return processingUnitList;
     }
 
@@ -631,6 +1465,21 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
     private IProcessingUnit getProcessingUnit() {
         return processingUnitList.get(0);
     }  
+
+
+    /**
+     * Get the names of the parameter definitions
+     *
+     * @param parameterDefinitionList the parameter definitions
+     * @return the names
+     */
+    private static Set<String> toParameterNames(List<ParameterDefinition> parameterDefinitionList) {
+        final Set<String> result = new HashSet<String>();
+        for (ParameterDefinition parameterDefinition : parameterDefinitionList) {
+            result.add(parameterDefinition.getKey());
+        }
+        return Collections.unmodifiableSet(result);
+    }
    
     
     /**
@@ -640,7 +1489,18 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
         private IProcessingUnit processingUnit;
         private BlockingQueue<IProcessingUnitStatus> processStatusQueue;
         private int number;
-        private long noProgressPauseTime;
+        private ExponentialBackoff noProgressBackoff;
+        private long numberOfNoProgressPauses;
+        private volatile long numberOfProcessedUnits;
+        private volatile long runningTime;
+        private long startTimestamp;
+        private ProcessingUnitResourceMeasurement resourceMeasurement;
+        private ProcessingUnitStatistic resourceStatistic;
+        private boolean isWakeUpRequested;
+        private volatile boolean isWaitingForData;
+        private volatile boolean isRunning;
+        private volatile boolean isRetired;
+        private volatile boolean hasEnded;
 
 
         /**
@@ -649,13 +1509,24 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
          * @param processingUnit the processing unit
          * @param number the thread number
          * @param processStatusQueue the process status queue
-         * @param noProgressPauseTime the pause time on no progress
+         * @param noProgressBackoff the backoff of the pause time on no progress
          */
-        ProcessingUnitRunnerThread(IProcessingUnit processingUnit, int number, BlockingQueue<IProcessingUnitStatus> processStatusQueue, long noProgressPauseTime) {
+        ProcessingUnitRunnerThread(IProcessingUnit processingUnit, int number, BlockingQueue<IProcessingUnitStatus> processStatusQueue, ExponentialBackoff noProgressBackoff) {
             this.processingUnit = processingUnit;
             this.number = number;
-            this.noProgressPauseTime = noProgressPauseTime;
+            this.noProgressBackoff = noProgressBackoff;
+            this.numberOfNoProgressPauses = 0;
+            this.numberOfProcessedUnits = 0;
+            this.runningTime = 0;
+            this.startTimestamp = 0;
+            this.resourceMeasurement = new ProcessingUnitResourceMeasurement();
+            this.resourceStatistic = new ProcessingUnitStatistic();
+            this.isWakeUpRequested = false;
+            this.isWaitingForData = false;
             this.processStatusQueue = processStatusQueue;
+            this.isRunning = false;
+            this.isRetired = false;
+            this.hasEnded = false;
         }
 
 
@@ -664,14 +1535,172 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
          */
         @Override
         public void run() {
+            try {
+                runProcessingUnit();
+            } finally {
+                runnerThreadEnded(this);
+                
+                // the status of the ended thread has to be aggregated
+                notifyDataAvailable();
+            }
+        }
+
+
+        /**
+         * Mark the runner thread as started
+         */
+        void start() {
+            isRetired = false;
+            hasEnded = false;
+            isRunning = true;
+        }
+
+
+        /**
+         * Mark the runner thread as stopped
+         */
+        void stop() {
+            isRunning = false;
+        }
+
+
+        /**
+         * Retire the runner thread: it ends after the current call of the processing unit
+         */
+        void retire() {
+            isRetired = true;
+            wakeUp();
+        }
+
+
+        /**
+         * Check if the runner thread is running
+         *
+         * @return true if it is running
+         */
+        boolean isRunning() {
+            return isRunning;
+        }
+
+
+        /**
+         * Check if the runner thread is retired
+         *
+         * @return true if it is retired
+         */
+        boolean isRetired() {
+            return isRetired;
+        }
+
+
+        /**
+         * Check if the runner thread is running and not retired
+         *
+         * @return true if it is active
+         */
+        boolean isActive() {
+            return isRunning && !isRetired;
+        }
+
+
+        /**
+         * Check if the runner thread is parked because its processing unit has no data available
+         *
+         * @return true if it waits for data
+         */
+        boolean isWaitingForData() {
+            return isWaitingForData;
+        }
+
+
+        /**
+         * Check if the processing unit of the runner thread has ended
+         *
+         * @return true if it has no more units to process
+         */
+        boolean hasEnded() {
+            return hasEnded;
+        }
+
+
+        /**
+         * Get the thread number
+         *
+         * @return the thread number
+         */
+        int getNumber() {
+            return number;
+        }
+
+
+        /**
+         * Get the processing unit of the runner thread
+         *
+         * @return the processing unit
+         */
+        IProcessingUnit getProcessingUnit() {
+            return processingUnit;
+        }
+
+
+        /**
+         * Get the throughput of the runner thread over all its runs
+         *
+         * @return the number of processed units per second
+         */
+        double getThroughput() {
+            return numberOfProcessedUnits * 1000.0 / Math.max(1, runningTime);
+        }
+
+
+        /**
+         * Get the resource statistic of the calls since the last drain and start a new one
+         *
+         * @return the resource statistic
+         */
+        synchronized ProcessingUnitStatistic drainResourceStatistic() {
+            final ProcessingUnitStatistic result = resourceStatistic;
+            resourceStatistic = new ProcessingUnitStatistic();
+            return result;
+        }
+
+
+        /**
+         * Run the processing unit
+         */
+        private void runProcessingUnit() {
             LOG.info(processInfo + " Start processing unit parallelization thread #" + number + "...");
 
             long lastProgress = getProcessingUnitProgress().getProgress();
+            long lastRunningTime = runningTime;
+            startTimestamp = System.currentTimeMillis();
             boolean hasNext = false;
             do {
                 try {
-                    IProcessingUnitStatus processStatus = processingUnit.processUnit();
-                    processStatusQueue.put(processStatus);
+                    if (!isProcessingUnitDataAvailable()) {
+                        // no data available: the thread is parked until the processing unit notifies new data
+                        hasNext = true;
+                        if (!isWaitingForData) {
+                            isWaitingForData = true;
+                            notifyDataAvailable();
+                        }
+                        pause(DATA_AVAILABLE_CHECK_TIME);
+                        continue;
+                    }
+                    
+                    isWaitingForData = false;
+                    resourceMeasurement.start();
+                    final IProcessingUnitStatus processStatus;
+                    try {
+                        processStatus = processingUnit.processUnit();
+                    } finally {
+                        resourceMeasurement.stop();
+                        addResourceMeasurement();
+                    }
+                    
+                    processStatusQueue.offer(processStatus);
+                    addProcessedUnits(processStatus);
+                    runningTime = lastRunningTime + System.currentTimeMillis() - startTimestamp;
                     lastProgress = getProcessingUnitProgress().getProgress();
                     hasNext = processStatus.hasNext();
 
@@ -679,22 +1708,99 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
                         processingUnitThrottling.throttlingProcessing();
                     }
 
-                    if (getProcessingUnitProgress().getProgress() == lastProgress) {
-                        ThreadUtil.getInstance().sleep(noProgressPauseTime);
+                    final boolean hasPendingUnits = processStatus.getNumberOfPendingUnits() != null && processStatus.getNumberOfPendingUnits() > 0;
+                    if (getProcessingUnitProgress().getProgress() == lastProgress && !hasPendingUnits && !(processingUnit instanceof IProcessingUnitDataAvailableSupport)) {
+                        // a processing unit with data available support is parked until new data is available
+                        pause(noProgressBackoff.getDelay(++numberOfNoProgressPauses));
+                    } else {
+                        numberOfNoProgressPauses = 0;
                     }
                 } catch (InterruptedException e) {
                     LOG.debug("Interrupt: " + e.getMessage(), e);
+                    Thread.currentThread().interrupt();
                 }
-            } while (!isThreadInterrupted() && hasNext);
+            } while (!isThreadInterrupted() && !isRetired && hasNext);
 
+            isWaitingForData = false;
+            hasEnded = !hasNext;
             if (isInterrupted()) {
                 LOG.info(processInfo + " Processing unit parallelization thread #" + number + " interrupted!");
+            } else if (isRetired && hasNext) {
+                LOG.info(processInfo + " Processing unit parallelization thread #" + number + " retired.");
             } else {
                 LOG.info(processInfo + " Processing unit parallelization thread #" + number + " ended.");
             }
         }
 
 
+        /**
+         * Add the last resource measurement to the resource statistic
+         */
+        private synchronized void addResourceMeasurement() {
+            resourceMeasurement.addStatistic(resourceStatistic);
+        }
+
+
+        /**
+         * Add the processed units of a status to the throughput of the runner thread
+         *
+         * @param processStatus the status
+         */
+        private void addProcessedUnits(IProcessingUnitStatus processStatus) {
+            if (processStatus.getNumberOfSuccessfulUnits() != null) {
+                numberOfProcessedUnits += processStatus.getNumberOfSuccessfulUnits();
+            }
+            
+            if (processStatus.getNumberOfFailedUnits() != null) {
+                numberOfProcessedUnits += processStatus.getNumberOfFailedUnits();
+            }
+        }
+
+
+        /**
+         * Check if the processing unit has data available
+         *
+         * @return true if the processing unit should be called
+         */
+        private boolean isProcessingUnitDataAvailable() {
+            return !(processingUnit instanceof IProcessingUnitDataAvailableSupport) || ((IProcessingUnitDataAvailableSupport) processingUnit).isDataAvailable();
+        }
+
+
+        /**
+         * Pause the thread, the pause ends immediate in case of a suspend, an abort or a wake-up
+         *
+         * @param pauseTime the pause time in milliseconds
+         * @throws InterruptedException In case the thread is interrupted
+         */
+        private void pause(long pauseTime) throws InterruptedException {
+            if (pauseTime > 0 && !isThreadInterrupted() && !isRetired) {
+                synchronized (this) {
+                    if (!isRetired && !isWakeUpRequested) {
+                        wait(pauseTime);
+                    }
+                    
+                    if (isWakeUpRequested) {
+                        // the next pause starts again with the initial pause time
+                        isWakeUpRequested = false;
+                        numberOfNoProgressPauses = 0;
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Wake up the runner thread in case it pauses, a wake-up before the pause ends the next pause immediate
+         */
+        private void wakeUp() {
+            synchronized (this) {
+                isWakeUpRequested = true;
+                notifyAll();
+            }
+        }
+
+
         /**
          * Check if it is interrupted
          *
@@ -774,18 +1880,22 @@ public class ParallelProcessingUnit extends AbstractProcessingUnitPersistenceImp
 
         
         /**
-         * Get the data process status
+         * Check if there is a data process status
+         *
+         * @return true if there is a data process status
+         */
+        public boolean hasProcessingUnitStatus() {
+            return !processingUnitStatusQueue.isEmpty();
+        }
+
+        
+        /**
+         * Get the data process status without waiting
          *
-         * @return the data process status
+         * @return the data process status or null
          */
         public IProcessingUnitStatus getProcessingUnitStatus() {
-            try {
-                return processingUnitStatusQueue.poll(100L, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
-            return null;
+            return processingUnitStatusQueue.poll();
         }
     }
 }
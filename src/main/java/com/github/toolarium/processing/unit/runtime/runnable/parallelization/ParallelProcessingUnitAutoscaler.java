@@ -0,0 +1,92 @@
+/*
+ * ParallelProcessingUnitAutoscaler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements the default {@link IParallelProcessingUnitAutoscaler}: it adds a thread as long as the throughput grows
+ * with every added thread. In case an added thread doesn't improve the throughput per thread or the already locked 
+ * ratio exceeds the max ratio, a thread is retired and the scale up is paused for some intervals.
+ * 
+ * @author patrick
+ */
+public class ParallelProcessingUnitAutoscaler implements IParallelProcessingUnitAutoscaler {
+    /** The default max already locked ratio */
+    public static final double DEFAULT_MAX_ALREADY_LOCKED_RATIO = 0.5;
+
+    /** The default min throughput gain of an added thread */
+    public static final double DEFAULT_MIN_THROUGHPUT_GAIN = 0.05;
+
+    /** The default number of intervals to pause the scale up */
+    public static final int DEFAULT_NUMBER_OF_PAUSED_INTERVALS = 3;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitAutoscaler.class);
+    private final double maxAlreadyLockedRatio;
+    private final double minThroughputGain;
+    private final int numberOfPausedIntervals;
+    private int lastNumberOfThreads;
+    private double lastThroughput;
+    private int pausedIntervals;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitAutoscaler
+     */
+    public ParallelProcessingUnitAutoscaler() {
+        this(DEFAULT_MAX_ALREADY_LOCKED_RATIO, DEFAULT_MIN_THROUGHPUT_GAIN, DEFAULT_NUMBER_OF_PAUSED_INTERVALS);
+    }
+
+
+    /**
+     * Constructor for ParallelProcessingUnitAutoscaler
+     *
+     * @param maxAlreadyLockedRatio the max already locked ratio before a thread is retired
+     * @param minThroughputGain the min relative throughput gain an added thread has to bring
+     * @param numberOfPausedIntervals the number of intervals to pause the scale up after a retired thread
+     */
+    public ParallelProcessingUnitAutoscaler(double maxAlreadyLockedRatio, double minThroughputGain, int numberOfPausedIntervals) {
+        this.maxAlreadyLockedRatio = maxAlreadyLockedRatio;
+        this.minThroughputGain = minThroughputGain;
+        this.numberOfPausedIntervals = numberOfPausedIntervals;
+        this.lastNumberOfThreads = 0;
+        this.lastThroughput = 0;
+        this.pausedIntervals = 0;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.IParallelProcessingUnitAutoscaler#computeNumberOfThreads(int, int, int, double, double)
+     */
+    @Override
+    public synchronized int computeNumberOfThreads(int numberOfThreads, int minNumberOfThreads, int maxNumberOfThreads, double throughput, double alreadyLockedRatio) {
+        int result = numberOfThreads;
+        if (alreadyLockedRatio > maxAlreadyLockedRatio) {
+            // the threads block each other
+            result = numberOfThreads - 1;
+            pausedIntervals = numberOfPausedIntervals;
+        } else if (lastNumberOfThreads > 0 && numberOfThreads > lastNumberOfThreads && throughput < lastThroughput * (1.0 + minThroughputGain)) {
+            // the added thread brings no gain
+            result = lastNumberOfThreads;
+            pausedIntervals = numberOfPausedIntervals;
+        } else if (pausedIntervals > 0) {
+            pausedIntervals--;
+        } else {
+            result = numberOfThreads + 1;
+        }
+
+        result = Math.min(Math.max(result, minNumberOfThreads), maxNumberOfThreads);
+        if (LOG.isDebugEnabled() && result != numberOfThreads) {
+            LOG.debug("Scale number of threads from " + numberOfThreads + " to " + result + " (throughput: " + throughput + "/s, already locked ratio: " + alreadyLockedRatio + ").");
+        }
+
+        lastNumberOfThreads = numberOfThreads;
+        lastThroughput = throughput;
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * ParallelProcessingUnitAutoscaling.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.common.object.IObjectLockManager;
+import com.github.toolarium.common.statistic.StatisticCounter;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Measures the throughput and the lock contention of the {@link ParallelProcessingUnit} per interval and lets the
+ * {@link AdaptiveStartupRamp} or after the ramp the {@link IParallelProcessingUnitAutoscaler} decide the number of threads.
+ *
+ * @author patrick
+ */
+class ParallelProcessingUnitAutoscaling {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitAutoscaling.class);
+    private final String processInfo;
+    private volatile IParallelProcessingUnitAutoscaler autoscaler;
+    private AdaptiveStartupRamp startupRamp;
+    private int startupRampNumberOfThreads;
+    private long lastTimestamp;
+    private long lastNumberOfProcessedUnits;
+    private double lastLockSum;
+    private double lastIgnoreLockSum;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitAutoscaling
+     *
+     * @param processInfo the process information for the log
+     */
+    ParallelProcessingUnitAutoscaling(String processInfo) {
+        this.processInfo = processInfo;
+        this.autoscaler = null;
+        this.startupRamp = null;
+        this.startupRampNumberOfThreads = 0;
+        this.lastTimestamp = 0;
+        this.lastNumberOfProcessedUnits = 0;
+        this.lastLockSum = 0;
+        this.lastIgnoreLockSum = 0;
+    }
+
+
+    /**
+     * Get the autoscaler
+     *
+     * @return the autoscaler or null
+     */
+    IParallelProcessingUnitAutoscaler getAutoscaler() {
+        return autoscaler;
+    }
+
+
+    /**
+     * Set the autoscaler
+     *
+     * @param autoscaler the autoscaler or null to disable it
+     */
+    void setAutoscaler(IParallelProcessingUnitAutoscaler autoscaler) {
+        this.autoscaler = autoscaler;
+    }
+
+
+    /**
+     * Start the measurement and the startup ramp
+     *
+     * @param startupRamp the startup ramp or null to start all threads at once
+     * @param numberOfThreads the requested number of threads
+     * @param now the current time in milliseconds
+     * @return the number of threads to start
+     */
+    int start(AdaptiveStartupRamp startupRamp, int numberOfThreads, long now) {
+        this.startupRamp = startupRamp;
+        this.startupRampNumberOfThreads = 0;
+        this.lastTimestamp = now;
+
+        if (startupRamp == null) {
+            return numberOfThreads;
+        }
+
+        startupRampNumberOfThreads = startupRamp.start(numberOfThreads);
+        LOG.info(processInfo + " Start adaptive startup ramp with " + startupRampNumberOfThreads + " of " + numberOfThreads + " threads...");
+        return startupRampNumberOfThreads;
+    }
+
+
+    /**
+     * Check if the startup ramp is running
+     *
+     * @return true if the startup ramp is running
+     */
+    boolean isStartupRamp() {
+        return startupRamp != null && !startupRamp.isFinished();
+    }
+
+
+    /**
+     * Get the number of threads of the startup ramp: the number of threads of the current wave during the adaptive
+     * startup ramp, otherwise the requested number of threads
+     *
+     * @param requestedNumberOfThreads the requested number of threads
+     * @return the number of threads of the startup ramp
+     */
+    int getStartupRampNumberOfThreads(int requestedNumberOfThreads) {
+        if (isStartupRamp()) {
+            return startupRampNumberOfThreads;
+        }
+
+        return requestedNumberOfThreads;
+    }
+
+
+    /**
+     * Measure the last interval and compute the number of threads. Before the interval has passed or without startup
+     * ramp and autoscaler the requested number of threads is kept.
+     *
+     * @param requestedNumberOfThreads the requested number of threads
+     * @param numberOfActiveThreads the number of active threads
+     * @param minNumberOfThreads the min number of threads of the autoscaler
+     * @param maxNumberOfThreads the max number of threads of the autoscaler
+     * @param interval the interval in milliseconds
+     * @param numberOfProcessedUnits the number of processed units
+     * @param objectLockManager the object lock manager or null
+     * @param now the current time in milliseconds
+     * @return the requested number of threads
+     */
+    int autoscale(int requestedNumberOfThreads, // CHECKSTYLE IGNORE THIS LINE
+                  int numberOfActiveThreads,
+                  int minNumberOfThreads,
+                  int maxNumberOfThreads,
+                  long interval,
+                  long numberOfProcessedUnits,
+                  IObjectLockManager objectLockManager,
+                  long now) {
+        final IParallelProcessingUnitAutoscaler currentAutoscaler = autoscaler;
+        final boolean isStartupRamp = isStartupRamp();
+        if ((currentAutoscaler == null && !isStartupRamp) || now - lastTimestamp < interval) {
+            return requestedNumberOfThreads;
+        }
+
+        final double throughput = (numberOfProcessedUnits - lastNumberOfProcessedUnits) * 1000.0 / Math.max(1, now - lastTimestamp);
+        double lockSum = 0;
+        double ignoreLockSum = 0;
+        if (objectLockManager != null) {
+            lockSum = getSum(objectLockManager.getLockStatistic());
+            ignoreLockSum = getSum(objectLockManager.getIgnoreLockStatistic());
+        }
+
+        final double lockDelta = Math.max(0, lockSum - lastLockSum);
+        final double ignoreLockDelta = Math.max(0, ignoreLockSum - lastIgnoreLockSum);
+        double alreadyLockedRatio = 0;
+        if (lockDelta + ignoreLockDelta > 0) {
+            alreadyLockedRatio = ignoreLockDelta / (lockDelta + ignoreLockDelta);
+        }
+
+        int result = requestedNumberOfThreads;
+        if (isStartupRamp) {
+            startupRampNumberOfThreads = startupRamp.computeNumberOfThreads(startupRampNumberOfThreads, requestedNumberOfThreads, throughput, alreadyLockedRatio);
+            if (startupRamp.isFinished()) {
+                LOG.info(processInfo + " Finished adaptive startup ramp with " + startupRampNumberOfThreads + " of " + requestedNumberOfThreads + " threads after "
+                         + startupRamp.getNumberOfWaves() + " waves.");
+                result = startupRampNumberOfThreads;
+            }
+        } else {
+            result = currentAutoscaler.computeNumberOfThreads(numberOfActiveThreads, minNumberOfThreads, maxNumberOfThreads, throughput, alreadyLockedRatio);
+        }
+
+        lastTimestamp = now;
+        lastNumberOfProcessedUnits = numberOfProcessedUnits;
+        lastLockSum = lockSum;
+        lastIgnoreLockSum = ignoreLockSum;
+        return result;
+    }
+
+
+    /**
+     * Add the statistic of the startup ramp
+     *
+     * @param processingUnitStatusBuilder the processing unit status builder
+     * @param requestedNumberOfThreads the requested number of threads
+     */
+    void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder, int requestedNumberOfThreads) {
+        if (startupRamp != null) {
+            processingUnitStatusBuilder.statistic("startupRampNumberOfThreads", (long) getStartupRampNumberOfThreads(requestedNumberOfThreads));
+            processingUnitStatusBuilder.statistic("startupRampWaves", (long) startupRamp.getNumberOfWaves());
+        }
+    }
+
+
+    /**
+     * Get the sum of a statistic counter
+     *
+     * @param statisticCounter the statistic counter
+     * @return the sum
+     */
+    private double getSum(StatisticCounter statisticCounter) {
+        if (statisticCounter == null) {
+            return 0;
+        }
+
+        return statisticCounter.getSum();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * ParallelProcessingUnitDeadlineAutoscaler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
+import java.time.Clock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements a deadline {@link IParallelProcessingUnitAutoscaler}: it uses as few threads as possible to end the processing
+ * just in time before the deadline. The number of threads is the required throughput divided by the throughput per thread
+ * of the last interval. The deadline is infeasible in case the max number of threads is not enough.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitDeadlineAutoscaler implements IParallelProcessingUnitAutoscaler {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitDeadlineAutoscaler.class);
+    private final ProcessingUnitDeadline deadline;
+    private final IProcessingUnitProgress processingUnitProgress;
+    private final Clock clock;
+    private volatile double requiredThroughput;
+    private volatile boolean isFeasible;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitDeadlineAutoscaler
+     *
+     * @param deadline the deadline
+     * @param processingUnitProgress the progress of the parallel processing unit
+     */
+    public ParallelProcessingUnitDeadlineAutoscaler(ProcessingUnitDeadline deadline, IProcessingUnitProgress processingUnitProgress) {
+        this(deadline, processingUnitProgress, Clock.systemUTC());
+    }
+
+
+    /**
+     * Constructor for ParallelProcessingUnitDeadlineAutoscaler
+     *
+     * @param deadline the deadline
+     * @param processingUnitProgress the progress of the parallel processing unit
+     * @param clock the clock of the remaining time to the deadline
+     */
+    public ParallelProcessingUnitDeadlineAutoscaler(ProcessingUnitDeadline deadline, IProcessingUnitProgress processingUnitProgress, Clock clock) {
+        this.deadline = deadline;
+        this.processingUnitProgress = processingUnitProgress;
+        this.clock = clock;
+        this.requiredThroughput = 0;
+        this.isFeasible = true;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.IParallelProcessingUnitAutoscaler#computeNumberOfThreads(int, int, int, double, double)
+     */
+    @Override
+    public synchronized int computeNumberOfThreads(int numberOfThreads, int minNumberOfThreads, int maxNumberOfThreads, double throughput, double alreadyLockedRatio) {
+        requiredThroughput = deadline.getRequiredThroughput(processingUnitProgress.getNumberOfUnprocessedUnits(), clock.millis());
+        if (Double.isInfinite(requiredThroughput)) {
+            // the deadline is reached, process as fast as possible
+            isFeasible = false;
+            return maxNumberOfThreads;
+        }
+
+        if (numberOfThreads <= 0 || throughput <= 0) {
+            // no measurement
+            return Math.min(Math.max(numberOfThreads, minNumberOfThreads), maxNumberOfThreads);
+        }
+
+        final double throughputPerThread = throughput / numberOfThreads;
+        final long requiredNumberOfThreads = (long) Math.ceil(requiredThroughput / throughputPerThread);
+        isFeasible = requiredNumberOfThreads <= maxNumberOfThreads;
+
+        final int result = (int) Math.min(Math.max(requiredNumberOfThreads, minNumberOfThreads), maxNumberOfThreads);
+        if (LOG.isDebugEnabled() && result != numberOfThreads) {
+            LOG.debug("Scale number of threads from " + numberOfThreads + " to " + result + " (throughput: " + throughput + "/s, required throughput: "
+                      + requiredThroughput + "/s, deadline: " + deadline + ").");
+        }
+        return result;
+    }
+
+
+    /**
+     * Get the deadline
+     *
+     * @return the deadline
+     */
+    public ProcessingUnitDeadline getDeadline() {
+        return deadline;
+    }
+
+
+    /**
+     * Get the required throughput of the last interval
+     *
+     * @return the required throughput in units per second
+     */
+    public double getRequiredThroughput() {
+        return requiredThroughput;
+    }
+
+
+    /**
+     * Check if the deadline is feasible with the max number of threads
+     *
+     * @return true if the deadline is feasible
+     */
+    public boolean isFeasible() {
+        return isFeasible;
+    }
+}
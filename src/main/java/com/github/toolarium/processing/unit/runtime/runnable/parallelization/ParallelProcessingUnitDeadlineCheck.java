@@ -0,0 +1,79 @@
+/*
+ * ParallelProcessingUnitDeadlineCheck.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
+import java.text.DecimalFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Handles the deadline of the {@link ParallelProcessingUnit}: it creates the {@link ParallelProcessingUnitDeadlineAutoscaler}
+ * and adds a warning to the status as soon as the deadline becomes infeasible.
+ *
+ * @author patrick
+ */
+class ParallelProcessingUnitDeadlineCheck {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitDeadlineCheck.class);
+    private final String processInfo;
+    private final DecimalFormat decimalFormatter;
+    private boolean isDeadlineInfeasible;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitDeadlineCheck
+     *
+     * @param processInfo the process information for the log
+     * @param decimalFormatter the decimal formatter
+     */
+    ParallelProcessingUnitDeadlineCheck(String processInfo, DecimalFormat decimalFormatter) {
+        this.processInfo = processInfo;
+        this.decimalFormatter = decimalFormatter;
+        this.isDeadlineInfeasible = false;
+    }
+
+
+    /**
+     * Create the autoscaler of the deadline
+     *
+     * @param deadline the deadline
+     * @param processingUnitProgress the progress of the parallel processing unit
+     * @return the autoscaler
+     */
+    ParallelProcessingUnitDeadlineAutoscaler createAutoscaler(ProcessingUnitDeadline deadline, IProcessingUnitProgress processingUnitProgress) {
+        LOG.info(processInfo + " Scale the number of threads to the deadline " + deadline + ".");
+        isDeadlineInfeasible = false;
+        return new ParallelProcessingUnitDeadlineAutoscaler(deadline, processingUnitProgress);
+    }
+
+
+    /**
+     * Add a warning to the status as soon as the deadline of the {@link ParallelProcessingUnitDeadlineAutoscaler} becomes
+     * infeasible, the warning is added again after the deadline was feasible in between.
+     *
+     * @param autoscaler the current autoscaler
+     * @param processingUnitStatusBuilder the processing unit status builder
+     */
+    void check(IParallelProcessingUnitAutoscaler autoscaler, ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        if (!(autoscaler instanceof ParallelProcessingUnitDeadlineAutoscaler)) {
+            return;
+        }
+
+        final ParallelProcessingUnitDeadlineAutoscaler deadlineAutoscaler = (ParallelProcessingUnitDeadlineAutoscaler) autoscaler;
+        if (deadlineAutoscaler.isFeasible()) {
+            isDeadlineInfeasible = false;
+        } else if (!isDeadlineInfeasible) {
+            isDeadlineInfeasible = true;
+            final String message = "The deadline " + deadlineAutoscaler.getDeadline() + " is infeasible (required throughput: "
+                                   + decimalFormatter.format(deadlineAutoscaler.getRequiredThroughput()) + " units/s)!";
+            LOG.warn(processInfo + " " + message);
+            processingUnitStatusBuilder.warn(message);
+        }
+    }
+}
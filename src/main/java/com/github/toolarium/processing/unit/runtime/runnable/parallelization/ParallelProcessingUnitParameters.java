@@ -29,7 +29,23 @@ public interface ParallelProcessingUnitParameters {
 
     /** STARTUP_PHASED_SLEEP_TIME */
     ParameterDefinition STARTUP_PHASED_SLEEP_TIME = 
-            new ParameterDefinitionBuilder().name("startupPhasedSleepTime").defaultValue(50L).description("Defines the startup phased sleep time between threads (parallizable).").build();
+            new ParameterDefinitionBuilder().name("startupPhasedSleepTime").defaultValue(50L).description("Defines the startup phased sleep time between threads in case of the startup ramp fixed (parallizable).").build();
+
+    /** STARTUP_RAMP: the startup ramp of the threads. */
+    ParameterDefinition STARTUP_RAMP = 
+            new ParameterDefinitionBuilder().name("startupRamp").defaultValue("adaptive").emptyValueIsNotAllowed().description("Defines how the threads are started: none (all at once), fixed (one by one with the startup phased sleep time) or adaptive (in waves as long as the throughput increases).").build();
+
+    /** STARTUP_RAMP_FIRST_WAVE: the number of threads of the first wave of the adaptive startup ramp. */
+    ParameterDefinition STARTUP_RAMP_FIRST_WAVE = 
+            new ParameterDefinitionBuilder().name("startupRampFirstWave").defaultValue(4).emptyValueIsNotAllowed().description("Defines the number of threads of the first wave of the adaptive startup ramp.").build();
+
+    /** STARTUP_RAMP_INTERVAL: the interval of the adaptive startup ramp. */
+    ParameterDefinition STARTUP_RAMP_INTERVAL = 
+            new ParameterDefinitionBuilder().name("startupRampInterval").defaultValue(500L).emptyValueIsNotAllowed().description("Defines the interval in milliseconds of the adaptive startup ramp to measure the throughput before the next wave is started.").build();
+
+    /** STARTUP_RAMP_MAX_ALREADY_LOCKED_PERCENTAGE: the max lock conflict rate of the adaptive startup ramp. */
+    ParameterDefinition STARTUP_RAMP_MAX_ALREADY_LOCKED_PERCENTAGE = 
+            new ParameterDefinitionBuilder().name("startupRampMaxAlreadyLockedPercentage").defaultValue(20).emptyValueIsNotAllowed().description("Defines the max percentage of already locked objects of the adaptive startup ramp to start the next wave.").build();
 
     /** AGGREGATE_STATUS_PAUSE_TIME */
     ParameterDefinition AGGREGATE_STATUS_PAUSE_TIME = 
@@ -39,7 +55,72 @@ public interface ParallelProcessingUnitParameters {
     ParameterDefinition NO_PROGRESS_PAUSE_TIME = 
             new ParameterDefinitionBuilder().name("noProgressPauseTime").defaultValue(250L).emptyValueIsNotAllowed().description("Defines pause time in case a parallel processing unit could nothing process.").build();
 
+    /** NO_PROGRESS_MAX_PAUSE_TIME */
+    ParameterDefinition NO_PROGRESS_MAX_PAUSE_TIME = 
+            new ParameterDefinitionBuilder().name("noProgressMaxPauseTime").defaultValue(0L).emptyValueIsNotAllowed().description("Defines the max pause time in case a parallel processing unit could nothing process: the pause time grows exponentially with jitter up to this time, 0 for a fixed pause time.").build();
+
     /** MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT */
     ParameterDefinition MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT = 
             new ParameterDefinitionBuilder().name("maxNumberOfNoProgressBeforeAbort").defaultValue(10L).emptyValueIsAllowed().description("Defines pause time in case a parallel processing unit could nothing process.").build();
+
+    /** SUSPEND_TIMEOUT */
+    ParameterDefinition SUSPEND_TIMEOUT = 
+            new ParameterDefinitionBuilder().name("suspendTimeout").defaultValue(10000L).emptyValueIsNotAllowed().description("Defines the max time in milliseconds to wait for the threads on a suspend or an abort before they are interrupted.").build();
+
+    /** MIN_NUMBER_OF_THREADS */
+    ParameterDefinition MIN_NUMBER_OF_THREADS = 
+            new ParameterDefinitionBuilder().name("minNumberOfThreads").defaultValue(1).description("Defines the min number of threads in case the number of threads is changed at runtime.").build();
+
+    /** MAX_NUMBER_OF_THREADS */
+    ParameterDefinition MAX_NUMBER_OF_THREADS = 
+            new ParameterDefinitionBuilder().name("maxNumberOfThreads").defaultValue(0).description("Defines the max number of threads of the autoscaler, it has to be greater than the number of threads.").build();
+
+    /** AUTOSCALE: enables the autoscaler. */
+    ParameterDefinition AUTOSCALE = 
+            new ParameterDefinitionBuilder().name("autoscale").defaultValue(false).description("Defines if the number of threads is changed at runtime by the autoscaler between the min and max number of threads.").build();
+
+    /** AUTOSCALE_INTERVAL */
+    ParameterDefinition AUTOSCALE_INTERVAL = 
+            new ParameterDefinitionBuilder().name("autoscaleInterval").defaultValue(10000L).emptyValueIsNotAllowed().description("Defines the interval in milliseconds of the autoscaler to measure and change the number of threads.").build();
+
+    /** DEADLINE: the deadline to end the processing. */
+    ParameterDefinition DEADLINE = 
+            new ParameterDefinitionBuilder().name("deadline").isOptional().description("Defines the deadline to end the processing: an instant, a local date time or a local time (e.g. 06:00). The number of threads is scaled between the min and max number of threads to end just in time.").build();
+
+    /** DEADLINE_SAFETY_MARGIN: the safety margin of the deadline. */
+    ParameterDefinition DEADLINE_SAFETY_MARGIN = 
+            new ParameterDefinitionBuilder().name("deadlineSafetyMargin").defaultValue(10).emptyValueIsNotAllowed().description("Defines the safety margin of the deadline in percentage of the remaining time.").build();
+
+    /** SPLIT_STRAGGLERS: split the remaining work of slow threads. */
+    ParameterDefinition SPLIT_STRAGGLERS = 
+            new ParameterDefinitionBuilder().name("splitStragglers").defaultValue(true).description("Defines if the remaining work of the slowest thread is split to an ended thread in case the processing unit supports it.").build();
+
+
+    /** OBJECT_LOCK_MANAGER: the object lock manager. */
+    ParameterDefinition OBJECT_LOCK_MANAGER = 
+            new ParameterDefinitionBuilder().name("objectLockManager").defaultValue("default").emptyValueIsNotAllowed().description("Defines the object lock manager: default or striped (lock-free for a high number of threads).").build();
+
+    /** LOCK_STRIPES: the number of segments of the striped object lock manager. */
+    ParameterDefinition LOCK_STRIPES = 
+            new ParameterDefinitionBuilder().name("lockStripes").defaultValue(0).description("Defines the number of segments of the striped object lock manager, 0 for a size depending on the available processors.").build();
+
+    /** KEY_AFFINITY_QUEUE_SIZE: the max size of the work item queue of an instance in key affinity mode. */
+    ParameterDefinition KEY_AFFINITY_QUEUE_SIZE = 
+            new ParameterDefinitionBuilder().name("keyAffinityQueueSize").defaultValue(1000).emptyValueIsNotAllowed().description("Defines the max number of queued work items per thread in key affinity mode.").build();
+
+    /** WORK_ITEM_READ_BLOCK_SIZE: the block size of the reader thread to read from the source in the reader / worker topology. */
+    ParameterDefinition WORK_ITEM_READ_BLOCK_SIZE = 
+            new ParameterDefinitionBuilder().name("workItemReadBlockSize").defaultValue(100).emptyValueIsNotAllowed().description("Defines the block size of the reader thread to read the work items from the source.").build();
+
+    /** RING_BUFFER_SIZE: the size of the ring buffer between the reader thread and the workers. */
+    ParameterDefinition RING_BUFFER_SIZE = 
+            new ParameterDefinitionBuilder().name("ringBufferSize").defaultValue(1024).emptyValueIsNotAllowed().description("Defines the size of the ring buffer between the reader thread and the workers, it is rounded up to a power of two.").build();
+
+    /** REORDER_BUFFER_SIZE: the size of the reorder buffer in ordered mode. */
+    ParameterDefinition REORDER_BUFFER_SIZE = 
+            new ParameterDefinitionBuilder().name("reorderBufferSize").defaultValue(1024).emptyValueIsNotAllowed().description("Defines in ordered mode how many sequences the released results can be ahead of the next result to write before the workers are blocked.").build();
+
+    /** WAIT_STRATEGY: the wait strategy of the ring buffer. */
+    ParameterDefinition WAIT_STRATEGY = 
+            new ParameterDefinitionBuilder().name("waitStrategy").defaultValue("park").emptyValueIsNotAllowed().description("Defines the wait strategy of the ring buffer: busySpin, yield or park.").build();
 }
@@ -7,7 +7,9 @@ package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
 
 import com.github.toolarium.common.object.IObjectLockManager;
 import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
 import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,8 +22,12 @@ import java.util.List;
 public class ParallelProcessingUnitPersistenceContainer implements IProcessingUnitPersistence {
     private static final long serialVersionUID = 9136017612972853636L;
     private final List<IProcessingUnitPersistence> processingUnitPersistenceList;
+    private final List<IProcessingUnitPosition> processingUnitPositionList;
     private IObjectLockManager objectLockManager;
     private IProcessingUnitStatus suspendProcessingUnitStatus;
+    private Integer numberOfThreads;
+    private Serializable workItemSourceOffset;
+    private List<Serializable> pendingWorkItemList;
 
     
     /**
@@ -29,8 +35,12 @@ public class ParallelProcessingUnitPersistenceContainer implements IProcessingUn
      */
     public ParallelProcessingUnitPersistenceContainer() {
         this.processingUnitPersistenceList = new ArrayList<IProcessingUnitPersistence>();
+        this.processingUnitPositionList = new ArrayList<IProcessingUnitPosition>();
         this.objectLockManager = null;
         this.suspendProcessingUnitStatus = null;
+        this.numberOfThreads = null;
+        this.workItemSourceOffset = null;
+        this.pendingWorkItemList = null;
     }
     
     
@@ -54,6 +64,26 @@ public class ParallelProcessingUnitPersistenceContainer implements IProcessingUn
     }
 
 
+    /**
+     * Add the position of a processing unit
+     * 
+     * @param processingUnitPosition the processing unit position or null
+     */
+    public void addProcessingUnitPosition(IProcessingUnitPosition processingUnitPosition) {
+        processingUnitPositionList.add(processingUnitPosition);
+    }
+
+    
+    /**
+     * Get the processing unit position list, it has the same order as the processing unit persistence list
+     *
+     * @return the processing unit position list
+     */
+    public List<IProcessingUnitPosition> getProcessingUnitPositionList() {
+        return processingUnitPositionList;
+    }
+
+
     /**
      * Get the object lock manager
      *
@@ -92,4 +122,64 @@ public class ParallelProcessingUnitPersistenceContainer implements IProcessingUn
     public void setSuspendProcessingUnitStatus(IProcessingUnitStatus suspendProcessingUnitStatus) {
         this.suspendProcessingUnitStatus = suspendProcessingUnitStatus;
     }
+
+
+    /**
+     * Get the number of running threads at the time of the suspend
+     *
+     * @return the number of threads or null
+     */
+    public Integer getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+
+    /**
+     * Set the number of running threads at the time of the suspend
+     *
+     * @param numberOfThreads the number of threads
+     */
+    public void setNumberOfThreads(Integer numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+
+
+    /**
+     * Get the offset of the work item source in the reader / worker topology
+     *
+     * @return the offset or null
+     */
+    public Serializable getWorkItemSourceOffset() {
+        return workItemSourceOffset;
+    }
+
+
+    /**
+     * Set the offset of the work item source in the reader / worker topology
+     *
+     * @param workItemSourceOffset the offset
+     */
+    public void setWorkItemSourceOffset(Serializable workItemSourceOffset) {
+        this.workItemSourceOffset = workItemSourceOffset;
+    }
+
+
+    /**
+     * Get the read but not yet processed work items in the reader / worker topology
+     *
+     * @return the work items or null
+     */
+    public List<Serializable> getPendingWorkItemList() {
+        return pendingWorkItemList;
+    }
+
+
+    /**
+     * Set the read but not yet processed work items in the reader / worker topology
+     *
+     * @param pendingWorkItemList the work items
+     */
+    public void setPendingWorkItemList(List<Serializable> pendingWorkItemList) {
+        this.pendingWorkItemList = pendingWorkItemList;
+    }
 }
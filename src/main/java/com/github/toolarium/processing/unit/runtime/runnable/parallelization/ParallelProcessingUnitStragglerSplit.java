@@ -0,0 +1,114 @@
+/*
+ * ParallelProcessingUnitStragglerSplit.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitSplitSupport;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnit.ProcessingUnitRunnerThread;
+import java.io.Serializable;
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Splits the remaining work of the slowest running thread (straggler) of the {@link ParallelProcessingUnit} to every ended
+ * thread: the ended thread takes over the split work and runs again. The processing unit has to implement
+ * {@link IProcessingUnitSplitSupport}.
+ *
+ * @author patrick
+ */
+class ParallelProcessingUnitStragglerSplit {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitStragglerSplit.class);
+    private final String processInfo;
+    private final DecimalFormat decimalFormatter;
+    private volatile long numberOfSplits;
+    private long lastNumberOfSplits;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitStragglerSplit
+     *
+     * @param processInfo the process information for the log
+     * @param decimalFormatter the decimal formatter
+     */
+    ParallelProcessingUnitStragglerSplit(String processInfo, DecimalFormat decimalFormatter) {
+        this.processInfo = processInfo;
+        this.decimalFormatter = decimalFormatter;
+        this.numberOfSplits = 0;
+        this.lastNumberOfSplits = 0;
+    }
+
+
+    /**
+     * Split the remaining work of the straggler to every ended thread
+     *
+     * @param runnerThreadList the runner threads
+     * @param runnerThreadLock the lock of the runner threads, the straggler can't end during the split as long as it is hold
+     * @param runnerThreadStarter starts the ended thread again, false in case it could not be started
+     */
+    void split(List<ProcessingUnitRunnerThread> runnerThreadList, Object runnerThreadLock, Predicate<ProcessingUnitRunnerThread> runnerThreadStarter) {
+        for (ProcessingUnitRunnerThread idleRunnerThread : runnerThreadList) {
+            if (!idleRunnerThread.hasEnded() || idleRunnerThread.isRunning()) {
+                continue;
+            }
+
+            synchronized (runnerThreadLock) {
+                // the straggler can't end during the split, the thread pool is not shutdown as long as it runs
+                ProcessingUnitRunnerThread straggler = null;
+                for (ProcessingUnitRunnerThread runnerThread : runnerThreadList) {
+                    if (runnerThread.isActive() && !runnerThread.hasEnded() && (straggler == null || runnerThread.getThroughput() < straggler.getThroughput())) {
+                        straggler = runnerThread;
+                    }
+                }
+
+                if (straggler == null) {
+                    return;
+                }
+
+                final Serializable splitWork = ((IProcessingUnitSplitSupport) straggler.getProcessingUnit()).splitRemainingWork();
+                if (splitWork == null) {
+                    return;
+                }
+
+                ((IProcessingUnitSplitSupport) idleRunnerThread.getProcessingUnit()).takeOverSplitWork(splitWork);
+                if (!runnerThreadStarter.test(idleRunnerThread)) {
+                    return;
+                }
+
+                numberOfSplits++;
+                LOG.debug(processInfo + " Split the remaining work of thread #" + straggler.getNumber() + " (" + decimalFormatter.format(straggler.getThroughput())
+                          + " units/s) to thread #" + idleRunnerThread.getNumber() + ".");
+            }
+        }
+    }
+
+
+    /**
+     * Get the number of splits
+     *
+     * @return the number of splits
+     */
+    long getNumberOfSplits() {
+        return numberOfSplits;
+    }
+
+
+    /**
+     * Add the number of splits since the last call to the statistic
+     *
+     * @param processingUnitStatusBuilder the processing unit status builder
+     */
+    void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        final long currentNumberOfSplits = numberOfSplits;
+        if (currentNumberOfSplits > 0) {
+            processingUnitStatusBuilder.statistic("stragglerSplits", currentNumberOfSplits - lastNumberOfSplits);
+            lastNumberOfSplits = currentNumberOfSplits;
+        }
+    }
+}
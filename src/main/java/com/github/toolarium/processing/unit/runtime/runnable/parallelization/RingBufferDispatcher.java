@@ -0,0 +1,274 @@
+/*
+ * RingBufferDispatcher.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Implements the dispatcher of the reader / worker topology by a pre-allocated ring buffer: the reader thread is the
+ * single publisher, all processing unit instances are workers which claim the next available sequences in batches.
+ *
+ * <p>The sequences are coordinated lock-free: the cursor is the last published sequence and the work sequence the
+ * last claimed sequence. A worker announces the work sequence it claims from before the claim and releases it after
+ * the work items are copied, the reader doesn't overwrite a slot before its sequence is claimed and released by all
+ * workers (sequence barrier).</p>
+ *
+ * @param <T> the type of the work items
+ * @author patrick
+ */
+public class RingBufferDispatcher<T extends Serializable> extends AbstractWorkItemDispatcher<T> {
+    private static final long POLL_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final long RELEASED = Long.MAX_VALUE;
+    private final Object[] entries;
+    private final int mask;
+    private final AtomicLong cursor;
+    private final AtomicLong workSequence;
+    private final AtomicLongArray workerSequences;
+    private final List<IProcessingUnitWorkItemQueue<T>> workerList;
+    private final RingBufferWaitStrategy waitStrategy;
+    private final AtomicLong numberOfReaderWaits;
+    private long cachedGatingSequence;
+    private volatile boolean isClosed;
+
+
+    /**
+     * Constructor for RingBufferDispatcher
+     *
+     * @param workItemSupport the work item support which defines the source of the work items
+     * @param numberOfWorkers the number of workers
+     * @param ringBufferSize the size of the ring buffer, it is rounded up to the next power of two
+     * @param readBlockSize the block size to read from the source
+     * @param waitStrategy the wait strategy
+     */
+    public RingBufferDispatcher(IProcessingUnitWorkItemSupport<T> workItemSupport, int numberOfWorkers, int ringBufferSize, int readBlockSize, RingBufferWaitStrategy waitStrategy) {
+        super(workItemSupport, readBlockSize);
+        final int size = Integer.highestOneBit(Math.max(1, ringBufferSize - 1)) << 1;
+        this.entries = new Object[size];
+        this.mask = size - 1;
+        this.cursor = new AtomicLong(-1);
+        this.workSequence = new AtomicLong(-1);
+        this.workerSequences = new AtomicLongArray(Math.max(1, numberOfWorkers));
+        this.workerList = new ArrayList<IProcessingUnitWorkItemQueue<T>>(workerSequences.length());
+        for (int i = 0; i < workerSequences.length(); i++) {
+            workerSequences.set(i, RELEASED);
+            workerList.add(new Worker(i));
+        }
+
+        if (waitStrategy != null) {
+            this.waitStrategy = waitStrategy;
+        } else {
+            this.waitStrategy = RingBufferWaitStrategy.PARK;
+        }
+
+        this.numberOfReaderWaits = new AtomicLong(0);
+        this.cachedGatingSequence = -1;
+        this.isClosed = false;
+    }
+
+
+    /**
+     * Get the size of the ring buffer
+     *
+     * @return the size
+     */
+    public int getRingBufferSize() {
+        return entries.length;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#getWorkItemQueue(int)
+     */
+    @Override
+    public IProcessingUnitWorkItemQueue<T> getWorkItemQueue(int index) {
+        return workerList.get(index);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#getQueueDepth()
+     */
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, cursor.get() - workSequence.get());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#addStatistic(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public void addStatistic(ProcessingUnitStatusBuilder processingUnitStatusBuilder) {
+        processingUnitStatusBuilder.statistic("ringBufferOccupancy", getQueueDepth());
+        processingUnitStatusBuilder.statistic("ringBufferReaderWaits", numberOfReaderWaits.getAndSet(0));
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#publish(java.io.Serializable)
+     */
+    @Override
+    protected boolean publish(T workItem) {
+        final long next = cursor.get() + 1;
+        final long wrapPoint = next - entries.length;
+
+        int counter = 0;
+        while (wrapPoint > cachedGatingSequence) {
+            cachedGatingSequence = getMinimumSequence();
+            if (wrapPoint <= cachedGatingSequence) {
+                break;
+            }
+
+            if (isStopped()) {
+                return false;
+            }
+
+            if (counter == 0) {
+                numberOfReaderWaits.incrementAndGet();
+            }
+            counter = waitStrategy.idle(counter);
+        }
+
+        entries[(int) (next & mask)] = workItem;
+        cursor.set(next);
+        return true;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#drainTo(java.util.List)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void drainTo(List<T> workItemList) {
+        final long end = cursor.get();
+        for (long sequence = workSequence.get() + 1; sequence <= end; sequence++) {
+            workItemList.add((T) entries[(int) (sequence & mask)]);
+        }
+        workSequence.set(end);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.parallelization.AbstractWorkItemDispatcher#close()
+     */
+    @Override
+    protected void close() {
+        isClosed = true;
+    }
+
+
+    /**
+     * Get the first sequence of the last claimed work items of a worker, it has to be called by the thread of the worker
+     *
+     * @param index the index of the worker
+     * @return the first sequence of the last claim or -1
+     */
+    @SuppressWarnings("unchecked")
+    protected long getLastClaimedSequence(int index) {
+        return ((Worker) workerList.get(index)).lastClaimedSequence;
+    }
+
+
+    /**
+     * Get the minimum sequence which is claimed and released by all workers. The work sequence has to be read before
+     * the worker sequences: a worker announces its sequence before it claims.
+     *
+     * @return the minimum sequence
+     */
+    private long getMinimumSequence() {
+        long minimum = workSequence.get();
+        for (int i = 0; i < workerSequences.length(); i++) {
+            minimum = Math.min(minimum, workerSequences.get(i));
+        }
+        return minimum;
+    }
+
+
+    /**
+     * Defines a worker of the ring buffer which claims the work items in batches
+     */
+    class Worker implements IProcessingUnitWorkItemQueue<T> {
+        private final int index;
+        private long lastClaimedSequence;
+
+
+        /**
+         * Constructor for Worker
+         *
+         * @param index the index of the worker
+         */
+        Worker(int index) {
+            this.index = index;
+            this.lastClaimedSequence = -1;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#poll(int)
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<T> poll(int maxNumberOfWorkItems) {
+            final long deadline = System.nanoTime() + POLL_TIMEOUT;
+            final int batchSize = Math.max(1, maxNumberOfWorkItems);
+            int counter = 0;
+
+            while (true) {
+                final long current = workSequence.get();
+                workerSequences.set(index, current);
+
+                final long available = cursor.get();
+                if (available > current) {
+                    final long end = Math.min(available, current + batchSize);
+                    if (workSequence.compareAndSet(current, end)) {
+                        final List<T> result = new ArrayList<T>((int) (end - current));
+                        for (long sequence = current + 1; sequence <= end; sequence++) {
+                            result.add((T) entries[(int) (sequence & mask)]);
+                        }
+
+                        workerSequences.set(index, RELEASED);
+                        lastClaimedSequence = current + 1;
+                        return result;
+                    }
+
+                    // another worker claimed in between
+                    continue;
+                }
+
+                workerSequences.set(index, RELEASED);
+                if (isClosed && workSequence.get() >= cursor.get()) {
+                    return null;
+                }
+
+                if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                    return Collections.emptyList();
+                }
+
+                counter = waitStrategy.idle(counter);
+            }
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue#size()
+         */
+        @Override
+        public int size() {
+            return (int) getQueueDepth();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * RingBufferWaitStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Defines how the reader and the workers of the {@link RingBufferDispatcher} wait in case there is no space or no
+ * work item available.
+ *
+ * @author patrick
+ */
+public enum RingBufferWaitStrategy {
+    /** BUSY_SPIN: spins, the lowest latency but it keeps the processor busy */
+    BUSY_SPIN("busySpin"),
+
+    /** YIELD: spins a short time and yields afterwards */
+    YIELD("yield"),
+
+    /** PARK: spins, yields and parks afterwards, the lowest processor usage */
+    PARK("park");
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 100_000L;
+    private final String name;
+
+
+    /**
+     * Constructor for RingBufferWaitStrategy
+     *
+     * @param name the name
+     */
+    RingBufferWaitStrategy(String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * Get the name which is used as parameter value
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * Wait once
+     *
+     * @param counter the number of waits before without any change
+     * @return the new counter
+     */
+    public int idle(int counter) {
+        if (this == BUSY_SPIN || counter < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (this == YIELD || counter < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+
+        if (counter == Integer.MAX_VALUE) {
+            return counter;
+        }
+
+        return counter + 1;
+    }
+
+
+    /**
+     * Get the wait strategy by its name
+     *
+     * @param name the name
+     * @return the wait strategy or null in case it is unknown
+     */
+    public static RingBufferWaitStrategy parse(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        for (RingBufferWaitStrategy waitStrategy : values()) {
+            if (waitStrategy.getName().equalsIgnoreCase(name.trim()) || waitStrategy.name().equalsIgnoreCase(name.trim())) {
+                return waitStrategy;
+            }
+        }
+
+        return null;
+    }
+}
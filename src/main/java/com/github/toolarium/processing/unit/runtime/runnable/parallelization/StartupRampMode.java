@@ -0,0 +1,66 @@
+/*
+ * StartupRampMode.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+
+/**
+ * Defines how the {@link ParallelProcessingUnit} starts its threads.
+ *
+ * @author patrick
+ */
+public enum StartupRampMode {
+    /** NONE: all threads are started at once */
+    NONE("none"),
+
+    /** FIXED: the threads are started one by one with the startup phased sleep time in between */
+    FIXED("fixed"),
+
+    /** ADAPTIVE: a first wave is started, further threads are added as long as the throughput increases */
+    ADAPTIVE("adaptive");
+
+    private final String name;
+
+
+    /**
+     * Constructor for StartupRampMode
+     *
+     * @param name the name
+     */
+    StartupRampMode(String name) {
+        this.name = name;
+    }
+
+
+    /**
+     * Get the name which is used as parameter value
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * Get the startup ramp mode by its name
+     *
+     * @param name the name
+     * @return the startup ramp mode or null in case it is unknown
+     */
+    public static StartupRampMode parse(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        for (StartupRampMode startupRampMode : values()) {
+            if (startupRampMode.getName().equalsIgnoreCase(name.trim()) || startupRampMode.name().equalsIgnoreCase(name.trim())) {
+                return startupRampMode;
+            }
+        }
+
+        return null;
+    }
+}
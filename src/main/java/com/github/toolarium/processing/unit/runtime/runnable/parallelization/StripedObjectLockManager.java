@@ -0,0 +1,728 @@
+/*
+ * StripedObjectLockManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.parallelization;
+
+import com.github.toolarium.common.object.IObjectLockManager;
+import com.github.toolarium.common.statistic.StatisticCounter;
+import com.github.toolarium.processing.unit.runtime.jfr.ObjectLockEvent;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import jdk.jfr.EventType;
+
+
+/**
+ * Implements an object lock manager for a high number of threads. The objects are distributed by their hash over
+ * segments, every segment is an open addressing table where an object is claimed and released by a compare and swap
+ * of its slot without any monitor. A table which runs full is migrated slot by slot to a new table, threads which meet
+ * a migrated slot wait until the new table is published.
+ *
+ * <p>An unlocked object can't be locked again within the unlock timeout. Instead of comparing a timestamp on every lock,
+ * the unlocked objects are registered in a time wheel: the buckets of expired ticks are released in bulk by the thread
+ * which first notices the next tick.</p>
+ *
+ * <p>The statistics correspond to the ones of the {@link com.github.toolarium.common.object.ObjectLockManager}. The
+ * lock state is not serialized, a deserialized instance starts without locked objects.</p>
+ *
+ * @author patrick
+ */
+public class StripedObjectLockManager implements IObjectLockManager, Serializable {
+    private static final long serialVersionUID = -3542367817250815432L;
+    private static final int MIN_TABLE_SIZE = 64;
+    private static final int NUMBER_OF_TICKS_PER_TIMEOUT = 8;
+    private static final int LOCKED = 0;
+    private static final int ALREADY_LOCKED = 1;
+    private static final int BLOCKED = 2;
+    private static final Object TOMBSTONE = new Object();
+    private static final Object MOVED = new Object();
+    private static final EventType OBJECT_LOCK_EVENT_TYPE = EventType.getEventType(ObjectLockEvent.class);
+    private final int numberOfSegments;
+    private final StatisticCounter lockStatistic;
+    private final StatisticCounter ignoreLockStatistic;
+    private final StatisticCounter unlockStatistic;
+    private final AtomicLong numberOfLockSizeReached;
+    private volatile int objectLockSize;
+    private volatile Long unlockTimeout;
+    private transient Segment[] segments;
+    private transient volatile TimeWheel timeWheel;
+
+
+    /**
+     * Constructor for StripedObjectLockManager with a number of segments depending on the available processors
+     */
+    public StripedObjectLockManager() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Constructor for StripedObjectLockManager
+     *
+     * @param numberOfSegments the number of segments, it is rounded up to a power of two
+     */
+    public StripedObjectLockManager(int numberOfSegments) {
+        this.numberOfSegments = toPowerOfTwo(Math.max(1, numberOfSegments));
+        this.lockStatistic = new StatisticCounter();
+        this.ignoreLockStatistic = new StatisticCounter();
+        this.unlockStatistic = new StatisticCounter();
+        this.numberOfLockSizeReached = new AtomicLong(0);
+        this.objectLockSize = 0;
+        this.unlockTimeout = null;
+        initialize();
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#lock(java.util.List)
+     */
+    @Override
+    public <T> List<T> lock(List<T> objectList) {
+        // the event is only created in case it is recorded
+        ObjectLockEvent objectLockEvent = null;
+        if (OBJECT_LOCK_EVENT_TYPE.isEnabled()) {
+            objectLockEvent = new ObjectLockEvent();
+            objectLockEvent.begin();
+        }
+        final List<T> result = new ArrayList<T>();
+        int numberOfAlreadyLocked = 0;
+        int numberOfBlocked = 0;
+
+        if (objectList != null && !objectList.isEmpty()) {
+            final TimeWheel currentTimeWheel = timeWheel;
+            if (currentTimeWheel != null) {
+                currentTimeWheel.advance(System.currentTimeMillis());
+            }
+
+            final int lockSize = objectLockSize;
+            for (T object : objectList) {
+                if (lockSize > 0 && result.size() >= lockSize) {
+                    numberOfLockSizeReached.incrementAndGet();
+                    break;
+                }
+
+                if (object != null) {
+                    final int hash = spread(object.hashCode());
+                    final int lockResult = getSegment(hash).lock(object, hash);
+                    if (lockResult == LOCKED) {
+                        result.add(object);
+                    } else if (lockResult == ALREADY_LOCKED) {
+                        numberOfAlreadyLocked++;
+                    } else {
+                        numberOfBlocked++;
+                    }
+                }
+            }
+        }
+
+        lockStatistic.add(result.size());
+        ignoreLockStatistic.add(numberOfAlreadyLocked);
+        unlockStatistic.add(numberOfBlocked);
+        if (objectLockEvent != null) {
+            objectLockEvent.end();
+            objectLockEvent.commit((objectList != null) ? objectList.size() : 0, result.size(), numberOfAlreadyLocked, numberOfBlocked);
+        }
+        return result;
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#unlock(java.util.List)
+     */
+    @Override
+    public <T> void unlock(List<T> objectList) {
+        if (objectList == null || objectList.isEmpty()) {
+            return;
+        }
+
+        final TimeWheel currentTimeWheel = timeWheel;
+        long tick = 0;
+        if (currentTimeWheel != null) {
+            final long now = System.currentTimeMillis();
+            currentTimeWheel.advance(now);
+            tick = currentTimeWheel.getTick(now);
+        }
+
+        for (T object : objectList) {
+            if (object != null) {
+                final int hash = spread(object.hashCode());
+                final Entry entry = getSegment(hash).unlock(object, hash, tick, currentTimeWheel != null);
+                if (entry != null) {
+                    currentTimeWheel.add(entry);
+                    if (timeWheel != currentTimeWheel && currentTimeWheel.remove(entry)) {
+                        // the time wheel was replaced and possibly already released, release the object like the other objects of the previous time wheel
+                        getSegment(hash).expire(entry);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#setObjectLockSize(int)
+     */
+    @Override
+    public void setObjectLockSize(int objectLockSize) {
+        this.objectLockSize = objectLockSize;
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#setUnlockTimeout(java.lang.Long)
+     */
+    @Override
+    public void setUnlockTimeout(Long unlockTimeout) {
+        this.unlockTimeout = unlockTimeout;
+
+        final TimeWheel previousTimeWheel = timeWheel;
+        if (unlockTimeout != null && unlockTimeout.longValue() > 0) {
+            timeWheel = new TimeWheel(unlockTimeout.longValue(), System.currentTimeMillis());
+        } else {
+            timeWheel = null;
+        }
+
+        if (previousTimeWheel != null) {
+            // the objects of the previous time wheel are released immediately
+            previousTimeWheel.expireAll();
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#getLockStatistic()
+     */
+    @Override
+    public StatisticCounter getLockStatistic() {
+        return lockStatistic;
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#getIgnoreLockStatistic()
+     */
+    @Override
+    public StatisticCounter getIgnoreLockStatistic() {
+        return ignoreLockStatistic;
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#getUnlockStatistic()
+     */
+    @Override
+    public StatisticCounter getUnlockStatistic() {
+        return unlockStatistic;
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#getNumberOfLockSizeReached()
+     */
+    @Override
+    public long getNumberOfLockSizeReached() {
+        return numberOfLockSizeReached.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.common.object.IObjectLockManager#releaseResource()
+     */
+    @Override
+    public void releaseResource() {
+        initialize();
+    }
+
+
+    /**
+     * Get the number of segments
+     *
+     * @return the number of segments
+     */
+    public int getNumberOfSegments() {
+        return numberOfSegments;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "StripedObjectLockManager [numberOfSegments=" + numberOfSegments + ", objectLockSize=" + objectLockSize + ", unlockTimeout=" + unlockTimeout + "]";
+    }
+
+
+    /**
+     * Initialize the segments and the time wheel
+     */
+    private void initialize() {
+        final Segment[] newSegments = new Segment[numberOfSegments];
+        for (int i = 0; i < newSegments.length; i++) {
+            newSegments[i] = new Segment();
+        }
+        segments = newSegments;
+
+        if (unlockTimeout != null && unlockTimeout.longValue() > 0) {
+            timeWheel = new TimeWheel(unlockTimeout.longValue(), System.currentTimeMillis());
+        } else {
+            timeWheel = null;
+        }
+    }
+
+
+    /**
+     * Get the segment of a hash
+     *
+     * @param hash the spread hash
+     * @return the segment
+     */
+    private Segment getSegment(int hash) {
+        return segments[(hash >>> 16) & (numberOfSegments - 1)];
+    }
+
+
+    /**
+     * Spread the hash code
+     *
+     * @param hashCode the hash code
+     * @return the spread hash
+     */
+    private static int spread(int hashCode) {
+        final int hash = hashCode * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+
+    /**
+     * Round up to a power of two
+     *
+     * @param value the value
+     * @return the power of two
+     */
+    private static int toPowerOfTwo(int value) {
+        int result = 1;
+        while (result < value && result < (1 << 30)) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+
+    /**
+     * Restore the transient state after the deserialization
+     *
+     * @param in the input stream
+     * @throws IOException In case of an I/O error
+     * @throws ClassNotFoundException In case of a class which can't be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initialize();
+    }
+
+
+    /**
+     * Defines a slot entry: a locked object or an unlocked object which is blocked until its tick expires.
+     */
+    static final class Entry {
+        private static final long LOCKED_TICK = -1;
+        private final Object object;
+        private final int hash;
+        private final long unlockTick;
+
+
+        /**
+         * Constructor for Entry
+         *
+         * @param object the object
+         * @param hash the spread hash
+         * @param unlockTick the tick of the unlock or -1 in case it is locked
+         */
+        Entry(Object object, int hash, long unlockTick) {
+            this.object = object;
+            this.hash = hash;
+            this.unlockTick = unlockTick;
+        }
+
+
+        /**
+         * Check if the object is locked
+         *
+         * @return true if it is locked
+         */
+        boolean isLocked() {
+            return unlockTick == LOCKED_TICK;
+        }
+    }
+
+
+    /**
+     * Defines the open addressing table of a segment
+     */
+    static final class Table {
+        private final AtomicReferenceArray<Object> slots;
+        private final AtomicInteger numberOfUsedSlots;
+        private final AtomicBoolean isMigrating;
+        private final int threshold;
+
+
+        /**
+         * Constructor for Table
+         *
+         * @param size the size, a power of two
+         */
+        Table(int size) {
+            this.slots = new AtomicReferenceArray<Object>(size);
+            this.numberOfUsedSlots = new AtomicInteger(0);
+            this.isMigrating = new AtomicBoolean(false);
+            this.threshold = size - (size >>> 2);
+        }
+    }
+
+
+    /**
+     * Defines a segment
+     */
+    static final class Segment {
+        private volatile Table table;
+
+
+        /**
+         * Constructor for Segment
+         */
+        Segment() {
+            this.table = new Table(MIN_TABLE_SIZE);
+        }
+
+
+        /**
+         * Lock an object
+         *
+         * @param object the object
+         * @param hash the spread hash
+         * @return the result: locked, already locked or blocked
+         */
+        int lock(Object object, int hash) {
+            while (true) {
+                final Table currentTable = table;
+                final AtomicReferenceArray<Object> slots = currentTable.slots;
+                final int mask = slots.length() - 1;
+                int index = hash & mask;
+                int probe = 0;
+
+                while (probe <= mask) {
+                    final Object current = slots.get(index);
+                    if (current == MOVED) {
+                        break;
+                    }
+
+                    if (current == null) {
+                        if (currentTable.numberOfUsedSlots.get() >= currentTable.threshold) {
+                            break;
+                        }
+
+                        if (slots.compareAndSet(index, null, new Entry(object, hash, Entry.LOCKED_TICK))) {
+                            currentTable.numberOfUsedSlots.incrementAndGet();
+                            return LOCKED;
+                        }
+
+                        // the slot was taken in the meantime, read it again
+                        continue;
+                    }
+
+                    if (current != TOMBSTONE) {
+                        final Entry entry = (Entry) current;
+                        if (entry.hash == hash && entry.object.equals(object)) {
+                            if (entry.isLocked()) {
+                                return ALREADY_LOCKED;
+                            }
+                            return BLOCKED;
+                        }
+                    }
+
+                    index = (index + 1) & mask;
+                    probe++;
+                }
+
+                migrate(currentTable);
+            }
+        }
+
+
+        /**
+         * Unlock an object
+         *
+         * @param object the object
+         * @param hash the spread hash
+         * @param tick the current tick of the time wheel
+         * @param isBlocked true if the object is blocked until the unlock timeout expires
+         * @return the entry of the blocked object or null
+         */
+        Entry unlock(Object object, int hash, long tick, boolean isBlocked) {
+            while (true) {
+                final Table currentTable = table;
+                final AtomicReferenceArray<Object> slots = currentTable.slots;
+                final int mask = slots.length() - 1;
+                int index = hash & mask;
+                int probe = 0;
+                boolean isMoved = false;
+
+                while (probe <= mask) {
+                    final Object current = slots.get(index);
+                    if (current == null) {
+                        return null;
+                    }
+
+                    if (current == MOVED) {
+                        isMoved = true;
+                        break;
+                    }
+
+                    if (current != TOMBSTONE) {
+                        final Entry entry = (Entry) current;
+                        if (entry.hash == hash && entry.object.equals(object)) {
+                            if (!entry.isLocked()) {
+                                return null;
+                            }
+
+                            final Entry blockedEntry;
+                            if (isBlocked) {
+                                blockedEntry = new Entry(entry.object, hash, tick);
+                            } else {
+                                blockedEntry = null;
+                            }
+
+                            if (slots.compareAndSet(index, current, (blockedEntry != null) ? blockedEntry : TOMBSTONE)) {
+                                return blockedEntry;
+                            }
+
+                            // the slot was changed in the meantime, read it again
+                            continue;
+                        }
+                    }
+
+                    index = (index + 1) & mask;
+                    probe++;
+                }
+
+                if (!isMoved) {
+                    return null;
+                }
+
+                migrate(currentTable);
+            }
+        }
+
+
+        /**
+         * Release a blocked object
+         *
+         * @param entry the entry of the blocked object
+         */
+        void expire(Entry entry) {
+            while (true) {
+                final Table currentTable = table;
+                final AtomicReferenceArray<Object> slots = currentTable.slots;
+                final int mask = slots.length() - 1;
+                int index = entry.hash & mask;
+                int probe = 0;
+                boolean isMoved = false;
+
+                while (probe <= mask) {
+                    final Object current = slots.get(index);
+                    if (current == null) {
+                        return;
+                    }
+
+                    if (current == MOVED) {
+                        isMoved = true;
+                        break;
+                    }
+
+                    if (current == entry) {
+                        if (slots.compareAndSet(index, entry, TOMBSTONE)) {
+                            return;
+                        }
+                        continue;
+                    }
+
+                    index = (index + 1) & mask;
+                    probe++;
+                }
+
+                if (!isMoved) {
+                    return;
+                }
+
+                migrate(currentTable);
+            }
+        }
+
+
+        /**
+         * Migrate a table to a new table without the released slots. In case another thread migrates the table, the
+         * call waits until the new table is published.
+         *
+         * @param currentTable the table to migrate
+         */
+        private void migrate(Table currentTable) {
+            if (table != currentTable) {
+                return;
+            }
+
+            if (!currentTable.isMigrating.compareAndSet(false, true)) {
+                while (table == currentTable) {
+                    Thread.onSpinWait();
+                }
+                return;
+            }
+
+            final AtomicReferenceArray<Object> slots = currentTable.slots;
+            final List<Entry> entryList = new ArrayList<Entry>();
+            for (int i = 0; i < slots.length(); i++) {
+                Object current = slots.get(i);
+                while (!slots.compareAndSet(i, current, MOVED)) {
+                    current = slots.get(i);
+                }
+
+                if (current != null && current != TOMBSTONE) {
+                    entryList.add((Entry) current);
+                }
+            }
+
+            final Table newTable = new Table(toPowerOfTwo(Math.max(MIN_TABLE_SIZE, 4 * entryList.size())));
+            final int mask = newTable.slots.length() - 1;
+            for (Entry entry : entryList) {
+                int index = entry.hash & mask;
+                while (newTable.slots.get(index) != null) {
+                    index = (index + 1) & mask;
+                }
+                newTable.slots.set(index, entry);
+            }
+            newTable.numberOfUsedSlots.set(entryList.size());
+            table = newTable;
+        }
+    }
+
+
+    /**
+     * Defines the time wheel of the blocked objects
+     */
+    final class TimeWheel {
+        private final long tickDuration;
+        private final long numberOfTicksPerTimeout;
+        private final List<ConcurrentLinkedQueue<Entry>> bucketList;
+        private final AtomicLong expiredTick;
+
+
+        /**
+         * Constructor for TimeWheel
+         *
+         * @param unlockTimeout the unlock timeout in milliseconds
+         * @param now the current time
+         */
+        TimeWheel(long unlockTimeout, long now) {
+            this.tickDuration = Math.max(1, unlockTimeout / NUMBER_OF_TICKS_PER_TIMEOUT);
+            this.numberOfTicksPerTimeout = (unlockTimeout + tickDuration - 1) / tickDuration;
+            this.bucketList = new ArrayList<ConcurrentLinkedQueue<Entry>>();
+            for (int i = 0; i < numberOfTicksPerTimeout + 2; i++) {
+                bucketList.add(new ConcurrentLinkedQueue<Entry>());
+            }
+            this.expiredTick = new AtomicLong(getTick(now) - numberOfTicksPerTimeout - 1);
+        }
+
+
+        /**
+         * Get the tick of a time
+         *
+         * @param time the time in milliseconds
+         * @return the tick
+         */
+        long getTick(long time) {
+            return time / tickDuration;
+        }
+
+
+        /**
+         * Add a blocked object
+         *
+         * @param entry the entry of the blocked object
+         */
+        void add(Entry entry) {
+            getBucket(entry.unlockTick).add(entry);
+        }
+
+
+        /**
+         * Remove a blocked object which is not yet released
+         *
+         * @param entry the entry of the blocked object
+         * @return true if it was removed, false in case it is already released
+         */
+        boolean remove(Entry entry) {
+            return getBucket(entry.unlockTick).remove(entry);
+        }
+
+
+        /**
+         * Advance the time wheel: the objects of all expired ticks are released. Only one thread releases a tick.
+         *
+         * @param now the current time
+         */
+        void advance(long now) {
+            final long lastExpiredTick = expiredTick.get();
+            final long tickToExpire = getTick(now) - numberOfTicksPerTimeout - 1;
+            if (tickToExpire <= lastExpiredTick || !expiredTick.compareAndSet(lastExpiredTick, tickToExpire)) {
+                return;
+            }
+
+            final long firstTick = Math.max(lastExpiredTick + 1, tickToExpire - bucketList.size() + 1);
+            for (long tick = firstTick; tick <= tickToExpire; tick++) {
+                final Iterator<Entry> it = getBucket(tick).iterator();
+                while (it.hasNext()) {
+                    final Entry entry = it.next();
+                    if (entry.unlockTick <= tickToExpire) {
+                        it.remove();
+                        getSegment(entry.hash).expire(entry);
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Release all blocked objects
+         */
+        void expireAll() {
+            for (ConcurrentLinkedQueue<Entry> bucket : bucketList) {
+                Entry entry = bucket.poll();
+                while (entry != null) {
+                    getSegment(entry.hash).expire(entry);
+                    entry = bucket.poll();
+                }
+            }
+        }
+
+
+        /**
+         * Get the bucket of a tick
+         *
+         * @param tick the tick
+         * @return the bucket
+         */
+        private ConcurrentLinkedQueue<Entry> getBucket(long tick) {
+            return bucketList.get((int) Math.floorMod(tick, (long) bucketList.size()));
+        }
+    }
+}
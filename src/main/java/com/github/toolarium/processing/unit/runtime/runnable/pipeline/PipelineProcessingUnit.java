@@ -0,0 +1,556 @@
+/*
+ * PipelineProcessingUnit.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.pipeline;
+
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSink;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitStage;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements a pipeline processing unit which is composed of an {@link IProcessingUnitSource}, an {@link IProcessingUnitStage}
+ * and an {@link IProcessingUnitSink}. The source is read in blocks by a reader thread, the stage processes the blocks with
+ * the defined parallelism and the sink writes the results in the order of the source. Between the reader and the sink the
+ * number of blocks is bounded by the buffer size. The progress is counted at the sink and in case of a suspend the offset
+ * of the last written block is persisted, all blocks which are not yet written are read again after a resume.
+ *
+ * @param <T> the type of the source elements
+ * @param <R> the type of the results
+ * @author patrick
+ */
+public abstract class PipelineProcessingUnit<T, R> extends AbstractProcessingUnitPersistenceImpl<PipelineProcessingUnitPersistence> implements PipelineProcessingUnitParameters {
+    private static final Logger LOG = LoggerFactory.getLogger(PipelineProcessingUnit.class);
+    private IProcessingUnitSource<T> source;
+    private IProcessingUnitStage<T, R> stage;
+    private IProcessingUnitSink<R> sink;
+    private ExecutorService readerExecutorService;
+    private ExecutorService stageExecutorService;
+    private BlockingQueue<Future<PipelineBlock<R>>> blockQueue;
+    private Serializable committedSourceOffset;
+    private volatile boolean isInterrupted;
+
+
+    /**
+     * Constructor for PipelineProcessingUnit
+     */
+    protected PipelineProcessingUnit() {
+        this.source = null;
+        this.stage = null;
+        this.sink = null;
+        this.readerExecutorService = null;
+        this.stageExecutorService = null;
+        this.blockQueue = null;
+        this.committedSourceOffset = null;
+        this.isInterrupted = false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(PIPELINE_BLOCK_SIZE);
+        getParameterRuntime().addParameterDefinition(PIPELINE_BUFFER_SIZE);
+        getParameterRuntime().addParameterDefinition(PIPELINE_STAGE_PARALLELISM);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initialize(java.util.List, com.github.toolarium.processing.unit.IProcessingUnitContext)
+     */
+    @Override
+    public void initialize(List<Parameter> parameterList, IProcessingUnitContext processingUnitContext) throws ValidationException, ProcessingException {
+        super.initialize(parameterList, processingUnitContext);
+
+        this.source = createSource();
+        this.stage = createStage();
+        this.sink = createSink();
+
+        if (source == null || stage == null || sink == null) {
+            throw new ValidationException("Invalid pipeline, source, stage and sink must be defined!");
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() throws ProcessingException {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(source.estimateNumberOfUnits());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        if (!isPipelineStarted()) {
+            startPipeline();
+        }
+
+        final PipelineBlock<R> block = takeNextBlock();
+        if (block == null) {
+            return processingUnitStatusBuilder.hasNext(!isInterrupted).build();
+        }
+
+        if (block.isEnd()) {
+            sink.flush();
+            committedSourceOffset = block.getSourceOffset();
+            return processingUnitStatusBuilder.hasEnded().build();
+        }
+
+        if (!block.getResultList().isEmpty()) {
+            sink.write(block.getResultList());
+        }
+
+        // the block is written, the units are processed
+        committedSourceOffset = block.getSourceOffset();
+        processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits(block.getNumberOfSuccessfulUnits());
+        if (block.getNumberOfFailedUnits() > 0) {
+            processingUnitStatusBuilder.increaseNumberOfFailedUnits(block.getNumberOfFailedUnits());
+            for (String message : block.getMessageList()) {
+                processingUnitStatusBuilder.warn(message);
+            }
+        }
+
+        return processingUnitStatusBuilder.statistic("pipelineBufferedBlocks", Long.valueOf(blockQueue.size())).hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#onAborting()
+     */
+    @Override
+    public void onAborting() {
+        stopPipeline();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        stopPipeline();
+
+        if (sink != null) {
+            sink.flush();
+        }
+
+        getProcessingPersistence().setSourceOffset(committedSourceOffset);
+        return super.suspendProcessing();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#resumeProcessing(com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    public void resumeProcessing(IProcessingUnitProgress processingUnitProgress, IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        super.resumeProcessing(processingUnitProgress, processingPersistence);
+        committedSourceOffset = getProcessingPersistence().getSourceOffset();
+        removePersistenceInstance();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        super.releaseResource();
+        stopPipeline();
+
+        if (source != null) {
+            try {
+                source.close();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not close pipeline source: " + e.getMessage(), e);
+            }
+            source = null;
+        }
+
+        if (sink != null) {
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                LOG.warn("Could not close pipeline sink: " + e.getMessage(), e);
+            }
+            sink = null;
+        }
+
+        stage = null;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#newPersistenceInstance()
+     */
+    @Override
+    protected PipelineProcessingUnitPersistence newPersistenceInstance() {
+        return new PipelineProcessingUnitPersistence();
+    }
+
+
+    /**
+     * Create the source of the pipeline. It will be called once during the initialization.
+     *
+     * @return the source
+     * @throws ProcessingException In case the source can't be created
+     */
+    protected abstract IProcessingUnitSource<T> createSource() throws ProcessingException;
+
+
+    /**
+     * Create the stage of the pipeline. It will be called once during the initialization. Multiple stages can be
+     * composed by {@link IProcessingUnitStage#andThen(IProcessingUnitStage)}.
+     *
+     * @return the stage
+     * @throws ProcessingException In case the stage can't be created
+     */
+    protected abstract IProcessingUnitStage<T, R> createStage() throws ProcessingException;
+
+
+    /**
+     * Create the sink of the pipeline. It will be called once during the initialization.
+     *
+     * @return the sink
+     * @throws ProcessingException In case the sink can't be created
+     */
+    protected abstract IProcessingUnitSink<R> createSink() throws ProcessingException;
+
+
+    /**
+     * Start the pipeline: open the source and start the reader and stage threads.
+     */
+    protected void startPipeline() {
+        if (isPipelineStarted()) {
+            return;
+        }
+
+        final int blockSize = Math.max(1, getParameterRuntime().getParameterValueList(PIPELINE_BLOCK_SIZE).getValueAsInteger());
+        final int bufferSize = Math.max(1, getParameterRuntime().getParameterValueList(PIPELINE_BUFFER_SIZE).getValueAsInteger());
+        final int stageParallelism = Math.max(1, getParameterRuntime().getParameterValueList(PIPELINE_STAGE_PARALLELISM).getValueAsInteger());
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Start pipeline (block size: " + blockSize + ", buffer size: " + bufferSize + ", stage parallelism: " + stageParallelism + ")...");
+        }
+
+        source.open(committedSourceOffset);
+        isInterrupted = false;
+        blockQueue = new ArrayBlockingQueue<Future<PipelineBlock<R>>>(bufferSize);
+
+        final String threadName = getClass().getName() + ": Pipeline (Parent: " + Thread.currentThread().getName() + ")";
+        stageExecutorService = Executors.newFixedThreadPool(stageParallelism, new PipelineThreadFactory(threadName + " stage"));
+        readerExecutorService = Executors.newSingleThreadExecutor(new PipelineThreadFactory(threadName + " reader"));
+        readerExecutorService.execute(new PipelineReader(blockSize));
+        readerExecutorService.shutdown();
+    }
+
+
+    /**
+     * Stop the pipeline: all buffered blocks which are not written are discarded.
+     */
+    protected void stopPipeline() {
+        if (!isPipelineStarted()) {
+            return;
+        }
+
+        isInterrupted = true;
+        readerExecutorService.shutdownNow();
+        stageExecutorService.shutdownNow();
+
+        try {
+            readerExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+            stageExecutorService.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Pipeline stopped, discard " + blockQueue.size() + " buffered blocks.");
+        }
+
+        blockQueue.clear();
+        readerExecutorService = null;
+        stageExecutorService = null;
+    }
+
+
+    /**
+     * Check if the pipeline is started
+     *
+     * @return true if it is started
+     */
+    protected boolean isPipelineStarted() {
+        return readerExecutorService != null;
+    }
+
+
+    /**
+     * Take the next block in the order of the source
+     *
+     * @return the next block or null in case of an interrupt
+     * @throws ProcessingException In case the block could not be read or processed
+     */
+    private PipelineBlock<R> takeNextBlock() throws ProcessingException {
+        try {
+            return blockQueue.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new ProcessingException("Could not process pipeline block: " + e.getCause().getMessage(), e.getCause(), true);
+        }
+    }
+
+
+    /**
+     * Process a block by the stage
+     *
+     * @param inputList the input list
+     * @param sourceOffset the source offset after the block
+     * @return the processed block
+     */
+    private PipelineBlock<R> processBlock(List<T> inputList, Serializable sourceOffset) {
+        final PipelineBlock<R> block = new PipelineBlock<R>(sourceOffset, false);
+        for (T input : inputList) {
+            try {
+                final R result = stage.process(input);
+                if (result != null) {
+                    block.getResultList().add(result);
+                }
+                block.increaseNumberOfSuccessfulUnits();
+            } catch (ProcessingException e) {
+                if (e.abortProcessing()) {
+                    throw e;
+                }
+
+                block.increaseNumberOfFailedUnits();
+                block.getMessageList().add(e.getMessage());
+            }
+        }
+
+        return block;
+    }
+
+
+    /**
+     * Defines the pipeline reader which reads the source and hands over the blocks to the stage
+     */
+    class PipelineReader implements Runnable {
+        private final int blockSize;
+
+
+        /**
+         * Constructor for PipelineReader
+         *
+         * @param blockSize the block size
+         */
+        PipelineReader(int blockSize) {
+            this.blockSize = blockSize;
+        }
+
+
+        /**
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            try {
+                while (!isInterrupted && !Thread.currentThread().isInterrupted()) {
+                    final List<T> inputList = source.read(blockSize);
+                    final Serializable sourceOffset = source.getOffset();
+                    if (inputList == null || inputList.isEmpty()) {
+                        blockQueue.put(CompletableFuture.completedFuture(new PipelineBlock<R>(sourceOffset, true)));
+                        return;
+                    }
+
+                    blockQueue.put(stageExecutorService.submit(() -> processBlock(inputList, sourceOffset)));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                if (!isInterrupted) {
+                    try {
+                        blockQueue.put(CompletableFuture.failedFuture(e));
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Defines a processed block of the pipeline
+     *
+     * @param <R> the type of the results
+     */
+    static class PipelineBlock<R> {
+        private final Serializable sourceOffset;
+        private final boolean isEnd;
+        private final List<R> resultList;
+        private final List<String> messageList;
+        private long numberOfSuccessfulUnits;
+        private long numberOfFailedUnits;
+
+
+        /**
+         * Constructor for PipelineBlock
+         *
+         * @param sourceOffset the source offset after this block
+         * @param isEnd true if it marks the end of the source
+         */
+        PipelineBlock(Serializable sourceOffset, boolean isEnd) {
+            this.sourceOffset = sourceOffset;
+            this.isEnd = isEnd;
+            this.resultList = new ArrayList<R>();
+            this.messageList = new ArrayList<String>();
+            this.numberOfSuccessfulUnits = 0;
+            this.numberOfFailedUnits = 0;
+        }
+
+
+        /**
+         * Get the source offset after this block
+         *
+         * @return the source offset
+         */
+        Serializable getSourceOffset() {
+            return sourceOffset;
+        }
+
+
+        /**
+         * Check if it marks the end of the source
+         *
+         * @return true if it is the end
+         */
+        boolean isEnd() {
+            return isEnd;
+        }
+
+
+        /**
+         * Get the result list
+         *
+         * @return the result list
+         */
+        List<R> getResultList() {
+            return resultList;
+        }
+
+
+        /**
+         * Get the message list
+         *
+         * @return the message list
+         */
+        List<String> getMessageList() {
+            return messageList;
+        }
+
+
+        /**
+         * Increase the number of successful units
+         */
+        void increaseNumberOfSuccessfulUnits() {
+            numberOfSuccessfulUnits++;
+        }
+
+
+        /**
+         * Get the number of successful units
+         *
+         * @return the number of successful units
+         */
+        Long getNumberOfSuccessfulUnits() {
+            return numberOfSuccessfulUnits;
+        }
+
+
+        /**
+         * Increase the number of failed units
+         */
+        void increaseNumberOfFailedUnits() {
+            numberOfFailedUnits++;
+        }
+
+
+        /**
+         * Get the number of failed units
+         *
+         * @return the number of failed units
+         */
+        Long getNumberOfFailedUnits() {
+            return numberOfFailedUnits;
+        }
+    }
+
+
+    /**
+     * Defines the pipeline thread factory
+     */
+    static class PipelineThreadFactory implements ThreadFactory {
+        private final ThreadFactory threadFactory;
+        private final String threadName;
+        private int threadCounter = 1;
+
+
+        /**
+         * Constructor for PipelineThreadFactory
+         *
+         * @param threadName the thread name
+         */
+        PipelineThreadFactory(String threadName) {
+            this.threadFactory = Executors.defaultThreadFactory();
+            this.threadName = threadName;
+        }
+
+
+        /**
+         * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+         */
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread newThread = threadFactory.newThread(r);
+            newThread.setName(threadName + " " + threadCounter++);
+            newThread.setDaemon(true);
+            return newThread;
+        }
+    }
+}
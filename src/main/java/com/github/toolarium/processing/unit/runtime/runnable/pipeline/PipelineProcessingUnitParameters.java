@@ -0,0 +1,29 @@
+/*
+ * PipelineProcessingUnitParameters.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.pipeline;
+
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+
+
+/**
+ * Defines the pipeline processing unit parameters 
+ * 
+ * @author patrick
+ */
+public interface PipelineProcessingUnitParameters {
+    /** PIPELINE_BLOCK_SIZE */
+    ParameterDefinition PIPELINE_BLOCK_SIZE = 
+            new ParameterDefinitionBuilder().name("pipelineBlockSize").defaultValue(100).description("Defines the number of elements which are read from the source in one block.").build();
+
+    /** PIPELINE_BUFFER_SIZE */
+    ParameterDefinition PIPELINE_BUFFER_SIZE = 
+            new ParameterDefinitionBuilder().name("pipelineBufferSize").defaultValue(4).description("Defines the max number of blocks which are buffered between the source and the sink.").build();
+
+    /** PIPELINE_STAGE_PARALLELISM */
+    ParameterDefinition PIPELINE_STAGE_PARALLELISM = 
+            new ParameterDefinitionBuilder().name("pipelineStageParallelism").defaultValue(1).description("Defines the number of threads which process the stage.").build();
+}
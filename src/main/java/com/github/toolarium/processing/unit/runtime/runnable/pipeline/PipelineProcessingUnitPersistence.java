@@ -0,0 +1,57 @@
+/*
+ * PipelineProcessingUnitPersistence.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable.pipeline;
+
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import java.io.Serializable;
+
+
+/**
+ * Defines the pipeline processing unit persistence
+ * 
+ * @author patrick
+ */
+public class PipelineProcessingUnitPersistence implements IProcessingUnitPersistence {
+    private static final long serialVersionUID = 4417593128713046220L;
+    private Serializable sourceOffset;
+
+    
+    /**
+     * Constructor for PipelineProcessingUnitPersistence
+     */
+    public PipelineProcessingUnitPersistence() {
+        this.sourceOffset = null;
+    }
+
+    
+    /**
+     * Get the source offset of the last block which was written by the sink
+     *
+     * @return the source offset
+     */
+    public Serializable getSourceOffset() {
+        return sourceOffset;
+    }
+
+    
+    /**
+     * Set the source offset of the last block which was written by the sink
+     *
+     * @param sourceOffset the source offset
+     */
+    public void setSourceOffset(Serializable sourceOffset) {
+        this.sourceOffset = sourceOffset;
+    }
+
+    
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "PipelineProcessingUnitPersistence [sourceOffset=" + sourceOffset + "]";
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * ParallelProcessingUnitStressResult.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.test;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * The result of a stress run: the randomized configuration, the counts of the processing and the violated invariants.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitStressResult implements Serializable {
+    private static final long serialVersionUID = 6093784311506744617L;
+    private final long seed;
+    private final int runNumber;
+    private final List<Parameter> parameterList;
+    private final List<Integer> resumeNumberOfThreadsList;
+    private final ProcessingActionStatus processingActionStatus;
+    private final long numberOfUnitsToProcess;
+    private final long numberOfProcessedUnits;
+    private final long numberOfSuccessfulUnits;
+    private final long numberOfFailedUnits;
+    private final long numberOfUnprocessedUnits;
+    private final List<String> violationList;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitStressResult
+     *
+     * @param seed the seed of the stress runner
+     * @param runNumber the number of the run
+     * @param parameterList the randomized parameters
+     * @param resumeNumberOfThreadsList the number of threads of each resume
+     * @param processingActionStatus the processing action status at the end
+     * @param numberOfUnitsToProcess the number of units to process
+     * @param numberOfProcessedUnits the number of processed units
+     * @param numberOfSuccessfulUnits the number of successful units
+     * @param numberOfFailedUnits the number of failed units
+     * @param numberOfUnprocessedUnits the number of unprocessed units
+     * @param violationList the violated invariants
+     */
+    public ParallelProcessingUnitStressResult(long seed, // CHECKSTYLE IGNORE THIS LINE
+                                              int runNumber,
+                                              List<Parameter> parameterList,
+                                              List<Integer> resumeNumberOfThreadsList,
+                                              ProcessingActionStatus processingActionStatus,
+                                              long numberOfUnitsToProcess,
+                                              long numberOfProcessedUnits,
+                                              long numberOfSuccessfulUnits,
+                                              long numberOfFailedUnits,
+                                              long numberOfUnprocessedUnits,
+                                              List<String> violationList) {
+        this.seed = seed;
+        this.runNumber = runNumber;
+        this.parameterList = parameterList;
+        this.resumeNumberOfThreadsList = resumeNumberOfThreadsList;
+        this.processingActionStatus = processingActionStatus;
+        this.numberOfUnitsToProcess = numberOfUnitsToProcess;
+        this.numberOfProcessedUnits = numberOfProcessedUnits;
+        this.numberOfSuccessfulUnits = numberOfSuccessfulUnits;
+        this.numberOfFailedUnits = numberOfFailedUnits;
+        this.numberOfUnprocessedUnits = numberOfUnprocessedUnits;
+        this.violationList = violationList;
+    }
+
+
+    /**
+     * Get the seed of the stress runner
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+
+    /**
+     * Get the number of the run
+     *
+     * @return the number of the run
+     */
+    public int getRunNumber() {
+        return runNumber;
+    }
+
+
+    /**
+     * Get the randomized parameters
+     *
+     * @return the parameter list
+     */
+    public List<Parameter> getParameterList() {
+        return parameterList;
+    }
+
+
+    /**
+     * Get the number of threads of each resume
+     *
+     * @return the number of threads of each resume, empty in case it was never suspended
+     */
+    public List<Integer> getResumeNumberOfThreadsList() {
+        return resumeNumberOfThreadsList;
+    }
+
+
+    /**
+     * Get the number of suspends
+     *
+     * @return the number of suspends
+     */
+    public int getNumberOfSuspends() {
+        return resumeNumberOfThreadsList.size();
+    }
+
+
+    /**
+     * Get the processing action status at the end
+     *
+     * @return the processing action status
+     */
+    public ProcessingActionStatus getProcessingActionStatus() {
+        return processingActionStatus;
+    }
+
+
+    /**
+     * Get the number of units to process
+     *
+     * @return the number of units to process
+     */
+    public long getNumberOfUnitsToProcess() {
+        return numberOfUnitsToProcess;
+    }
+
+
+    /**
+     * Get the number of processed units
+     *
+     * @return the number of processed units
+     */
+    public long getNumberOfProcessedUnits() {
+        return numberOfProcessedUnits;
+    }
+
+
+    /**
+     * Get the number of successful units
+     *
+     * @return the number of successful units
+     */
+    public long getNumberOfSuccessfulUnits() {
+        return numberOfSuccessfulUnits;
+    }
+
+
+    /**
+     * Get the number of failed units
+     *
+     * @return the number of failed units
+     */
+    public long getNumberOfFailedUnits() {
+        return numberOfFailedUnits;
+    }
+
+
+    /**
+     * Get the number of unprocessed units
+     *
+     * @return the number of unprocessed units
+     */
+    public long getNumberOfUnprocessedUnits() {
+        return numberOfUnprocessedUnits;
+    }
+
+
+    /**
+     * Get the violated invariants
+     *
+     * @return the violated invariants, empty in case the run is consistent
+     */
+    public List<String> getViolationList() {
+        return violationList;
+    }
+
+
+    /**
+     * Check if all invariants are satisfied
+     *
+     * @return true if the run is consistent
+     */
+    public boolean isConsistent() {
+        return violationList.isEmpty();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ParallelProcessingUnitStressResult [seed=" + seed + ", runNumber=" + runNumber + ", parameterList=" + parameterList
+                + ", resumeNumberOfThreadsList=" + resumeNumberOfThreadsList + ", processingActionStatus=" + processingActionStatus
+                + ", numberOfUnitsToProcess=" + numberOfUnitsToProcess + ", numberOfProcessedUnits=" + numberOfProcessedUnits
+                + ", numberOfSuccessfulUnits=" + numberOfSuccessfulUnits + ", numberOfFailedUnits=" + numberOfFailedUnits
+                + ", numberOfUnprocessedUnits=" + numberOfUnprocessedUnits + ", violationList=" + violationList + "]";
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * ParallelProcessingUnitStressRunner.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.test;
+
+import com.github.toolarium.common.statistic.StatisticCounter;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements a stress runner for parallel processing units: each run randomizes the number of threads, the aggregate status
+ * pause time, the number of units, the block size, the processing time of a block, the failed units, the suspend points with
+ * a different number of threads on resume and the injection of a runtime exception. After each run the accounting invariants
+ * are verified against the independent counts of the {@link ParallelProcessingUnitStressSample.StressSource}. The runs are reproducible
+ * by the seed, except the thread interleaving.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitStressRunner {
+    /** The default max number of threads */
+    public static final int DEFAULT_MAX_NUMBER_OF_THREADS = 16;
+
+    /** The default max number of units of a run */
+    public static final int DEFAULT_MAX_NUMBER_OF_UNITS = 2000;
+
+    /** The default max aggregate status pause time in milliseconds */
+    public static final int DEFAULT_MAX_AGGREGATE_STATUS_PAUSE_TIME = 50;
+
+    /** The default max number of suspends of a run */
+    public static final int DEFAULT_MAX_NUMBER_OF_SUSPENDS = 3;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelProcessingUnitStressRunner.class);
+    private static final int MAX_BLOCK_SIZE = 20;
+    private static final int MAX_PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL = 30;
+    private static final int MAX_SLEEP_TIME = 5;
+    private static final int MAX_SUSPEND_AFTER_CALLS = 5;
+    private final long seed;
+    private final Random random;
+    private final int maxNumberOfThreads;
+    private final int maxNumberOfUnits;
+    private final int maxAggregateStatusPauseTime;
+    private final int maxNumberOfSuspends;
+    private int runCounter;
+
+
+    /**
+     * Constructor for ParallelProcessingUnitStressRunner
+     *
+     * @param seed the seed of the randomization
+     */
+    public ParallelProcessingUnitStressRunner(long seed) {
+        this(seed, DEFAULT_MAX_NUMBER_OF_THREADS, DEFAULT_MAX_NUMBER_OF_UNITS, DEFAULT_MAX_AGGREGATE_STATUS_PAUSE_TIME, DEFAULT_MAX_NUMBER_OF_SUSPENDS);
+    }
+
+
+    /**
+     * Constructor for ParallelProcessingUnitStressRunner
+     *
+     * @param seed the seed of the randomization
+     * @param maxNumberOfThreads the max number of threads
+     * @param maxNumberOfUnits the max number of units of a run
+     * @param maxAggregateStatusPauseTime the max aggregate status pause time in milliseconds
+     * @param maxNumberOfSuspends the max number of suspends of a run
+     */
+    public ParallelProcessingUnitStressRunner(long seed, int maxNumberOfThreads, int maxNumberOfUnits, int maxAggregateStatusPauseTime, int maxNumberOfSuspends) {
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.maxNumberOfThreads = Math.max(1, maxNumberOfThreads);
+        this.maxNumberOfUnits = Math.max(1, maxNumberOfUnits);
+        this.maxAggregateStatusPauseTime = Math.max(0, maxAggregateStatusPauseTime);
+        this.maxNumberOfSuspends = Math.max(0, maxNumberOfSuspends);
+        this.runCounter = 0;
+    }
+
+
+    /**
+     * Run several randomized stress runs
+     *
+     * @param numberOfRuns the number of runs
+     * @return the results of the runs
+     */
+    public List<ParallelProcessingUnitStressResult> run(int numberOfRuns) {
+        LOG.info("Start " + numberOfRuns + " stress runs with seed " + seed + "...");
+        List<ParallelProcessingUnitStressResult> resultList = new ArrayList<ParallelProcessingUnitStressResult>();
+        for (int i = 0; i < numberOfRuns; i++) {
+            resultList.add(run());
+        }
+        return resultList;
+    }
+
+
+    /**
+     * Run a randomized stress run
+     *
+     * @return the result of the run
+     */
+    public synchronized ParallelProcessingUnitStressResult run() {
+        final int runNumber = ++runCounter;
+        final String stressId = "stress-" + seed + "-" + runNumber;
+        final long numberOfUnits = 1 + random.nextInt(maxNumberOfUnits);
+        final int numberOfSuspends = (maxNumberOfSuspends > 0 && random.nextBoolean()) ? 1 + random.nextInt(maxNumberOfSuspends) : 0;
+        final int suspendAfterCalls = 1 + random.nextInt(MAX_SUSPEND_AFTER_CALLS);
+        final boolean injectException = random.nextInt(5) == 0;
+
+        final List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.STRESS_ID_PARAMETER.getKey(), stressId));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.NUMBER_OF_UNITS_TO_PROCESS_PARAMETER.getKey(), "" + numberOfUnits));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.BLOCK_SIZE_PARAMETER.getKey(), "" + (1 + random.nextInt(MAX_BLOCK_SIZE))));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL_PARAMETER.getKey(),
+                                        "" + (random.nextBoolean() ? random.nextInt(MAX_PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL + 1) : 0)));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.THROW_RUNTIME_EXCEPTION_AFTER_UNITS_PARAMETER.getKey(),
+                                        "" + (injectException ? (long) random.nextInt((int) numberOfUnits) : -1L)));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.SLEEP_TIME_BY_A_PROCESSING_PARAMETER.getKey(), "" + random.nextInt(MAX_SLEEP_TIME + 1)));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "" + nextNumberOfThreads()));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AGGREGATE_STATUS_PAUSE_TIME.getKey(), "" + random.nextInt(maxAggregateStatusPauseTime + 1)));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "none"));
+
+        // the runner threads have no progress until the next aggregation: they must not end the processing
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NO_PROGRESS_PAUSE_TIME.getKey(), "1"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "" + Integer.MAX_VALUE));
+
+        LOG.info("Stress run #" + runNumber + " (seed " + seed + "): " + parameterList + ", suspends: " + numberOfSuspends + " after " + suspendAfterCalls + " calls");
+
+        final List<Integer> resumeNumberOfThreadsList = new ArrayList<Integer>();
+        StressProcessingUnitRunnable processingUnitRunnable = new StressProcessingUnitRunnable(ParallelProcessingUnitStressSample.class, parameterList, new ProcessingUnitContext());
+        try {
+            if (numberOfSuspends > 0) {
+                processingUnitRunnable.setSuspendAfterCalls(suspendAfterCalls);
+            }
+
+            processingUnitRunnable.run();
+            while (ProcessingActionStatus.SUSPENDED.equals(processingUnitRunnable.getProcessingActionStatus())) {
+                // resume with a different number of threads: the persisted states are repartitioned
+                final int resumeNumberOfThreads = nextNumberOfThreads();
+                resumeNumberOfThreadsList.add(resumeNumberOfThreads);
+                final List<Parameter> resumeParameterList = new ArrayList<Parameter>();
+                resumeParameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "" + resumeNumberOfThreads));
+
+                final byte[] suspendedState = processingUnitRunnable.getSuspendedState();
+                processingUnitRunnable.releaseResource();
+                processingUnitRunnable = new StressProcessingUnitRunnable(suspendedState, resumeParameterList);
+                if (resumeNumberOfThreadsList.size() < numberOfSuspends) {
+                    processingUnitRunnable.setSuspendAfterCalls(suspendAfterCalls);
+                }
+                processingUnitRunnable.run();
+            }
+
+            final ParallelProcessingUnitStressResult result = createResult(runNumber, parameterList, resumeNumberOfThreadsList, processingUnitRunnable,
+                                                                           ParallelProcessingUnitStressSample.getStressSource(stressId), injectException);
+            if (result.isConsistent()) {
+                LOG.info("Stress run #" + runNumber + " (seed " + seed + ") is consistent: " + result.getProcessingActionStatus() + ", " + result.getNumberOfProcessedUnits() + " processed units.");
+            } else {
+                LOG.warn("Stress run #" + runNumber + " (seed " + seed + ") has violations: " + result.getViolationList());
+            }
+            return result;
+        } finally {
+            try {
+                processingUnitRunnable.releaseResource();
+            } catch (RuntimeException e) {
+                LOG.debug("Could not release resource: " + e.getMessage(), e);
+            }
+
+            ParallelProcessingUnitStressSample.removeStressSource(stressId);
+        }
+    }
+
+
+    /**
+     * Get the seed
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ParallelProcessingUnitStressRunner [seed=" + seed + ", maxNumberOfThreads=" + maxNumberOfThreads + ", maxNumberOfUnits=" + maxNumberOfUnits
+                + ", maxAggregateStatusPauseTime=" + maxAggregateStatusPauseTime + ", maxNumberOfSuspends=" + maxNumberOfSuspends + ", runCounter=" + runCounter + "]";
+    }
+
+
+    /**
+     * Get a random number of threads
+     *
+     * @return the number of threads
+     */
+    private int nextNumberOfThreads() {
+        return 1 + random.nextInt(maxNumberOfThreads);
+    }
+
+
+    /**
+     * Create the result of a run and verify the invariants: the processed units are the successful and the failed units, the
+     * processed and the unprocessed units are the units to process. The counts and the statistic have to match the stress source,
+     * only an aborted processing may miss the status of the last calls. An ended processing has processed all units and all
+     * instances have added their successful units to the context.
+     *
+     * @param runNumber the number of the run
+     * @param parameterList the parameter list
+     * @param resumeNumberOfThreadsList the number of threads of each resume
+     * @param processingUnitRunnable the processing unit runnable
+     * @param stressSource the stress source
+     * @param injectException true if a runtime exception was injected
+     * @return the result
+     */
+    private ParallelProcessingUnitStressResult createResult(int runNumber, // CHECKSTYLE IGNORE THIS LINE
+                                                            List<Parameter> parameterList,
+                                                            List<Integer> resumeNumberOfThreadsList,
+                                                            StressProcessingUnitRunnable processingUnitRunnable,
+                                                            ParallelProcessingUnitStressSample.StressSource stressSource,
+                                                            boolean injectException) {
+        final ProcessingActionStatus processingActionStatus = processingUnitRunnable.getProcessingActionStatus();
+        final IProcessingUnitProgress progress = processingUnitRunnable.getProcessingUnitProgress();
+        final List<String> violationList = new ArrayList<String>();
+        if (stressSource == null) {
+            violationList.add("Missing stress source.");
+            return new ParallelProcessingUnitStressResult(seed, runNumber, parameterList, resumeNumberOfThreadsList, processingActionStatus,
+                                                          progress.getNumberOfUnitsToProcess(), progress.getNumberOfProcessedUnits(), progress.getNumberOfSuccessfulUnits(),
+                                                          progress.getNumberOfFailedUnits(), progress.getNumberOfUnprocessedUnits(), violationList);
+        }
+
+        final long numberOfUnitsToProcess = progress.getNumberOfUnitsToProcess();
+        final long numberOfProcessedUnits = progress.getNumberOfProcessedUnits();
+        final long numberOfSuccessfulUnits = progress.getNumberOfSuccessfulUnits();
+        final long numberOfFailedUnits = progress.getNumberOfFailedUnits();
+        final long numberOfUnprocessedUnits = progress.getNumberOfUnprocessedUnits();
+        final boolean isEnded = ProcessingActionStatus.ENDED.equals(processingActionStatus);
+        final boolean isAborted = ProcessingActionStatus.ABORTED.equals(processingActionStatus);
+
+        verify(violationList, "successful + failed units == processed units", numberOfSuccessfulUnits + numberOfFailedUnits, numberOfProcessedUnits);
+        verify(violationList, "processed + unprocessed units == units to process", numberOfProcessedUnits + numberOfUnprocessedUnits, numberOfUnitsToProcess);
+        verify(violationList, "units to process == source units", numberOfUnitsToProcess, stressSource.getNumberOfUnits());
+
+        long statisticCounter = 0;
+        long statisticSum = 0;
+        final StatisticCounter counter = progress.getProcessingUnitStatistic().get(ParallelProcessingUnitStressSample.STATISTIC_KEY);
+        if (counter != null) {
+            statisticCounter = counter.getCounter();
+            statisticSum = Math.round(counter.getSum());
+        }
+
+        if (isAborted) {
+            // the status of the last aggregation is not taken over anymore and the aborting call counts as one failed unit
+            verifyAtMost(violationList, "successful units <= source successful units", numberOfSuccessfulUnits, stressSource.getNumberOfSuccessfulUnits());
+            verifyAtMost(violationList, "failed units <= source failed units + 1", numberOfFailedUnits, stressSource.getNumberOfFailedUnits() + 1);
+            verifyAtMost(violationList, "statistic counter <= source successful units", statisticCounter, stressSource.getNumberOfSuccessfulUnits());
+            verifyAtMost(violationList, "statistic sum <= source statistic sum", statisticSum, stressSource.getStatisticSum());
+        } else {
+            verify(violationList, "successful units == source successful units", numberOfSuccessfulUnits, stressSource.getNumberOfSuccessfulUnits());
+            verify(violationList, "failed units == source failed units", numberOfFailedUnits, stressSource.getNumberOfFailedUnits());
+            verify(violationList, "statistic counter == source successful units", statisticCounter, stressSource.getNumberOfSuccessfulUnits());
+            verify(violationList, "statistic sum == source statistic sum", statisticSum, stressSource.getStatisticSum());
+        }
+
+        if (isEnded) {
+            verify(violationList, "processed units of an ended processing == units to process", numberOfProcessedUnits, numberOfUnitsToProcess);
+            verify(violationList, "source taken units of an ended processing == source units", stressSource.getNumberOfTakenUnits(), stressSource.getNumberOfUnits());
+
+            final IProcessingUnitContext processingUnitContext = processingUnitRunnable.getProcessingUnitProxyContext();
+            final String contextResult = (processingUnitContext != null) ? processingUnitContext.get(ParallelProcessingUnitStressSample.RESULT) : null;
+            verify(violationList, "context result of an ended processing == successful units",
+                   (contextResult == null || contextResult.isBlank()) ? -1 : Long.parseLong(contextResult), numberOfSuccessfulUnits);
+        } else if (!isAborted) {
+            violationList.add("The processing has neither ended nor aborted: " + processingActionStatus);
+        }
+
+        if (!injectException && !isEnded) {
+            violationList.add("The processing without an injected exception has not ended: " + processingActionStatus + " " + processingUnitRunnable.getStatusMessageList());
+        }
+
+        if (injectException && stressSource.isExceptionThrown() && !isAborted) {
+            violationList.add("The processing with a thrown exception has not aborted: " + processingActionStatus);
+        }
+
+        return new ParallelProcessingUnitStressResult(seed, runNumber, parameterList, resumeNumberOfThreadsList, processingActionStatus, numberOfUnitsToProcess,
+                                                      numberOfProcessedUnits, numberOfSuccessfulUnits, numberOfFailedUnits, numberOfUnprocessedUnits, violationList);
+    }
+
+
+    /**
+     * Verify an invariant which requires the same value
+     *
+     * @param violationList the violation list
+     * @param invariant the invariant
+     * @param value the value
+     * @param expectedValue the expected value
+     */
+    private static void verify(List<String> violationList, String invariant, long value, long expectedValue) {
+        if (value != expectedValue) {
+            violationList.add(invariant + ": " + value + " != " + expectedValue);
+        }
+    }
+
+
+    /**
+     * Verify an invariant which requires a value up to a max value
+     *
+     * @param violationList the violation list
+     * @param invariant the invariant
+     * @param value the value
+     * @param maxValue the max value
+     */
+    private static void verifyAtMost(List<String> violationList, String invariant, long value, long maxValue) {
+        if (value > maxValue) {
+            violationList.add(invariant + ": " + value + " > " + maxValue);
+        }
+    }
+
+
+    /**
+     * Defines the processing unit runnable of a stress run: it suspends after a number of processing unit calls, since a call of
+     * a parallel processing unit aggregates several units
+     */
+    static class StressProcessingUnitRunnable extends TestProcessingUnitRunnable {
+        private Integer suspendAfterCalls;
+        private int numberOfCalls;
+
+
+        /**
+         * Constructor for StressProcessingUnitRunnable
+         *
+         * @param processingUnitClass the processing unit class
+         * @param parameterList the parameter list
+         * @param processingUnitContext the processing unit context
+         */
+        StressProcessingUnitRunnable(Class<ParallelProcessingUnitStressSample> processingUnitClass, List<Parameter> parameterList, IProcessingUnitContext processingUnitContext) {
+            super(processingUnitClass, parameterList, processingUnitContext);
+            this.suspendAfterCalls = null;
+            this.numberOfCalls = 0;
+        }
+
+
+        /**
+         * Constructor for StressProcessingUnitRunnable
+         *
+         * @param suspendedState the suspended state
+         * @param parameterList the parameter list
+         */
+        StressProcessingUnitRunnable(byte[] suspendedState, List<Parameter> parameterList) {
+            super(suspendedState, parameterList);
+            this.suspendAfterCalls = null;
+            this.numberOfCalls = 0;
+        }
+
+
+        /**
+         * Set the number of processing unit calls after which it will be suspended
+         *
+         * @param suspendAfterCalls the number of calls after which it will be suspended or null
+         */
+        void setSuspendAfterCalls(Integer suspendAfterCalls) {
+            this.suspendAfterCalls = suspendAfterCalls;
+        }
+
+
+        /**
+         * Get the processing unit context of the processing unit proxy, it contains the result of the processing
+         *
+         * @return the processing unit context or null
+         */
+        IProcessingUnitContext getProcessingUnitProxyContext() {
+            if (getProcessingUnitProxy() != null) {
+                return getProcessingUnitProxy().getProcessingUnitContext();
+            }
+
+            return null;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnable#afterProcessUnit(boolean)
+         */
+        @Override
+        protected boolean afterProcessUnit(boolean continueProcessing) {
+            numberOfCalls++;
+            if (suspendAfterCalls != null && suspendAfterCalls > 0 && numberOfCalls == suspendAfterCalls) {
+                suspendProcessing();
+            }
+
+            return super.afterProcessUnit(continueProcessing);
+        }
+    }
+}
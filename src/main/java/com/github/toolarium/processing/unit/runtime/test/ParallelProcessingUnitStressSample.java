@@ -0,0 +1,447 @@
+/*
+ * ParallelProcessingUnitStressSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.test;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.parallelization.IParallelProcessingUnit;
+import com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Parallel processing unit sample: all instances take blocks of units from a shared {@link StressSource} which counts the handed
+ * out, the successful and the failed units independently of the processing framework. It is used to verify the accounting of
+ * a parallel processing, e.g. by the {@link ParallelProcessingUnitStressRunner}.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitStressSample extends AbstractProcessingUnitPersistenceImpl<ParallelProcessingUnitStressSample.StressSamplePersistence> implements IParallelProcessingUnit {
+    /** RESULT context: the sum of the successful units of all instances, it is set on ending */
+    public static final String RESULT = "stressResult";
+
+    /** STATISTIC_KEY: the statistic of the successful units */
+    public static final String STATISTIC_KEY = "stressValue";
+
+    public static final  ParameterDefinition STRESS_ID_PARAMETER =
+            new ParameterDefinitionBuilder().name("stressId").isMandatory().emptyValueIsNotAllowed().description("Defines the id of the shared stress source.").build();
+    public static final  ParameterDefinition NUMBER_OF_UNITS_TO_PROCESS_PARAMETER =
+            new ParameterDefinitionBuilder().name("numberOfUnitsToProcess").defaultValue(1000).description("Defines the number of units to process.").build();
+    public static final  ParameterDefinition BLOCK_SIZE_PARAMETER =
+            new ParameterDefinitionBuilder().name("blockSize").defaultValue(10).description("Defines the number of units which are processed by one call.").build();
+    public static final  ParameterDefinition PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL_PARAMETER =
+            new ParameterDefinitionBuilder().name("percentageNumberOfUnitsToFail").defaultValue(0).description("Defines the percentage of units to fail.").build();
+    public static final  ParameterDefinition THROW_RUNTIME_EXCEPTION_AFTER_UNITS_PARAMETER =
+            new ParameterDefinitionBuilder().name("throwRuntimeExceptionAfterUnits").defaultValue(-1L).description("Throws once a runtime exception after the number of handed out units, -1 to never throw.").build();
+    public static final  ParameterDefinition SLEEP_TIME_BY_A_PROCESSING_PARAMETER =
+            new ParameterDefinitionBuilder().name("sleepTime").defaultValue(0L).description("Defines the sleep time which simulates the processing of a block.").build();
+
+    private static final Map<String, StressSource> STRESS_SOURCE_MAP = new ConcurrentHashMap<String, StressSource>();
+    private long numberOfSuccessfulUnits;
+
+
+    /**
+     * Get the stress source
+     *
+     * @param stressId the stress id
+     * @return the stress source or null
+     */
+    public static StressSource getStressSource(String stressId) {
+        return STRESS_SOURCE_MAP.get(stressId);
+    }
+
+
+    /**
+     * Remove the stress source
+     *
+     * @param stressId the stress id
+     * @return the removed stress source or null
+     */
+    public static StressSource removeStressSource(String stressId) {
+        return STRESS_SOURCE_MAP.remove(stressId);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#newPersistenceInstance()
+     */
+    @Override
+    protected StressSamplePersistence newPersistenceInstance() {
+        return new StressSamplePersistence();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    public void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(STRESS_ID_PARAMETER);
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_UNITS_TO_PROCESS_PARAMETER);
+        getParameterRuntime().addParameterDefinition(BLOCK_SIZE_PARAMETER);
+        getParameterRuntime().addParameterDefinition(PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL_PARAMETER);
+        getParameterRuntime().addParameterDefinition(THROW_RUNTIME_EXCEPTION_AFTER_UNITS_PARAMETER);
+        getParameterRuntime().addParameterDefinition(SLEEP_TIME_BY_A_PROCESSING_PARAMETER);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initialize(java.util.List, com.github.toolarium.processing.unit.IProcessingUnitContext)
+     */
+    @Override
+    public void initialize(List<Parameter> parameterList, IProcessingUnitContext processingUnitContext) throws ValidationException, ProcessingException {
+        super.initialize(parameterList, processingUnitContext);
+        numberOfSuccessfulUnits = 0;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        // it's only called once from the first instance: the source is shared by all instances
+        final long numberOfUnits = getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS_TO_PROCESS_PARAMETER).getValueAsLong();
+        STRESS_SOURCE_MAP.put(getStressId(), new StressSource(numberOfUnits));
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(numberOfUnits);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final StressSource stressSource = getStressSource(getStressId());
+        if (stressSource == null) {
+            throw new ProcessingException("Missing stress source " + getStressId() + "!", true);
+        }
+
+        // the exception is thrown before any unit is handed out: the source counts stay exact
+        final long throwRuntimeExceptionAfterUnits = getParameterRuntime().getParameterValueList(THROW_RUNTIME_EXCEPTION_AFTER_UNITS_PARAMETER).getValueAsLong();
+        if (throwRuntimeExceptionAfterUnits >= 0 && stressSource.getNumberOfTakenUnits() >= throwRuntimeExceptionAfterUnits && stressSource.markExceptionThrown()) {
+            throw new RuntimeException("Test runtime exception after " + stressSource.getNumberOfTakenUnits() + " units.");
+        }
+
+        final int blockSize = Math.max(1, getParameterRuntime().getParameterValueList(BLOCK_SIZE_PARAMETER).getValueAsInteger());
+        final long offset = stressSource.takeUnits(blockSize);
+        if (offset >= 0) {
+            ThreadUtil.getInstance().sleep(getParameterRuntime().getParameterValueList(SLEEP_TIME_BY_A_PROCESSING_PARAMETER).getValueAsLong());
+
+            final int percentageToFail = getParameterRuntime().getParameterValueList(PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL_PARAMETER).getValueAsInteger();
+            final long end = Math.min(offset + blockSize, stressSource.getNumberOfUnits());
+            for (long unit = offset; unit < end; unit++) {
+                if ((unit % 100) < percentageToFail) {
+                    processingUnitStatusBuilder.increaseNumberOfFailedUnits();
+                    stressSource.addFailedUnit();
+                } else {
+                    final long value = getStatisticValue(unit);
+                    processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+                    processingUnitStatusBuilder.statistic(STATISTIC_KEY, value);
+                    stressSource.addSuccessfulUnit(value);
+                    numberOfSuccessfulUnits++;
+                }
+            }
+        }
+
+        return processingUnitStatusBuilder.hasNext(stressSource.hasUnprocessedUnits()).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#onEnding()
+     */
+    @Override
+    public void onEnding() {
+        // the parallel processing unit calls the instances one after the other
+        final String result = getProcessingUnitContext().get(RESULT);
+        final long sum = (result == null || result.isBlank()) ? 0 : Long.parseLong(result);
+        getProcessingUnitContext().set(RESULT, "" + (sum + numberOfSuccessfulUnits));
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        getProcessingPersistence().setNumberOfSuccessfulUnits(numberOfSuccessfulUnits);
+        return super.suspendProcessing();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#resumeProcessing(com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    public void resumeProcessing(IProcessingUnitProgress processingUnitProgress, IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        super.resumeProcessing(processingUnitProgress, processingPersistence);
+        numberOfSuccessfulUnits = getProcessingPersistence().getNumberOfSuccessfulUnits();
+        removePersistenceInstance();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+    }
+
+
+    /**
+     * Get the statistic value of a successful unit
+     *
+     * @param unit the unit
+     * @return the statistic value
+     */
+    public static long getStatisticValue(long unit) {
+        return (unit % 10) + 1;
+    }
+
+
+    /**
+     * Get the stress id
+     *
+     * @return the stress id
+     */
+    private String getStressId() {
+        return getParameterRuntime().getParameterValueList(STRESS_ID_PARAMETER).getValueAsString();
+    }
+
+
+    /**
+     * The stress source which is shared by all instances of a processing
+     *
+     * @author patrick
+     */
+    public static class StressSource {
+        private final long numberOfUnits;
+        private final AtomicLong numberOfTakenUnits;
+        private final AtomicLong numberOfSuccessfulUnits;
+        private final AtomicLong numberOfFailedUnits;
+        private final AtomicLong statisticSum;
+        private final AtomicBoolean isExceptionThrown;
+
+
+        /**
+         * Constructor for StressSource
+         *
+         * @param numberOfUnits the number of units
+         */
+        StressSource(long numberOfUnits) {
+            this.numberOfUnits = numberOfUnits;
+            this.numberOfTakenUnits = new AtomicLong(0);
+            this.numberOfSuccessfulUnits = new AtomicLong(0);
+            this.numberOfFailedUnits = new AtomicLong(0);
+            this.statisticSum = new AtomicLong(0);
+            this.isExceptionThrown = new AtomicBoolean(false);
+        }
+
+
+        /**
+         * Take a block of units: the block ends at the block size or at the number of units
+         *
+         * @param blockSize the block size
+         * @return the offset of the block or -1 in case there are no more units
+         */
+        long takeUnits(int blockSize) {
+            long offset;
+            do {
+                offset = numberOfTakenUnits.get();
+                if (offset >= numberOfUnits) {
+                    return -1;
+                }
+            } while (!numberOfTakenUnits.compareAndSet(offset, Math.min(offset + blockSize, numberOfUnits)));
+
+            return offset;
+        }
+
+
+        /**
+         * Add a successful unit
+         *
+         * @param statisticValue the statistic value of the unit
+         */
+        void addSuccessfulUnit(long statisticValue) {
+            numberOfSuccessfulUnits.incrementAndGet();
+            statisticSum.addAndGet(statisticValue);
+        }
+
+
+        /**
+         * Add a failed unit
+         */
+        void addFailedUnit() {
+            numberOfFailedUnits.incrementAndGet();
+        }
+
+
+        /**
+         * Mark the exception as thrown
+         *
+         * @return true in case it was not thrown before
+         */
+        boolean markExceptionThrown() {
+            return isExceptionThrown.compareAndSet(false, true);
+        }
+
+
+        /**
+         * Check if there are unprocessed units
+         *
+         * @return true if there are unprocessed units
+         */
+        boolean hasUnprocessedUnits() {
+            return numberOfTakenUnits.get() < numberOfUnits;
+        }
+
+
+        /**
+         * Get the number of units
+         *
+         * @return the number of units
+         */
+        public long getNumberOfUnits() {
+            return numberOfUnits;
+        }
+
+
+        /**
+         * Get the number of handed out units
+         *
+         * @return the number of handed out units
+         */
+        public long getNumberOfTakenUnits() {
+            return numberOfTakenUnits.get();
+        }
+
+
+        /**
+         * Get the number of successful units
+         *
+         * @return the number of successful units
+         */
+        public long getNumberOfSuccessfulUnits() {
+            return numberOfSuccessfulUnits.get();
+        }
+
+
+        /**
+         * Get the number of failed units
+         *
+         * @return the number of failed units
+         */
+        public long getNumberOfFailedUnits() {
+            return numberOfFailedUnits.get();
+        }
+
+
+        /**
+         * Get the sum of the statistic values of the successful units
+         *
+         * @return the statistic sum
+         */
+        public long getStatisticSum() {
+            return statisticSum.get();
+        }
+
+
+        /**
+         * Check if the exception was thrown
+         *
+         * @return true if the exception was thrown
+         */
+        public boolean isExceptionThrown() {
+            return isExceptionThrown.get();
+        }
+
+
+        /**
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return "StressSource [numberOfUnits=" + numberOfUnits + ", numberOfTakenUnits=" + numberOfTakenUnits + ", numberOfSuccessfulUnits=" + numberOfSuccessfulUnits
+                    + ", numberOfFailedUnits=" + numberOfFailedUnits + ", statisticSum=" + statisticSum + ", isExceptionThrown=" + isExceptionThrown + "]";
+        }
+    }
+
+
+    /**
+     * Defines the persistence: the successful units of an instance
+     *
+     * @author patrick
+     */
+    static class StressSamplePersistence implements IProcessingUnitPersistenceRepartitionSupport {
+        private static final long serialVersionUID = 2806471530287364823L;
+        private long numberOfSuccessfulUnits;
+
+
+        /**
+         * Get the number of successful units
+         *
+         * @return the number of successful units
+         */
+        public long getNumberOfSuccessfulUnits() {
+            return numberOfSuccessfulUnits;
+        }
+
+
+        /**
+         * Set the number of successful units
+         *
+         * @param numberOfSuccessfulUnits the number of successful units
+         */
+        public void setNumberOfSuccessfulUnits(long numberOfSuccessfulUnits) {
+            this.numberOfSuccessfulUnits = numberOfSuccessfulUnits;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport#merge(com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport)
+         */
+        @Override
+        public IProcessingUnitPersistenceRepartitionSupport merge(IProcessingUnitPersistenceRepartitionSupport processingUnitPersistence) {
+            StressSamplePersistence result = new StressSamplePersistence();
+            result.setNumberOfSuccessfulUnits(numberOfSuccessfulUnits + ((StressSamplePersistence) processingUnitPersistence).getNumberOfSuccessfulUnits());
+            return result;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport#split(int)
+         */
+        @Override
+        public List<IProcessingUnitPersistenceRepartitionSupport> split(int numberOfParts) {
+            List<IProcessingUnitPersistenceRepartitionSupport> result = new ArrayList<IProcessingUnitPersistenceRepartitionSupport>();
+            for (int i = 0; i < numberOfParts; i++) {
+                StressSamplePersistence part = new StressSamplePersistence();
+
+                // the first part keeps the sum
+                if (i == 0) {
+                    part.setNumberOfSuccessfulUnits(numberOfSuccessfulUnits);
+                }
+                result.add(part);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * ProcessingUnitBenchmarkRecorder.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.test;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Records the measurement of the benchmark runs of one configuration: the duration of each processing unit call is kept
+ * in a primitive array to compute the percentiles without boxing.
+ *
+ * @author patrick
+ */
+class ProcessingUnitBenchmarkRecorder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private long[] callTimes;
+    private int numberOfCalls;
+    private long callTime;
+    private long throttlingTime;
+    private long duration;
+    private long numberOfProcessedUnits;
+    private int numberOfRuns;
+    private int numberOfFailedRuns;
+
+
+    /**
+     * Constructor for ProcessingUnitBenchmarkRecorder
+     */
+    ProcessingUnitBenchmarkRecorder() {
+        this.callTimes = new long[INITIAL_CAPACITY];
+        this.numberOfCalls = 0;
+        this.callTime = 0;
+        this.throttlingTime = 0;
+        this.duration = 0;
+        this.numberOfProcessedUnits = 0;
+        this.numberOfRuns = 0;
+        this.numberOfFailedRuns = 0;
+    }
+
+
+    /**
+     * Add the measurement of a processing unit call
+     *
+     * @param callTime the duration of the call in nanoseconds
+     */
+    void addCall(long callTime) {
+        if (numberOfCalls == callTimes.length) {
+            callTimes = Arrays.copyOf(callTimes, callTimes.length * 2);
+        }
+
+        callTimes[numberOfCalls++] = callTime;
+        this.callTime += callTime;
+    }
+
+
+    /**
+     * Add the time the processing was throttled
+     *
+     * @param throttlingTime the throttling time in nanoseconds
+     */
+    void addThrottlingTime(long throttlingTime) {
+        this.throttlingTime += throttlingTime;
+    }
+
+
+    /**
+     * Add a run
+     *
+     * @param duration the duration of the run in nanoseconds
+     * @param numberOfProcessedUnits the number of processed units of the run
+     * @param isSuccessful true if the run has ended successful
+     */
+    void addRun(long duration, long numberOfProcessedUnits, boolean isSuccessful) {
+        this.duration += duration;
+        this.numberOfProcessedUnits += numberOfProcessedUnits;
+        this.numberOfRuns++;
+        if (!isSuccessful) {
+            this.numberOfFailedRuns++;
+        }
+    }
+
+
+    /**
+     * Create the result of the recorded runs
+     *
+     * @param parameterList the parameters of the configuration
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second of the configuration or null
+     * @return the result
+     */
+    ProcessingUnitBenchmarkResult toResult(List<Parameter> parameterList, Long maxNumberOfProcessingUnitCallsPerSecond) {
+        final long[] sortedCallTimes = Arrays.copyOf(callTimes, numberOfCalls);
+        Arrays.sort(sortedCallTimes);
+
+        double throughput = 0;
+        double overhead = 0;
+        if (duration > 0) {
+            throughput = numberOfProcessedUnits * 1_000_000_000.0 / duration;
+            overhead = Math.max(0, duration - callTime - throttlingTime) / (double) duration;
+        }
+
+        return new ProcessingUnitBenchmarkResult(parameterList,
+                                                 maxNumberOfProcessingUnitCallsPerSecond,
+                                                 numberOfRuns,
+                                                 numberOfFailedRuns,
+                                                 numberOfProcessedUnits,
+                                                 numberOfCalls,
+                                                 duration,
+                                                 throughput,
+                                                 percentile(sortedCallTimes, 50),
+                                                 percentile(sortedCallTimes, 99),
+                                                 throttlingTime,
+                                                 overhead);
+    }
+
+
+    /**
+     * Get the percentile of sorted values (nearest rank)
+     *
+     * @param sortedValues the sorted values
+     * @param percentile the percentile between 0 and 100
+     * @return the percentile or 0 in case there are no values
+     */
+    static long percentile(long[] sortedValues, int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.min(sortedValues.length - 1, Math.max(0, rank - 1))];
+    }
+}
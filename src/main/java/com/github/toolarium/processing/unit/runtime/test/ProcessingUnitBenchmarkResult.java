@@ -0,0 +1,208 @@
+/*
+ * ProcessingUnitBenchmarkResult.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.test;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import java.io.Serializable;
+import java.util.List;
+
+
+/**
+ * The result of a benchmark configuration: the measurement over all measured runs, without the warmup runs. The framework
+ * overhead is the part of the duration which is neither spent in the processing unit calls nor in the throttling.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitBenchmarkResult implements Serializable {
+    private static final long serialVersionUID = -1879456393257045268L;
+    private final List<Parameter> parameterList;
+    private final Long maxNumberOfProcessingUnitCallsPerSecond;
+    private final int numberOfRuns;
+    private final int numberOfFailedRuns;
+    private final long numberOfProcessedUnits;
+    private final long numberOfCalls;
+    private final long duration;
+    private final double throughput;
+    private final long callTimeP50;
+    private final long callTimeP99;
+    private final long throttlingTime;
+    private final double overhead;
+
+
+    /**
+     * Constructor for ProcessingUnitBenchmarkResult
+     *
+     * @param parameterList the parameters of the configuration
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of processing unit calls per second or null
+     * @param numberOfRuns the number of measured runs
+     * @param numberOfFailedRuns the number of runs which haven't ended successful
+     * @param numberOfProcessedUnits the number of processed units of all runs
+     * @param numberOfCalls the number of processing unit calls of all runs
+     * @param duration the duration of all runs in nanoseconds
+     * @param throughput the throughput in units per second
+     * @param callTimeP50 the median duration of a processing unit call in nanoseconds
+     * @param callTimeP99 the 99th percentile duration of a processing unit call in nanoseconds
+     * @param throttlingTime the time the processing was throttled in nanoseconds
+     * @param overhead the framework overhead as ratio of the duration
+     */
+    public ProcessingUnitBenchmarkResult(List<Parameter> parameterList, // CHECKSTYLE IGNORE THIS LINE
+                                         Long maxNumberOfProcessingUnitCallsPerSecond,
+                                         int numberOfRuns,
+                                         int numberOfFailedRuns,
+                                         long numberOfProcessedUnits,
+                                         long numberOfCalls,
+                                         long duration,
+                                         double throughput,
+                                         long callTimeP50,
+                                         long callTimeP99,
+                                         long throttlingTime,
+                                         double overhead) {
+        this.parameterList = parameterList;
+        this.maxNumberOfProcessingUnitCallsPerSecond = maxNumberOfProcessingUnitCallsPerSecond;
+        this.numberOfRuns = numberOfRuns;
+        this.numberOfFailedRuns = numberOfFailedRuns;
+        this.numberOfProcessedUnits = numberOfProcessedUnits;
+        this.numberOfCalls = numberOfCalls;
+        this.duration = duration;
+        this.throughput = throughput;
+        this.callTimeP50 = callTimeP50;
+        this.callTimeP99 = callTimeP99;
+        this.throttlingTime = throttlingTime;
+        this.overhead = overhead;
+    }
+
+
+    /**
+     * Get the parameters of the configuration
+     *
+     * @return the parameters which are varied by the benchmark
+     */
+    public List<Parameter> getParameterList() {
+        return parameterList;
+    }
+
+
+    /**
+     * Get the max number of processing unit calls per second of the configuration
+     *
+     * @return the max number of processing unit calls per second or null
+     */
+    public Long getMaxNumberOfProcessingUnitCallsPerSecond() {
+        return maxNumberOfProcessingUnitCallsPerSecond;
+    }
+
+
+    /**
+     * Get the number of measured runs
+     *
+     * @return the number of measured runs
+     */
+    public int getNumberOfRuns() {
+        return numberOfRuns;
+    }
+
+
+    /**
+     * Get the number of runs which haven't ended successful
+     *
+     * @return the number of failed runs
+     */
+    public int getNumberOfFailedRuns() {
+        return numberOfFailedRuns;
+    }
+
+
+    /**
+     * Get the number of processed units of all runs
+     *
+     * @return the number of processed units
+     */
+    public long getNumberOfProcessedUnits() {
+        return numberOfProcessedUnits;
+    }
+
+
+    /**
+     * Get the number of processing unit calls of all runs
+     *
+     * @return the number of calls
+     */
+    public long getNumberOfCalls() {
+        return numberOfCalls;
+    }
+
+
+    /**
+     * Get the duration of all runs
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+
+    /**
+     * Get the throughput
+     *
+     * @return the throughput in units per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+
+    /**
+     * Get the median duration of a processing unit call
+     *
+     * @return the median duration in nanoseconds
+     */
+    public long getCallTimeP50() {
+        return callTimeP50;
+    }
+
+
+    /**
+     * Get the 99th percentile duration of a processing unit call
+     *
+     * @return the 99th percentile duration in nanoseconds
+     */
+    public long getCallTimeP99() {
+        return callTimeP99;
+    }
+
+
+    /**
+     * Get the time the processing was throttled
+     *
+     * @return the throttling time in nanoseconds
+     */
+    public long getThrottlingTime() {
+        return throttlingTime;
+    }
+
+
+    /**
+     * Get the framework overhead: the part of the duration which is neither spent in the processing unit calls nor in the throttling
+     *
+     * @return the overhead as ratio of the duration between 0 and 1
+     */
+    public double getOverhead() {
+        return overhead;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProcessingUnitBenchmarkResult [parameterList=" + parameterList + ", maxNumberOfProcessingUnitCallsPerSecond=" + maxNumberOfProcessingUnitCallsPerSecond
+                + ", numberOfRuns=" + numberOfRuns + ", numberOfFailedRuns=" + numberOfFailedRuns + ", numberOfProcessedUnits=" + numberOfProcessedUnits
+                + ", throughput=" + Math.round(throughput) + "/s, callTimeP50=" + (callTimeP50 / 1000) + "us, callTimeP99=" + (callTimeP99 / 1000)
+                + "us, overhead=" + Math.round(overhead * 1000) / 10.0 + "%]";
+    }
+}
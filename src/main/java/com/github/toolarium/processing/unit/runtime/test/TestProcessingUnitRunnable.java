@@ -30,6 +30,7 @@ public class TestProcessingUnitRunnable extends ProcessingUnitRunnable {
     private static final Logger LOG = LoggerFactory.getLogger(TestProcessingUnitRunnable.class);
     private Long suspendAfterCycles;
     private Integer numberOfCyclesBeforeStop;
+    private ProcessingUnitBenchmarkRecorder benchmarkRecorder;
 
     
     /**
@@ -43,6 +44,7 @@ public class TestProcessingUnitRunnable extends ProcessingUnitRunnable {
         super(null, null, processingUnitClass, parameterList, processingUnitContext, new LogProcessingUnitRunnableListener());
         this.suspendAfterCycles = null;
         this.numberOfCyclesBeforeStop = null;
+        this.benchmarkRecorder = null;
     }
 
     
@@ -52,9 +54,21 @@ public class TestProcessingUnitRunnable extends ProcessingUnitRunnable {
      * @param suspendedState the suspended state
      */
     protected TestProcessingUnitRunnable(byte[] suspendedState) {
-        super(suspendedState, new LogProcessingUnitRunnableListener());
+        this(suspendedState, null);
+    }
+
+    
+    /**
+     * Constructor for TestProcessingUnitRunnable
+     * 
+     * @param suspendedState the suspended state
+     * @param parameterList the parameters which replace the persisted parameters or null
+     */
+    protected TestProcessingUnitRunnable(byte[] suspendedState, List<Parameter> parameterList) {
+        super(suspendedState, parameterList, new LogProcessingUnitRunnableListener());
         this.suspendAfterCycles = null;
         this.numberOfCyclesBeforeStop = null;
+        this.benchmarkRecorder = null;
     }
 
     
@@ -77,6 +91,16 @@ public class TestProcessingUnitRunnable extends ProcessingUnitRunnable {
         this.numberOfCyclesBeforeStop = numberOfCyclesBeforeStop;
     }
 
+    
+    /**
+     * Set the benchmark recorder which records the processing unit calls
+     *
+     * @param benchmarkRecorder the benchmark recorder or null
+     */
+    void setBenchmarkRecorder(ProcessingUnitBenchmarkRecorder benchmarkRecorder) {
+        this.benchmarkRecorder = benchmarkRecorder;
+    }
+
    
     /**
      * Get the processing unit
@@ -101,6 +125,35 @@ public class TestProcessingUnitRunnable extends ProcessingUnitRunnable {
     }
 
 
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitRunnable#afterProcessUnitCall(long, long)
+     */
+    @Override
+    protected void afterProcessUnitCall(long processedUnits, long callTime) {
+        if (benchmarkRecorder != null) {
+            benchmarkRecorder.addCall(callTime);
+        }
+        
+        super.afterProcessUnitCall(processedUnits, callTime);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitRunnable#throttlingProcessing()
+     */
+    @Override
+    protected void throttlingProcessing() {
+        if (benchmarkRecorder == null) {
+            super.throttlingProcessing();
+            return;
+        }
+        
+        final long start = System.nanoTime();
+        super.throttlingProcessing();
+        benchmarkRecorder.addThrottlingTime(System.nanoTime() - start);
+    }
+
+
     /**
      * @see com.github.toolarium.processing.unit.runtime.runnable.impl.AbstractProcessingUnitRunnable#afterProcessUnit(boolean)
      */
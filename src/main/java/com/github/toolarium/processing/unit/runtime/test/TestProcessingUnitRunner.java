@@ -19,9 +19,14 @@ import com.github.toolarium.processing.unit.exception.ValidationException;
 import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
 import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
 import com.github.toolarium.processing.unit.runtime.runnable.IEmptyProcessingUnitHandler;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitThrottlingSchedule;
 import com.github.toolarium.processing.unit.util.ProcessingUnitUtil;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +42,9 @@ public class TestProcessingUnitRunner implements Serializable {
     private TestProcessingUnitRunnable processingUnitRunnable;
     private int suspendCounter = 0;
     private IProcessingUnitContext processingUnitContext;
+    private List<Parameter> resumeParameterList;
+    private ProcessingUnitDeadline deadline;
+    private ProcessingUnitThrottlingSchedule throttlingSchedule;
 
     
     /**
@@ -45,6 +53,9 @@ public class TestProcessingUnitRunner implements Serializable {
     protected TestProcessingUnitRunner() {
         processingUnitRunnable = null;
         processingUnitContext = new ProcessingUnitContext();
+        resumeParameterList = null;
+        deadline = null;
+        throttlingSchedule = null;
     }
 
 
@@ -59,6 +70,8 @@ public class TestProcessingUnitRunner implements Serializable {
      */
     public long run(Class<? extends IProcessingUnit> processingUnitClass, List<Parameter> parameterList) throws ValidationException, ProcessingException {
         processingUnitRunnable = new TestProcessingUnitRunnable(processingUnitClass, parameterList, processingUnitContext);
+        processingUnitRunnable.setDeadline(deadline);
+        processingUnitRunnable.setThrottlingSchedule(throttlingSchedule);
         processingUnitRunnable.run();
         long result =  processingUnitRunnable.getProcessingUnitProgress().getNumberOfProcessedUnits();
         processingUnitRunnable.releaseResource();
@@ -150,6 +163,7 @@ public class TestProcessingUnitRunner implements Serializable {
 
         processingUnitRunnable = new TestProcessingUnitRunnable(processingUnitClass, parameterList, processingUnitContext);
         processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+        processingUnitRunnable.setThrottlingSchedule(throttlingSchedule);
         processingUnitRunnable.setSuspendAfterCycles(suspendAfterCycles);
 
         byte[] suspendedState = null;
@@ -170,10 +184,10 @@ public class TestProcessingUnitRunner implements Serializable {
                     // sleep..
                     ThreadUtil.getInstance().sleep(suspendSleepTime);
                     
-                    processingUnitRunnable = new TestProcessingUnitRunnable(suspendedState);
+                    processingUnitRunnable = new TestProcessingUnitRunnable(suspendedState, resumeParameterList);
                     processingUnitRunnable.setSuspendAfterCycles(suspendAfterCycles);
                 } else {
-                    processingUnitRunnable = new TestProcessingUnitRunnable(suspendedState);
+                    processingUnitRunnable = new TestProcessingUnitRunnable(suspendedState, resumeParameterList);
                     processingUnitRunnable.run();
                 }
             }
@@ -185,6 +199,55 @@ public class TestProcessingUnitRunner implements Serializable {
     }
 
 
+    /**
+     * Run a benchmark of a processing unit: it runs the processing unit for each combination of the parameter matrix and the
+     * max number of processing unit calls per second. Each configuration runs first the warmup iterations which are not
+     * measured and then the measured iterations.
+     *
+     * @param processingUnitClass the processing unit class
+     * @param parameterList the parameter list which is common for all configurations
+     * @param parameterMatrix the parameter values to combine by parameter key, e.g. the numberOfThreads or the lockSize
+     * @param maxNumberOfProcessingUnitCallsPerSecondList the max number of calls per second to combine, null for no throttling
+     * @param numberOfWarmupIterations the number of warmup iterations per configuration
+     * @param numberOfIterations the number of measured iterations per configuration
+     * @return the result per configuration
+     * @throws ValidationException In case the processing can not be initilized 
+     * @throws ProcessingException In case of an error in a processing
+     */
+    public List<ProcessingUnitBenchmarkResult> runBenchmark(Class<? extends IProcessingUnit> processingUnitClass, // CHECKSTYLE IGNORE THIS LINE
+                                                            List<Parameter> parameterList,
+                                                            Map<String, List<String>> parameterMatrix,
+                                                            List<Long> maxNumberOfProcessingUnitCallsPerSecondList,
+                                                            int numberOfWarmupIterations,
+                                                            int numberOfIterations) throws ValidationException, ProcessingException {
+        List<Long> throttlingList = maxNumberOfProcessingUnitCallsPerSecondList;
+        if (throttlingList == null || throttlingList.isEmpty()) {
+            throttlingList = Arrays.asList((Long) null);
+        }
+
+        final List<ProcessingUnitBenchmarkResult> resultList = new ArrayList<ProcessingUnitBenchmarkResult>();
+        for (List<Parameter> configuration : createParameterCombinations(parameterMatrix)) {
+            final List<Parameter> configurationParameterList = mergeParameterList(parameterList, configuration);
+            for (Long maxNumberOfProcessingUnitCallsPerSecond : throttlingList) {
+                for (int i = 0; i < numberOfWarmupIterations; i++) {
+                    runBenchmarkIteration(processingUnitClass, configurationParameterList, maxNumberOfProcessingUnitCallsPerSecond, null);
+                }
+
+                final ProcessingUnitBenchmarkRecorder benchmarkRecorder = new ProcessingUnitBenchmarkRecorder();
+                for (int i = 0; i < numberOfIterations; i++) {
+                    runBenchmarkIteration(processingUnitClass, configurationParameterList, maxNumberOfProcessingUnitCallsPerSecond, benchmarkRecorder);
+                }
+
+                final ProcessingUnitBenchmarkResult result = benchmarkRecorder.toResult(configuration, maxNumberOfProcessingUnitCallsPerSecond);
+                LOG.info("Benchmark " + processingUnitClass.getName() + ": " + result);
+                resultList.add(result);
+            }
+        }
+
+        return resultList;
+    }
+
+
     /**
      * Set the processing context
      *
@@ -197,6 +260,42 @@ public class TestProcessingUnitRunner implements Serializable {
     }
 
     
+    /**
+     * Set the parameters which replace the persisted parameters on resume, e.g. a different number of threads
+     *
+     * @param resumeParameterList the parameters which replace the persisted parameters on resume
+     * @return this instance
+     */
+    public TestProcessingUnitRunner resumeParameterList(List<Parameter> resumeParameterList) {
+        this.resumeParameterList = resumeParameterList;
+        return this;
+    }
+
+    
+    /**
+     * Set the deadline to end the processing
+     *
+     * @param deadline the deadline or null
+     * @return this instance
+     */
+    public TestProcessingUnitRunner deadline(ProcessingUnitDeadline deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    
+    /**
+     * Set the throttling schedule, it is only set on the start: a resumed processing keeps the persisted schedule
+     *
+     * @param throttlingSchedule the throttling schedule or null
+     * @return this instance
+     */
+    public TestProcessingUnitRunner throttlingSchedule(ProcessingUnitThrottlingSchedule throttlingSchedule) {
+        this.throttlingSchedule = throttlingSchedule;
+        return this;
+    }
+
+    
     /**
      * Gets the suspend counter
      *
@@ -318,6 +417,16 @@ public class TestProcessingUnitRunner implements Serializable {
     }
 
     
+    /**
+     * Get the throttling schedule of the processing unit
+     *
+     * @return the throttling schedule or null
+     */
+    public ProcessingUnitThrottlingSchedule getThrottlingSchedule() {
+        return processingUnitRunnable.getThrottlingSchedule();
+    }
+
+    
     /** 
      * Get the empty processing unit handler
      *
@@ -355,4 +464,99 @@ public class TestProcessingUnitRunner implements Serializable {
     public String toString() {
         return processingUnitRunnable.toString();
     }
+
+
+    /**
+     * Run a benchmark iteration
+     *
+     * @param processingUnitClass the processing unit class
+     * @param parameterList the parameter list
+     * @param maxNumberOfProcessingUnitCallsPerSecond the max number of calls per second of the processing unit or null
+     * @param benchmarkRecorder the benchmark recorder or null for a warmup iteration
+     * @throws ValidationException In case the processing can not be initilized 
+     * @throws ProcessingException In case of an error in a processing
+     */
+    private void runBenchmarkIteration(Class<? extends IProcessingUnit> processingUnitClass, 
+                                       List<Parameter> parameterList, 
+                                       Long maxNumberOfProcessingUnitCallsPerSecond, 
+                                       ProcessingUnitBenchmarkRecorder benchmarkRecorder) throws ValidationException, ProcessingException {
+        processingUnitRunnable = new TestProcessingUnitRunnable(processingUnitClass, parameterList, processingUnitContext);
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(maxNumberOfProcessingUnitCallsPerSecond);
+        processingUnitRunnable.setBenchmarkRecorder(benchmarkRecorder);
+        
+        final long start = System.nanoTime();
+        processingUnitRunnable.run();
+        final long duration = System.nanoTime() - start;
+        
+        if (benchmarkRecorder != null) {
+            benchmarkRecorder.addRun(duration, 
+                                     processingUnitRunnable.getProcessingUnitProgress().getNumberOfProcessedUnits(), 
+                                     ProcessingActionStatus.ENDED.equals(processingUnitRunnable.getProcessingActionStatus()));
+        }
+        processingUnitRunnable.releaseResource();
+    }
+
+
+    /**
+     * Create all combinations of the parameter matrix
+     *
+     * @param parameterMatrix the parameter values by parameter key
+     * @return the combinations, at least one empty combination
+     */
+    private List<List<Parameter>> createParameterCombinations(Map<String, List<String>> parameterMatrix) {
+        List<List<Parameter>> combinationList = new ArrayList<List<Parameter>>();
+        combinationList.add(new ArrayList<Parameter>());
+        if (parameterMatrix == null) {
+            return combinationList;
+        }
+
+        for (Map.Entry<String, List<String>> entry : parameterMatrix.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            final List<List<Parameter>> newCombinationList = new ArrayList<List<Parameter>>();
+            for (List<Parameter> combination : combinationList) {
+                for (String value : entry.getValue()) {
+                    final List<Parameter> newCombination = new ArrayList<Parameter>(combination);
+                    newCombination.add(new Parameter(entry.getKey(), value));
+                    newCombinationList.add(newCombination);
+                }
+            }
+            combinationList = newCombinationList;
+        }
+
+        return combinationList;
+    }
+
+
+    /**
+     * Merge the parameters of a configuration into the common parameters: a parameter of the configuration replaces a common
+     * parameter with the same key
+     *
+     * @param parameterList the common parameters or null
+     * @param configuration the parameters of the configuration
+     * @return the merged parameter list
+     */
+    private List<Parameter> mergeParameterList(List<Parameter> parameterList, List<Parameter> configuration) {
+        final List<Parameter> result = new ArrayList<Parameter>();
+        if (parameterList != null) {
+            for (Parameter parameter : parameterList) {
+                boolean isReplaced = false;
+                for (Parameter configurationParameter : configuration) {
+                    if (configurationParameter.getKey().equals(parameter.getKey())) {
+                        isReplaced = true;
+                        break;
+                    }
+                }
+                
+                if (!isReplaced) {
+                    result.add(parameter);
+                }
+            }
+        }
+
+        result.addAll(configuration);
+        return result;
+    }
 }
@@ -70,8 +70,49 @@ public class ProcessingUnitProgressFormatter {
                            IProcessingUnitRuntimeTimeMeasurement timeMeasurement, 
                            IBandwidthThrottling processingUnitThrottling,
                            IProcessingUnitPersistence processingPersistence) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(ProcessingUnitUtil.getInstance().toString(id, name, processingUnitClass));
+        return format(new StringBuilder(), 
+                      ProcessingUnitUtil.getInstance().toString(id, name, processingUnitClass),
+                      prepareParameters(startTag, parameters),
+                      processingUnitContext,
+                      processingProgress, 
+                      processingActionStatus, 
+                      processingRuntimeStatus, 
+                      messages,
+                      timeMeasurement, 
+                      processingUnitThrottling,
+                      processingPersistence).toString();
+    }    
+
+
+    /**
+     * Format process unit progress into the given builder. The static parts, the processing information and the 
+     * prepared parameters, are passed already prepared that they can be cached by the caller.
+     *
+     * @param builder the builder to append to
+     * @param processingInfo the processing information, see {@link ProcessingUnitUtil#toString(String, String, String)}
+     * @param preparedParameters the prepared parameters, see {@link #prepareParameters(String, List)}
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @param processingPersistence the processing persistence
+     * @return the builder
+     */
+    public StringBuilder format(StringBuilder builder, // CHECKSTYLE IGNORE THIS LINE
+                                CharSequence processingInfo,
+                                CharSequence preparedParameters,
+                                IProcessingUnitContext processingUnitContext,
+                                IProcessingUnitProgress processingProgress, 
+                                ProcessingActionStatus processingActionStatus,
+                                ProcessingRuntimeStatus processingRuntimeStatus,
+                                List<String> messages,
+                                IProcessingUnitRuntimeTimeMeasurement timeMeasurement, 
+                                IBandwidthThrottling processingUnitThrottling,
+                                IProcessingUnitPersistence processingPersistence) {
+        builder.append(processingInfo);
         if (processingActionStatus != null) {
             builder.append(" Status ").append(processingActionStatus);
         }
@@ -80,23 +121,28 @@ public class ProcessingUnitProgressFormatter {
             builder.append(": ").append(processingProgress.getProgress()).append("%");
         }
         
-        builder.append(prepareProgressNumbers(startTag, processingProgress, true));
+        appendProgressNumbers(builder, startTag, processingProgress, true);
         if (processingProgress != null && processingRuntimeStatus != null) {
             builder.append(" -> ").append(processingRuntimeStatus);
         }
         
-        builder.append(prepareParameters(startTag, parameters));
-        builder.append(prepareProcessingContext(startTag, processingUnitContext));
-        builder.append(prepareTimeMeasurement(startTag, timeMeasurement));
-        builder.append(prepareMessages(startTag, messages));
+        if (preparedParameters != null) {
+            builder.append(preparedParameters);
+        }
+        
+        appendProcessingContext(builder, startTag, processingUnitContext);
+        appendTimeMeasurement(builder, startTag, timeMeasurement);
+        appendThroughput(builder, startTag, processingProgress);
+        appendResourceUsage(builder, startTag, processingProgress);
+        appendMessages(builder, startTag, messages);
         
         if (processingProgress != null && processingProgress.getProcessingUnitStatistic() != null) {
-            builder.append(prepareStatistic(startTag, processingProgress.getProcessingUnitStatistic()));
+            appendStatistic(builder, startTag, processingProgress.getProcessingUnitStatistic());
         }
         
-        builder.append(prepareBandwidthThrottling(startTag, processingUnitThrottling));
-        builder.append(prepareProcesingPersistenceContainer(startTag, processingPersistence));
-        return builder.toString();
+        appendBandwidthThrottling(builder, startTag, processingUnitThrottling);
+        appendProcesingPersistenceContainer(builder, startTag, processingPersistence);
+        return builder;
     }    
     
     
@@ -109,7 +155,20 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareProgressNumbers(String header, IProcessingUnitProgress processingProgress, boolean includeUnprocessed) {
-        StringBuilder builder = new StringBuilder();
+        return appendProgressNumbers(new StringBuilder(), header, processingProgress, includeUnprocessed);
+    }
+
+    
+    /**
+     * Append process unit runtime time measurement
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingProgress the processing progress
+     * @param includeUnprocessed true to include unprocessed units
+     * @return the builder
+     */
+    public StringBuilder appendProgressNumbers(StringBuilder builder, String header, IProcessingUnitProgress processingProgress, boolean includeUnprocessed) {
         if (processingProgress == null) {
             return builder;
         }
@@ -136,7 +195,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareParameters(String header, List<Parameter> parameters) {
-        StringBuilder builder = new StringBuilder();
+        return appendParameters(new StringBuilder(), header, parameters);
+    }
+
+    
+    /**
+     * Append parameters
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param parameters the parameters
+     * @return the builder
+     */
+    public StringBuilder appendParameters(StringBuilder builder, String header, List<Parameter> parameters) {
         if (parameters == null || parameters.isEmpty()) {
             return builder;
         }
@@ -173,7 +244,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareProcessingContext(String header, IProcessingUnitContext processingUnitContext) {
-        StringBuilder builder = new StringBuilder();
+        return appendProcessingContext(new StringBuilder(), header, processingUnitContext);
+    }
+
+    
+    /**
+     * Append process context
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingUnitContext the processing context
+     * @return the builder
+     */
+    public StringBuilder appendProcessingContext(StringBuilder builder, String header, IProcessingUnitContext processingUnitContext) {
         if (processingUnitContext == null || processingUnitContext.isEmpty()) {
             return builder;
         }
@@ -207,7 +290,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareTimeMeasurement(String header, IProcessingUnitRuntimeTimeMeasurement timeMeasurement) {
-        StringBuilder builder = new StringBuilder();
+        return appendTimeMeasurement(new StringBuilder(), header, timeMeasurement);
+    }
+
+    
+    /**
+     * Append process unit runtime time measurement
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param timeMeasurement the runtime time measurement
+     * @return the builder
+     */
+    public StringBuilder appendTimeMeasurement(StringBuilder builder, String header, IProcessingUnitRuntimeTimeMeasurement timeMeasurement) {
         if (timeMeasurement == null) {
             return builder;
         }
@@ -236,6 +331,97 @@ public class ProcessingUnitProgressFormatter {
     }
 
     
+    /**
+     * Prepare process unit throughput: the rate, the moving averages and the estimated time remaining
+     *
+     * @param header the message header
+     * @param processingProgress the processing progress
+     * @return the prepared string
+     */
+    public StringBuilder prepareThroughput(String header, IProcessingUnitProgress processingProgress) {
+        return appendThroughput(new StringBuilder(), header, processingProgress);
+    }
+
+    
+    /**
+     * Append process unit throughput: the rate, the moving averages and the estimated time remaining
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingProgress the processing progress
+     * @return the builder
+     */
+    public StringBuilder appendThroughput(StringBuilder builder, String header, IProcessingUnitProgress processingProgress) {
+        if (processingProgress == null) {
+            return builder;
+        }
+        
+        builder.append(header);
+        builder.append("Throughput (units/s): rate ").append(RoundUtil.getInstance().round(processingProgress.getRate(), 2))
+               .append(", 10s ").append(RoundUtil.getInstance().round(processingProgress.getThroughputLast10Seconds(), 2))
+               .append(", 1m ").append(RoundUtil.getInstance().round(processingProgress.getThroughputLastMinute(), 2))
+               .append(", 5m ").append(RoundUtil.getInstance().round(processingProgress.getThroughputLast5Minutes(), 2))
+               .append(", estimated time remaining ");
+        
+        final long estimatedTimeRemaining = processingProgress.getEstimatedTimeRemaining();
+        if (estimatedTimeRemaining >= 0) {
+            builder.append(timeDifferenceFormatter.get().formatAsString(estimatedTimeRemaining));
+        } else {
+            builder.append("n/a");
+        }
+        return builder;
+    }
+
+    
+    /**
+     * Prepare process unit resource usage: the CPU utilisation and the allocated bytes per unit
+     *
+     * @param header the message header
+     * @param processingProgress the processing progress
+     * @return the prepared string
+     */
+    public StringBuilder prepareResourceUsage(String header, IProcessingUnitProgress processingProgress) {
+        return appendResourceUsage(new StringBuilder(), header, processingProgress);
+    }
+
+    
+    /**
+     * Append process unit resource usage: the CPU utilisation and the allocated bytes per unit
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingProgress the processing progress
+     * @return the builder
+     */
+    public StringBuilder appendResourceUsage(StringBuilder builder, String header, IProcessingUnitProgress processingProgress) {
+        if (processingProgress == null) {
+            return builder;
+        }
+        
+        final double cpuUtilisation = processingProgress.getCpuUtilisation();
+        final long allocatedBytesPerUnit = processingProgress.getAllocatedBytesPerUnit();
+        if (cpuUtilisation < 0 && allocatedBytesPerUnit < 0) {
+            return builder;
+        }
+
+        builder.append(header);
+        builder.append("Resource usage: CPU utilisation ");
+        if (cpuUtilisation >= 0) {
+            builder.append(RoundUtil.getInstance().round(cpuUtilisation * 100.0, 2)).append("%");
+        } else {
+            builder.append("n/a");
+        }
+        
+        builder.append(", allocated bytes per unit ");
+        if (allocatedBytesPerUnit >= 0) {
+            builder.append(allocatedBytesPerUnit);
+        } else {
+            builder.append("n/a");
+        }
+        return builder;
+    }
+
+    
     /**
      * Prepare process unit messages
      *
@@ -244,8 +430,20 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareMessages(String header, List<String> messages) {
+        return appendMessages(new StringBuilder(), header, messages);
+    }
+
+    
+    /**
+     * Append process unit messages
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param messages the processing unit messages
+     * @return the builder
+     */
+    public StringBuilder appendMessages(StringBuilder builder, String header, List<String> messages) {
         //boolean hasNotEnded = timeMeasurement.getStopTimestamp() == null;
-        StringBuilder builder = new StringBuilder();
         if (messages == null || messages.isEmpty()) {
             return builder;
         }
@@ -264,7 +462,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareStatistic(String header, IProcessingUnitStatistic processingStatistic) {
-        StringBuilder builder = new StringBuilder();
+        return appendStatistic(new StringBuilder(), header, processingStatistic);
+    }
+
+    
+    /**
+     * Append process unit statistic
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingStatistic the processing unit statistic
+     * @return the builder
+     */
+    public StringBuilder appendStatistic(StringBuilder builder, String header, IProcessingUnitStatistic processingStatistic) {
         if (processingStatistic == null || processingStatistic.isEmpty()) {
             return builder;
         }
@@ -305,7 +515,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareBandwidthThrottling(String header, IBandwidthThrottling bandwidthThrottling) {
-        StringBuilder builder = new StringBuilder();
+        return appendBandwidthThrottling(new StringBuilder(), header, bandwidthThrottling);
+    }
+
+    
+    /**
+     * Append process unit bandwidth throttling
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param bandwidthThrottling the bandwidth throttling
+     * @return the builder
+     */
+    public StringBuilder appendBandwidthThrottling(StringBuilder builder, String header, IBandwidthThrottling bandwidthThrottling) {
         if (bandwidthThrottling == null) {
             return builder;
         }
@@ -329,7 +551,19 @@ public class ProcessingUnitProgressFormatter {
      * @return the prepared string
      */
     public StringBuilder prepareProcesingPersistenceContainer(String header, IProcessingUnitPersistence processingPersistence) {
-        StringBuilder builder = new StringBuilder();
+        return appendProcesingPersistenceContainer(new StringBuilder(), header, processingPersistence);
+    }
+
+    
+    /**
+     * Append process unit persistence
+     *
+     * @param builder the builder to append to
+     * @param header the message header
+     * @param processingPersistence the processing persistence
+     * @return the builder
+     */
+    public StringBuilder appendProcesingPersistenceContainer(StringBuilder builder, String header, IProcessingUnitPersistence processingPersistence) {
         if (processingPersistence == null) {
             return builder;
         }
@@ -0,0 +1,435 @@
+/*
+ * ProcessingUnitProgressJsonFormatter.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.util;
+
+import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
+import com.github.toolarium.common.statistic.StatisticCounter;
+import com.github.toolarium.common.util.RoundUtil;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatistic;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
+import java.util.List;
+
+
+/**
+ * Defines a processing unit progress formatter which formats the progress as a JSON object.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitProgressJsonFormatter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+
+    /**
+     * Format process unit progress
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the formatted JSON object
+     */
+    public String toString(String id, // CHECKSTYLE IGNORE THIS LINE
+                           String name,
+                           String processingUnitClass,
+                           List<Parameter> parameters,
+                           IProcessingUnitContext processingUnitContext,
+                           IProcessingUnitProgress processingProgress,
+                           ProcessingActionStatus processingActionStatus,
+                           ProcessingRuntimeStatus processingRuntimeStatus,
+                           List<String> messages,
+                           IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                           IBandwidthThrottling processingUnitThrottling) {
+        return format(new StringBuilder(),
+                      appendProcessingInfo(new StringBuilder(), id, name, processingUnitClass),
+                      appendParameters(new StringBuilder(), parameters),
+                      processingUnitContext,
+                      processingProgress,
+                      processingActionStatus,
+                      processingRuntimeStatus,
+                      messages,
+                      timeMeasurement,
+                      processingUnitThrottling).toString();
+    }
+
+
+    /**
+     * Format process unit progress into the given builder. The static parts, the processing information and the
+     * prepared parameters, are passed already prepared that they can be cached by the caller.
+     *
+     * @param builder the builder to append to
+     * @param processingInfo the processing information, see {@link #appendProcessingInfo(StringBuilder, String, String, String)}
+     * @param preparedParameters the prepared parameters, see {@link #appendParameters(StringBuilder, List)}
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the builder
+     */
+    public StringBuilder format(StringBuilder builder, // CHECKSTYLE IGNORE THIS LINE
+                                CharSequence processingInfo,
+                                CharSequence preparedParameters,
+                                IProcessingUnitContext processingUnitContext,
+                                IProcessingUnitProgress processingProgress,
+                                ProcessingActionStatus processingActionStatus,
+                                ProcessingRuntimeStatus processingRuntimeStatus,
+                                List<String> messages,
+                                IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                                IBandwidthThrottling processingUnitThrottling) {
+        builder.append('{').append(processingInfo);
+        if (processingActionStatus != null) {
+            builder.append(",\"processingActionStatus\":\"").append(processingActionStatus).append('"');
+        }
+
+        if (processingProgress != null && processingRuntimeStatus != null) {
+            builder.append(",\"processingRuntimeStatus\":\"").append(processingRuntimeStatus).append('"');
+        }
+
+        appendProgress(builder, processingProgress);
+        if (preparedParameters != null) {
+            builder.append(preparedParameters);
+        }
+
+        appendProcessingContext(builder, processingUnitContext);
+        appendTimeMeasurement(builder, timeMeasurement);
+        appendMessages(builder, messages);
+        if (processingProgress != null) {
+            appendStatistic(builder, processingProgress.getProcessingUnitStatistic());
+        }
+
+        appendBandwidthThrottling(builder, processingUnitThrottling);
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append the processing information: the id, the name and the processing unit class
+     *
+     * @param builder the builder to append to
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @return the builder
+     */
+    public StringBuilder appendProcessingInfo(StringBuilder builder, String id, String name, String processingUnitClass) {
+        builder.append("\"id\":");
+        appendString(builder, id);
+        if (name != null && !name.isBlank()) {
+            builder.append(",\"name\":");
+            appendString(builder, name);
+        }
+
+        if (processingUnitClass != null) {
+            builder.append(",\"processingUnitClass\":");
+            appendString(builder, processingUnitClass);
+        }
+        return builder;
+    }
+
+
+    /**
+     * Append the progress numbers, the throughput and the resource usage
+     *
+     * @param builder the builder to append to
+     * @param processingProgress the processing progress
+     * @return the builder
+     */
+    public StringBuilder appendProgress(StringBuilder builder, IProcessingUnitProgress processingProgress) {
+        if (processingProgress == null) {
+            return builder;
+        }
+
+        builder.append(",\"progress\":").append(processingProgress.getProgress())
+               .append(",\"numberOfUnitsToProcess\":").append(processingProgress.getNumberOfUnitsToProcess())
+               .append(",\"numberOfProcessedUnits\":").append(processingProgress.getNumberOfProcessedUnits())
+               .append(",\"numberOfSuccessfulUnits\":").append(processingProgress.getNumberOfSuccessfulUnits())
+               .append(",\"numberOfFailedUnits\":").append(processingProgress.getNumberOfFailedUnits())
+               .append(",\"numberOfUnprocessedUnits\":").append(processingProgress.getNumberOfUnprocessedUnits())
+               .append(",\"throughput\":{\"rate\":");
+        appendNumber(builder, processingProgress.getRate());
+        builder.append(",\"last10Seconds\":");
+        appendNumber(builder, processingProgress.getThroughputLast10Seconds());
+        builder.append(",\"lastMinute\":");
+        appendNumber(builder, processingProgress.getThroughputLastMinute());
+        builder.append(",\"last5Minutes\":");
+        appendNumber(builder, processingProgress.getThroughputLast5Minutes());
+        builder.append('}');
+
+        final long estimatedTimeRemaining = processingProgress.getEstimatedTimeRemaining();
+        if (estimatedTimeRemaining >= 0) {
+            builder.append(",\"estimatedTimeRemaining\":").append(estimatedTimeRemaining);
+        }
+
+        final double cpuUtilisation = processingProgress.getCpuUtilisation();
+        if (cpuUtilisation >= 0) {
+            builder.append(",\"cpuUtilisation\":");
+            appendNumber(builder, cpuUtilisation);
+        }
+
+        final long allocatedBytesPerUnit = processingProgress.getAllocatedBytesPerUnit();
+        if (allocatedBytesPerUnit >= 0) {
+            builder.append(",\"allocatedBytesPerUnit\":").append(allocatedBytesPerUnit);
+        }
+        return builder;
+    }
+
+
+    /**
+     * Append the parameters
+     *
+     * @param builder the builder to append to
+     * @param parameters the parameters
+     * @return the builder
+     */
+    public StringBuilder appendParameters(StringBuilder builder, List<Parameter> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return builder;
+        }
+
+        builder.append(",\"parameters\":{");
+        boolean addSeparator = false;
+        for (Parameter parameter : parameters) {
+            if (addSeparator) {
+                builder.append(',');
+            } else {
+                addSeparator = true;
+            }
+
+            appendString(builder, parameter.getKey());
+            builder.append(':');
+            if (parameter.getParameterValue() != null) {
+                appendStringList(builder, parameter.getParameterValue().getValueAsStringList());
+            } else {
+                builder.append("null");
+            }
+        }
+
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append the process context
+     *
+     * @param builder the builder to append to
+     * @param processingUnitContext the processing context
+     * @return the builder
+     */
+    public StringBuilder appendProcessingContext(StringBuilder builder, IProcessingUnitContext processingUnitContext) {
+        if (processingUnitContext == null || processingUnitContext.isEmpty()) {
+            return builder;
+        }
+
+        builder.append(",\"context\":{");
+        boolean addSeparator = false;
+        for (String key : processingUnitContext.keySet()) {
+            if (addSeparator) {
+                builder.append(',');
+            } else {
+                addSeparator = true;
+            }
+
+            appendString(builder, key);
+            builder.append(':');
+            appendString(builder, processingUnitContext.get(key));
+        }
+
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append the process unit runtime time measurement
+     *
+     * @param builder the builder to append to
+     * @param timeMeasurement the runtime time measurement
+     * @return the builder
+     */
+    public StringBuilder appendTimeMeasurement(StringBuilder builder, IProcessingUnitRuntimeTimeMeasurement timeMeasurement) {
+        if (timeMeasurement == null) {
+            return builder;
+        }
+
+        builder.append(",\"timeMeasurement\":{\"duration\":").append(timeMeasurement.getDuration());
+        if (timeMeasurement.getStartTimestamp() != null) {
+            builder.append(",\"started\":\"").append(timeMeasurement.getStartTimestamp()).append('"');
+        }
+
+        if (timeMeasurement.getStopTimestamp() != null) {
+            builder.append(",\"ended\":\"").append(timeMeasurement.getStopTimestamp()).append('"');
+        }
+
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append the process unit messages
+     *
+     * @param builder the builder to append to
+     * @param messages the processing unit messages
+     * @return the builder
+     */
+    public StringBuilder appendMessages(StringBuilder builder, List<String> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return builder;
+        }
+
+        builder.append(",\"messages\":");
+        return appendStringList(builder, messages);
+    }
+
+
+    /**
+     * Append the process unit statistic
+     *
+     * @param builder the builder to append to
+     * @param processingStatistic the processing unit statistic
+     * @return the builder
+     */
+    public StringBuilder appendStatistic(StringBuilder builder, IProcessingUnitStatistic processingStatistic) {
+        if (processingStatistic == null || processingStatistic.isEmpty()) {
+            return builder;
+        }
+
+        builder.append(",\"statistic\":{");
+        boolean addSeparator = false;
+        for (String key : processingStatistic.keySet()) {
+            if (addSeparator) {
+                builder.append(',');
+            } else {
+                addSeparator = true;
+            }
+
+            final StatisticCounter statisticCounter = processingStatistic.get(key);
+            appendString(builder, key);
+            builder.append(":{\"avg\":");
+            appendNumber(builder, statisticCounter.getAverage());
+            builder.append(",\"num\":").append(statisticCounter.getCounter()).append(",\"sum\":");
+            appendNumber(builder, statisticCounter.getSum());
+            builder.append('}');
+        }
+
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append the process unit bandwidth throttling
+     *
+     * @param builder the builder to append to
+     * @param bandwidthThrottling the bandwidth throttling
+     * @return the builder
+     */
+    public StringBuilder appendBandwidthThrottling(StringBuilder builder, IBandwidthThrottling bandwidthThrottling) {
+        if (bandwidthThrottling == null) {
+            return builder;
+        }
+
+        builder.append(",\"throttling\":{\"avg\":");
+        appendNumber(builder, bandwidthThrottling.getBandwidthStatisticCounter().getAverage());
+        builder.append(",\"sd\":");
+        appendNumber(builder, bandwidthThrottling.getBandwidthStatisticCounter().getStandardDeviation());
+        builder.append(",\"num\":").append(bandwidthThrottling.getBandwidthStatisticCounter().getCounter());
+        return builder.append('}');
+    }
+
+
+    /**
+     * Append a string list as JSON array
+     *
+     * @param builder the builder to append to
+     * @param values the values
+     * @return the builder
+     */
+    public StringBuilder appendStringList(StringBuilder builder, List<String> values) {
+        if (values == null) {
+            return builder.append("null");
+        }
+
+        builder.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            appendString(builder, values.get(i));
+        }
+        return builder.append(']');
+    }
+
+
+    /**
+     * Append a string as quoted and escaped JSON string
+     *
+     * @param builder the builder to append to
+     * @param value the value
+     * @return the builder
+     */
+    public StringBuilder appendString(StringBuilder builder, String value) {
+        if (value == null) {
+            return builder.append("null");
+        }
+
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"');
+    }
+
+
+    /**
+     * Append a number rounded to two decimals, a number which is not finite is appended as null
+     *
+     * @param builder the builder to append to
+     * @param value the value
+     * @return the builder
+     */
+    public StringBuilder appendNumber(StringBuilder builder, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return builder.append("null");
+        }
+
+        return builder.append(RoundUtil.getInstance().round(value, 2));
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * ProcessingUnitStatusRenderer.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.util;
+
+import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * Renders the status of one processing as text or as JSON object. The static parts (id, name, processing unit class and
+ * the parameters) are prepared once, the dynamic parts are written directly into a reusable buffer of the current thread.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitStatusRenderer {
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+    private final ProcessingUnitProgressFormatter processingUnitProgressFormatter;
+    private final ProcessingUnitProgressJsonFormatter processingUnitProgressJsonFormatter;
+    private final String processingInfo;
+    private final String jsonProcessingInfo;
+    private volatile PreparedParameters preparedParameters;
+
+
+    /**
+     * Constructor for ProcessingUnitStatusRenderer
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     */
+    public ProcessingUnitStatusRenderer(String id, String name, String processingUnitClass) {
+        this.processingUnitProgressFormatter = new ProcessingUnitProgressFormatter(" - ");
+        this.processingUnitProgressJsonFormatter = new ProcessingUnitProgressJsonFormatter();
+        this.processingInfo = ProcessingUnitUtil.getInstance().toString(id, name, processingUnitClass);
+        this.jsonProcessingInfo = processingUnitProgressJsonFormatter.appendProcessingInfo(new StringBuilder(), id, name, processingUnitClass).toString();
+        this.preparedParameters = null;
+    }
+
+
+    /**
+     * Get the processing information, see {@link ProcessingUnitUtil#toString(String, String, String)}
+     *
+     * @return the processing information
+     */
+    public String getProcessingInfo() {
+        return processingInfo;
+    }
+
+
+    /**
+     * Render the status as text into the given builder
+     *
+     * @param builder the builder to append to
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the builder
+     */
+    public StringBuilder render(StringBuilder builder, // CHECKSTYLE IGNORE THIS LINE
+                                List<Parameter> parameters,
+                                IProcessingUnitContext processingUnitContext,
+                                IProcessingUnitProgress processingProgress,
+                                ProcessingActionStatus processingActionStatus,
+                                ProcessingRuntimeStatus processingRuntimeStatus,
+                                List<String> messages,
+                                IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                                IBandwidthThrottling processingUnitThrottling) {
+        return processingUnitProgressFormatter.format(builder,
+                                                      processingInfo,
+                                                      getPreparedParameters(parameters).text,
+                                                      processingUnitContext,
+                                                      processingProgress,
+                                                      processingActionStatus,
+                                                      processingRuntimeStatus,
+                                                      messages,
+                                                      timeMeasurement,
+                                                      processingUnitThrottling,
+                                                      null);
+    }
+
+
+    /**
+     * Render the status as JSON object into the given builder
+     *
+     * @param builder the builder to append to
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the builder
+     */
+    public StringBuilder renderJson(StringBuilder builder, // CHECKSTYLE IGNORE THIS LINE
+                                    List<Parameter> parameters,
+                                    IProcessingUnitContext processingUnitContext,
+                                    IProcessingUnitProgress processingProgress,
+                                    ProcessingActionStatus processingActionStatus,
+                                    ProcessingRuntimeStatus processingRuntimeStatus,
+                                    List<String> messages,
+                                    IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                                    IBandwidthThrottling processingUnitThrottling) {
+        return processingUnitProgressJsonFormatter.format(builder,
+                                                          jsonProcessingInfo,
+                                                          getPreparedParameters(parameters).json,
+                                                          processingUnitContext,
+                                                          processingProgress,
+                                                          processingActionStatus,
+                                                          processingRuntimeStatus,
+                                                          messages,
+                                                          timeMeasurement,
+                                                          processingUnitThrottling);
+    }
+
+
+    /**
+     * Render the status as text by the reusable buffer of the current thread
+     *
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the rendered status
+     */
+    public String toString(List<Parameter> parameters, // CHECKSTYLE IGNORE THIS LINE
+                           IProcessingUnitContext processingUnitContext,
+                           IProcessingUnitProgress processingProgress,
+                           ProcessingActionStatus processingActionStatus,
+                           ProcessingRuntimeStatus processingRuntimeStatus,
+                           List<String> messages,
+                           IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                           IBandwidthThrottling processingUnitThrottling) {
+        final StringBuilder builder = getBuffer();
+        return render(builder, parameters, processingUnitContext, processingProgress, processingActionStatus, processingRuntimeStatus, messages, timeMeasurement, processingUnitThrottling).toString();
+    }
+
+
+    /**
+     * Render the status as JSON object by the reusable buffer of the current thread
+     *
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the processing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the rendered status
+     */
+    public String toJson(List<Parameter> parameters, // CHECKSTYLE IGNORE THIS LINE
+                         IProcessingUnitContext processingUnitContext,
+                         IProcessingUnitProgress processingProgress,
+                         ProcessingActionStatus processingActionStatus,
+                         ProcessingRuntimeStatus processingRuntimeStatus,
+                         List<String> messages,
+                         IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                         IBandwidthThrottling processingUnitThrottling) {
+        final StringBuilder builder = getBuffer();
+        return renderJson(builder, parameters, processingUnitContext, processingProgress, processingActionStatus, processingRuntimeStatus, messages, timeMeasurement, processingUnitThrottling).toString();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return processingInfo;
+    }
+
+
+    /**
+     * Get the prepared parameters, they are only prepared again in case the content of the parameter list has changed (e.g. 
+     * on a resume)
+     *
+     * @param parameters the parameters
+     * @return the prepared parameters
+     */
+    private PreparedParameters getPreparedParameters(List<Parameter> parameters) {
+        PreparedParameters result = preparedParameters;
+        if (result == null || !Objects.equals(result.parameters, parameters)) {
+            result = new PreparedParameters(parameters,
+                                            processingUnitProgressFormatter.prepareParameters(processingUnitProgressFormatter.getStartTag(), parameters).toString(),
+                                            processingUnitProgressJsonFormatter.appendParameters(new StringBuilder(), parameters).toString());
+            preparedParameters = result;
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Get the empty reusable buffer of the current thread, a buffer which has grown too large is not kept
+     *
+     * @return the buffer
+     */
+    private StringBuilder getBuffer() {
+        StringBuilder builder = BUFFER.get();
+        if (builder.capacity() > MAX_BUFFER_CAPACITY) {
+            builder = new StringBuilder(INITIAL_BUFFER_CAPACITY);
+            BUFFER.set(builder);
+        }
+
+        builder.setLength(0);
+        return builder;
+    }
+
+
+    /**
+     * The prepared parameters
+     */
+    private static class PreparedParameters {
+        private final List<Parameter> parameters;
+        private final String text;
+        private final String json;
+
+
+        /**
+         * Constructor for PreparedParameters
+         *
+         * @param parameters the parameters, a copy is kept to detect a change of the content
+         * @param text the parameters as text
+         * @param json the parameters as JSON
+         */
+        PreparedParameters(List<Parameter> parameters, String text, String json) {
+            if (parameters == null) {
+                this.parameters = null;
+            } else {
+                this.parameters = new ArrayList<Parameter>(parameters);
+            }
+
+            this.text = text;
+            this.json = json;
+        }
+    }
+}
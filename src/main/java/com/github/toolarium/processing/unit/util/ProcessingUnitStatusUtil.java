@@ -61,6 +61,7 @@ public final class ProcessingUnitStatusUtil {
         processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits(processingUnitStatus.getNumberOfSuccessfulUnits());
         processingUnitStatusBuilder.increaseNumberOfFailedUnits(processingUnitStatus.getNumberOfFailedUnits());
         processingUnitStatusBuilder.increaseNumberOfUnprocessedUnits(processingUnitStatus.getNumberOfUnprocessedUnits());
+        processingUnitStatusBuilder.increaseNumberOfPendingUnits(processingUnitStatus.getNumberOfPendingUnits());
         
         // set status
         ProcessingRuntimeStatus processingRuntimeStatus = processingUnitStatus.getProcessingRuntimeStatus();
@@ -39,6 +39,7 @@ public final class ProcessingUnitUtil {
     private IProcessingUnitInstanceManager processingUnitInstanceManager;
     private Map<String, String> shortenClassReferenceMap;
     private ProcessingUnitProgressFormatter processingUnitProgressFormatter;
+    private ProcessingUnitProgressJsonFormatter processingUnitProgressJsonFormatter;
 
     
     /**
@@ -58,6 +59,7 @@ public final class ProcessingUnitUtil {
         processingUnitInstanceManager = new ProcessingUnitInstanceManager();
         shortenClassReferenceMap = new ConcurrentHashMap<String, String>();
         processingUnitProgressFormatter = new ProcessingUnitProgressFormatter(" - ");
+        processingUnitProgressJsonFormatter = new ProcessingUnitProgressJsonFormatter();
     }
 
     
@@ -468,6 +470,47 @@ public final class ProcessingUnitUtil {
     }
 
     
+    /**
+     * Format process unit progress as JSON object
+     *
+     * @param id the id
+     * @param name the name
+     * @param processingUnitClass the processing unit class
+     * @param parameters the parameters
+     * @param processingUnitContext the processing unit context
+     * @param processingProgress the progressing unit progress
+     * @param processingActionStatus the action status
+     * @param processingRuntimeStatus the runtime status
+     * @param messages the messages
+     * @param timeMeasurement the time measurement
+     * @param processingUnitThrottling the processing unit throttling
+     * @return the formatted JSON object
+     */
+    public String toJson(String id, // CHECKSTYLE IGNORE THIS LINE
+                         String name, 
+                         String processingUnitClass,
+                         List<Parameter> parameters,
+                         IProcessingUnitContext processingUnitContext,
+                         IProcessingUnitProgress processingProgress, 
+                         ProcessingActionStatus processingActionStatus,
+                         ProcessingRuntimeStatus processingRuntimeStatus,
+                         List<String> messages,
+                         IProcessingUnitRuntimeTimeMeasurement timeMeasurement, 
+                         IBandwidthThrottling processingUnitThrottling) {
+        return processingUnitProgressJsonFormatter.toString(id, 
+                                                            name, 
+                                                            processingUnitClass,
+                                                            parameters,
+                                                            processingUnitContext,
+                                                            processingProgress, 
+                                                            processingActionStatus, 
+                                                            processingRuntimeStatus, 
+                                                            messages,
+                                                            timeMeasurement, 
+                                                            processingUnitThrottling);
+    }
+
+    
     /**
      * Get the persisted state as string 
      *
@@ -0,0 +1,100 @@
+/*
+ * FileProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.parallelization.IParallelProcessingUnit;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Implements a file processing unit sample: every record must contain a number which is parsed directly from the bytes
+ * and summed up in the own persistence.
+ *  
+ * @author patrick
+ */
+public class FileProcessingUnitSample extends AbstractFileProcessingUnitImpl<FileProcessingUnitSample.FilePersistence> implements IParallelProcessingUnit {
+    /** RESULT_SUM context */
+    public static final String RESULT_SUM = "RESULT_SUM";
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractFileProcessingUnitImpl#processRecord(java.nio.ByteBuffer, long, com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    protected void processRecord(ByteBuffer record, long recordNumber, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        if (!record.hasRemaining()) {
+            processingUnitStatusBuilder.increaseNumberOfFailedUnits().warn("Empty record " + recordNumber + "!");
+            return;
+        }
+
+        if (record.get(0) == '-') {
+            throw new ProcessingException("Negative record " + recordNumber + ": " + decodeRecord(record), false);
+        }
+
+        long value = 0;
+        for (int i = record.position(); i < record.limit(); i++) {
+            final byte b = record.get(i);
+            if (b < '0' || b > '9') {
+                processingUnitStatusBuilder.increaseNumberOfFailedUnits().warn("Invalid record " + recordNumber + ": " + decodeRecord(record));
+                return;
+            }
+            value = value * 10 + (b - '0');
+        }
+
+        getProcessingPersistence().add(value);
+        processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#onEnding()
+     */
+    @Override
+    public void onEnding() {
+        getProcessingUnitContext().set(RESULT_SUM, "" + getProcessingPersistence().getSum());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#newPersistenceInstance()
+     */
+    @Override
+    protected FilePersistence newPersistenceInstance() {
+        return new FilePersistence();
+    }
+
+
+    /**
+     * Defines the file persistence 
+     */
+    static class FilePersistence implements IProcessingUnitPersistence {
+        private static final long serialVersionUID = 2480237127474815523L;
+        private long sum;
+
+
+        /**
+         * Add a value to the sum
+         *
+         * @param value the value
+         */
+        void add(long value) {
+            sum += value;
+        }
+
+
+        /**
+         * Get the sum
+         *
+         * @return the sum
+         */
+        long getSum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * FileProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.IProcessingUnitPosition;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link AbstractFileProcessingUnitImpl}.
+ *  
+ * @author patrick
+ */
+public class FileProcessingUnitTest {
+    private static final long TOTAL_UNITS = 1234;
+
+
+    /**
+     * Test line records with a small mapping window
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testLineRecords() throws IOException {
+        final Path file = createFile("\r\n", 0);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.MAPPING_WINDOW_SIZE.getKey(), "8192"));
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.run(FileProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnitsToProcess(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+            assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+            assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+            assertEquals(processRunner.getProcessingUnitContext().get(FileProcessingUnitSample.RESULT_SUM), "" + expectedSum());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test a failed record: it is counted as failed unit and the processing continues with the next record
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testLineRecordsWithFailedRecord() throws IOException {
+        final Path file = createFile("\n", 0);
+        try {
+            Files.write(file, Files.readString(file).replace("\n370\n", "\n-370\n").getBytes(StandardCharsets.UTF_8));
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_BLOCK_SIZE.getKey(), "50"));
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.run(FileProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS - 1);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 1);
+            assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.WARN);
+            assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+            assertEquals(processRunner.getStatusMessageList().toString(), "[Negative record 10: -370]");
+            assertEquals(processRunner.getProcessingUnitContext().get(FileProcessingUnitSample.RESULT_SUM), "" + (expectedSum() - 370));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test the estimation of the number of units to process by the beginning of a large file and by counting the records
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testEstimateNumberOfUnitsToProcess() throws IOException {
+        final long numberOfUnits = 50000;
+        final Path file = createFile("\n", 0, numberOfUnits);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+
+            FileProcessingUnitSample processingUnit = new FileProcessingUnitSample();
+            processingUnit.initialize(parameterList, new ProcessingUnitContext());
+            final long estimatedNumberOfUnits = processingUnit.estimateNumberOfUnitsToProcess();
+            processingUnit.releaseResource();
+            assertTrue(Math.abs(estimatedNumberOfUnits - numberOfUnits) < numberOfUnits / 5, "" + estimatedNumberOfUnits);
+
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.COUNT_RECORDS.getKey(), "true"));
+            processingUnit = new FileProcessingUnitSample();
+            processingUnit.initialize(parameterList, new ProcessingUnitContext());
+            assertEquals(processingUnit.estimateNumberOfUnitsToProcess(), numberOfUnits);
+            processingUnit.releaseResource();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test fixed length records
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testFixedLengthRecords() throws IOException {
+        final Path file = createFile("", 6);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_FORMAT.getKey(), "fixed"));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_LENGTH.getKey(), "6"));
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.run(FileProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+            assertEquals(processRunner.getProcessingUnitContext().get(FileProcessingUnitSample.RESULT_SUM), "" + expectedSum());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test delimited records with suspend and resume: the processing continues at the persisted byte offset
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testDelimitedRecordsWithSuspendAndResume() throws IOException {
+        final Path file = createFile(";", 0);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_FORMAT.getKey(), "delimited"));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_BLOCK_SIZE.getKey(), "50"));
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.runWithSuspendAndResume(FileProcessingUnitSample.class, parameterList, 3, 10L, 4), TOTAL_UNITS);
+            assertTrue(processRunner.getSuspendCounter() > 0);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+            assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test the parallel processing: every thread processes its own byte range of the file
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testParallelLineRecords() throws IOException {
+        final Path file = createFile("\n", 0);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.RECORD_BLOCK_SIZE.getKey(), "20"));
+            parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "3"));
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            processRunner.run(FileProcessingUnitSample.class, parameterList);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnitsToProcess(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+            assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test the resume on a modified file: the checksum of the position doesn't match
+     *
+     * @throws IOException in case of an I/O error
+     */
+    @Test
+    public void testPositionChecksum() throws IOException {
+        final Path file = createFile("\n", 0);
+        try {
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            parameterList.add(new Parameter(AbstractFileProcessingUnitImpl.INPUT_FILENAME.getKey(), file.toString()));
+
+            FileProcessingUnitSample processingUnit = new FileProcessingUnitSample();
+            processingUnit.initialize(parameterList, new ProcessingUnitContext());
+            processingUnit.processUnit();
+            processingUnit.suspendProcessing();
+            processingUnit.releaseResource();
+            final IProcessingUnitPosition processingUnitPosition = processingUnit.getProcessingUnitPosition();
+            assertEquals(processingUnitPosition.getRecordNumber(), 100);
+            assertNotNull(processingUnitPosition.getChecksum());
+
+            // resume on the same file
+            processingUnit = new FileProcessingUnitSample();
+            processingUnit.initialize(parameterList, new ProcessingUnitContext());
+            processingUnit.setProcessingUnitPosition(processingUnitPosition);
+            processingUnit.processUnit();
+            processingUnit.releaseResource();
+
+            // resume on a modified file
+            Files.write(file, Files.readString(file).replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+            final FileProcessingUnitSample modifiedProcessingUnit = new FileProcessingUnitSample();
+            modifiedProcessingUnit.initialize(parameterList, new ProcessingUnitContext());
+            modifiedProcessingUnit.setProcessingUnitPosition(processingUnitPosition);
+            assertThrows(ProcessingException.class, () -> modifiedProcessingUnit.processUnit());
+            modifiedProcessingUnit.releaseResource();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Get the expected sum of the test file
+     *
+     * @return the expected sum
+     */
+    private long expectedSum() {
+        long sum = 0;
+        for (int i = 0; i < TOTAL_UNITS; i++) {
+            sum += i * 37;
+        }
+        return sum;
+    }
+
+
+    /**
+     * Create a test file with numbers
+     *
+     * @param delimiter the record delimiter
+     * @param recordLength the fixed record length or 0
+     * @return the file
+     * @throws IOException in case of an I/O error
+     */
+    private Path createFile(String delimiter, int recordLength) throws IOException {
+        return createFile(delimiter, recordLength, TOTAL_UNITS);
+    }
+
+
+    /**
+     * Create a test file with numbers
+     *
+     * @param delimiter the record delimiter
+     * @param recordLength the fixed record length or 0
+     * @param numberOfUnits the number of records
+     * @return the file
+     * @throws IOException in case of an I/O error
+     */
+    private Path createFile(String delimiter, int recordLength, long numberOfUnits) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < numberOfUnits; i++) {
+            String value = "" + (i * 37);
+            while (value.length() < recordLength) {
+                value = "0" + value;
+            }
+            content.append(value).append(delimiter);
+        }
+
+        final Path file = Files.createTempFile("processing-unit-", ".txt");
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * ParallelSubscriberProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.parallelization.IParallelProcessingUnit;
+
+
+/**
+ * Implements the parallel push based processing unit sample: every instance subscribes to its own publisher.
+ *
+ * @author patrick
+ */
+public class ParallelSubscriberProcessingUnitSample extends SubscriberProcessingUnitSample implements IParallelProcessingUnit {
+}
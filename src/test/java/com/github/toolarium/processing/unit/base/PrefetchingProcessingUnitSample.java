@@ -0,0 +1,175 @@
+/*
+ * PrefetchingProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Implements a prefetching processing unit sample which simulates a slow read of blocks.
+ *  
+ * @author patrick
+ */
+public class PrefetchingProcessingUnitSample extends AbstractPrefetchingProcessingUnitImpl<List<Long>> {
+    /** NUMBER_OF_UNITS: the number of units. */
+    public static final ParameterDefinition NUMBER_OF_UNITS = new ParameterDefinitionBuilder().name("numberOfUnits").defaultValue(100L).description("The number of units.").build();
+
+    /** FETCH_SLEEP_TIME: the sleep time of a fetch. */
+    public static final ParameterDefinition FETCH_SLEEP_TIME = new ParameterDefinitionBuilder().name("fetchSleepTime").defaultValue(0L).description("The sleep time of a fetch.").build();
+
+    /** ERROR_ON_POSITION: the fetch position on which an error is thrown. */
+    public static final ParameterDefinition ERROR_ON_POSITION = new ParameterDefinitionBuilder().name("errorOnPosition").defaultValue(-1L).description("The fetch position on which an error is thrown.").build();
+
+    /** FAILED_BLOCK: the number of the block which fails by a processing exception. */
+    public static final ParameterDefinition FAILED_BLOCK = new ParameterDefinitionBuilder().name("failedBlock").defaultValue(-1L).description("The number of the block which fails by a processing exception.").build();
+
+    private static final int BLOCK_SIZE = 10;
+    private volatile long position;
+    private long numberOfProcessedBlocks;
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        super.initializeParameterDefinition();
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_UNITS);
+        getParameterRuntime().addParameterDefinition(FETCH_SLEEP_TIME);
+        getParameterRuntime().addParameterDefinition(ERROR_ON_POSITION);
+        getParameterRuntime().addParameterDefinition(FAILED_BLOCK);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        long numberOfUnits = getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS).getValueAsLong();
+        if (getParameterRuntime().getParameterValueList(FAILED_BLOCK).getValueAsLong() >= 0) {
+            // the failed block is counted as one failed unit
+            numberOfUnits -= BLOCK_SIZE - 1;
+        }
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(numberOfUnits);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#fetchNextBlock()
+     */
+    @Override
+    protected List<Long> fetchNextBlock() throws ProcessingException {
+        final long numberOfUnits = getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS).getValueAsLong();
+        if (position >= numberOfUnits) {
+            return null;
+        }
+
+        if (position == getParameterRuntime().getParameterValueList(ERROR_ON_POSITION).getValueAsLong()) {
+            throw new AssertionError("Simulated error on position " + position + "!");
+        }
+
+        ThreadUtil.getInstance().sleep(getParameterRuntime().getParameterValueList(FETCH_SLEEP_TIME).getValueAsLong());
+        List<Long> block = new ArrayList<Long>();
+        while (position < numberOfUnits && block.size() < BLOCK_SIZE) {
+            block.add(++position);
+        }
+        return block;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#processBlock(java.lang.Object, com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    protected IProcessingUnitStatus processBlock(List<Long> block, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        // the own state must be consistent with the progress, also after a resume
+        if (numberOfProcessedBlocks * BLOCK_SIZE != getProcessingUnitProgress().getNumberOfSuccessfulUnits()) {
+            throw new ProcessingException("Invalid number of processed blocks " + numberOfProcessedBlocks + "!", true);
+        }
+
+        if ((block.get(0) - 1) / BLOCK_SIZE == getParameterRuntime().getParameterValueList(FAILED_BLOCK).getValueAsLong()) {
+            throw new ProcessingException("Simulated failure of block " + (block.get(0) - 1) / BLOCK_SIZE + "!", false);
+        }
+
+        numberOfProcessedBlocks++;
+        return processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits((long) block.size()).hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#getFetchPosition()
+     */
+    @Override
+    protected Serializable getFetchPosition() {
+        return position;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#setFetchPosition(java.io.Serializable)
+     */
+    @Override
+    protected void setFetchPosition(Serializable fetchPosition) throws ProcessingException {
+        position = (Long) fetchPosition;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#suspendProcessingState()
+     */
+    @Override
+    protected IProcessingUnitPersistence suspendProcessingState() throws ProcessingException {
+        return new PrefetchingPersistence(numberOfProcessedBlocks);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractPrefetchingProcessingUnitImpl#resumeProcessingState(com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    protected void resumeProcessingState(IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        numberOfProcessedBlocks = ((PrefetchingPersistence) processingPersistence).getNumberOfProcessedBlocks();
+    }
+
+
+    /**
+     * Defines the persistence of the sample
+     */
+    static class PrefetchingPersistence implements IProcessingUnitPersistence {
+        private static final long serialVersionUID = 2895324876310523711L;
+        private long numberOfProcessedBlocks;
+
+
+        /**
+         * Constructor for PrefetchingPersistence
+         *
+         * @param numberOfProcessedBlocks the number of processed blocks
+         */
+        PrefetchingPersistence(long numberOfProcessedBlocks) {
+            this.numberOfProcessedBlocks = numberOfProcessedBlocks;
+        }
+
+
+        /**
+         * Get the number of processed blocks
+         *
+         * @return the number of processed blocks
+         */
+        long getNumberOfProcessedBlocks() {
+            return numberOfProcessedBlocks;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * PrefetchingProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link AbstractPrefetchingProcessingUnitImpl}.
+ *  
+ * @author patrick
+ */
+public class PrefetchingProcessingUnitTest {
+    private static final long TOTAL_UNITS = 205;
+
+
+    /**
+     * Test prefetching
+     */
+    @Test
+    public void testPrefetching() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.FETCH_SLEEP_TIME.getKey(), "2"));
+        parameterList.add(new Parameter(AbstractPrefetchingProcessingUnitImpl.PREFETCH_SIZE.getKey(), "3"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(PrefetchingProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnprocessedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+
+    /**
+     * Test prefetching with suspend and resume: the prefetched blocks are fetched again and the state of the sample is resumed
+     */
+    @Test
+    public void testPrefetchingWithSuspendAndResume() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(AbstractPrefetchingProcessingUnitImpl.PREFETCH_SIZE.getKey(), "4"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(PrefetchingProcessingUnitSample.class, parameterList, 3, 10L, 4), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() > 0);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+
+    /**
+     * Test prefetching with a suspend after a failed block: the failed block is not processed again after the resume
+     */
+    @Test
+    public void testPrefetchingWithSuspendAfterFailedBlock() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.FAILED_BLOCK.getKey(), "2"));
+
+        // two blocks with 20 units and the failed block counted as one unit: it suspends after the failed block
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(PrefetchingProcessingUnitSample.class, parameterList, 21, 10L, 3), TOTAL_UNITS - 9);
+        assertEquals(processRunner.getSuspendCounter(), 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS - 10);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 1);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+
+    /**
+     * Test prefetching with an error in the prefetch thread: the processing is aborted instead of waiting for the next block
+     */
+    @Test
+    public void testPrefetchingWithError() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PrefetchingProcessingUnitSample.ERROR_ON_POSITION.getKey(), "50"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        processRunner.run(PrefetchingProcessingUnitSample.class, parameterList);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), 50);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.ERROR);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ABORTED);
+        assertTrue(processRunner.getStatusMessageList().toString().contains("Simulated error on position 50!"), processRunner.getStatusMessageList().toString());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * SubscriberProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Implements a push based processing unit sample: a producer thread publishes the items with a pause in between, the
+ * processing unit is only called in case items are received.
+ *
+ * @author patrick
+ */
+public class SubscriberProcessingUnitSample extends AbstractSubscriberProcessingUnitImpl<Long> {
+    /** NUMBER_OF_ITEMS: the number of items per publisher. */
+    public static final ParameterDefinition NUMBER_OF_ITEMS = new ParameterDefinitionBuilder().name("numberOfItems").defaultValue(50L).description("The number of items per publisher.").build();
+
+    /** NUMBER_OF_PUBLISHERS: the number of publishers, one per processing unit instance. */
+    public static final ParameterDefinition NUMBER_OF_PUBLISHERS = new ParameterDefinitionBuilder().name("numberOfPublishers").defaultValue(1L).description("The number of publishers.").build();
+
+    /** PUBLISH_PAUSE_TIME: the pause time between two items. */
+    public static final ParameterDefinition PUBLISH_PAUSE_TIME = new ParameterDefinitionBuilder().name("publishPauseTime").defaultValue(10L).description("The pause time between two items.").build();
+
+    private static final AtomicLong NUMBER_OF_CALLS = new AtomicLong(0);
+    private static final AtomicLong NUMBER_OF_PROCESSED_ITEMS = new AtomicLong(0);
+
+
+    /**
+     * Reset the counters
+     */
+    public static void reset() {
+        NUMBER_OF_CALLS.set(0);
+        NUMBER_OF_PROCESSED_ITEMS.set(0);
+    }
+
+
+    /**
+     * Get the number of calls of the processing unit
+     *
+     * @return the number of calls
+     */
+    public static long getNumberOfCalls() {
+        return NUMBER_OF_CALLS.get();
+    }
+
+
+    /**
+     * Get the number of processed items
+     *
+     * @return the number of processed items
+     */
+    public static long getNumberOfProcessedItems() {
+        return NUMBER_OF_PROCESSED_ITEMS.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractSubscriberProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        super.initializeParameterDefinition();
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_ITEMS);
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_PUBLISHERS);
+        getParameterRuntime().addParameterDefinition(PUBLISH_PAUSE_TIME);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() throws ProcessingException {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_ITEMS).getValueAsLong() 
+                                                                     * getParameterRuntime().getParameterValueList(NUMBER_OF_PUBLISHERS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractSubscriberProcessingUnitImpl#createPublisher()
+     */
+    @Override
+    protected Flow.Publisher<Long> createPublisher() throws ProcessingException {
+        final long numberOfItems = getParameterRuntime().getParameterValueList(NUMBER_OF_ITEMS).getValueAsLong();
+        final long publishPauseTime = getParameterRuntime().getParameterValueList(PUBLISH_PAUSE_TIME).getValueAsLong();
+        final SubmissionPublisher<Long> publisher = new SubmissionPublisher<Long>();
+        
+        Thread producerThread = new Thread(() -> {
+            try {
+                // wait for the subscription, the items are not buffered without a subscriber
+                while (!publisher.hasSubscribers() && !publisher.isClosed()) {
+                    Thread.sleep(1L);
+                }
+                
+                for (long i = 0; i < numberOfItems; i++) {
+                    Thread.sleep(publishPauseTime);
+                    publisher.submit(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                publisher.close();
+            }
+        }, "SubscriberProcessingUnitSample producer");
+        producerThread.setDaemon(true);
+        producerThread.start();
+        return publisher;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractSubscriberProcessingUnitImpl#processItems(java.util.List, com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    protected IProcessingUnitStatus processItems(List<Long> itemList, ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        NUMBER_OF_CALLS.incrementAndGet();
+        NUMBER_OF_PROCESSED_ITEMS.addAndGet(itemList.size());
+        for (int i = 0; i < itemList.size(); i++) {
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+        }
+        return processingUnitStatusBuilder.hasNext(true).build();
+    }
+}
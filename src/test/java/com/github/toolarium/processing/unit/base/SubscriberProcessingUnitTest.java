@@ -0,0 +1,98 @@
+/*
+ * SubscriberProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link AbstractSubscriberProcessingUnitImpl}.
+ *  
+ * @author patrick
+ */
+public class SubscriberProcessingUnitTest {
+    private static final long TOTAL_UNITS = 60;
+
+
+    /**
+     * Test a push based processing unit: it is only called in case items are received, an idle time longer than the 
+     * empty processing unit runs doesn't abort
+     */
+    @Test
+    public void testSubscriber() {
+        SubscriberProcessingUnitSample.reset();
+        
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.NUMBER_OF_ITEMS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.PUBLISH_PAUSE_TIME.getKey(), "20"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(SubscriberProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnprocessedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(TOTAL_UNITS, SubscriberProcessingUnitSample.getNumberOfProcessedItems());
+        
+        // no polling: every call processes at least one item
+        assertTrue(SubscriberProcessingUnitSample.getNumberOfCalls() <= TOTAL_UNITS);
+    }
+
+
+    /**
+     * Test a push based processing unit with a slow publisher: the idle time is much longer than the empty runs before 
+     * an abort
+     */
+    @Test
+    public void testSubscriberWithSlowPublisher() {
+        SubscriberProcessingUnitSample.reset();
+        
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.NUMBER_OF_ITEMS.getKey(), "3"));
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.PUBLISH_PAUSE_TIME.getKey(), "1200"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(SubscriberProcessingUnitSample.class, parameterList), 3);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(3, SubscriberProcessingUnitSample.getNumberOfCalls());
+    }
+
+
+    /**
+     * Test a parallel push based processing unit: every thread is only called in case its instance received items
+     */
+    @Test
+    public void testParallelSubscriber() {
+        SubscriberProcessingUnitSample.reset();
+        
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.NUMBER_OF_ITEMS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.NUMBER_OF_PUBLISHERS.getKey(), "3"));
+        parameterList.add(new Parameter(SubscriberProcessingUnitSample.PUBLISH_PAUSE_TIME.getKey(), "20"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "3"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "none"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelSubscriberProcessingUnitSample.class, parameterList), 3 * TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), 3 * TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(3 * TOTAL_UNITS, SubscriberProcessingUnitSample.getNumberOfProcessedItems());
+        assertTrue(SubscriberProcessingUnitSample.getNumberOfCalls() <= 3 * TOTAL_UNITS);
+    }
+}
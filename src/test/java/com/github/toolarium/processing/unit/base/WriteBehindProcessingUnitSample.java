@@ -0,0 +1,194 @@
+/*
+ * WriteBehindProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitPersistence;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Implements a processing unit sample which writes the results by a {@link ProcessingUnitWriteBehindSink}.
+ *  
+ * @author patrick
+ */
+public class WriteBehindProcessingUnitSample extends AbstractProcessingUnitPersistenceImpl<WriteBehindProcessingUnitSample.WriteBehindPersistence> {
+    /** NUMBER_OF_UNITS: the number of units. */
+    public static final ParameterDefinition NUMBER_OF_UNITS = new ParameterDefinitionBuilder().name("numberOfUnits").defaultValue(100L).description("The number of units.").build();
+
+    private static final int BLOCK_SIZE = 10;
+    private long position;
+    private AtomicLong numberOfWrittenUnits;
+    private ProcessingUnitWriteBehindSink<Long> writeBehindSink;
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_UNITS);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initialize(java.util.List, com.github.toolarium.processing.unit.IProcessingUnitContext)
+     */
+    @Override
+    public void initialize(List<Parameter> parameterList, IProcessingUnitContext processingUnitContext) throws ValidationException, ProcessingException {
+        super.initialize(parameterList, processingUnitContext);
+        position = 0;
+        numberOfWrittenUnits = new AtomicLong();
+        writeBehindSink = new ProcessingUnitWriteBehindSink<Long>(resultList -> {
+            ThreadUtil.getInstance().sleep(2L); // simulate a round trip
+            numberOfWrittenUnits.addAndGet(resultList.size());
+        }, 25, 50L);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final long numberOfUnits = getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS).getValueAsLong();
+        for (int i = 0; i < BLOCK_SIZE && position < numberOfUnits; i++) {
+            writeBehindSink.write(++position);
+        }
+
+        if (position >= numberOfUnits) {
+            writeBehindSink.flush();
+            writeBehindSink.acknowledge(processingUnitStatusBuilder);
+            return processingUnitStatusBuilder.hasEnded().build();
+        }
+
+        writeBehindSink.acknowledge(processingUnitStatusBuilder);
+        return processingUnitStatusBuilder.hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#suspendProcessing()
+     */
+    @Override
+    public IProcessingUnitPersistence suspendProcessing() throws ProcessingException {
+        getProcessingPersistence().setNumberOfNotAcknowledgedUnits(writeBehindSink.suspend());
+        getProcessingPersistence().setPosition(position);
+        return super.suspendProcessing();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#resumeProcessing(com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.IProcessingUnitPersistence)
+     */
+    @Override
+    public void resumeProcessing(IProcessingUnitProgress processingUnitProgress, IProcessingUnitPersistence processingPersistence) throws ProcessingException {
+        super.resumeProcessing(processingUnitProgress, processingPersistence);
+        position = getProcessingPersistence().getPosition();
+        writeBehindSink.resume(getProcessingPersistence().getNumberOfNotAcknowledgedUnits());
+        removePersistenceInstance();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        super.releaseResource();
+        if (writeBehindSink != null) {
+            writeBehindSink.close();
+        }
+    }
+
+
+    /**
+     * Get the number of written units
+     *
+     * @return the number of written units
+     */
+    public long getNumberOfWrittenUnits() {
+        return numberOfWrittenUnits.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitPersistenceImpl#newPersistenceInstance()
+     */
+    @Override
+    protected WriteBehindPersistence newPersistenceInstance() {
+        return new WriteBehindPersistence();
+    }
+
+
+    /**
+     * Defines the write behind persistence 
+     */
+    static class WriteBehindPersistence implements IProcessingUnitPersistence {
+        private static final long serialVersionUID = 2393472601286520961L;
+        private long position;
+        private long numberOfNotAcknowledgedUnits;
+
+
+        /**
+         * Get the position
+         *
+         * @return the position
+         */
+        public long getPosition() {
+            return position;
+        }
+
+
+        /**
+         * Set the position
+         *
+         * @param position the position
+         */
+        public void setPosition(long position) {
+            this.position = position;
+        }
+
+
+        /**
+         * Get the number of not acknowledged units
+         *
+         * @return the number of not acknowledged units
+         */
+        public long getNumberOfNotAcknowledgedUnits() {
+            return numberOfNotAcknowledgedUnits;
+        }
+
+
+        /**
+         * Set the number of not acknowledged units
+         *
+         * @param numberOfNotAcknowledgedUnits the number of not acknowledged units
+         */
+        public void setNumberOfNotAcknowledgedUnits(long numberOfNotAcknowledgedUnits) {
+            this.numberOfNotAcknowledgedUnits = numberOfNotAcknowledgedUnits;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * WriteBehindProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link ProcessingUnitWriteBehindSink}.
+ *  
+ * @author patrick
+ */
+public class WriteBehindProcessingUnitTest {
+    private static final long TOTAL_UNITS = 503;
+
+
+    /**
+     * Test write behind
+     */
+    @Test
+    public void testWriteBehind() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(WriteBehindProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(WriteBehindProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(((WriteBehindProcessingUnitSample) processRunner.getProcesingUnit()).getNumberOfWrittenUnits(), TOTAL_UNITS);
+    }
+
+
+    /**
+     * Test write behind with suspend and resume: only written units are counted
+     */
+    @Test
+    public void testWriteBehindWithSuspendAndResume() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(WriteBehindProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(WriteBehindProcessingUnitSample.class, parameterList, 7, 10L, 4), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() > 0);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+
+    /**
+     * Test the acknowledge doesn't wait for the write: the results are pending until the batch is written
+     * 
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testAcknowledgeBeforeWrite() throws InterruptedException {
+        final CountDownLatch writeLatch = new CountDownLatch(1);
+        final AtomicLong numberOfWrittenUnits = new AtomicLong();
+        ProcessingUnitWriteBehindSink<Long> writeBehindSink = new ProcessingUnitWriteBehindSink<Long>(resultList -> {
+            try {
+                writeLatch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            numberOfWrittenUnits.addAndGet(resultList.size());
+        }, 25, 50L);
+
+        for (long i = 1; i <= 3; i++) {
+            writeBehindSink.write(i);
+        }
+        
+        // the batch is not written: the call returns without acknowledged units
+        ProcessingUnitStatusBuilder processingUnitStatusBuilder = new ProcessingUnitStatusBuilder();
+        assertEquals(writeBehindSink.acknowledge(processingUnitStatusBuilder), 0);
+        assertEquals(numberOfWrittenUnits.get(), 0);
+        IProcessingUnitStatus processingUnitStatus = processingUnitStatusBuilder.build();
+        assertEquals(processingUnitStatus.getNumberOfSuccessfulUnits(), null);
+        assertEquals(processingUnitStatus.getNumberOfPendingUnits(), Long.valueOf(3));
+
+        // the written batch is acknowledged by the next call
+        writeLatch.countDown();
+        writeBehindSink.flush();
+        processingUnitStatusBuilder = new ProcessingUnitStatusBuilder();
+        assertEquals(writeBehindSink.acknowledge(processingUnitStatusBuilder), 3);
+        assertEquals(numberOfWrittenUnits.get(), 3);
+        processingUnitStatus = processingUnitStatusBuilder.build();
+        assertEquals(processingUnitStatus.getNumberOfSuccessfulUnits(), Long.valueOf(3));
+        assertEquals(processingUnitStatus.getNumberOfPendingUnits(), null);
+        writeBehindSink.close();
+    }
+}
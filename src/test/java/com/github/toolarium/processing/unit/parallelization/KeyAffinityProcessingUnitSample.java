@@ -0,0 +1,261 @@
+/*
+ * KeyAffinityProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Implements a parallel processing unit in key affinity mode: bookings of accounts are processed without any object
+ * lock. It verifies the order and the exclusivity of the bookings per account.
+ *
+ * @author patrick
+ */
+public class KeyAffinityProcessingUnitSample extends AbstractProcessingUnitImpl implements IParallelProcessingUnit, IProcessingUnitKeyAffinitySupport<KeyAffinityProcessingUnitSample.Booking> {
+
+    /** NUMBER_OF_BOOKINGS: the number of bookings. */
+    public static final ParameterDefinition NUMBER_OF_BOOKINGS = new ParameterDefinitionBuilder().name("numberOfBookings").defaultValue(1000).description("The number of bookings.").build();
+
+    /** NUMBER_OF_ACCOUNTS: the number of accounts. */
+    public static final ParameterDefinition NUMBER_OF_ACCOUNTS = new ParameterDefinitionBuilder().name("numberOfAccounts").defaultValue(10).description("The number of accounts.").build();
+
+    private static final ConcurrentHashMap<String, Long> LAST_BOOKING_MAP = new ConcurrentHashMap<String, Long>();
+    private static final ConcurrentHashMap<String, Thread> ACCOUNT_OWNER_MAP = new ConcurrentHashMap<String, Thread>();
+    private static final AtomicInteger NUMBER_OF_VIOLATIONS = new AtomicInteger(0);
+    private IProcessingUnitWorkItemQueue<Booking> workItemQueue;
+
+
+    /**
+     * Reset the verification
+     */
+    public static void reset() {
+        LAST_BOOKING_MAP.clear();
+        ACCOUNT_OWNER_MAP.clear();
+        NUMBER_OF_VIOLATIONS.set(0);
+    }
+
+
+    /**
+     * Get the number of order or exclusivity violations
+     *
+     * @return the number of violations
+     */
+    public static int getNumberOfViolations() {
+        return NUMBER_OF_VIOLATIONS.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    public void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_BOOKINGS);
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_ACCOUNTS);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_BOOKINGS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#createWorkItemSource()
+     */
+    @Override
+    public IProcessingUnitSource<Booking> createWorkItemSource() {
+        return new BookingSource(getParameterRuntime().getParameterValueList(NUMBER_OF_BOOKINGS).getValueAsLong(),
+                                 getParameterRuntime().getParameterValueList(NUMBER_OF_ACCOUNTS).getValueAsInteger());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitKeyAffinitySupport#getKey(java.io.Serializable)
+     */
+    @Override
+    public Object getKey(Booking workItem) {
+        return workItem.getAccount();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#setWorkItemQueue(com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue)
+     */
+    @Override
+    public void setWorkItemQueue(IProcessingUnitWorkItemQueue<Booking> workItemQueue) {
+        this.workItemQueue = workItemQueue;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final List<Booking> bookingList = workItemQueue.poll(10);
+        if (bookingList == null) {
+            return processingUnitStatusBuilder.hasNext(false).build();
+        }
+
+        for (Booking booking : bookingList) {
+            if (ACCOUNT_OWNER_MAP.putIfAbsent(booking.getAccount(), Thread.currentThread()) != null) {
+                NUMBER_OF_VIOLATIONS.incrementAndGet();
+            }
+
+            final Long lastSequence = LAST_BOOKING_MAP.put(booking.getAccount(), booking.getSequence());
+            if (lastSequence != null && lastSequence.longValue() >= booking.getSequence()) {
+                NUMBER_OF_VIOLATIONS.incrementAndGet();
+            }
+
+            ACCOUNT_OWNER_MAP.remove(booking.getAccount(), Thread.currentThread());
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+        }
+
+        return processingUnitStatusBuilder.hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        workItemQueue = null;
+    }
+
+
+    /**
+     * Defines a booking of an account
+     */
+    public static class Booking implements Serializable {
+        private static final long serialVersionUID = 6139286310726392171L;
+        private final String account;
+        private final long sequence;
+
+
+        /**
+         * Constructor for Booking
+         *
+         * @param account the account
+         * @param sequence the sequence of the booking
+         */
+        public Booking(String account, long sequence) {
+            this.account = account;
+            this.sequence = sequence;
+        }
+
+
+        /**
+         * Get the account
+         *
+         * @return the account
+         */
+        public String getAccount() {
+            return account;
+        }
+
+
+        /**
+         * Get the sequence
+         *
+         * @return the sequence
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+
+    /**
+     * Defines the booking source, the offset is the position of the next booking
+     */
+    static class BookingSource implements IProcessingUnitSource<Booking> {
+        private final long numberOfBookings;
+        private final int numberOfAccounts;
+        private long position;
+
+
+        /**
+         * Constructor for BookingSource
+         *
+         * @param numberOfBookings the number of bookings
+         * @param numberOfAccounts the number of accounts
+         */
+        BookingSource(long numberOfBookings, int numberOfAccounts) {
+            this.numberOfBookings = numberOfBookings;
+            this.numberOfAccounts = Math.max(1, numberOfAccounts);
+            this.position = 0;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#open(java.io.Serializable)
+         */
+        @Override
+        public void open(Serializable offset) {
+            if (offset != null) {
+                position = (Long) offset;
+            }
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#estimateNumberOfUnits()
+         */
+        @Override
+        public long estimateNumberOfUnits() {
+            return numberOfBookings;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#read(int)
+         */
+        @Override
+        public List<Booking> read(int blockSize) {
+            final List<Booking> result = new ArrayList<Booking>();
+            while (position < numberOfBookings && result.size() < blockSize) {
+                result.add(new Booking("account-" + (position % numberOfAccounts), position));
+                position++;
+            }
+            return result;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#getOffset()
+         */
+        @Override
+        public Serializable getOffset() {
+            return position;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#close()
+         */
+        @Override
+        public void close() {
+            // NOP
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * KeyAffinityProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.KeyAffinityDispatcher;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the key affinity mode of the parallel processing unit.
+ *
+ * @author patrick
+ */
+public class KeyAffinityProcessingUnitTest {
+    private static final int TOTAL_UNITS = 500;
+
+
+    /**
+     * Test the key affinity mode
+     */
+    @Test
+    public void testKeyAffinity() {
+        KeyAffinityProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(KeyAffinityProcessingUnitSample.class, createParameterList()), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(0, KeyAffinityProcessingUnitSample.getNumberOfViolations());
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("keyAffinityQueueDepth"));
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("keyAffinitySkew"));
+    }
+
+
+    /**
+     * Test the key affinity mode with suspend and resume: the pending bookings are kept
+     */
+    @Test
+    public void testKeyAffinityWithSuspendAndResume() {
+        KeyAffinityProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(KeyAffinityProcessingUnitSample.class, createParameterList(), 2, 100L, 2), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() >= 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(0, KeyAffinityProcessingUnitSample.getNumberOfViolations());
+    }
+
+
+    /**
+     * Test the routing and the skew of the dispatcher
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testDispatcherSkew() throws InterruptedException {
+        final KeyAffinityProcessingUnitSample keyAffinitySupport = new KeyAffinityProcessingUnitSample() {
+            @Override
+            public Object getKey(KeyAffinityProcessingUnitSample.Booking workItem) {
+                return "same account";
+            }
+        };
+        keyAffinitySupport.initialize(new ArrayList<Parameter>(), null);
+
+        final KeyAffinityDispatcher<KeyAffinityProcessingUnitSample.Booking> dispatcher = new KeyAffinityDispatcher<KeyAffinityProcessingUnitSample.Booking>(keyAffinitySupport, 4, 2000, 100);
+        dispatcher.start(Executors.defaultThreadFactory(), null, null);
+
+        int numberOfWorkItems = 0;
+        for (int i = 0; i < 4; i++) {
+            List<KeyAffinityProcessingUnitSample.Booking> workItemList = dispatcher.getWorkItemQueue(i).poll(2000);
+            while (workItemList != null) {
+                numberOfWorkItems += workItemList.size();
+                workItemList = dispatcher.getWorkItemQueue(i).poll(2000);
+            }
+        }
+
+        assertEquals(1000, numberOfWorkItems);
+        assertEquals(4.0, dispatcher.getSkew());
+        assertEquals(0, dispatcher.getQueueDepth());
+        dispatcher.stop(1000L);
+        assertEquals(1000L, dispatcher.getOffset());
+        assertTrue(dispatcher.getPendingWorkItemList().isEmpty());
+        assertNull(dispatcher.getWorkItemQueue(0).poll(1));
+    }
+
+
+    /**
+     * Create the parameter list
+     *
+     * @return the parameter list
+     */
+    private List<Parameter> createParameterList() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(KeyAffinityProcessingUnitSample.NUMBER_OF_BOOKINGS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(KeyAffinityProcessingUnitSample.NUMBER_OF_ACCOUNTS.getKey(), "7"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "3"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.KEY_AFFINITY_QUEUE_SIZE.getKey(), "5"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.WORK_ITEM_READ_BLOCK_SIZE.getKey(), "10"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+        return parameterList;
+    }
+}
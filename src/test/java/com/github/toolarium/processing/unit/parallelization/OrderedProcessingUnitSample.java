@@ -0,0 +1,166 @@
+/*
+ * OrderedProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSink;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Implements a parallel processing unit in ordered mode: the records are processed with a random duration, therefore
+ * out of order. The sink verifies that the results are written in the order of the source.
+ *
+ * @author patrick
+ */
+public class OrderedProcessingUnitSample extends AbstractProcessingUnitImpl implements IParallelProcessingUnit, IProcessingUnitOrderedSupport<Long, String> {
+
+    /** NUMBER_OF_RECORDS: the number of records. */
+    public static final ParameterDefinition NUMBER_OF_RECORDS = new ParameterDefinitionBuilder().name("numberOfRecords").defaultValue(1000).description("The number of records.").build();
+
+    private static final List<String> WRITTEN_RESULT_LIST = new ArrayList<String>();
+    private IProcessingUnitWorkItemQueue<Long> workItemQueue;
+    private IProcessingUnitResultQueue<String> resultQueue;
+
+
+    /**
+     * Reset the verification
+     */
+    public static void reset() {
+        synchronized (WRITTEN_RESULT_LIST) {
+            WRITTEN_RESULT_LIST.clear();
+        }
+    }
+
+
+    /**
+     * Get the written results
+     *
+     * @return the written results
+     */
+    public static List<String> getWrittenResultList() {
+        synchronized (WRITTEN_RESULT_LIST) {
+            return new ArrayList<String>(WRITTEN_RESULT_LIST);
+        }
+    }
+
+
+    /**
+     * Get the result of a record
+     *
+     * @param record the record
+     * @return the result
+     */
+    public static String toResult(long record) {
+        return "result-" + record;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    public void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_RECORDS);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#createWorkItemSource()
+     */
+    @Override
+    public IProcessingUnitSource<Long> createWorkItemSource() {
+        return new RingBufferProcessingUnitSample.RecordSource(getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#setWorkItemQueue(com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue)
+     */
+    @Override
+    public void setWorkItemQueue(IProcessingUnitWorkItemQueue<Long> workItemQueue) {
+        this.workItemQueue = workItemQueue;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitOrderedSupport#createResultSink()
+     */
+    @Override
+    public IProcessingUnitSink<String> createResultSink() {
+        return new IProcessingUnitSink<String>() {
+            @Override
+            public void write(List<String> resultList) throws ProcessingException {
+                synchronized (WRITTEN_RESULT_LIST) {
+                    WRITTEN_RESULT_LIST.addAll(resultList);
+                }
+            }
+        };
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitOrderedSupport#setResultQueue(com.github.toolarium.processing.unit.parallelization.IProcessingUnitResultQueue)
+     */
+    @Override
+    public void setResultQueue(IProcessingUnitResultQueue<String> resultQueue) {
+        this.resultQueue = resultQueue;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final List<Long> recordList = workItemQueue.poll(4);
+        if (recordList == null) {
+            return processingUnitStatusBuilder.hasNext(false).build();
+        }
+
+        final List<String> resultList = new ArrayList<String>(recordList.size());
+        for (Long record : recordList) {
+            // random duration: the records are finished out of order
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(10_000L, 500_000L));
+            resultList.add(toResult(record));
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+        }
+
+        if (!recordList.isEmpty()) {
+            resultQueue.release(resultList);
+        }
+
+        return processingUnitStatusBuilder.hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        workItemQueue = null;
+        resultQueue = null;
+    }
+}
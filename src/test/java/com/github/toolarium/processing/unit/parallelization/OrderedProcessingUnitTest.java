@@ -0,0 +1,157 @@
+/*
+ * OrderedProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.OrderedRingBufferDispatcher;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.RingBufferWaitStrategy;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the ordered mode of the parallel processing unit.
+ *
+ * @author patrick
+ */
+public class OrderedProcessingUnitTest {
+    private static final int TOTAL_UNITS = 500;
+
+
+    /**
+     * Test the ordered mode: the results are written in the order of the source
+     */
+    @Test
+    public void testOrdered() {
+        OrderedProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(OrderedProcessingUnitSample.class, createParameterList()), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertOrder(TOTAL_UNITS);
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("reorderBufferOccupancy"));
+    }
+
+
+    /**
+     * Test the ordered mode with suspend and resume: the results are written in the order of the source
+     */
+    @Test
+    public void testOrderedWithSuspendAndResume() {
+        OrderedProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(OrderedProcessingUnitSample.class, createParameterList(), 2, 100L, 2), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() >= 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertOrder(TOTAL_UNITS);
+    }
+
+
+    /**
+     * Test the back-pressure of a small reorder buffer: a worker which is ahead waits until the gap is closed
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testReorderBufferBackPressure() throws InterruptedException {
+        OrderedProcessingUnitSample.reset();
+
+        final OrderedProcessingUnitSample orderedSupport = new OrderedProcessingUnitSample();
+        final List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(OrderedProcessingUnitSample.NUMBER_OF_RECORDS.getKey(), "6"));
+        orderedSupport.initialize(parameterList, null);
+
+        final OrderedRingBufferDispatcher<Long, String> dispatcher = new OrderedRingBufferDispatcher<Long, String>(orderedSupport, 2, 8, 6, RingBufferWaitStrategy.PARK, 4);
+        dispatcher.start(Executors.defaultThreadFactory(), null, null);
+
+        // the first worker claims the head and the second worker the following records
+        List<Long> headList = dispatcher.getWorkItemQueue(0).poll(2);
+        while (headList.isEmpty()) {
+            headList = dispatcher.getWorkItemQueue(0).poll(2);
+        }
+        assertEquals(Arrays.asList(0L, 1L), headList);
+        final List<Long> firstList = dispatcher.getWorkItemQueue(1).poll(2);
+        assertEquals(Arrays.asList(2L, 3L), firstList);
+        assertThrows(ProcessingException.class, () -> dispatcher.getWorkItemQueue(1).poll(2));
+        
+        // the results up to the sequence 4 fit into the reorder buffer
+        dispatcher.getResultQueue(1).release(Arrays.asList("result-2", "result-3"));
+        assertEquals(2, dispatcher.getNumberOfBufferedResults());
+        assertTrue(OrderedProcessingUnitSample.getWrittenResultList().isEmpty());
+
+        // the results up to the sequence 6 don't fit: the second worker waits until the head is released
+        final List<Long> secondList = dispatcher.getWorkItemQueue(1).poll(2);
+        assertEquals(Arrays.asList(4L, 5L), secondList);
+        final AtomicInteger numberOfReleases = new AtomicInteger(0);
+        final Thread thread = new Thread(() -> {
+            dispatcher.getResultQueue(1).release(Arrays.asList("result-4", null));
+            numberOfReleases.incrementAndGet();
+        });
+        thread.start();
+        thread.join(200L);
+        assertEquals(0, numberOfReleases.get());
+        assertEquals(2, dispatcher.getNumberOfBufferedResults());
+
+        dispatcher.getResultQueue(0).release(Arrays.asList("result-0", "result-1"));
+        thread.join();
+        assertEquals(1, numberOfReleases.get());
+        assertEquals(0, dispatcher.getNumberOfBufferedResults());
+        assertEquals(Arrays.asList("result-0", "result-1", "result-2", "result-3", "result-4"), OrderedProcessingUnitSample.getWrittenResultList());
+
+        dispatcher.stop(1000L);
+        dispatcher.releaseResource();
+    }
+
+
+    /**
+     * Assert the order of the written results
+     *
+     * @param numberOfRecords the number of records
+     */
+    private void assertOrder(int numberOfRecords) {
+        final List<String> writtenResultList = OrderedProcessingUnitSample.getWrittenResultList();
+        assertEquals(numberOfRecords, writtenResultList.size());
+        for (int i = 0; i < numberOfRecords; i++) {
+            assertEquals(OrderedProcessingUnitSample.toResult(i), writtenResultList.get(i));
+        }
+    }
+
+
+    /**
+     * Create the parameter list
+     *
+     * @return the parameter list
+     */
+    private List<Parameter> createParameterList() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(OrderedProcessingUnitSample.NUMBER_OF_RECORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "4"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.RING_BUFFER_SIZE.getKey(), "64"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.WORK_ITEM_READ_BLOCK_SIZE.getKey(), "10"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.REORDER_BUFFER_SIZE.getKey(), "16"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+        return parameterList;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ParallelProcessingUnitBenchmarkTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.ProcessingUnitSample;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.ProcessingUnitBenchmarkResult;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the benchmark of processing units.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitBenchmarkTest {
+    private static final int TOTAL_UNITS = 50;
+
+
+    /**
+     * Test the benchmark of a parallel processing unit with different lock sizes: the matrix and the sample are kept tiny and
+     * without unlock timeout, the repeated words of the sample would otherwise wait for the unlock timeout.
+     */
+    @Test
+    public void testParallelProcessingUnitBenchmark() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "none"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.UNLOCK_TIMEOUT.getKey(), "0"));
+
+        Map<String, List<String>> parameterMatrix = new LinkedHashMap<String, List<String>>();
+        parameterMatrix.put(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), Arrays.asList("1"));
+        parameterMatrix.put(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), Arrays.asList("10", "20"));
+
+        List<ProcessingUnitBenchmarkResult> resultList = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner()
+                .runBenchmark(ParallelProcessingUnitSample.class, parameterList, parameterMatrix, null, 0, 1);
+        assertEquals(2, resultList.size());
+        
+        for (ProcessingUnitBenchmarkResult result : resultList) {
+            assertEquals(2, result.getParameterList().size());
+            assertNull(result.getMaxNumberOfProcessingUnitCallsPerSecond());
+            assertEquals(1, result.getNumberOfRuns());
+            assertEquals(0, result.getNumberOfFailedRuns());
+            assertEquals(TOTAL_UNITS, result.getNumberOfProcessedUnits());
+            assertTrue(result.getNumberOfCalls() > 0);
+            assertTrue(result.getThroughput() > 0);
+            assertTrue(result.getCallTimeP50() <= result.getCallTimeP99());
+            assertTrue(result.getOverhead() >= 0 && result.getOverhead() <= 1);
+        }
+        
+        // the first parameter of the matrix varies slowest
+        assertEquals(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), resultList.get(1).getParameterList().get(0).getKey());
+        assertEquals("1", resultList.get(1).getParameterList().get(0).getParameterValue().getValueAsString());
+        assertEquals(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), resultList.get(1).getParameterList().get(1).getKey());
+        assertEquals("20", resultList.get(1).getParameterList().get(1).getParameterValue().getValueAsString());
+    }
+
+
+    /**
+     * Test the benchmark of a processing unit with different throttling
+     */
+    @Test
+    public void testThrottlingBenchmark() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ProcessingUnitSample.INPUT_FILENAME_PARAMETER.getKey(), "filename"));
+
+        List<ProcessingUnitBenchmarkResult> resultList = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner()
+                .runBenchmark(ProcessingUnitSample.class, parameterList, null, Arrays.asList(null, 50L), 0, 1);
+        assertEquals(2, resultList.size());
+        assertNull(resultList.get(0).getMaxNumberOfProcessingUnitCallsPerSecond());
+        assertEquals(Long.valueOf(50L), resultList.get(1).getMaxNumberOfProcessingUnitCallsPerSecond());
+        assertEquals(10, resultList.get(0).getNumberOfCalls());
+        assertEquals(10, resultList.get(1).getNumberOfProcessedUnits());
+        assertTrue(resultList.get(0).getThrottlingTime() < resultList.get(1).getThrottlingTime());
+        assertTrue(resultList.get(0).getThroughput() > resultList.get(1).getThroughput());
+    }
+}
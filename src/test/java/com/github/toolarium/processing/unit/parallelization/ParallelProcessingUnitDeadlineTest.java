@@ -0,0 +1,86 @@
+/*
+ * ParallelProcessingUnitDeadlineTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitProgress;
+import com.github.toolarium.processing.unit.runtime.runnable.ProcessingUnitDeadline;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitDeadlineAutoscaler;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the deadline of a parallel processing unit.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitDeadlineTest {
+    private static final int TOTAL_UNITS = 128;
+
+
+    /**
+     * Test the number of threads of the deadline autoscaler
+     */
+    @Test
+    public void testDeadlineAutoscaler() {
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress();
+        processingUnitProgress.setNumberOfUnitsToProcess(1000000);
+        final Instant now = Instant.now();
+        final Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        ParallelProcessingUnitDeadlineAutoscaler autoscaler = new ParallelProcessingUnitDeadlineAutoscaler(new ProcessingUnitDeadline(now.plusSeconds(10000), 0), processingUnitProgress, clock);
+
+        // required throughput 100 units/s, 10 units/s per thread
+        assertEquals(10, autoscaler.computeNumberOfThreads(2, 1, 20, 20.0, 0.0));
+        assertTrue(autoscaler.isFeasible());
+        assertEquals(1, autoscaler.computeNumberOfThreads(2, 1, 20, 400.0, 0.0));
+        assertTrue(autoscaler.isFeasible());
+        assertEquals(4, autoscaler.computeNumberOfThreads(2, 1, 4, 20.0, 0.0));
+        assertFalse(autoscaler.isFeasible());
+        
+        // no measurement
+        assertEquals(2, autoscaler.computeNumberOfThreads(2, 1, 4, 0.0, 0.0));
+
+        // the deadline is reached
+        autoscaler = new ParallelProcessingUnitDeadlineAutoscaler(new ProcessingUnitDeadline(now.minusSeconds(1)), processingUnitProgress, clock);
+        assertEquals(4, autoscaler.computeNumberOfThreads(2, 1, 4, 20.0, 0.0));
+        assertFalse(autoscaler.isFeasible());
+    }
+
+
+    /**
+     * Test a parallel processing with an infeasible deadline
+     */
+    @Test
+    public void testInfeasibleDeadline() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "2"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "none"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE_INTERVAL.getKey(), "1"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.DEADLINE.getKey(), Instant.now().minusSeconds(1).toString()));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.WARN);
+        assertTrue(processRunner.getStatusMessageList().toString().contains("infeasible"));
+    }
+}
@@ -152,7 +152,7 @@ public class ParallelProcessingUnitSample extends AbstractProcessingUnitPersiste
     /**
      * Defines the parallel processing persistence 
      */
-    static class ParallelProcessingPersistence implements IProcessingUnitPersistence {
+    static class ParallelProcessingPersistence implements IProcessingUnitPersistenceRepartitionSupport {
         private static final long serialVersionUID = -178680376384580300L;
         private List<String> wordResultList; 
 
@@ -175,5 +175,45 @@ public class ParallelProcessingUnitSample extends AbstractProcessingUnitPersiste
         public void setWordResultList(List<String> wordResultList) {
             this.wordResultList = wordResultList;
         }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport#merge(com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport)
+         */
+        @Override
+        public IProcessingUnitPersistenceRepartitionSupport merge(IProcessingUnitPersistenceRepartitionSupport processingUnitPersistence) {
+            ParallelProcessingPersistence result = new ParallelProcessingPersistence();
+            result.setWordResultList(new ArrayList<String>());
+            if (wordResultList != null) {
+                result.getWordResultList().addAll(wordResultList);
+            }
+            
+            List<String> otherWordResultList = ((ParallelProcessingPersistence) processingUnitPersistence).getWordResultList();
+            if (otherWordResultList != null) {
+                result.getWordResultList().addAll(otherWordResultList);
+            }
+            return result;
+        }
+
+        
+        /**
+         * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPersistenceRepartitionSupport#split(int)
+         */
+        @Override
+        public List<IProcessingUnitPersistenceRepartitionSupport> split(int numberOfParts) {
+            List<IProcessingUnitPersistenceRepartitionSupport> result = new ArrayList<IProcessingUnitPersistenceRepartitionSupport>();
+            for (int i = 0; i < numberOfParts; i++) {
+                ParallelProcessingPersistence part = new ParallelProcessingPersistence();
+                part.setWordResultList(new ArrayList<String>());
+                result.add(part);
+            }
+
+            if (wordResultList != null) {
+                for (int i = 0; i < wordResultList.size(); i++) {
+                    ((ParallelProcessingPersistence) result.get(i % numberOfParts)).getWordResultList().add(wordResultList.get(i));
+                }
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * ParallelProcessingUnitStressTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.ParallelProcessingUnitStressResult;
+import com.github.toolarium.processing.unit.runtime.test.ParallelProcessingUnitStressRunner;
+import com.github.toolarium.processing.unit.runtime.test.ParallelProcessingUnitStressSample;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Stress test of the parallel processing unit: it verifies the accounting invariants.
+ *
+ * @author patrick
+ */
+public class ParallelProcessingUnitStressTest {
+    private static final long SEED = 4711L;
+
+
+    /**
+     * Test the accounting of a processing with failed units
+     */
+    @Test
+    public void testParallelProcessingUnitWithFailedUnits() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.STRESS_ID_PARAMETER.getKey(), "testParallelProcessingUnitWithFailedUnits"));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.NUMBER_OF_UNITS_TO_PROCESS_PARAMETER.getKey(), "500"));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.BLOCK_SIZE_PARAMETER.getKey(), "7"));
+        parameterList.add(new Parameter(ParallelProcessingUnitStressSample.PERCENTAGE_NUMBER_OF_UNITS_TO_FAIL_PARAMETER.getKey(), "10"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "4"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "none"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        try {
+            assertEquals(500L, processRunner.run(ParallelProcessingUnitStressSample.class, parameterList));
+            assertEquals(ProcessingActionStatus.ENDED, processRunner.getProcessingActionStatus());
+            assertEquals(450L, processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits());
+            assertEquals(50L, processRunner.getProcessingUnitProgress().getNumberOfFailedUnits());
+            assertEquals("450", processRunner.getProcessingUnitContext().get(ParallelProcessingUnitStressSample.RESULT));
+        } finally {
+            ParallelProcessingUnitStressSample.removeStressSource("testParallelProcessingUnitWithFailedUnits");
+        }
+    }
+
+
+    /**
+     * Test randomized stress runs
+     */
+    @Test
+    public void testStressRuns() {
+        ParallelProcessingUnitStressRunner stressRunner = new ParallelProcessingUnitStressRunner(SEED, 8, 1000, 20, 2);
+        List<ParallelProcessingUnitStressResult> resultList = stressRunner.run(10);
+        assertEquals(10, resultList.size());
+        for (ParallelProcessingUnitStressResult result : resultList) {
+            assertTrue(result.isConsistent(), result.toString());
+        }
+    }
+}
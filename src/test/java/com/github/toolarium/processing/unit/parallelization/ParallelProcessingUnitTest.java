@@ -6,6 +6,7 @@
 package com.github.toolarium.processing.unit.parallelization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -16,6 +17,7 @@ import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
 import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
 import com.github.toolarium.processing.unit.framework.TextProducer;
 import com.github.toolarium.processing.unit.framework.TextProducer.StringList;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.AdaptiveStartupRamp;
 import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnit;
 import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
 import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
@@ -173,6 +175,175 @@ public class ParallelProcessingUnitTest {
     }
     
     
+    /**
+     * Test the abort while the threads pause: the threads are woken up and don't wait until the pause ends
+     */
+    @Test
+    public void testMultithreadedProcessingUnitAbortWhilePausing() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NO_PROGRESS_PAUSE_TIME.getKey(), "20000"));
+
+        final long start = System.currentTimeMillis();
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        processRunner.runAndAbort(ParallelProcessingUnitSample.class, parameterList, 2);
+        assertTrue(System.currentTimeMillis() - start < 15000L);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ABORTED);
+    }
+    
+    
+    /**
+     * Test the autoscaling of the number of threads
+     */
+    @Test
+    public void testMultithreadedProcessingUnitWithAutoscaling() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "1"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_THREADS.getKey(), "4"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE.getKey(), "true"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE_INTERVAL.getKey(), "50"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        
+        ParallelProcessingUnit parallelProcessingUnit = (ParallelProcessingUnit)processRunner.getProcesingUnit();
+        assertTrue(parallelProcessingUnit.getNumberOfThreads() >= 1);
+        assertTrue(parallelProcessingUnit.getNumberOfThreads() <= 4);
+    }
+
+    
+    /**
+     * Test the autoscaler is not active without the parameter autoscale
+     */
+    @Test
+    public void testMultithreadedProcessingUnitWithoutAutoscaling() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "1"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_THREADS.getKey(), "4"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE_INTERVAL.getKey(), "10"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(((ParallelProcessingUnit)processRunner.getProcesingUnit()).getNumberOfThreads(), 1);
+    }
+
+    
+    /**
+     * Test the autoscaling of the number of threads with suspend and resume
+     */
+    @Test
+    public void testMultithreadedProcessingUnitWithAutoscalingAndSuspendAndResume() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "1"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_THREADS.getKey(), "3"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE.getKey(), "true"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.AUTOSCALE_INTERVAL.getKey(), "20"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(ParallelProcessingUnitSample.class, parameterList, 5, 100L, 2), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnprocessedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+    
+    /**
+     * Test the adaptive startup ramp of the number of threads
+     */
+    @Test
+    public void testMultithreadedProcessingUnitWithAdaptiveStartupRamp() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "8"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP.getKey(), "adaptive"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP_FIRST_WAVE.getKey(), "2"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.STARTUP_RAMP_INTERVAL.getKey(), "20"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("startupRampWaves"));
+        
+        ParallelProcessingUnit parallelProcessingUnit = (ParallelProcessingUnit)processRunner.getProcesingUnit();
+        assertTrue(parallelProcessingUnit.getNumberOfThreads() >= 2, "" + parallelProcessingUnit.getNumberOfThreads());
+        assertTrue(parallelProcessingUnit.getNumberOfThreads() <= 8, "" + parallelProcessingUnit.getNumberOfThreads());
+    }
+
+    
+    /**
+     * Test the decisions of the adaptive startup ramp
+     */
+    @Test
+    public void testAdaptiveStartupRamp() {
+        AdaptiveStartupRamp startupRamp = new AdaptiveStartupRamp(2, 0.2);
+        assertEquals(2, startupRamp.start(16));
+        assertFalse(startupRamp.isFinished());
+        assertEquals(2, startupRamp.computeNumberOfThreads(2, 16, 0, 0));
+        assertEquals(4, startupRamp.computeNumberOfThreads(2, 16, 100, 0));
+        assertEquals(8, startupRamp.computeNumberOfThreads(4, 16, 180, 0));
+        assertFalse(startupRamp.isFinished());
+        
+        // the last wave brought no gain
+        assertEquals(8, startupRamp.computeNumberOfThreads(8, 16, 181, 0));
+        assertTrue(startupRamp.isFinished());
+        assertEquals(3, startupRamp.getNumberOfWaves());
+        
+        // the threads block each other
+        assertEquals(2, startupRamp.start(16));
+        assertEquals(2, startupRamp.computeNumberOfThreads(2, 16, 100, 0.5));
+        assertTrue(startupRamp.isFinished());
+        
+        // the configured number of threads is reached
+        assertEquals(2, startupRamp.start(3));
+        assertEquals(3, startupRamp.computeNumberOfThreads(2, 3, 100, 0));
+        assertTrue(startupRamp.isFinished());
+        assertEquals(1, startupRamp.start(1));
+        assertTrue(startupRamp.isFinished());
+    }
+
+    
+    /**
+     * Test resume with more threads: the persisted states are split
+     */
+    @Test
+    public void testMultithreadedProcessingUnitResumeWithMoreThreads() {
+        assertResumeWithDifferentNumberOfThreads(2, 3);
+    }
+
+    
+    /**
+     * Test resume with less threads: the persisted states are merged
+     */
+    @Test
+    public void testMultithreadedProcessingUnitResumeWithLessThreads() {
+        assertResumeWithDifferentNumberOfThreads(3, 1);
+    }
+
+    
     /**
      * Simple test case with correct
      */
@@ -205,4 +376,33 @@ public class ParallelProcessingUnitTest {
         avg = RoundUtil.getInstance().roundToInt(processRunner.getProcessingUnitThrottling().getSleepStatisticCounter().getAverage());
         assertTrue(avg >= 40 && avg <= 100, "" + processRunner.getProcessingUnitThrottling().getSleepStatisticCounter());
     }
+
+    
+    /**
+     * Run with suspend and resume with a different number of threads
+     *
+     * @param numberOfThreads the number of threads before the suspend
+     * @param resumeNumberOfThreads the number of threads after the resume
+     */
+    private void assertResumeWithDifferentNumberOfThreads(int numberOfThreads, int resumeNumberOfThreads) {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "" + numberOfThreads));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), TWO));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        List<Parameter> resumeParameterList = new ArrayList<Parameter>();
+        resumeParameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "" + resumeNumberOfThreads));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner().resumeParameterList(resumeParameterList);
+        assertEquals(processRunner.runWithSuspendAndResume(ParallelProcessingUnitSample.class, parameterList, 3, 100L, 2), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() >= 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnprocessedUnits(), 0);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(((ParallelProcessingUnit)processRunner.getProcesingUnit()).getNumberOfThreads(), resumeNumberOfThreads);
+    }
 }
@@ -0,0 +1,229 @@
+/*
+ * RingBufferProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Implements a parallel processing unit with a reader thread: the records are read by a cheap sequential source and
+ * transformed by the expensive workers. It verifies that every record is processed exactly once.
+ *
+ * @author patrick
+ */
+public class RingBufferProcessingUnitSample extends AbstractProcessingUnitImpl implements IParallelProcessingUnit, IProcessingUnitWorkItemSupport<Long> {
+
+    /** NUMBER_OF_RECORDS: the number of records. */
+    public static final ParameterDefinition NUMBER_OF_RECORDS = new ParameterDefinitionBuilder().name("numberOfRecords").defaultValue(1000).description("The number of records.").build();
+
+    private static final Set<Long> PROCESSED_RECORD_SET = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger NUMBER_OF_DUPLICATES = new AtomicInteger(0);
+    private IProcessingUnitWorkItemQueue<Long> workItemQueue;
+
+
+    /**
+     * Reset the verification
+     */
+    public static void reset() {
+        PROCESSED_RECORD_SET.clear();
+        NUMBER_OF_DUPLICATES.set(0);
+    }
+
+
+    /**
+     * Get the number of processed records
+     *
+     * @return the number of processed records
+     */
+    public static int getNumberOfProcessedRecords() {
+        return PROCESSED_RECORD_SET.size();
+    }
+
+
+    /**
+     * Get the number of records which were processed more than once
+     *
+     * @return the number of duplicates
+     */
+    public static int getNumberOfDuplicates() {
+        return NUMBER_OF_DUPLICATES.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    public void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_RECORDS);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#createWorkItemSource()
+     */
+    @Override
+    public IProcessingUnitSource<Long> createWorkItemSource() {
+        return new RecordSource(getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemSupport#setWorkItemQueue(com.github.toolarium.processing.unit.parallelization.IProcessingUnitWorkItemQueue)
+     */
+    @Override
+    public void setWorkItemQueue(IProcessingUnitWorkItemQueue<Long> workItemQueue) {
+        this.workItemQueue = workItemQueue;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        final List<Long> recordList = workItemQueue.poll(16);
+        if (recordList == null) {
+            return processingUnitStatusBuilder.hasNext(false).build();
+        }
+
+        for (Long record : recordList) {
+            transform(record);
+            if (!PROCESSED_RECORD_SET.add(record)) {
+                NUMBER_OF_DUPLICATES.incrementAndGet();
+            }
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+        }
+
+        return processingUnitStatusBuilder.hasNext(true).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#releaseResource()
+     */
+    @Override
+    public void releaseResource() throws ProcessingException {
+        workItemQueue = null;
+    }
+
+
+    /**
+     * Simulates the expensive transformation of a record
+     *
+     * @param record the record
+     * @return the transformed record
+     * @throws ProcessingException In case the transformation failed
+     */
+    private byte[] transform(Long record) throws ProcessingException {
+        try {
+            byte[] result = ("record-" + record).getBytes(StandardCharsets.UTF_8);
+            final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (int i = 0; i < 100; i++) {
+                result = messageDigest.digest(result);
+            }
+            return result;
+        } catch (NoSuchAlgorithmException e) {
+            throw new ProcessingException(e.getMessage(), e, true);
+        }
+    }
+
+
+    /**
+     * Defines the record source, the offset is the position of the next record
+     */
+    static class RecordSource implements IProcessingUnitSource<Long> {
+        private final long numberOfRecords;
+        private long position;
+
+
+        /**
+         * Constructor for RecordSource
+         *
+         * @param numberOfRecords the number of records
+         */
+        RecordSource(long numberOfRecords) {
+            this.numberOfRecords = numberOfRecords;
+            this.position = 0;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#open(java.io.Serializable)
+         */
+        @Override
+        public void open(Serializable offset) {
+            if (offset != null) {
+                position = (Long) offset;
+            }
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#estimateNumberOfUnits()
+         */
+        @Override
+        public long estimateNumberOfUnits() {
+            return numberOfRecords;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#read(int)
+         */
+        @Override
+        public List<Long> read(int blockSize) {
+            final List<Long> result = new ArrayList<Long>();
+            while (position < numberOfRecords && result.size() < blockSize) {
+                result.add(position);
+                position++;
+            }
+            return result;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#getOffset()
+         */
+        @Override
+        public Serializable getOffset() {
+            return position;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#close()
+         */
+        @Override
+        public void close() {
+            // NOP
+        }
+    }
+}
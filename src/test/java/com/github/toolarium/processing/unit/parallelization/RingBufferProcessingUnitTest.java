@@ -0,0 +1,165 @@
+/*
+ * RingBufferProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitResourceMeasurement;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.RingBufferDispatcher;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.RingBufferWaitStrategy;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the reader / worker topology of the parallel processing unit.
+ *
+ * @author patrick
+ */
+public class RingBufferProcessingUnitTest {
+    private static final int TOTAL_UNITS = 500;
+
+
+    /**
+     * Test the ring buffer with the default wait strategy
+     */
+    @Test
+    public void testRingBuffer() {
+        RingBufferProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(RingBufferProcessingUnitSample.class, createParameterList("park")), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(TOTAL_UNITS, RingBufferProcessingUnitSample.getNumberOfProcessedRecords());
+        assertEquals(0, RingBufferProcessingUnitSample.getNumberOfDuplicates());
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("ringBufferOccupancy"));
+        assertNotNull(processRunner.getProcessingUnitProgress().getResourceStatistic().get(ProcessingUnitResourceMeasurement.WALL_TIME));
+    }
+
+
+    /**
+     * Test the ring buffer with the spinning wait strategies
+     */
+    @Test
+    public void testRingBufferWithSpinningWaitStrategy() {
+        for (String waitStrategy : new String[] {"busySpin", "yield"}) {
+            RingBufferProcessingUnitSample.reset();
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.run(RingBufferProcessingUnitSample.class, createParameterList(waitStrategy)), TOTAL_UNITS);
+            assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+            assertEquals(TOTAL_UNITS, RingBufferProcessingUnitSample.getNumberOfProcessedRecords());
+            assertEquals(0, RingBufferProcessingUnitSample.getNumberOfDuplicates());
+        }
+    }
+
+
+    /**
+     * Test the ring buffer with suspend and resume: the published but not yet processed records are kept
+     */
+    @Test
+    public void testRingBufferWithSuspendAndResume() {
+        RingBufferProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(RingBufferProcessingUnitSample.class, createParameterList("park"), 2, 100L, 2), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() >= 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(TOTAL_UNITS, RingBufferProcessingUnitSample.getNumberOfProcessedRecords());
+        assertEquals(0, RingBufferProcessingUnitSample.getNumberOfDuplicates());
+    }
+
+
+    /**
+     * Test the sequence barrier of a small ring buffer with concurrent workers
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testRingBufferDispatcher() throws InterruptedException {
+        final int numberOfRecords = 20000;
+        final RingBufferProcessingUnitSample workItemSupport = new RingBufferProcessingUnitSample();
+        final List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(RingBufferProcessingUnitSample.NUMBER_OF_RECORDS.getKey(), "" + numberOfRecords));
+        workItemSupport.initialize(parameterList, null);
+
+        final RingBufferDispatcher<Long> dispatcher = new RingBufferDispatcher<Long>(workItemSupport, 3, 5, 7, RingBufferWaitStrategy.YIELD);
+        assertEquals(8, dispatcher.getRingBufferSize());
+        dispatcher.start(Executors.defaultThreadFactory(), null, null);
+
+        final Set<Long> recordSet = ConcurrentHashMap.newKeySet();
+        final AtomicInteger numberOfViolations = new AtomicInteger(0);
+        final List<Thread> threadList = new ArrayList<Thread>();
+        for (int i = 0; i < 3; i++) {
+            final int index = i;
+            threadList.add(new Thread(() -> {
+                long lastRecord = -1;
+                List<Long> recordList = dispatcher.getWorkItemQueue(index).poll(3);
+                while (recordList != null) {
+                    for (Long record : recordList) {
+                        if (!recordSet.add(record) || record <= lastRecord) {
+                            numberOfViolations.incrementAndGet();
+                        }
+                        lastRecord = record;
+                    }
+                    recordList = dispatcher.getWorkItemQueue(index).poll(3);
+                }
+            }));
+        }
+
+        for (Thread thread : threadList) {
+            thread.start();
+        }
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+
+        assertEquals(0, numberOfViolations.get());
+        assertEquals(numberOfRecords, recordSet.size());
+        assertEquals(0, dispatcher.getQueueDepth());
+        dispatcher.stop(1000L);
+        assertEquals((long) numberOfRecords, dispatcher.getOffset());
+        assertTrue(dispatcher.getPendingWorkItemList().isEmpty());
+        assertNull(dispatcher.getWorkItemQueue(0).poll(1));
+    }
+
+
+    /**
+     * Create the parameter list
+     *
+     * @param waitStrategy the wait strategy
+     * @return the parameter list
+     */
+    private List<Parameter> createParameterList(String waitStrategy) {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(RingBufferProcessingUnitSample.NUMBER_OF_RECORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "3"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.RING_BUFFER_SIZE.getKey(), "32"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.WORK_ITEM_READ_BLOCK_SIZE.getKey(), "10"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.WAIT_STRATEGY.getKey(), waitStrategy));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+        return parameterList;
+    }
+}
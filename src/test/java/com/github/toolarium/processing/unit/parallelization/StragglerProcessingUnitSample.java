@@ -0,0 +1,193 @@
+/*
+ * StragglerProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.IProcessingUnitStatus;
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Implements a parallel processing unit with partitions where the first partition is slow (straggler). The partition is
+ * a range of records which can be split. It verifies that every record is processed exactly once.
+ *
+ * @author patrick
+ */
+public class StragglerProcessingUnitSample extends AbstractProcessingUnitImpl implements IParallelProcessingUnit, IProcessingUnitSplitSupport {
+
+    /** NUMBER_OF_RECORDS: the number of records. */
+    public static final ParameterDefinition NUMBER_OF_RECORDS = new ParameterDefinitionBuilder().name("numberOfRecords").defaultValue(400).description("The number of records.").build();
+
+    /** SLOW_RECORD_PAUSE_TIME: the pause time per record of the first partition. */
+    public static final ParameterDefinition SLOW_RECORD_PAUSE_TIME = new ParameterDefinitionBuilder().name("slowRecordPauseTime").defaultValue(10L).description("The pause time per record of the first partition.").build();
+
+    private static final Set<Long> PROCESSED_RECORD_SET = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger NUMBER_OF_DUPLICATES = new AtomicInteger(0);
+    private int partitionNumber;
+    private int numberOfPartitions;
+    private long position;
+    private long end;
+    private boolean isRangeInitialized;
+
+
+    /**
+     * Reset the verification
+     */
+    public static void reset() {
+        PROCESSED_RECORD_SET.clear();
+        NUMBER_OF_DUPLICATES.set(0);
+    }
+
+
+    /**
+     * Get the number of processed records
+     *
+     * @return the number of processed records
+     */
+    public static int getNumberOfProcessedRecords() {
+        return PROCESSED_RECORD_SET.size();
+    }
+
+
+    /**
+     * Get the number of records which were processed more than once
+     *
+     * @return the number of duplicates
+     */
+    public static int getNumberOfDuplicates() {
+        return NUMBER_OF_DUPLICATES.get();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#initializeParameterDefinition()
+     */
+    @Override
+    public void initializeParameterDefinition() {
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_RECORDS);
+        getParameterRuntime().addParameterDefinition(SLOW_RECORD_PAUSE_TIME);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitPartitionSupport#setPartition(int, int)
+     */
+    @Override
+    public void setPartition(int partitionNumber, int numberOfPartitions) {
+        this.partitionNumber = partitionNumber;
+        this.numberOfPartitions = numberOfPartitions;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#estimateNumberOfUnitsToProcess()
+     */
+    @Override
+    public long estimateNumberOfUnitsToProcess() {
+        return getProcessingUnitProgress().setNumberOfUnitsToProcess(getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong());
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.base.AbstractProcessingUnitImpl#processUnit(com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder)
+     */
+    @Override
+    public IProcessingUnitStatus processUnit(ProcessingUnitStatusBuilder processingUnitStatusBuilder) throws ProcessingException {
+        initializeRange();
+
+        for (int i = 0; i < 5; i++) {
+            final long record = nextRecord();
+            if (record < 0) {
+                break;
+            }
+
+            if (partitionNumber == 0) {
+                ThreadUtil.getInstance().sleep(getParameterRuntime().getParameterValueList(SLOW_RECORD_PAUSE_TIME).getValueAsLong());
+            }
+
+            if (!PROCESSED_RECORD_SET.add(record)) {
+                NUMBER_OF_DUPLICATES.incrementAndGet();
+            }
+            processingUnitStatusBuilder.increaseNumberOfSuccessfulUnits();
+        }
+
+        return processingUnitStatusBuilder.hasNext(hasRemainingRecords()).build();
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitSplitSupport#splitRemainingWork()
+     */
+    @Override
+    public synchronized Serializable splitRemainingWork() {
+        if (!isRangeInitialized || end - position < 2) {
+            return null;
+        }
+
+        final long splitPosition = position + (end - position) / 2;
+        final long[] splitWork = new long[] {splitPosition, end};
+        end = splitPosition;
+        return splitWork;
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.parallelization.IProcessingUnitSplitSupport#takeOverSplitWork(java.io.Serializable)
+     */
+    @Override
+    public synchronized void takeOverSplitWork(Serializable splitWork) {
+        final long[] range = (long[]) splitWork;
+        position = range[0];
+        end = range[1];
+        isRangeInitialized = true;
+    }
+
+
+    /**
+     * Initialize the range of the partition
+     */
+    private synchronized void initializeRange() {
+        if (isRangeInitialized) {
+            return;
+        }
+
+        final long numberOfRecords = getParameterRuntime().getParameterValueList(NUMBER_OF_RECORDS).getValueAsLong();
+        position = numberOfRecords / numberOfPartitions * partitionNumber;
+        end = (partitionNumber + 1 >= numberOfPartitions) ? numberOfRecords : numberOfRecords / numberOfPartitions * (partitionNumber + 1);
+        isRangeInitialized = true;
+    }
+
+
+    /**
+     * Claim the next record of the range
+     *
+     * @return the record or -1 in case the range is processed
+     */
+    private synchronized long nextRecord() {
+        if (position >= end) {
+            return -1;
+        }
+        return position++;
+    }
+
+
+    /**
+     * Check if there are remaining records in the range
+     *
+     * @return true if there are remaining records
+     */
+    private synchronized boolean hasRemainingRecords() {
+        return position < end;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * StragglerProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the split of the remaining work of straggler threads.
+ *
+ * @author patrick
+ */
+public class StragglerProcessingUnitTest {
+    private static final int TOTAL_UNITS = 400;
+
+
+    /**
+     * Test the split of the slow partition to the ended threads
+     */
+    @Test
+    public void testSplitStragglers() {
+        StragglerProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(StragglerProcessingUnitSample.class, createParameterList(true)), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals(TOTAL_UNITS, StragglerProcessingUnitSample.getNumberOfProcessedRecords());
+        assertEquals(0, StragglerProcessingUnitSample.getNumberOfDuplicates());
+        assertNotNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("stragglerSplits"));
+    }
+
+
+    /**
+     * Test the processing without the split of stragglers
+     */
+    @Test
+    public void testWithoutSplitStragglers() {
+        StragglerProcessingUnitSample.reset();
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(StragglerProcessingUnitSample.class, createParameterList(false)), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(TOTAL_UNITS, StragglerProcessingUnitSample.getNumberOfProcessedRecords());
+        assertEquals(0, StragglerProcessingUnitSample.getNumberOfDuplicates());
+        assertNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get("stragglerSplits"));
+    }
+
+
+    /**
+     * Create the parameter list
+     *
+     * @param splitStragglers true to split the stragglers
+     * @return the parameter list
+     */
+    private List<Parameter> createParameterList(boolean splitStragglers) {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(StragglerProcessingUnitSample.NUMBER_OF_RECORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "4"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.SPLIT_STRAGGLERS.getKey(), "" + splitStragglers));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "100"));
+        return parameterList;
+    }
+}
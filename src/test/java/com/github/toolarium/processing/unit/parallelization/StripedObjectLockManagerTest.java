@@ -0,0 +1,198 @@
+/*
+ * StripedObjectLockManagerTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.parallelization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnit;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.StripedObjectLockManager;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link StripedObjectLockManager}.
+ *
+ * @author patrick
+ */
+public class StripedObjectLockManagerTest {
+    private static final int TOTAL_UNITS = 128;
+
+
+    /**
+     * Test lock and unlock
+     */
+    @Test
+    public void testLockAndUnlock() {
+        StripedObjectLockManager objectLockManager = new StripedObjectLockManager(2);
+        objectLockManager.setObjectLockSize(3);
+
+        assertEquals(Arrays.asList("a", "b", "c"), objectLockManager.lock(Arrays.asList("a", "b", "c", "d")));
+        assertEquals(1, objectLockManager.getNumberOfLockSizeReached());
+        assertEquals(Arrays.asList("d"), objectLockManager.lock(Arrays.asList("a", "b", "d")));
+        assertEquals(2.0, objectLockManager.getIgnoreLockStatistic().getSum());
+
+        objectLockManager.unlock(Arrays.asList("a", "b"));
+        assertEquals(Arrays.asList("a", "b"), objectLockManager.lock(Arrays.asList("a", "b", "c")));
+        assertEquals(3, objectLockManager.getLockStatistic().getCounter());
+        assertEquals(0.0, objectLockManager.getUnlockStatistic().getSum());
+    }
+
+
+    /**
+     * Test the unlock timeout
+     */
+    @Test
+    public void testUnlockTimeout() {
+        StripedObjectLockManager objectLockManager = new StripedObjectLockManager();
+        objectLockManager.setObjectLockSize(10);
+        objectLockManager.setUnlockTimeout(200L);
+
+        assertEquals(Arrays.asList("a", "b"), objectLockManager.lock(Arrays.asList("a", "b")));
+        objectLockManager.unlock(Arrays.asList("a"));
+        assertEquals(Arrays.asList(), objectLockManager.lock(Arrays.asList("a", "b")));
+        assertEquals(1.0, objectLockManager.getUnlockStatistic().getSum());
+        assertEquals(1.0, objectLockManager.getIgnoreLockStatistic().getSum());
+
+        ThreadUtil.getInstance().sleep(350L);
+        assertEquals(Arrays.asList("a"), objectLockManager.lock(Arrays.asList("a", "b")));
+    }
+
+
+    /**
+     * Test the exclusivity with many threads and a table growth
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testConcurrentLock() throws InterruptedException {
+        final StripedObjectLockManager objectLockManager = new StripedObjectLockManager(4);
+        objectLockManager.setObjectLockSize(5);
+        objectLockManager.setUnlockTimeout(2L);
+
+        final ConcurrentHashMap<Integer, Thread> ownerMap = new ConcurrentHashMap<Integer, Thread>();
+        final AtomicInteger numberOfViolations = new AtomicInteger(0);
+        final AtomicInteger numberOfLocks = new AtomicInteger(0);
+        final List<Thread> threadList = new ArrayList<Thread>();
+        for (int t = 0; t < 16; t++) {
+            final Random random = new Random(t);
+            threadList.add(new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    final List<Integer> objectList = new ArrayList<Integer>();
+                    for (int j = 0; j < 10; j++) {
+                        objectList.add(random.nextInt(5000));
+                    }
+
+                    final List<Integer> lockList = objectLockManager.lock(objectList);
+                    for (Integer object : lockList) {
+                        if (ownerMap.putIfAbsent(object, Thread.currentThread()) != null) {
+                            numberOfViolations.incrementAndGet();
+                        }
+                    }
+                    numberOfLocks.addAndGet(lockList.size());
+
+                    for (Integer object : lockList) {
+                        ownerMap.remove(object, Thread.currentThread());
+                    }
+                    objectLockManager.unlock(lockList);
+                }
+            }));
+        }
+
+        for (Thread thread : threadList) {
+            thread.start();
+        }
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+
+        assertEquals(0, numberOfViolations.get());
+        assertTrue(numberOfLocks.get() > 0);
+        assertEquals(16 * 2000, objectLockManager.getLockStatistic().getCounter());
+        assertEquals((double) numberOfLocks.get(), objectLockManager.getLockStatistic().getSum());
+    }
+
+
+    /**
+     * Test no object stays blocked in case the unlock timeout is changed during the unlock
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testChangeUnlockTimeoutDuringUnlock() throws InterruptedException {
+        final StripedObjectLockManager objectLockManager = new StripedObjectLockManager(4);
+        objectLockManager.setUnlockTimeout(60000L);
+
+        final int numberOfThreads = 4;
+        final int numberOfObjectsPerThread = 20000;
+        final List<Thread> threadList = new ArrayList<Thread>();
+        for (int t = 0; t < numberOfThreads; t++) {
+            final int offset = t * numberOfObjectsPerThread;
+            threadList.add(new Thread(() -> {
+                for (int i = 0; i < numberOfObjectsPerThread; i += 100) {
+                    final List<Integer> objectList = new ArrayList<Integer>();
+                    for (int j = 0; j < 100; j++) {
+                        objectList.add(offset + i + j);
+                    }
+                    objectLockManager.unlock(objectLockManager.lock(objectList));
+                }
+            }));
+        }
+
+        for (Thread thread : threadList) {
+            thread.start();
+        }
+        for (int i = 0; threadList.stream().anyMatch(Thread::isAlive); i++) {
+            objectLockManager.setUnlockTimeout((i % 2 == 0) ? 50000L : 60000L);
+        }
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+
+        // all blocked objects are released with the last time wheel
+        objectLockManager.setUnlockTimeout(null);
+        final List<Integer> objectList = new ArrayList<Integer>();
+        for (int i = 0; i < numberOfThreads * numberOfObjectsPerThread; i++) {
+            objectList.add(i);
+        }
+        assertEquals(numberOfThreads * numberOfObjectsPerThread, objectLockManager.lock(objectList).size());
+    }
+
+
+    /**
+     * Test the parallel processing unit with the striped object lock manager
+     */
+    @Test
+    public void testParallelProcessingUnitWithStripedObjectLockManager() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "2"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.LOCK_SIZE.getKey(), "2"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.OBJECT_LOCK_MANAGER.getKey(), "striped"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(ParallelProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertTrue(((ParallelProcessingUnit)processRunner.getProcesingUnit()).getObjectLockManager() instanceof StripedObjectLockManager);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * PipelineProcessingUnitSample.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.pipeline;
+
+import com.github.toolarium.processing.unit.ParameterDefinitionBuilder;
+import com.github.toolarium.processing.unit.dto.ParameterDefinition;
+import com.github.toolarium.processing.unit.exception.ProcessingException;
+import com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnit;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Implements a pipeline processing unit sample: the source produces numbers, the stage squares them and the sink 
+ * sums them up in the context.
+ *  
+ * @author patrick
+ */
+public class PipelineProcessingUnitSample extends PipelineProcessingUnit<Long, Long> {
+    /** RESULT_SUM context */
+    public static final String RESULT_SUM = "RESULT_SUM";
+
+    /** RESULT_COUNT context */
+    public static final String RESULT_COUNT = "RESULT_COUNT";
+
+    /** NUMBER_OF_UNITS: the number of units. */
+    public static final ParameterDefinition NUMBER_OF_UNITS = new ParameterDefinitionBuilder().name("numberOfUnits").defaultValue(1000L).description("The number of units.").build();
+
+    /** FAIL_ON_NUMBER: the number which fails. */
+    public static final ParameterDefinition FAIL_ON_NUMBER = new ParameterDefinitionBuilder().name("failOnNumber").defaultValue(-1L).description("The number which fails in the stage.").build();
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnit#initializeParameterDefinition()
+     */
+    @Override
+    protected void initializeParameterDefinition() {
+        super.initializeParameterDefinition();
+        getParameterRuntime().addParameterDefinition(NUMBER_OF_UNITS);
+        getParameterRuntime().addParameterDefinition(FAIL_ON_NUMBER);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnit#createSource()
+     */
+    @Override
+    protected IProcessingUnitSource<Long> createSource() throws ProcessingException {
+        final long numberOfUnits = getParameterRuntime().getParameterValueList(NUMBER_OF_UNITS).getValueAsLong();
+        return new IProcessingUnitSource<Long>() {
+            private long position;
+
+            /**
+             * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#open(java.io.Serializable)
+             */
+            @Override
+            public void open(Serializable offset) {
+                position = (offset == null) ? 0 : (Long) offset;
+            }
+
+            /**
+             * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#estimateNumberOfUnits()
+             */
+            @Override
+            public long estimateNumberOfUnits() {
+                return numberOfUnits;
+            }
+
+            /**
+             * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#read(int)
+             */
+            @Override
+            public List<Long> read(int blockSize) {
+                List<Long> result = new ArrayList<Long>();
+                while (position < numberOfUnits && result.size() < blockSize) {
+                    result.add(++position);
+                }
+                return result;
+            }
+
+            /**
+             * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#getOffset()
+             */
+            @Override
+            public Serializable getOffset() {
+                return position;
+            }
+
+            /**
+             * @see com.github.toolarium.processing.unit.pipeline.IProcessingUnitSource#close()
+             */
+            @Override
+            public void close() {
+                // NOP
+            }
+        };
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnit#createStage()
+     */
+    @Override
+    protected IProcessingUnitStage<Long, Long> createStage() throws ProcessingException {
+        final long failOnNumber = getParameterRuntime().getParameterValueList(FAIL_ON_NUMBER).getValueAsLong();
+        IProcessingUnitStage<Long, Long> validate = input -> {
+            if (input.longValue() == failOnNumber) {
+                throw new ProcessingException("Invalid number " + input + "!", false);
+            }
+            return input;
+        };
+        
+        return validate.andThen(input -> input * input);
+    }
+
+
+    /**
+     * @see com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnit#createSink()
+     */
+    @Override
+    protected IProcessingUnitSink<Long> createSink() throws ProcessingException {
+        return resultList -> {
+            long sum = getContextValue(RESULT_SUM);
+            long count = getContextValue(RESULT_COUNT);
+            for (Long value : resultList) {
+                sum += value;
+                count++;
+            }
+            
+            getProcessingUnitContext().set(RESULT_SUM, "" + sum);
+            getProcessingUnitContext().set(RESULT_COUNT, "" + count);
+        };
+    }
+    
+    
+    /**
+     * Get a context value
+     *
+     * @param key the key
+     * @return the value
+     */
+    private long getContextValue(String key) {
+        String value = getProcessingUnitContext().get(key);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        
+        return Long.parseLong(value);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * PipelineProcessingUnitTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.runnable.pipeline.PipelineProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the pipeline processing unit
+ *  
+ * @author patrick
+ */
+public class PipelineProcessingUnitTest {
+    private static final long TOTAL_UNITS = 1000;
+
+    
+    /**
+     * Test the pipeline with a parallel stage
+     */
+    @Test
+    public void testPipeline() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PipelineProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_BLOCK_SIZE.getKey(), "10"));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_BUFFER_SIZE.getKey(), "3"));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_STAGE_PARALLELISM.getKey(), "4"));
+        
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(PipelineProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 0);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfUnprocessedUnits(), 0);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.SUCCESSFUL);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+        assertEquals("" + TOTAL_UNITS, processRunner.getProcessingUnitContext().get(PipelineProcessingUnitSample.RESULT_COUNT));
+        assertEquals("" + sumOfSquares(TOTAL_UNITS, -1), processRunner.getProcessingUnitContext().get(PipelineProcessingUnitSample.RESULT_SUM));
+    }
+
+    
+    /**
+     * Test the pipeline with a failed element in the stage
+     */
+    @Test
+    public void testPipelineWithFailedUnit() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PipelineProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PipelineProcessingUnitSample.FAIL_ON_NUMBER.getKey(), "42"));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_STAGE_PARALLELISM.getKey(), "2"));
+        
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.run(PipelineProcessingUnitSample.class, parameterList), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS - 1);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfFailedUnits(), 1);
+        assertEquals(processRunner.getProcessingRuntimeStatus(), ProcessingRuntimeStatus.WARN);
+        assertEquals(processRunner.getStatusMessageList().toString(), "[Invalid number 42!]");
+        assertEquals("" + sumOfSquares(TOTAL_UNITS, 42), processRunner.getProcessingUnitContext().get(PipelineProcessingUnitSample.RESULT_SUM));
+    }
+
+    
+    /**
+     * Test the pipeline with suspend and resume: every element must be written exactly once
+     */
+    @Test
+    public void testPipelineWithSuspendAndResume() {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(PipelineProcessingUnitSample.NUMBER_OF_UNITS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_BLOCK_SIZE.getKey(), "7"));
+        parameterList.add(new Parameter(PipelineProcessingUnitParameters.PIPELINE_STAGE_PARALLELISM.getKey(), "3"));
+        
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        assertEquals(processRunner.runWithSuspendAndResume(PipelineProcessingUnitSample.class, parameterList, 20, 10L, 5), TOTAL_UNITS);
+        assertTrue(processRunner.getSuspendCounter() > 0);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfSuccessfulUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingUnitProgress().getNumberOfProcessedUnits(), TOTAL_UNITS);
+        assertEquals(processRunner.getProcessingActionStatus(), ProcessingActionStatus.ENDED);
+    }
+
+    
+    /**
+     * Calculate the expected sum of squares
+     *
+     * @param n the number of elements
+     * @param exclude the excluded number
+     * @return the sum
+     */
+    private long sumOfSquares(long n, long exclude) {
+        long sum = 0;
+        for (long i = 1; i <= n; i++) {
+            if (i != exclude) {
+                sum += i * i;
+            }
+        }
+        return sum;
+    }
+}
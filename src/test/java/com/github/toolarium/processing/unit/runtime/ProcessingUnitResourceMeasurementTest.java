@@ -0,0 +1,90 @@
+/*
+ * ProcessingUnitResourceMeasurementTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.ProcessingUnitSample;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the processing unit resource measurement
+ *
+ * @author patrick
+ */
+public class ProcessingUnitResourceMeasurementTest {
+
+    /**
+     * Test the measurement of a call
+     */
+    @Test
+    public void testResourceMeasurement() {
+        ProcessingUnitResourceMeasurement resourceMeasurement = new ProcessingUnitResourceMeasurement();
+        resourceMeasurement.start();
+        List<byte[]> list = new ArrayList<byte[]>();
+        for (int i = 0; i < 100; i++) {
+            list.add(new byte[1024]);
+        }
+        resourceMeasurement.stop();
+
+        assertEquals(100, list.size());
+        assertTrue(resourceMeasurement.getWallTime() > 0);
+        assertTrue(resourceMeasurement.getCpuTime() >= -1);
+        if (resourceMeasurement.getAllocatedBytes() >= 0) {
+            assertTrue(resourceMeasurement.getAllocatedBytes() >= 100 * 1024);
+        }
+
+        ProcessingUnitStatistic processingUnitStatistic = new ProcessingUnitStatistic();
+        resourceMeasurement.addStatistic(processingUnitStatistic);
+        assertNotNull(processingUnitStatistic.get(ProcessingUnitResourceMeasurement.WALL_TIME));
+        assertEquals(resourceMeasurement.getCpuTime() >= 0, processingUnitStatistic.hasKey(ProcessingUnitResourceMeasurement.CPU_TIME));
+        assertEquals(resourceMeasurement.getAllocatedBytes() >= 0, processingUnitStatistic.hasKey(ProcessingUnitResourceMeasurement.ALLOCATED_BYTES));
+    }
+
+
+    /**
+     * Test the CPU utilisation and the allocated bytes per unit of the progress
+     */
+    @Test
+    public void testProcessingUnitProgress() {
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress();
+        assertEquals(-1.0, processingUnitProgress.getCpuUtilisation());
+        assertEquals(-1, processingUnitProgress.getAllocatedBytesPerUnit());
+
+        ProcessingUnitStatistic processingUnitStatistic = new ProcessingUnitStatistic();
+        processingUnitStatistic.add(ProcessingUnitResourceMeasurement.CPU_TIME, 300L);
+        processingUnitStatistic.add(ProcessingUnitResourceMeasurement.WALL_TIME, 1000L);
+        processingUnitStatistic.add(ProcessingUnitResourceMeasurement.ALLOCATED_BYTES, 4000L);
+        processingUnitProgress.addResourceStatistic(processingUnitStatistic);
+        processingUnitProgress.setNumberOfProcessedUnits(8);
+        assertEquals(0.3, processingUnitProgress.getCpuUtilisation());
+        assertEquals(500, processingUnitProgress.getAllocatedBytesPerUnit());
+    }
+
+
+    /**
+     * Test the measurement of a processing
+     */
+    @Test
+    public void testProcessingWithResourceMeasurement() {
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new Parameter(ProcessingUnitSample.INPUT_FILENAME_PARAMETER.getKey(), "filename"));
+        assertEquals(processRunner.run(ProcessingUnitSample.class, parameters), 10);
+        assertNotNull(processRunner.getProcessingUnitProgress().getResourceStatistic().get(ProcessingUnitResourceMeasurement.WALL_TIME));
+        assertNull(processRunner.getProcessingUnitProgress().getProcessingUnitStatistic().get(ProcessingUnitResourceMeasurement.WALL_TIME));
+        assertTrue(processRunner.getProcessingUnitProgress().getCpuUtilisation() >= -1);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * ProcessingUnitThroughputTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.common.util.ThreadUtil;
+import com.github.toolarium.processing.unit.ProcessingUnitStatusBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the processing unit throughput
+ *
+ * @author patrick
+ */
+public class ProcessingUnitThroughputTest {
+
+    /**
+     * Test the rate and the moving averages
+     */
+    @Test
+    public void testThroughput() {
+        ProcessingUnitThroughput throughput = new ProcessingUnitThroughput(10L);
+        assertEquals(0.0, throughput.getRate());
+        assertEquals(-1, throughput.getEstimatedTimeRemaining(100));
+        assertEquals(0, throughput.getEstimatedTimeRemaining(0));
+
+        throughput.add(50);
+        ThreadUtil.getInstance().sleep(15L);
+        assertTrue(throughput.getRate() > 0);
+        assertTrue(throughput.getThroughputLast10Seconds() > 0);
+        assertEquals(throughput.getThroughputLast10Seconds(), throughput.getThroughputLast5Minutes());
+        assertTrue(throughput.getEstimatedTimeRemaining(100) >= 0);
+
+        // idle: the averages decay
+        final double throughputLast10Seconds = throughput.getThroughputLast10Seconds();
+        ThreadUtil.getInstance().sleep(50L);
+        assertEquals(0.0, throughput.getRate());
+        assertTrue(throughput.getThroughputLast10Seconds() < throughputLast10Seconds);
+        assertTrue(throughput.getThroughputLast10Seconds() < throughput.getThroughputLast5Minutes());
+    }
+
+
+    /**
+     * Test the throughput of the progress, it is kept on a suspend
+     *
+     * @throws IOException In case of an I/O error
+     * @throws ClassNotFoundException In case of a missing class
+     */
+    @Test
+    public void testProcessingUnitProgress() throws IOException, ClassNotFoundException {
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress().setThroughput(new ProcessingUnitThroughput(10L));
+        processingUnitProgress.setNumberOfUnitsToProcess(1000);
+        processingUnitProgress.addProcessingUnitStatus(new ProcessingUnitStatusBuilder().increaseNumberOfSuccessfulUnits(100L).build());
+        ThreadUtil.getInstance().sleep(15L);
+        processingUnitProgress.addProcessingUnitStatus(new ProcessingUnitStatusBuilder().increaseNumberOfSuccessfulUnits(100L).build());
+        assertTrue(processingUnitProgress.getThroughputLastMinute() > 0);
+        assertTrue(processingUnitProgress.getEstimatedTimeRemaining() >= 0);
+
+        final double throughputLastMinute = processingUnitProgress.getThroughputLastMinute();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(new ProcessingUnitProgress(processingUnitProgress));
+        }
+
+        ThreadUtil.getInstance().sleep(50L);
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            ProcessingUnitProgress resumedProcessingUnitProgress = (ProcessingUnitProgress) objectInputStream.readObject();
+            assertEquals(throughputLastMinute, resumedProcessingUnitProgress.getThroughputLastMinute());
+            assertEquals(800, resumedProcessingUnitProgress.getNumberOfUnprocessedUnits());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * ProcessingUnitEventTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.parallelization.ParallelProcessingUnitSample;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.ParallelProcessingUnitParameters;
+import com.github.toolarium.processing.unit.runtime.runnable.parallelization.StripedObjectLockManager;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the JDK Flight Recorder events of a processing unit
+ *
+ * @author patrick
+ */
+public class ProcessingUnitEventTest {
+    private static final int TOTAL_UNITS = 100;
+
+
+    /**
+     * Test the events of a parallel processing with suspend and resume
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @Test
+    public void testEvents() throws IOException {
+        List<Parameter> parameterList = new ArrayList<Parameter>();
+        parameterList.add(new Parameter(ParallelProcessingUnitSample.NUMBER_OF_WORDS.getKey(), "" + TOTAL_UNITS));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.NUMBER_OF_THREAD_PARAMETER.getKey(), "2"));
+        parameterList.add(new Parameter(ParallelProcessingUnitParameters.MAX_NUMBER_OF_NO_PROGRESS_BEFORE_ABORT.getKey(), "10"));
+
+        final Path file = Files.createTempFile("processing-unit", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ProcessUnitEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(SuspendEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(ResumeEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(ProcessingActionStatusEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(ObjectLockEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+            assertEquals(processRunner.runWithSuspendAndResume(ParallelProcessingUnitSample.class, parameterList, 3, 100L, 1), TOTAL_UNITS);
+            assertTrue(processRunner.getSuspendCounter() >= 1);
+
+            StripedObjectLockManager objectLockManager = new StripedObjectLockManager();
+            assertEquals(2, objectLockManager.lock(Arrays.asList("a", "b")).size());
+            assertEquals(1, objectLockManager.lock(Arrays.asList("a", "c")).size());
+
+            recording.stop();
+            recording.dump(file);
+
+            final Map<String, List<RecordedEvent>> eventMap = new HashMap<String, List<RecordedEvent>>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                eventMap.computeIfAbsent(event.getEventType().getName(), k -> new ArrayList<RecordedEvent>()).add(event);
+            }
+
+            assertTrue(eventMap.containsKey(ProcessUnitEvent.NAME));
+            assertTrue(eventMap.containsKey(SuspendEvent.NAME));
+            assertTrue(eventMap.containsKey(ResumeEvent.NAME));
+            assertTrue(eventMap.containsKey(ProcessingActionStatusEvent.NAME));
+            assertTrue(eventMap.containsKey(ObjectLockEvent.NAME));
+
+            long numberOfProcessedUnits = 0;
+            for (RecordedEvent event : eventMap.get(ProcessUnitEvent.NAME)) {
+                if (ParallelProcessingUnitSample.class.getName().equals(event.getClass("processingUnitClass").getName())) {
+                    numberOfProcessedUnits += event.getLong("numberOfProcessedUnits");
+                }
+            }
+            assertTrue(numberOfProcessedUnits > 0);
+
+            final RecordedEvent suspendEvent = eventMap.get(SuspendEvent.NAME).get(0);
+            assertTrue(suspendEvent.getLong("size") > 0);
+            assertEquals(eventMap.get(ResumeEvent.NAME).get(0).getString("id"), suspendEvent.getString("id"));
+
+            boolean hasEnded = false;
+            for (RecordedEvent event : eventMap.get(ProcessingActionStatusEvent.NAME)) {
+                hasEnded |= "ENDED".equals(event.getString("processingActionStatus"));
+            }
+            assertTrue(hasEnded);
+
+            final RecordedEvent objectLockEvent = eventMap.get(ObjectLockEvent.NAME).get(1);
+            assertEquals(1, objectLockEvent.getInt("numberOfLocked"));
+            assertEquals(1, objectLockEvent.getInt("numberOfAlreadyLocked"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * AsyncProcessingUnitRunnableListenerTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.common.bandwidth.IBandwidthThrottling;
+import com.github.toolarium.processing.unit.IProcessingUnitContext;
+import com.github.toolarium.processing.unit.IProcessingUnitProgress;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitProgress;
+import com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitRunnable;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link AsyncProcessingUnitRunnableListener}.
+ *
+ * @author patrick
+ */
+public class AsyncProcessingUnitRunnableListenerTest {
+    private static final long TIMEOUT = 10000L;
+
+
+    /**
+     * Test the progress is coalesced and the state transitions are delivered in order
+     *
+     * @throws InterruptedException in case of interruption
+     */
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        RecordingListener recordingListener = new RecordingListener(new CountDownLatch(1));
+        AsyncProcessingUnitRunnableListener listener = new AsyncProcessingUnitRunnableListener(recordingListener);
+        try {
+            // the dispatcher thread blocks by the first state
+            notifyState(listener, "a", null, ProcessingActionStatus.STARTING);
+            assertTrue(recordingListener.blocked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            for (int i = 1; i <= 50; i++) {
+                notifyProgress(listener, "a", i, i - 1);
+            }
+            notifyProgress(listener, "b", 10, 0);
+            notifyState(listener, "a", ProcessingActionStatus.STARTING, ProcessingActionStatus.RUNNING);
+            notifyState(listener, "a", ProcessingActionStatus.RUNNING, ProcessingActionStatus.ENDED);
+            assertEquals(49L, listener.getNumberOfCoalescedProgressNotifications());
+
+            recordingListener.release.countDown();
+            assertTrue(listener.awaitDelivery(TIMEOUT));
+            assertEquals(List.of("a:null->STARTING", "a:50%(0)", "b:10%(0)", "a:STARTING->RUNNING", "a:RUNNING->ENDED"), recordingListener.notificationList);
+            assertEquals(5L, listener.getNumberOfDeliveredNotifications());
+            assertEquals(0L, listener.getNumberOfDroppedProgressNotifications());
+        } finally {
+            listener.close();
+        }
+    }
+
+
+    /**
+     * Test a progress after a state transition is not coalesced with a progress before it
+     *
+     * @throws InterruptedException in case of interruption
+     */
+    @Test
+    public void testCoalescingAfterState() throws InterruptedException {
+        RecordingListener recordingListener = new RecordingListener(new CountDownLatch(1));
+        AsyncProcessingUnitRunnableListener listener = new AsyncProcessingUnitRunnableListener(recordingListener);
+        try {
+            notifyState(listener, "a", null, ProcessingActionStatus.STARTING);
+            assertTrue(recordingListener.blocked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+            notifyProgress(listener, "a", 10, 0);
+            notifyProgress(listener, "a", 20, 10);
+            notifyState(listener, "a", ProcessingActionStatus.STARTING, ProcessingActionStatus.RUNNING);
+            notifyProgress(listener, "a", 30, 20);
+            notifyProgress(listener, "a", 40, 30);
+            notifyState(listener, "a", ProcessingActionStatus.RUNNING, ProcessingActionStatus.ENDED);
+            notifyProgress(listener, "a", 50, 40);
+            assertEquals(2L, listener.getNumberOfCoalescedProgressNotifications());
+
+            recordingListener.release.countDown();
+            assertTrue(listener.awaitDelivery(TIMEOUT));
+            assertEquals(List.of("a:null->STARTING", "a:20%(0)", "a:STARTING->RUNNING", "a:40%(20)", "a:RUNNING->ENDED", "a:50%(40)"), recordingListener.notificationList);
+        } finally {
+            listener.close();
+        }
+    }
+
+
+    /**
+     * Test the progress is dropped in case the queue is full
+     *
+     * @throws InterruptedException in case of interruption
+     */
+    @Test
+    public void testDropped() throws InterruptedException {
+        RecordingListener recordingListener = new RecordingListener(new CountDownLatch(1));
+        AsyncProcessingUnitRunnableListener listener = new AsyncProcessingUnitRunnableListener(recordingListener, 2);
+        notifyState(listener, "a", null, ProcessingActionStatus.STARTING);
+        assertTrue(recordingListener.blocked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        notifyProgress(listener, "a", 10, 0);
+        notifyProgress(listener, "b", 10, 0);
+        notifyProgress(listener, "c", 10, 0);
+        notifyProgress(listener, "a", 20, 10);
+        assertEquals(1L, listener.getNumberOfCoalescedProgressNotifications());
+        assertEquals(1L, listener.getNumberOfDroppedProgressNotifications());
+        assertEquals(2, listener.getNumberOfQueuedNotifications());
+
+        listener.close();
+        recordingListener.release.countDown();
+        assertTrue(listener.awaitDelivery(TIMEOUT));
+        assertEquals(List.of("a:null->STARTING", "a:20%(0)", "b:10%(0)"), recordingListener.notificationList);
+
+        // closed: the state is delivered directly as soon as the dispatcher thread is terminated, the progress is dropped
+        Thread.sleep(500L);
+        notifyProgress(listener, "a", 30, 20);
+        notifyState(listener, "a", ProcessingActionStatus.STARTING, ProcessingActionStatus.ENDED);
+        assertTrue(listener.awaitDelivery(TIMEOUT));
+        assertEquals(List.of("a:null->STARTING", "a:20%(0)", "b:10%(0)", "a:STARTING->ENDED"), recordingListener.notificationList);
+        assertEquals(2L, listener.getNumberOfDroppedProgressNotifications());
+    }
+
+
+    /**
+     * Test a processing unit runnable with asynchronous listener
+     *
+     * @throws InterruptedException in case of interruption
+     */
+    @Test
+    public void testProcessingUnitRunnable() throws InterruptedException {
+        RecordingListener recordingListener = new RecordingListener(null);
+        ProcessingUnitRunnable processingUnitRunnable = new ProcessingUnitRunnable(null, "test", TestProcessingUnit.class,
+                                                                                   List.of(new Parameter(TestProcessingUnit.NUMBER_OF_UNITS_TO_PROCESS_PARAMETER.getKey(), "200")),
+                                                                                   new ProcessingUnitContext(), recordingListener, true);
+        processingUnitRunnable.run();
+        assertEquals(ProcessingActionStatus.ENDED, processingUnitRunnable.getProcessingActionStatus());
+        assertTrue(recordingListener.ended.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        List<String> stateList = recordingListener.getStateList();
+        assertEquals(List.of("null->STARTING", "STARTING->RUNNING", "RUNNING->ENDING", "ENDING->ENDED"), stateList);
+        assertTrue(recordingListener.notificationList.size() > stateList.size(), recordingListener.notificationList.toString());
+    }
+
+
+    /**
+     * Notify a progress
+     *
+     * @param listener the listener
+     * @param id the id
+     * @param progress the progress in percentage
+     * @param lastProgressInPercentage the last progress in percentage
+     */
+    private void notifyProgress(IProcessingUnitRunnableListener listener, String id, int progress, int lastProgressInPercentage) {
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress();
+        processingUnitProgress.setNumberOfUnitsToProcess(100);
+        processingUnitProgress.setNumberOfProcessedUnits(progress);
+        listener.notifyProcessingUnitProgress(id, null, TestProcessingUnit.class.getName(), null, null, processingUnitProgress, ProcessingActionStatus.RUNNING,
+                                              ProcessingRuntimeStatus.SUCCESSFUL, null, null, null, lastProgressInPercentage);
+    }
+
+
+    /**
+     * Notify a state
+     *
+     * @param listener the listener
+     * @param id the id
+     * @param previousProcessingActionStatus the previous processing action status
+     * @param processingActionStatus the processing action status
+     */
+    private void notifyState(IProcessingUnitRunnableListener listener, String id, ProcessingActionStatus previousProcessingActionStatus, ProcessingActionStatus processingActionStatus) {
+        listener.notifyProcessingUnitState(id, null, TestProcessingUnit.class.getName(), previousProcessingActionStatus, processingActionStatus, null, null, null);
+    }
+
+
+    /**
+     * Records the notifications, the first notification waits until it is released
+     */
+    private static class RecordingListener implements IProcessingUnitRunnableListener {
+        private final List<String> notificationList = new CopyOnWriteArrayList<String>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch ended = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+
+        /**
+         * Constructor for RecordingListener
+         *
+         * @param release the latch to release the first notification or null
+         */
+        RecordingListener(CountDownLatch release) {
+            this.release = release;
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener#notifyProcessingUnitProgress(java.lang.String, java.lang.String, java.lang.String,
+         *      java.util.List, com.github.toolarium.processing.unit.IProcessingUnitContext, com.github.toolarium.processing.unit.IProcessingUnitProgress, com.github.toolarium.processing.unit.dto.ProcessingActionStatus,
+         *      com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus, java.util.List, com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement, com.github.toolarium.common.bandwidth.IBandwidthThrottling, int)
+         */
+        @Override
+        public void notifyProcessingUnitProgress(String id, // CHECKSTYLE IGNORE THIS LINE
+                                                 String name,
+                                                 String processingUnitClass,
+                                                 List<Parameter> parameters,
+                                                 IProcessingUnitContext processingUnitContext,
+                                                 IProcessingUnitProgress processingProgress,
+                                                 ProcessingActionStatus processingActionStatus,
+                                                 ProcessingRuntimeStatus processingRuntimeStatus,
+                                                 List<String> messages,
+                                                 IProcessingUnitRuntimeTimeMeasurement timeMeasurement,
+                                                 IBandwidthThrottling processingUnitThrottling,
+                                                 int lastProgressInPercentage) {
+            notificationList.add(id + ":" + processingProgress.getProgress() + "%(" + lastProgressInPercentage + ")");
+        }
+
+
+        /**
+         * @see com.github.toolarium.processing.unit.runtime.runnable.IProcessingUnitRunnableListener#notifyProcessingUnitState(java.lang.String, java.lang.String, java.lang.String,
+         *      com.github.toolarium.processing.unit.dto.ProcessingActionStatus, com.github.toolarium.processing.unit.dto.ProcessingActionStatus, com.github.toolarium.processing.unit.IProcessingUnitProgress,
+         *      com.github.toolarium.processing.unit.runtime.IProcessingUnitRuntimeTimeMeasurement, com.github.toolarium.processing.unit.IProcessingUnitContext)
+         */
+        @Override
+        public void notifyProcessingUnitState(String id,
+                                              String name,
+                                              String processingUnitClass,
+                                              ProcessingActionStatus previousProcessingActionStatus,
+                                              ProcessingActionStatus processingActionStatus,
+                                              IProcessingUnitProgress processingUnitProgress,
+                                              IProcessingUnitRuntimeTimeMeasurement runtimeTimeMeasurment,
+                                              IProcessingUnitContext processingUnitContext) {
+            notificationList.add(id + ":" + previousProcessingActionStatus + "->" + processingActionStatus);
+            if (release != null && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (ProcessingActionStatus.ENDED.equals(processingActionStatus)) {
+                ended.countDown();
+            }
+        }
+
+
+        /**
+         * Get the state transitions
+         *
+         * @return the state transitions
+         */
+        List<String> getStateList() {
+            List<String> stateList = new CopyOnWriteArrayList<String>();
+            for (String notification : notificationList) {
+                if (notification.contains("->")) {
+                    stateList.add(notification.substring(notification.indexOf(':') + 1));
+                }
+            }
+            return stateList;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * ExponentialBackoffTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.ProcessingUnitSample;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the exponential backoff and the wake-up of an empty processing unit run.
+ *
+ * @author patrick
+ */
+public class ExponentialBackoffTest {
+
+    /**
+     * Test the growth and the cap of the delay
+     */
+    @Test
+    public void testExponentialBackoff() {
+        ExponentialBackoff exponentialBackoff = new ExponentialBackoff(100L, 1000L, 2.0, 0.0);
+        assertFalse(exponentialBackoff.isFixed());
+        assertEquals(100L, exponentialBackoff.getDelay(1));
+        assertEquals(200L, exponentialBackoff.getDelay(2));
+        assertEquals(400L, exponentialBackoff.getDelay(3));
+        assertEquals(800L, exponentialBackoff.getDelay(4));
+        assertEquals(1000L, exponentialBackoff.getDelay(5));
+        assertEquals(1000L, exponentialBackoff.getDelay(Long.MAX_VALUE));
+
+        exponentialBackoff = new ExponentialBackoff(100L, 0L);
+        assertTrue(exponentialBackoff.isFixed());
+        assertEquals(100L, exponentialBackoff.getMaxDelay());
+        assertEquals(100L, exponentialBackoff.getDelay(10));
+    }
+
+
+    /**
+     * Test the bounds of the jitter
+     */
+    @Test
+    public void testExponentialBackoffJitter() {
+        ExponentialBackoff exponentialBackoff = new ExponentialBackoff(100L, 1000L, 2.0, 0.5);
+        for (int i = 0; i < 1000; i++) {
+            long delay = exponentialBackoff.getDelay(3);
+            assertTrue(delay > 200L && delay <= 400L, "Invalid delay " + delay);
+            delay = exponentialBackoff.getDelay(20);
+            assertTrue(delay > 500L && delay <= 1000L, "Invalid delay " + delay);
+        }
+    }
+
+
+    /**
+     * Test the wake-up signal: a signal before the wait is not lost
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testWakeUpSignal() throws InterruptedException {
+        ProcessingUnitWakeUpSignal wakeUpSignal = new ProcessingUnitWakeUpSignal();
+        assertFalse(wakeUpSignal.await(10L));
+
+        wakeUpSignal.wakeUp();
+        long start = System.currentTimeMillis();
+        assertTrue(wakeUpSignal.await(10000L));
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        assertFalse(wakeUpSignal.await(1L));
+
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            wakeUpSignal.wakeUp();
+        });
+        thread.start();
+        start = System.currentTimeMillis();
+        assertTrue(wakeUpSignal.await(10000L));
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        thread.join();
+    }
+
+
+    /**
+     * Test the wake-up of a sleeping empty processing unit run
+     *
+     * @throws InterruptedException in case of an interrupt
+     */
+    @Test
+    public void testEmptyProcessingUnitHandlerWakeUp() throws InterruptedException {
+        EmptyProcessingUnitHandler emptyProcessingUnitHandler = new EmptyProcessingUnitHandler();
+        emptyProcessingUnitHandler.setMaxNumberOfEmptyProcessingUnits(100L);
+        emptyProcessingUnitHandler.setSleepTimeAfterEmptyProcessingUnit(10000L);
+        emptyProcessingUnitHandler.setMaxSleepTimeAfterEmptyProcessingUnit(60000L);
+
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            emptyProcessingUnitHandler.wakeUp();
+        });
+        thread.start();
+        long start = System.currentTimeMillis();
+        assertTrue(emptyProcessingUnitHandler.handleEmptyProcessing("id", "name", ProcessingUnitSample.class, 1L, null));
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        thread.join();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * ProcessingUnitDeadlineTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.ProcessingUnitSample;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitDeadlineThrottling;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the deadline of a processing.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitDeadlineTest {
+
+    /**
+     * Test the parse of a deadline
+     */
+    @Test
+    public void testParse() {
+        assertEquals(Instant.parse("2024-01-31T05:00:00Z"), ProcessingUnitDeadline.parse("2024-01-31T05:00:00Z", 10).getDeadline());
+
+        final ProcessingUnitDeadline deadline = ProcessingUnitDeadline.parse("06:00", 5);
+        assertEquals(5, deadline.getSafetyMargin());
+        assertTrue(deadline.getDeadline().isAfter(Instant.now()));
+        assertTrue(deadline.getDeadline().isBefore(Instant.now().plusSeconds(24 * 3600 + 1)));
+
+        assertThrows(ValidationException.class, () -> ProcessingUnitDeadline.parse("tomorrow", 10));
+        assertThrows(ValidationException.class, () -> ProcessingUnitDeadline.parse("06:00", 100));
+    }
+
+
+    /**
+     * Test the required throughput
+     */
+    @Test
+    public void testRequiredThroughput() {
+        final long now = System.currentTimeMillis();
+        final ProcessingUnitDeadline deadline = new ProcessingUnitDeadline(Instant.ofEpochMilli(now + 10000L), 50);
+        assertEquals(5000L, deadline.getRemainingTime(now));
+        assertEquals(200.0, deadline.getRequiredThroughput(1000, now));
+        assertEquals(0.0, deadline.getRequiredThroughput(0, now));
+        assertEquals(Double.POSITIVE_INFINITY, deadline.getRequiredThroughput(1000, now + 10000L));
+    }
+
+
+    /**
+     * Test the max number of calls per second to the deadline
+     */
+    @Test
+    public void testDeadlineThrottling() {
+        final long now = System.currentTimeMillis();
+        ProcessingUnitDeadlineThrottling deadlineThrottling = new ProcessingUnitDeadlineThrottling(new ProcessingUnitDeadline(Instant.ofEpochMilli(now + 10000L), 0));
+        assertFalse(deadlineThrottling.adjust(1000, now));
+        
+        // 10 units per call, 1000 calls per second are possible
+        deadlineThrottling.addCall(10, 1000000L);
+        assertTrue(deadlineThrottling.adjust(1000, now));
+        assertEquals(Long.valueOf(10L), deadlineThrottling.getMaxNumberOfProcessingUnitCallsPerSecond());
+        assertTrue(deadlineThrottling.isFeasible());
+
+        // the adjust interval has not elapsed
+        assertFalse(deadlineThrottling.adjust(2000, now + 10L));
+        
+        // a small change is ignored
+        assertFalse(deadlineThrottling.adjust(950, now + 1000L));
+        assertEquals(Long.valueOf(10L), deadlineThrottling.getMaxNumberOfProcessingUnitCallsPerSecond());
+
+        // infeasible: no throttling
+        assertTrue(deadlineThrottling.adjust(1000000, now + 2000L));
+        assertNull(deadlineThrottling.getMaxNumberOfProcessingUnitCallsPerSecond());
+        assertFalse(deadlineThrottling.isFeasible());
+        assertTrue(deadlineThrottling.hasBecomeInfeasible());
+        assertFalse(deadlineThrottling.adjust(1000000, now + 3000L));
+        assertFalse(deadlineThrottling.hasBecomeInfeasible());
+    }
+
+
+    /**
+     * Test a processing with an infeasible deadline
+     */
+    @Test
+    public void testInfeasibleDeadline() {
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        processRunner.deadline(new ProcessingUnitDeadline(Instant.now().minusSeconds(1)));
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new Parameter(ProcessingUnitSample.INPUT_FILENAME_PARAMETER.getKey(), "filename"));
+        assertEquals(processRunner.run(ProcessingUnitSample.class, parameters), 10);
+        assertEquals(ProcessingActionStatus.ENDED, processRunner.getProcessingActionStatus());
+        assertEquals(ProcessingRuntimeStatus.WARN, processRunner.getProcessingRuntimeStatus());
+        assertEquals(1, processRunner.getStatusMessageList().size());
+        assertTrue(processRunner.getStatusMessageList().get(0).contains("infeasible"));
+    }
+}
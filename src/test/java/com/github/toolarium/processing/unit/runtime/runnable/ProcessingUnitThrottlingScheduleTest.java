@@ -0,0 +1,147 @@
+/*
+ * ProcessingUnitThrottlingScheduleTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.runtime.runnable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.ProcessingUnitSample;
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.exception.ValidationException;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.runnable.impl.ProcessingUnitRunnable;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnit;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunner;
+import com.github.toolarium.processing.unit.runtime.test.TestProcessingUnitRunnerFactory;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the throttling schedule.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitThrottlingScheduleTest {
+    private static final ZoneId ZONE_ID = ZoneId.systemDefault();
+
+    
+    /**
+     * Test the active profile of a schedule
+     */
+    @Test
+    public void testSchedule() {
+        final ProcessingUnitThrottlingSchedule schedule = ProcessingUnitThrottlingSchedule.parse("MON-FRI 08:00-18:00=200; SAT,SUN 22:00-06:00=50; *=unlimited");
+        assertEquals(2, schedule.getProfileList().size());
+        assertNull(schedule.getDefaultMaxNumberOfProcessingUnitCallsPerSecond());
+        
+        // 2024-01-15 is a monday
+        assertEquals(Long.valueOf(200L), schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(15, 8, 0)));
+        assertEquals(Long.valueOf(200L), schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(19, 17, 59)));
+        assertNull(schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(15, 18, 0)));
+        assertNull(schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(20, 12, 0)));
+        
+        // the window after midnight belongs to the day before
+        assertEquals(Long.valueOf(50L), schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(20, 23, 0)));
+        assertEquals(Long.valueOf(50L), schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(21, 5, 0)));
+        assertEquals(Long.valueOf(50L), schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(22, 5, 0)));
+        assertNull(schedule.getMaxNumberOfProcessingUnitCallsPerSecond(time(20, 5, 0)));
+        
+        assertEquals(schedule, ProcessingUnitThrottlingSchedule.parse(schedule.toString()));
+        assertEquals(Long.valueOf(10L), ProcessingUnitThrottlingSchedule.parse("*=10").getMaxNumberOfProcessingUnitCallsPerSecond(Instant.now()));
+    }
+
+
+    /**
+     * Test invalid schedules
+     */
+    @Test
+    public void testInvalidSchedule() {
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse(""));
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse("08:00-18:00"));
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse("08:00-18:00=fast"));
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse("08:00=200"));
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse("XY 08:00-18:00=200"));
+        assertThrows(ValidationException.class, () -> ProcessingUnitThrottlingSchedule.parse("8h-18h=200"));
+    }
+
+
+    /**
+     * Test the throttling schedule is kept on a suspend and resume
+     */
+    @Test
+    public void testScheduleWithSuspendAndResume() {
+        final ProcessingUnitThrottlingSchedule schedule = ProcessingUnitThrottlingSchedule.parse("00:00-00:00=1000");
+        TestProcessingUnitRunner processRunner = TestProcessingUnitRunnerFactory.getInstance().getProcessingUnitRunner();
+        processRunner.throttlingSchedule(schedule);
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new Parameter(ProcessingUnitSample.INPUT_FILENAME_PARAMETER.getKey(), "filename"));
+        assertEquals(processRunner.runWithSuspendAndResume(ProcessingUnitSample.class, parameters, 3L, 10L, 5, null), 10);
+        assertEquals(ProcessingActionStatus.ENDED, processRunner.getProcessingActionStatus());
+        assertTrue(processRunner.getSuspendCounter() > 0);
+        assertEquals(schedule, processRunner.getThrottlingSchedule());
+        assertNotNull(processRunner.getProcessingUnitThrottling());
+    }
+    
+    
+    /**
+     * Test the lower one of the throttling schedule and the max calls per second is used
+     */
+    @Test
+    public void testScheduleWithMaxNumberOfProcessingUnitCallsPerSecond() {
+        ProcessingUnitRunnable processingUnitRunnable = new ProcessingUnitRunnable(null, "test", TestProcessingUnit.class,
+                                                                                   List.of(new Parameter(TestProcessingUnit.NUMBER_OF_UNITS_TO_PROCESS_PARAMETER.getKey(), "10")),
+                                                                                   new ProcessingUnitContext(), null);
+        processingUnitRunnable.setThrottlingSchedule(ProcessingUnitThrottlingSchedule.parse("*=100"));
+        assertEquals(Long.valueOf(100L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(10L);
+        assertEquals(Long.valueOf(10L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(1000L);
+        assertEquals(Long.valueOf(100L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(null);
+        assertEquals(Long.valueOf(100L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(10L);
+        processingUnitRunnable.setThrottlingSchedule(ProcessingUnitThrottlingSchedule.parse("*=unlimited"));
+        assertEquals(Long.valueOf(10L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        processingUnitRunnable.setThrottlingSchedule(ProcessingUnitThrottlingSchedule.parse("*=5"));
+        assertEquals(Long.valueOf(5L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        processingUnitRunnable.setThrottlingSchedule(null);
+        assertEquals(Long.valueOf(10L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(null);
+        assertNull(processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+        
+        // the running processing unit is throttled by the lower one as well
+        processingUnitRunnable.setThrottlingSchedule(ProcessingUnitThrottlingSchedule.parse("*=1000"));
+        processingUnitRunnable.setMaxNumberOfProcessingUnitCallsPerSecond(500L);
+        processingUnitRunnable.run();
+        assertEquals(ProcessingActionStatus.ENDED, processingUnitRunnable.getProcessingActionStatus());
+        assertEquals(Long.valueOf(500L), processingUnitRunnable.getMaxNumberOfProcessingUnitCallsPerSecond());
+    }
+    
+    
+    /**
+     * Get a time in january 2024
+     *
+     * @param day the day
+     * @param hour the hour
+     * @param minute the minute
+     * @return the time
+     */
+    private Instant time(int day, int hour, int minute) {
+        return ZonedDateTime.of(2024, 1, day, hour, minute, 0, 0, ZONE_ID).toInstant();
+    }
+}
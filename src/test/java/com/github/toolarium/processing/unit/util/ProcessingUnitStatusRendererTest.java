@@ -0,0 +1,97 @@
+/*
+ * ProcessingUnitStatusRendererTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.processing.unit.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.processing.unit.dto.Parameter;
+import com.github.toolarium.processing.unit.dto.ProcessingActionStatus;
+import com.github.toolarium.processing.unit.dto.ProcessingRuntimeStatus;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitContext;
+import com.github.toolarium.processing.unit.runtime.ProcessingUnitProgress;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the {@link ProcessingUnitStatusRenderer}.
+ *
+ * @author patrick
+ */
+public class ProcessingUnitStatusRendererTest {
+    private static final String ID = "myId";
+    private static final String NAME = "my \"name\"";
+    private static final String CLASS_NAME = "com.github.toolarium.processing.unit.MyProcessingUnit";
+
+
+    /**
+     * Test the text is the same as the one of the processing unit util
+     */
+    @Test
+    public void testText() {
+        ProcessingUnitStatusRenderer renderer = new ProcessingUnitStatusRenderer(ID, NAME, CLASS_NAME);
+        ProcessingUnitContext processingUnitContext = new ProcessingUnitContext();
+        processingUnitContext.set("key", "value");
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress();
+        processingUnitProgress.setNumberOfUnitsToProcess(10);
+        processingUnitProgress.setNumberOfProcessedUnits(4);
+        processingUnitProgress.setNumberOfFailedUnits(1);
+        List<Parameter> parameters = List.of(new Parameter("a", "1"), new Parameter("b", "2"));
+
+        assertEquals(ProcessingUnitUtil.getInstance().toString(ID, NAME, CLASS_NAME), renderer.getProcessingInfo());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(ProcessingUnitUtil.getInstance().toString(ID, NAME, CLASS_NAME, parameters, processingUnitContext, processingUnitProgress,
+                                                                   ProcessingActionStatus.RUNNING, ProcessingRuntimeStatus.WARN, List.of("message"), null, null),
+                         renderer.toString(parameters, processingUnitContext, processingUnitProgress, ProcessingActionStatus.RUNNING, ProcessingRuntimeStatus.WARN, List.of("message"), null, null));
+        }
+
+        // replaced parameters are prepared again
+        List<Parameter> resumeParameters = List.of(new Parameter("c", "3"));
+        assertTrue(renderer.toString(resumeParameters, null, null, ProcessingActionStatus.RESUMING, null, null, null, null).contains("Parameters: [c=[3]]"));
+
+        // a changed content of the same parameter list is prepared again
+        List<Parameter> changedParameters = new ArrayList<Parameter>(resumeParameters);
+        assertTrue(renderer.toString(changedParameters, null, null, ProcessingActionStatus.RUNNING, null, null, null, null).contains("Parameters: [c=[3]]"));
+        changedParameters.add(new Parameter("d", "4"));
+        assertTrue(renderer.toString(changedParameters, null, null, ProcessingActionStatus.RUNNING, null, null, null, null).contains("Parameters: [c=[3], d=[4]]"));
+
+        StringBuilder builder = new StringBuilder("> ");
+        assertEquals("> " + ProcessingUnitUtil.getInstance().toString(ID, NAME, CLASS_NAME) + " Status ENDED",
+                     renderer.render(builder, null, null, null, ProcessingActionStatus.ENDED, null, null, null, null).toString());
+    }
+
+
+    /**
+     * Test the JSON object
+     */
+    @Test
+    public void testJson() {
+        ProcessingUnitStatusRenderer renderer = new ProcessingUnitStatusRenderer(ID, NAME, CLASS_NAME);
+        ProcessingUnitContext processingUnitContext = new ProcessingUnitContext();
+        processingUnitContext.set("key", "line1\nline2");
+        ProcessingUnitProgress processingUnitProgress = new ProcessingUnitProgress();
+        processingUnitProgress.setNumberOfUnitsToProcess(10);
+        processingUnitProgress.setNumberOfProcessedUnits(4);
+        processingUnitProgress.setNumberOfFailedUnits(1);
+        List<Parameter> parameters = List.of(new Parameter("a", "1"));
+
+        final String json = renderer.toJson(parameters, processingUnitContext, processingUnitProgress, ProcessingActionStatus.RUNNING, ProcessingRuntimeStatus.WARN, List.of("a\\b"), null, null);
+        assertTrue(json.startsWith("{\"id\":\"myId\",\"name\":\"my \\\"name\\\"\",\"processingUnitClass\":\"" + CLASS_NAME + "\",\"processingActionStatus\":\"RUNNING\""), json);
+        assertTrue(json.contains(",\"processingRuntimeStatus\":\"WARN\""), json);
+        assertTrue(json.contains(",\"numberOfUnitsToProcess\":10,\"numberOfProcessedUnits\":4,\"numberOfSuccessfulUnits\":3,\"numberOfFailedUnits\":1,\"numberOfUnprocessedUnits\":6"), json);
+        assertTrue(json.contains(",\"parameters\":{\"a\":[\"1\"]}"), json);
+        assertTrue(json.contains(",\"context\":{\"key\":\"line1\\nline2\"}"), json);
+        assertTrue(json.contains(",\"messages\":[\"a\\\\b\"]"), json);
+        assertTrue(json.endsWith("}"), json);
+        assertEquals(json, ProcessingUnitUtil.getInstance().toJson(ID, NAME, CLASS_NAME, parameters, processingUnitContext, processingUnitProgress,
+                                                                   ProcessingActionStatus.RUNNING, ProcessingRuntimeStatus.WARN, List.of("a\\b"), null, null));
+
+        assertEquals("{\"id\":\"myId\",\"name\":\"my \\\"name\\\"\",\"processingUnitClass\":\"" + CLASS_NAME + "\"}",
+                     renderer.toJson(null, null, null, null, null, null, null, null));
+    }
+}
@@ -74,13 +74,13 @@ public class ProcessingUnitStatusUtilTest {
                                        new ProcessingUnitStatus().increaseNumberOfSuccessfulUnits().increaseNumberOfFailedUnits().increaseNumberOfSuccessfulUnits()).statistic("a", 10.0).statistic("b", 11.0)
                                        .build(), 
                                    ProcessingRuntimeStatus.SUCCESSFUL, 2L, 1L, null, null, List.of("a=10.0", "b=11.0"));
-        assertProcessingUnitProgress(processingUnitProgress, ProcessingRuntimeStatus.SUCCESSFUL, 100 /* progress */, 4 /* total */, 0 /* unprocessed */, 4 /* processed */, 3 /* successful */, 1 /* failed */, List.of("a=8.0", "b=10.0")); 
+        assertProcessingUnitProgress(processingUnitProgress, ProcessingRuntimeStatus.SUCCESSFUL, 100 /* progress */, 6 /* total */, 0 /* unprocessed */, 6 /* processed */, 5 /* successful */, 1 /* failed */, List.of("a=8.0", "b=10.0")); 
         
         assertProcessingUnitStatus(ProcessingUnitStatusUtil.getInstance().aggregateProcessingUnitStatus(new ProcessingUnitStatusBuilder(processingUnitProgress), 
                                       new ProcessingUnitStatus().increaseNumberOfSuccessfulUnits().increaseNumberOfFailedUnits().increaseNumberOfSuccessfulUnits().setNumberOfUnprocessedUnits(20L))
                                       .build(), 
                                    ProcessingRuntimeStatus.SUCCESSFUL, 2L, 1L, 20L, null, null);
-        assertProcessingUnitProgress(processingUnitProgress, ProcessingRuntimeStatus.SUCCESSFUL, 20 /* progress */, 25 /* total */, 20 /* unprocessed */, 5 /* processed */, 3 /* successful */, 2 /* failed */, List.of("a=8.0", "b=10.0")); 
+        assertProcessingUnitProgress(processingUnitProgress, ProcessingRuntimeStatus.SUCCESSFUL, 31 /* progress */, 29 /* total */, 20 /* unprocessed */, 9 /* processed */, 7 /* successful */, 2 /* failed */, List.of("a=8.0", "b=10.0")); 
     }
 
     